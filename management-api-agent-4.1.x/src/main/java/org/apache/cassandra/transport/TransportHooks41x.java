@@ -0,0 +1,267 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package org.apache.cassandra.transport;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import org.apache.cassandra.service.QueryState;
+import org.apache.cassandra.transport.ClientResourceLimits.Overload;
+import org.apache.cassandra.transport.messages.ErrorMessage;
+import org.apache.cassandra.utils.MonotonicClock;
+
+/**
+ * The transport internals whose signatures changed during the 4.1 releases, resolved once for the
+ * running Cassandra version so that requests don't go through reflection.
+ *
+ * <ul>
+ *   <li>4.1.3 added a start time to Dispatcher.processRequest (CASSANDRA-15241)
+ *   <li>4.1.6 replaced the start times by Dispatcher.RequestTime (CASSANDRA-19534)
+ *   <li>4.1.12 moved the stream id from the messages to their envelope (CASSANDRA-21508)
+ * </ul>
+ */
+final class TransportHooks41x {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final String REQUEST_TIME_CLASS =
+      "org.apache.cassandra.transport.Dispatcher$RequestTime";
+
+  final boolean useCassandra21508TransportApi;
+  final ChannelHandler protocolEncoder;
+  // (Message)int, before CASSANDRA-21508 only
+  private final MethodHandle getStreamId;
+  // (Message, int)void, before CASSANDRA-21508 only
+  private final MethodHandle setStreamId;
+  // (Message, ProtocolVersion, int)Envelope
+  private final MethodHandle encode;
+  // (Throwable)ErrorMessage and (Throwable, Predicate)ErrorMessage
+  private final MethodHandle errorFromException;
+  private final MethodHandle errorFromExceptionWithHandler;
+  // (Message.Request, QueryState, long)Message.Response
+  private final MethodHandle execute;
+  // (Channel, Message.Request, Overload)Message.Response
+  private final MethodHandle processRequest;
+
+  private TransportHooks41x(boolean useCassandra21508TransportApi)
+      throws ReflectiveOperationException {
+    this.useCassandra21508TransportApi = useCassandra21508TransportApi;
+
+    Class<?> requestTime;
+    try {
+      requestTime = Class.forName(REQUEST_TIME_CLASS);
+    } catch (ClassNotFoundException e) {
+      // 4.1.5 and older
+      requestTime = null;
+    }
+    MethodHandle forImmediateExecution =
+        requestTime == null
+            ? null
+            : unreflect(requestTime.getDeclaredMethod("forImmediateExecution"));
+
+    if (useCassandra21508TransportApi) {
+      getStreamId = null;
+      setStreamId = null;
+      encode =
+          unreflect(Message.class.getMethod("encode", ProtocolVersion.class, int.class))
+              .asType(
+                  MethodType.methodType(
+                      Envelope.class, Message.class, ProtocolVersion.class, int.class));
+    } else {
+      getStreamId =
+          unreflect(Message.class.getMethod("getStreamId"))
+              .asType(MethodType.methodType(int.class, Message.class));
+      setStreamId =
+          unreflect(Message.class.getMethod("setStreamId", int.class))
+              .asType(MethodType.methodType(void.class, Message.class, int.class));
+      encode =
+          MethodHandles.dropArguments(
+                  unreflect(Message.class.getMethod("encode", ProtocolVersion.class)), 2, int.class)
+              .asType(
+                  MethodType.methodType(
+                      Envelope.class, Message.class, ProtocolVersion.class, int.class));
+    }
+
+    String fromException =
+        useCassandra21508TransportApi ? "fromExceptionNoStreamId" : "fromException";
+    errorFromException =
+        unreflect(ErrorMessage.class.getMethod(fromException, Throwable.class))
+            .asType(MethodType.methodType(ErrorMessage.class, Throwable.class));
+    errorFromExceptionWithHandler =
+        unreflect(ErrorMessage.class.getMethod(fromException, Throwable.class, Predicate.class))
+            .asType(
+                MethodType.methodType(ErrorMessage.class, Throwable.class, Predicate.class));
+
+    MethodType executeType =
+        MethodType.methodType(
+            Message.Response.class, Message.Request.class, QueryState.class, long.class);
+    if (requestTime != null) {
+      MethodHandle executeWithRequestTime =
+          MethodHandles.collectArguments(
+              unreflect(
+                  Message.Request.class.getDeclaredMethod(
+                      "execute", QueryState.class, requestTime)),
+              2,
+              forImmediateExecution);
+      execute =
+          MethodHandles.dropArguments(executeWithRequestTime, 2, long.class).asType(executeType);
+    } else {
+      execute =
+          unreflect(
+                  Message.Request.class.getDeclaredMethod(
+                      "execute", QueryState.class, long.class))
+              .asType(executeType);
+    }
+
+    MethodType processRequestType =
+        MethodType.methodType(
+            Message.Response.class, Channel.class, Message.Request.class, Overload.class);
+    if (requestTime != null) {
+      processRequest =
+          MethodHandles.collectArguments(
+                  unreflect(
+                      Dispatcher.class.getDeclaredMethod(
+                          "processRequest",
+                          Channel.class,
+                          Message.Request.class,
+                          Overload.class,
+                          requestTime)),
+                  3,
+                  forImmediateExecution)
+              .asType(processRequestType);
+    } else {
+      MethodHandle withStartTime = null;
+      try {
+        // 4.1.3 to 4.1.5
+        withStartTime =
+            unreflect(
+                Dispatcher.class.getDeclaredMethod(
+                    "processRequest",
+                    Channel.class,
+                    Message.Request.class,
+                    Overload.class,
+                    long.class));
+      } catch (NoSuchMethodException e) {
+        // 4.1.2 and older
+      }
+      processRequest =
+          withStartTime != null
+              ? MethodHandles.collectArguments(
+                      withStartTime,
+                      3,
+                      LOOKUP.findStatic(
+                          TransportHooks41x.class, "approxNow", MethodType.methodType(long.class)))
+                  .asType(processRequestType)
+              : unreflect(
+                      Dispatcher.class.getDeclaredMethod(
+                          "processRequest", Channel.class, Message.Request.class, Overload.class))
+                  .asType(processRequestType);
+    }
+
+    String protocolEncoderClass =
+        useCassandra21508TransportApi
+            ? "org.apache.cassandra.transport.PreV5Handlers$EventMessageEncoder"
+            : "org.apache.cassandra.transport.PreV5Handlers$ProtocolEncoder";
+    protocolEncoder =
+        (ChannelHandler) Class.forName(protocolEncoderClass).getField("instance").get(null);
+  }
+
+  /**
+   * Resolve the hooks of the running Cassandra version.
+   *
+   * @throws IllegalStateException if the version has signatures the agent doesn't know about
+   */
+  static TransportHooks41x resolve(String version) {
+    try {
+      return new TransportHooks41x(UnixSocketServer41x.useCassandra21508TransportApi(version));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          String.format(
+              "Unsupported transport internals in Cassandra %s, the Management API agent can't"
+                  + " serve the management socket",
+              version),
+          e);
+    }
+  }
+
+  int getStreamId(Message.Request request) {
+    if (useCassandra21508TransportApi) {
+      return request.getSource().header.streamId;
+    }
+    try {
+      return (int) getStreamId.invokeExact((Message) request);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  /** The object to write for a response, the envelope or the message with its stream id. */
+  Object responseForWrite(Message.Response response, ProtocolVersion version, int streamId) {
+    if (useCassandra21508TransportApi) {
+      return encode(response, version, streamId);
+    }
+    try {
+      setStreamId.invokeExact((Message) response, streamId);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+    return response;
+  }
+
+  Envelope encode(Message message, ProtocolVersion version, int streamId) {
+    try {
+      return (Envelope) encode.invokeExact(message, version, streamId);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  ErrorMessage errorFromException(
+      Throwable throwable, Predicate<Throwable> unexpectedExceptionHandler) {
+    try {
+      return unexpectedExceptionHandler == null
+          ? (ErrorMessage) errorFromException.invokeExact(throwable)
+          : (ErrorMessage)
+              errorFromExceptionWithHandler.invokeExact(
+                  throwable, (Predicate) unexpectedExceptionHandler);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  Message.Response execute(Message.Request request, QueryState state, long queryStartNanoTime) {
+    try {
+      return (Message.Response) execute.invokeExact(request, state, queryStartNanoTime);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  Message.Response processRequest(Channel channel, Message.Request request, Overload overload) {
+    try {
+      return (Message.Response) processRequest.invokeExact(channel, request, overload);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  private static long approxNow() {
+    return MonotonicClock.Global.approxTime.now();
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    method.setAccessible(true);
+    return LOOKUP.unreflect(method);
+  }
+
+  private static RuntimeException propagate(Throwable t) {
+    Throwables.throwIfUnchecked(t);
+    throw new RuntimeException(t);
+  }
+}
@@ -13,18 +13,22 @@ import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.cassandra.cql3.ColumnIdentifier;
 import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.cql3.ResultSet;
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.exceptions.RequestExecutionException;
 import org.apache.cassandra.serializers.TypeSerializer;
 import org.apache.cassandra.service.ClientState;
+import org.apache.cassandra.service.pager.PagingState;
 import org.apache.cassandra.transport.messages.ResultMessage;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
@@ -41,6 +45,12 @@ public class RpcMethod4x implements RpcMethod {
   private final ObjectSerializer4x retSerializer;
   private final OptionalInt clientStateArgIdx;
   private final List<Pair<Integer, RpcParam>> params;
+  private final int[] argIndexes;
+  private final boolean multiRow;
+  private final boolean stableOrder;
+  private final boolean async;
+  private final RpcLane lane;
+  private final RpcInvoker invoker;
 
   <R> RpcMethod4x(Method method, RpcObject rpcObject) {
     this.method = method;
@@ -87,27 +97,57 @@ public class RpcMethod4x implements RpcMethod {
             .collect(Collectors.toList());
 
     this.argNames = params.stream().map(p -> p.getValue().name()).collect(Collectors.toList());
+    this.argIndexes = params.stream().mapToInt(Pair::getKey).toArray();
 
-    if (method.getAnnotation(Rpc.class).multiRow()) {
+    this.multiRow = method.getAnnotation(Rpc.class).multiRow();
+    this.stableOrder = method.getAnnotation(Rpc.class).stableOrder();
+    this.lane = method.getAnnotation(Rpc.class).lane();
+    this.async = CompletableFuture.class.isAssignableFrom(method.getReturnType());
+    if (multiRow) {
       Preconditions.checkArgument(
-          Collection.class.isAssignableFrom(method.getReturnType()),
-          "If mutli-row result set is requested, the method return type must be an implementation of java.util.Collection");
+          Iterable.class.isAssignableFrom(method.getReturnType())
+              || Iterator.class.isAssignableFrom(method.getReturnType())
+              || Stream.class.isAssignableFrom(method.getReturnType()),
+          "If multi-row result set is requested, the method return type must be an Iterable, an Iterator or a Stream");
       Type elemType =
           ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
-      Preconditions.checkArgument(
-          elemType instanceof Class<?>,
-          "If multi-row result set is request, the element type must be a Class");
-      this.retSerializer = new ObjectSerializer4x<>((Class<?>) elemType);
+      if (elemType instanceof ParameterizedType) {
+        Class<?> rawType = (Class<?>) ((ParameterizedType) elemType).getRawType();
+        this.retSerializer = new ObjectSerializer4x<>(rawType, elemType);
+      } else {
+        Preconditions.checkArgument(
+            elemType instanceof Class<?>,
+            "If multi-row result set is request, the element type must be a Class");
+        this.retSerializer = new ObjectSerializer4x<>((Class<?>) elemType);
+      }
+    } else if (async) {
+      // Serialize the value the future completes with
+      Type resultType =
+          ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
+      if (resultType == Void.class) {
+        resultType = void.class;
+      }
+      Class<?> resultClass =
+          resultType instanceof ParameterizedType
+              ? (Class<?>) ((ParameterizedType) resultType).getRawType()
+              : (Class<?>) resultType;
+      this.retSerializer = new ObjectSerializer4x<>(resultClass, resultType);
     } else {
       this.retSerializer =
           new ObjectSerializer4x<>(method.getReturnType(), method.getGenericReturnType());
     }
+
+    this.invoker = RpcResultCache.instance.wrap(method, RpcInvoker.create(method, rpcObject.raw));
   }
 
   public String getName() {
     return name;
   }
 
+  public RpcLane getLane() {
+    return lane;
+  }
+
   public int getArgumentCount() {
     return argTypes.size();
   }
@@ -122,13 +162,47 @@ public class RpcMethod4x implements RpcMethod {
 
   public ResultMessage execute(ClientState clientState, List<ByteBuffer> parameters)
       throws RequestExecutionException {
+    Object result;
     try {
-      RpcClientState rpcClientState = RpcClientState.fromClientState(clientState);
-      LazyRef<Object[]> rpcArgs = LazyRef.of(() -> getMethodArgs(rpcClientState, parameters));
-
       // endpoint is not explicitly provided or points to this node -> execute locally
-      return toResultMessage(method.invoke(rpcObject.raw, rpcArgs.get()));
-    } catch (Exception e) {
+      result = invoker.invoke(getMethodArgs(clientState, parameters));
+      if (!async) {
+        return toResultMessage(result);
+      }
+    } catch (Throwable e) {
+      throw createRpcExecutionException(e);
+    }
+    return RpcFutureResult.of(
+        (CompletableFuture<?>) result, this::toResultMessage, this::createRpcExecutionException);
+  }
+
+  @Override
+  public ResultMessage execute(
+      ClientState clientState, List<ByteBuffer> parameters, QueryOptions options)
+      throws RequestExecutionException {
+    int pageSize = options.getPageSize();
+    if (!multiRow || pageSize <= 0) {
+      return execute(clientState, parameters);
+    }
+
+    try {
+      PagingState pagingState = options.getPagingState();
+      RpcCursor cursor =
+          RpcCursor.open(
+              rpcObject.getName() + "." + name,
+              parameters,
+              stableOrder,
+              pagingState == null ? null : pagingState.partitionKey,
+              () -> invoker.invoke(getMethodArgs(clientState, parameters)));
+      ResultSet resultSet =
+          retSerializer.toMultiRowResultSet(cursor.next(pageSize), rpcObject.getName(), name);
+      ByteBuffer next = cursor.suspend();
+      if (next != null) {
+        resultSet.metadata.setHasMorePages(
+            new PagingState(next, null, Integer.MAX_VALUE, Integer.MAX_VALUE));
+      }
+      return new ResultMessage.Rows(resultSet);
+    } catch (Throwable e) {
       throw createRpcExecutionException(e);
     }
   }
@@ -139,19 +213,34 @@ public class RpcMethod4x implements RpcMethod {
     return RpcExecutionException.create(msg, e);
   }
 
-  private Object[] getMethodArgs(RpcClientState rpcClientState, Collection<ByteBuffer> parameters) {
+  public Object invoke(RpcClientState clientState, List<ByteBuffer> parameters) throws Throwable {
+    return invoker.invoke(getMethodArgs(clientState, parameters));
+  }
+
+  private Object[] getMethodArgs(ClientState clientState, List<ByteBuffer> parameters) {
+    return getMethodArgs(
+        clientStateArgIdx.isPresent() ? RpcClientState.fromClientState(clientState) : null,
+        parameters);
+  }
+
+  private Object[] getMethodArgs(RpcClientState clientState, List<ByteBuffer> parameters) {
     Object[] args = new Object[method.getParameterCount()];
-    clientStateArgIdx.ifPresent(idx -> args[idx] = rpcClientState);
-    Object[] rpcParams = deserializeParameters(parameters);
-    for (int i = 0; i < rpcParams.length; i++) {
-      args[params.get(i).getKey()] = rpcParams[i];
+    if (clientStateArgIdx.isPresent()) {
+      args[clientStateArgIdx.getAsInt()] = clientState;
+    }
+
+    int i = 0;
+    for (ByteBuffer arg : parameters) {
+      args[argIndexes[i]] = arg != null ? argSerializers.get(i).deserialize(arg) : null;
+      i++;
     }
     return args;
   }
 
   public ResultSet toResultSet(Object object) {
-    if (method.getAnnotation(Rpc.class).multiRow()) {
-      return retSerializer.toMultiRowResultSet((Collection) object, rpcObject.getName(), name);
+    if (multiRow) {
+      return retSerializer.toMultiRowResultSet(
+          (Collection) RpcCursor.collect(object), rpcObject.getName(), name);
     } else {
       return retSerializer.toResultSet(object, rpcObject.getName(), name);
     }
@@ -164,16 +253,4 @@ public class RpcMethod4x implements RpcMethod {
       return new ResultMessage.Rows(toResultSet(object));
     }
   }
-
-  private Object[] deserializeParameters(Collection<ByteBuffer> args) {
-    Object[] deserialized = new Object[args.size()];
-
-    int i = 0;
-    for (ByteBuffer arg : args) {
-      deserialized[i] = arg != null ? argSerializers.get(i).deserialize(arg) : null;
-      i++;
-    }
-
-    return deserialized;
-  }
 }
@@ -5,6 +5,7 @@
  */
 package com.datastax.mgmtapi.shim;
 
+import com.datastax.mgmtapi.rpc.RpcDeadline;
 import com.datastax.mgmtapi.shims.CassandraAPI;
 import com.datastax.mgmtapi.shims.RpcStatementShim;
 import com.google.common.base.Supplier;
@@ -30,6 +31,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.cassandra.auth.IRoleManager;
 import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.db.Keyspace;
 import org.apache.cassandra.db.compaction.CompactionManager;
@@ -144,6 +146,8 @@ public class CassandraAPI4x implements CassandraAPI {
 
       // For each range check the endpoints can achieve cl using the midpoint
       for (Range<Token> range : tokenRanges) {
+        // Stop once the caller gave up, large rings take a while
+        RpcDeadline.check();
         Token midpoint = partitioner.midpoint(range.left, range.right);
         EndpointsForRange endpoints =
             mockStrategy.calculateNaturalReplicas(midpoint, tokenMetadata);
@@ -341,8 +345,9 @@ public class CassandraAPI4x implements CassandraAPI {
   }
 
   @Override
-  public RpcStatementShim makeRpcStatement(String method, String[] params) {
-    return new RpcStatement(method, params);
+  public RpcStatementShim makeRpcStatement(
+      String method, String[] params, List<ColumnSpecification> bindVariables) {
+    return new RpcStatement(method, params, bindVariables);
   }
 
   @Override
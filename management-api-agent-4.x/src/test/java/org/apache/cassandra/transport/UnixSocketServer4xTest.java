@@ -0,0 +1,128 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package org.apache.cassandra.transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.cassandra.auth.AllowAllAuthenticator;
+import org.apache.cassandra.config.Config;
+import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.net.FrameDecoderCrc;
+import org.apache.cassandra.net.FrameDecoderLZ4;
+import org.apache.cassandra.transport.messages.OptionsMessage;
+import org.apache.cassandra.transport.messages.StartupMessage;
+import org.apache.cassandra.transport.messages.SupportedMessage;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class UnixSocketServer4xTest {
+
+  @BeforeClass
+  public static void setup() {
+    DatabaseDescriptor.clientInitialization();
+    // The buffer pools and the resource limits of the v5 pipelines read these settings, which
+    // the client initialization leaves unset
+    Config config = DatabaseDescriptor.getRawConfig();
+    config.networking_cache_size_in_mb = 16;
+    config.file_cache_size_in_mb = 16;
+    config.native_transport_max_concurrent_requests_in_bytes = 1 << 20;
+    config.native_transport_max_concurrent_requests_in_bytes_per_ip = 1 << 20;
+    DatabaseDescriptor.setAuthenticator(new AllowAllAuthenticator());
+  }
+
+  @Test
+  public void advertisesProtocolV5() throws Exception {
+    EmbeddedChannel channel = newChannel();
+
+    channel.writeInbound(encode(new OptionsMessage(), ProtocolVersion.V4));
+
+    SupportedMessage supported = (SupportedMessage) readResponse(channel);
+    assertThat(supported.supported.get(StartupMessage.PROTOCOL_VERSIONS))
+        .anyMatch(version -> version.startsWith("5/"));
+  }
+
+  @Test
+  public void keepsTheEnvelopesOfV4() throws Exception {
+    EmbeddedChannel channel = newChannel();
+
+    channel.writeInbound(encode(startup(null), ProtocolVersion.V4));
+
+    assertThat(readResponse(channel).type).isEqualTo(Message.Type.READY);
+    assertThat(channel.pipeline().get(UnixSocketServer4x.UnixSockMessage.class)).isNotNull();
+    assertThat(channel.pipeline().get(FrameDecoderCrc.class)).isNull();
+  }
+
+  @Test
+  public void switchesToChecksummedFramesAfterAV5Startup() throws Exception {
+    EmbeddedChannel channel = newChannel();
+
+    channel.writeInbound(encode(startup(null), ProtocolVersion.V5));
+
+    // The READY response is sent with the initial framing
+    assertThat(readResponse(channel).type).isEqualTo(Message.Type.READY);
+    assertThat(channel.pipeline().get(UnixSocketServer4x.PipelineChannelInitializer.class))
+        .isNull();
+    assertThat(channel.pipeline().get(FrameDecoderCrc.class)).isNotNull();
+    assertThat(channel.isOpen()).isTrue();
+  }
+
+  @Test
+  public void compressesTheV5FramesWithLz4() throws Exception {
+    EmbeddedChannel channel = newChannel();
+
+    channel.writeInbound(encode(startup("lz4"), ProtocolVersion.V5));
+
+    assertThat(readResponse(channel).type).isEqualTo(Message.Type.READY);
+    assertThat(channel.pipeline().get(FrameDecoderLZ4.class)).isNotNull();
+    assertThat(channel.pipeline().get(FrameDecoderCrc.class)).isNull();
+  }
+
+  private static EmbeddedChannel newChannel() throws Exception {
+    // Mirrors CassandraDaemonInterceptor, the constructor isn't accessible
+    Constructor<Server.ConnectionTracker> constructor =
+        Server.ConnectionTracker.class.getDeclaredConstructor();
+    constructor.setAccessible(true);
+    return new EmbeddedChannel(UnixSocketServer4x.makeSocketInitializer(constructor.newInstance()));
+  }
+
+  private static StartupMessage startup(String compression) {
+    Map<String, String> options = new HashMap<>();
+    options.put(StartupMessage.CQL_VERSION, "3.0.0");
+    if (compression != null) {
+      options.put(StartupMessage.COMPRESSION, compression);
+    }
+    return new StartupMessage(options);
+  }
+
+  private static ByteBuf encode(Message message, ProtocolVersion version) {
+    EmbeddedChannel encoder = new EmbeddedChannel(Envelope.Encoder.instance);
+    encoder.writeOutbound(message.encode(version));
+    return readOutbound(encoder);
+  }
+
+  private static Message readResponse(EmbeddedChannel channel) {
+    Envelope envelope = new Envelope.Decoder().decode(readOutbound(channel));
+    assertThat(envelope).isNotNull();
+    return Message.Decoder.decodeMessage(channel, envelope);
+  }
+
+  private static ByteBuf readOutbound(EmbeddedChannel channel) {
+    CompositeByteBuf bytes = Unpooled.compositeBuffer();
+    for (Object message = channel.readOutbound();
+        message != null;
+        message = channel.readOutbound()) {
+      bytes.addComponent(true, (ByteBuf) message);
+    }
+    return bytes;
+  }
+}
@@ -5,6 +5,7 @@
  */
 package com.datastax.mgmtapi.shim;
 
+import com.datastax.mgmtapi.rpc.RpcDeadline;
 import com.datastax.mgmtapi.shims.CassandraAPI;
 import com.datastax.mgmtapi.shims.RpcStatementShim;
 import com.google.common.base.Supplier;
@@ -31,6 +32,7 @@ import java.util.stream.Collectors;
 import org.apache.cassandra.auth.CassandraAuthorizer;
 import org.apache.cassandra.auth.IRoleManager;
 import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.db.Keyspace;
@@ -146,6 +148,8 @@ public class CassandraAPI50x implements CassandraAPI {
 
       // For each range check the endpoints can achieve cl using the midpoint
       for (Range<Token> range : tokenRanges) {
+        // Stop once the caller gave up, large rings take a while
+        RpcDeadline.check();
         Token midpoint = partitioner.midpoint(range.left, range.right);
         EndpointsForRange endpoints =
             mockStrategy.calculateNaturalReplicas(midpoint, tokenMetadata);
@@ -343,8 +347,9 @@ public class CassandraAPI50x implements CassandraAPI {
   }
 
   @Override
-  public RpcStatementShim makeRpcStatement(String method, String[] params) {
-    return new RpcStatement50x(method, params);
+  public RpcStatementShim makeRpcStatement(
+      String method, String[] params, List<ColumnSpecification> bindVariables) {
+    return new RpcStatement50x(method, params, bindVariables);
   }
 
   @Override
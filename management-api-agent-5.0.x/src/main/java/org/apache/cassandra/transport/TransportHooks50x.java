@@ -0,0 +1,155 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package org.apache.cassandra.transport;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import io.netty.channel.ChannelHandler;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import org.apache.cassandra.transport.messages.ErrorMessage;
+
+/**
+ * The transport internals whose signatures changed during the 5.0 releases, resolved once for the
+ * running Cassandra version so that requests don't go through reflection.
+ *
+ * <ul>
+ *   <li>5.0.9 moved the stream id from the messages to their envelope (CASSANDRA-21508)
+ * </ul>
+ */
+final class TransportHooks50x {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  final boolean useCassandra21508TransportApi;
+  final ChannelHandler protocolEncoder;
+  // (Message)int, before CASSANDRA-21508 only
+  private final MethodHandle getStreamId;
+  // (Message, int)void, before CASSANDRA-21508 only
+  private final MethodHandle setStreamId;
+  // (Message, ProtocolVersion, int)Envelope
+  private final MethodHandle encode;
+  // (Throwable)ErrorMessage and (Throwable, Predicate)ErrorMessage
+  private final MethodHandle errorFromException;
+  private final MethodHandle errorFromExceptionWithHandler;
+
+  private TransportHooks50x(boolean useCassandra21508TransportApi)
+      throws ReflectiveOperationException {
+    this.useCassandra21508TransportApi = useCassandra21508TransportApi;
+
+    MethodType encodeType =
+        MethodType.methodType(Envelope.class, Message.class, ProtocolVersion.class, int.class);
+    if (useCassandra21508TransportApi) {
+      getStreamId = null;
+      setStreamId = null;
+      encode =
+          unreflect(Message.class.getMethod("encode", ProtocolVersion.class, int.class))
+              .asType(encodeType);
+    } else {
+      getStreamId =
+          unreflect(Message.class.getMethod("getStreamId"))
+              .asType(MethodType.methodType(int.class, Message.class));
+      setStreamId =
+          unreflect(Message.class.getMethod("setStreamId", int.class))
+              .asType(MethodType.methodType(void.class, Message.class, int.class));
+      encode =
+          MethodHandles.dropArguments(
+                  unreflect(Message.class.getMethod("encode", ProtocolVersion.class)), 2, int.class)
+              .asType(encodeType);
+    }
+
+    String fromException =
+        useCassandra21508TransportApi ? "fromExceptionNoStreamId" : "fromException";
+    errorFromException =
+        unreflect(ErrorMessage.class.getMethod(fromException, Throwable.class))
+            .asType(MethodType.methodType(ErrorMessage.class, Throwable.class));
+    errorFromExceptionWithHandler =
+        unreflect(ErrorMessage.class.getMethod(fromException, Throwable.class, Predicate.class))
+            .asType(
+                MethodType.methodType(ErrorMessage.class, Throwable.class, Predicate.class));
+
+    String protocolEncoderClass =
+        useCassandra21508TransportApi
+            ? "org.apache.cassandra.transport.PreV5Handlers$EventMessageEncoder"
+            : "org.apache.cassandra.transport.PreV5Handlers$ProtocolEncoder";
+    protocolEncoder =
+        (ChannelHandler) Class.forName(protocolEncoderClass).getField("instance").get(null);
+  }
+
+  /**
+   * Resolve the hooks of the running Cassandra version.
+   *
+   * @throws IllegalStateException if the version has signatures the agent doesn't know about
+   */
+  static TransportHooks50x resolve(String version) {
+    try {
+      return new TransportHooks50x(UnixSocketServer50x.useCassandra21508TransportApi(version));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          String.format(
+              "Unsupported transport internals in Cassandra %s, the Management API agent can't"
+                  + " serve the management socket",
+              version),
+          e);
+    }
+  }
+
+  int getStreamId(Message.Request request) {
+    if (useCassandra21508TransportApi) {
+      return request.getSource().header.streamId;
+    }
+    try {
+      return (int) getStreamId.invokeExact((Message) request);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  /** The object to write for a response, the envelope or the message with its stream id. */
+  Object responseForWrite(Message.Response response, ProtocolVersion version, int streamId) {
+    if (useCassandra21508TransportApi) {
+      return encode(response, version, streamId);
+    }
+    try {
+      setStreamId.invokeExact((Message) response, streamId);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+    return response;
+  }
+
+  Envelope encode(Message message, ProtocolVersion version, int streamId) {
+    try {
+      return (Envelope) encode.invokeExact(message, version, streamId);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  ErrorMessage errorFromException(
+      Throwable throwable, Predicate<Throwable> unexpectedExceptionHandler) {
+    try {
+      return unexpectedExceptionHandler == null
+          ? (ErrorMessage) errorFromException.invokeExact(throwable)
+          : (ErrorMessage)
+              errorFromExceptionWithHandler.invokeExact(
+                  throwable, (Predicate) unexpectedExceptionHandler);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    method.setAccessible(true);
+    return LOOKUP.unreflect(method);
+  }
+
+  private static RuntimeException propagate(Throwable t) {
+    Throwables.throwIfUnchecked(t);
+    throw new RuntimeException(t);
+  }
+}
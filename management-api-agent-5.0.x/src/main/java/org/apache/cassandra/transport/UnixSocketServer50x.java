@@ -6,6 +6,7 @@
 package org.apache.cassandra.transport;
 
 import com.datastax.mgmtapi.ipc.IPCController;
+import com.datastax.mgmtapi.rpc.RpcFutureResult;
 import com.google.common.base.Predicate;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
@@ -18,12 +19,13 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.VoidChannelPromise;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.Attribute;
-import java.lang.reflect.Method;
+import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.cassandra.auth.IAuthenticator;
+import org.apache.cassandra.config.EncryptionOptions;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.ClientWarn;
@@ -43,8 +45,9 @@ import org.slf4j.LoggerFactory;
 public class UnixSocketServer50x {
   private static final Logger logger = LoggerFactory.getLogger(IPCController.class);
   private static final CassandraVersion CASSANDRA_21508_VERSION = new CassandraVersion("5.0.9");
-  private static final boolean USE_CASSANDRA_21508_TRANSPORT_API =
-      useCassandra21508TransportApi(FBUtilities.getReleaseVersionString());
+  // Resolved when the management socket starts, fails it on unknown Cassandra internals
+  private static final TransportHooks50x hooks =
+      TransportHooks50x.resolve(FBUtilities.getReleaseVersionString());
 
   // Names of handlers used in pre-V5 pipelines
   private static final String ENVELOPE_DECODER = "envelopeDecoder";
@@ -57,60 +60,67 @@ public class UnixSocketServer50x {
   private static final String INITIAL_HANDLER = "initialHandler";
   private static final String EXCEPTION_HANDLER = "exceptionHandler";
 
+  // Configures the v5 pipelines, requests are then executed by the native transport dispatcher
+  private static final PipelineConfigurator modernPipeline =
+      new PipelineConfigurator(
+          false, false, false, EncryptionOptions.TlsEncryptionPolicy.UNENCRYPTED);
+
   static boolean useCassandra21508TransportApi(String version) {
     CassandraVersion currentVersion = new CassandraVersion(version);
     return currentVersion.compareTo(CASSANDRA_21508_VERSION, true) >= 0;
   }
 
-  private static int getStreamId(Message.Request request) throws ReflectiveOperationException {
-    if (USE_CASSANDRA_21508_TRANSPORT_API) return request.getSource().header.streamId;
-
-    Method getStreamId = Message.class.getMethod("getStreamId");
-    return (int) getStreamId.invoke(request);
+  private static int getStreamId(Message.Request request) {
+    return hooks.getStreamId(request);
   }
 
-  static Object responseForWrite(Message.Response response, ProtocolVersion version, int streamId)
-      throws ReflectiveOperationException {
-    if (USE_CASSANDRA_21508_TRANSPORT_API) return encode(response, version, streamId);
-
-    Method setStreamId = Message.class.getMethod("setStreamId", int.class);
-    setStreamId.invoke(response, streamId);
-    return response;
+  static Object responseForWrite(Message.Response response, ProtocolVersion version, int streamId) {
+    return hooks.responseForWrite(response, version, streamId);
   }
 
-  static Envelope encode(Message message, ProtocolVersion version, int streamId)
-      throws ReflectiveOperationException {
-    Method encode =
-        USE_CASSANDRA_21508_TRANSPORT_API
-            ? Message.class.getMethod("encode", ProtocolVersion.class, int.class)
-            : Message.class.getMethod("encode", ProtocolVersion.class);
-    return (Envelope)
-        (USE_CASSANDRA_21508_TRANSPORT_API
-            ? encode.invoke(message, version, streamId)
-            : encode.invoke(message, version));
+  static Envelope encode(Message message, ProtocolVersion version, int streamId) {
+    return hooks.encode(message, version, streamId);
   }
 
   static ErrorMessage errorFromException(
-      Throwable throwable, Predicate<Throwable> unexpectedExceptionHandler)
-      throws ReflectiveOperationException {
-    String methodName =
-        USE_CASSANDRA_21508_TRANSPORT_API ? "fromExceptionNoStreamId" : "fromException";
-    if (unexpectedExceptionHandler == null) {
-      Method fromException = ErrorMessage.class.getMethod(methodName, Throwable.class);
-      return (ErrorMessage) fromException.invoke(null, throwable);
-    }
+      Throwable throwable, Predicate<Throwable> unexpectedExceptionHandler) {
+    return hooks.errorFromException(throwable, unexpectedExceptionHandler);
+  }
 
-    Method fromException =
-        ErrorMessage.class.getMethod(methodName, Throwable.class, Predicate.class);
-    return (ErrorMessage) fromException.invoke(null, throwable, unexpectedExceptionHandler);
+  static ChannelHandler protocolEncoder() {
+    return hooks.protocolEncoder;
   }
 
-  static ChannelHandler protocolEncoder() throws ReflectiveOperationException {
-    String className =
-        USE_CASSANDRA_21508_TRANSPORT_API
-            ? "org.apache.cassandra.transport.PreV5Handlers$EventMessageEncoder"
-            : "org.apache.cassandra.transport.PreV5Handlers$ProtocolEncoder";
-    return (ChannelHandler) Class.forName(className).getField("instance").get(null);
+  /**
+   * The promise of the STARTUP response of a v5 connection. Once the response is flushed, the
+   * connection switches to the v5 framing: checksummed segments, LZ4 compressed if the client asked
+   * for it.
+   */
+  static ChannelPromise modernPipelinePromise(
+      ChannelHandlerContext ctx, ProtocolVersion version, Map<String, String> options) {
+    ChannelPromise promise = ctx.newPromise();
+    promise.addListener(
+        future -> {
+          if (!future.isSuccess()) {
+            logger.warn(
+                "Writing response to STARTUP failed, unable to configure pipeline",
+                future.cause());
+            ctx.close();
+            return;
+          }
+          try {
+            // The management socket clients share the resource limits of the local endpoint
+            modernPipeline.configureModernPipeline(
+                ctx,
+                ClientResourceLimits.getAllocatorForEndpoint(InetAddress.getLoopbackAddress()),
+                version,
+                options);
+          } catch (Throwable t) {
+            logger.warn("Unable to configure the {} pipeline", version, t);
+            ctx.close();
+          }
+        });
+    return promise;
   }
 
   public static ChannelInitializer<Channel> makeSocketInitializer(
@@ -158,7 +168,25 @@ public class UnixSocketServer50x {
             connection.validateNewMessage(request.type, connection.getVersion(), requestStreamId);
 
         Message.Response r =
-            request.execute(qstate, Dispatcher.RequestTime.forImmediateExecution());
+            RpcFutureResult.deferring(
+                () -> request.execute(qstate, Dispatcher.RequestTime.forImmediateExecution()));
+
+        if (r instanceof RpcFutureResult) {
+          // Asynchronous RPC method, respond when it completes without holding the event loop
+          List<String> warnings = ClientWarn.instance.getWarnings();
+          ((RpcFutureResult) r)
+              .future.whenCompleteAsync(
+                  (result, error) -> {
+                    if (result != null) {
+                      result.setTracingId(r.getTracingId());
+                      result.setWarnings(RpcFutureResult.warnings(warnings, result.getWarnings()));
+                    }
+                    respond(
+                        ctx, request, connection, requestHeader, requestStreamId, result, error);
+                  },
+                  ctx.channel().eventLoop());
+          return;
+        }
 
         // UnixSocket has no auth
         response = r instanceof AuthenticateMessage ? new ReadyMessage() : r;
@@ -167,14 +195,7 @@ public class UnixSocketServer50x {
         response.attach(connection);
         connection.applyStateTransition(request.type, response.type);
       } catch (Throwable t) {
-        // logger.warn("Exception encountered", t);
-        JVMStabilityInspector.inspectThrowable(t);
-        ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
-            new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
-        ctx.writeAndFlush(
-            responseForWrite(
-                errorFromException(t, handler), requestHeader.version, requestStreamId));
-        request.getSource().release();
+        writeError(ctx, request, requestHeader, requestStreamId, t);
         return;
       } finally {
         ClientWarn.instance.resetWarnings();
@@ -183,6 +204,39 @@ public class UnixSocketServer50x {
       ctx.writeAndFlush(responseForWrite(response, requestHeader.version, requestStreamId));
       request.getSource().release();
     }
+
+    private void respond(
+        ChannelHandlerContext ctx,
+        Message.Request request,
+        UnixSocketConnection connection,
+        Envelope.Header requestHeader,
+        int requestStreamId,
+        Message.Response response,
+        Throwable error) {
+      if (error != null) {
+        writeError(ctx, request, requestHeader, requestStreamId, RpcFutureResult.unwrap(error));
+        return;
+      }
+      response.attach(connection);
+      connection.applyStateTransition(request.type, response.type);
+      ctx.writeAndFlush(responseForWrite(response, requestHeader.version, requestStreamId));
+      request.getSource().release();
+    }
+
+    private void writeError(
+        ChannelHandlerContext ctx,
+        Message.Request request,
+        Envelope.Header requestHeader,
+        int requestStreamId,
+        Throwable t) {
+      // logger.warn("Exception encountered", t);
+      JVMStabilityInspector.inspectThrowable(t);
+      ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
+          new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
+      ctx.writeAndFlush(
+          responseForWrite(errorFromException(t, handler), requestHeader.version, requestStreamId));
+      request.getSource().release();
+    }
   }
 
   static class UnixSocketConnection extends ServerConnection {
@@ -322,26 +376,28 @@ public class UnixSocketServer50x {
 
             ChannelPromise promise;
             if (inbound.header.version.isGreaterOrEqualTo(ProtocolVersion.V5)) {
-              // v5 not yet supported
-              logger.warn("PROTOCOL v5 not yet supported.");
+              // the STARTUP response is sent with the initial framing, the v5 pipeline is
+              // configured once it is flushed
+              promise = modernPipelinePromise(ctx, inbound.header.version, startup.options);
+            } else {
+              // no need to configure the pipeline asynchronously in this case
+              // the capacity obtained from allocator for the STARTUP message
+              // is released when flushed by the legacy dispatcher/flusher so
+              // there's no need to explicitly release that here either.
+
+              ChannelPipeline pipeline = ctx.channel().pipeline();
+              pipeline.addBefore(ENVELOPE_ENCODER, ENVELOPE_DECODER, new Envelope.Decoder());
+              pipeline.addBefore(
+                  INITIAL_HANDLER, MESSAGE_DECOMPRESSOR, Envelope.Decompressor.instance);
+              pipeline.addBefore(INITIAL_HANDLER, MESSAGE_COMPRESSOR, Envelope.Compressor.instance);
+              pipeline.addBefore(
+                  INITIAL_HANDLER, MESSAGE_DECODER, PreV5Handlers.ProtocolDecoder.instance);
+              pipeline.addBefore(INITIAL_HANDLER, MESSAGE_ENCODER, protocolEncoder());
+              pipeline.addBefore(INITIAL_HANDLER, LEGACY_MESSAGE_PROCESSOR, new UnixSockMessage());
+              pipeline.remove(INITIAL_HANDLER);
+
+              promise = new VoidChannelPromise(ctx.channel(), false);
             }
-            // no need to configure the pipeline asynchronously in this case
-            // the capacity obtained from allocator for the STARTUP message
-            // is released when flushed by the legacy dispatcher/flusher so
-            // there's no need to explicitly release that here either.
-
-            ChannelPipeline pipeline = ctx.channel().pipeline();
-            pipeline.addBefore(ENVELOPE_ENCODER, ENVELOPE_DECODER, new Envelope.Decoder());
-            pipeline.addBefore(
-                INITIAL_HANDLER, MESSAGE_DECOMPRESSOR, Envelope.Decompressor.instance);
-            pipeline.addBefore(INITIAL_HANDLER, MESSAGE_COMPRESSOR, Envelope.Compressor.instance);
-            pipeline.addBefore(
-                INITIAL_HANDLER, MESSAGE_DECODER, PreV5Handlers.ProtocolDecoder.instance);
-            pipeline.addBefore(INITIAL_HANDLER, MESSAGE_ENCODER, protocolEncoder());
-            pipeline.addBefore(INITIAL_HANDLER, LEGACY_MESSAGE_PROCESSOR, new UnixSockMessage());
-            pipeline.remove(INITIAL_HANDLER);
-
-            promise = new VoidChannelPromise(ctx.channel(), false);
 
             Message.Response response =
                 Dispatcher.processRequest(
@@ -6,14 +6,18 @@
 package com.datastax.mgmtapi.rpc;
 
 import com.google.common.collect.ImmutableSortedMap;
-import com.google.common.collect.Lists;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.cassandra.cql3.ColumnIdentifier;
@@ -24,28 +28,47 @@ import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.ByteBufferAccessor;
 import org.apache.cassandra.db.marshal.TupleType;
 import org.apache.cassandra.db.marshal.ValueAccessor;
+import org.apache.cassandra.serializers.TypeSerializer;
 
 public class ObjectSerializer60x<T> implements ObjectSerializer<T> {
+  /** TupleType.pack of the running Cassandra version, null if it has none. */
+  private static final MethodHandle PACK = packHandle();
+
   public final ImmutableSortedMap<String, FieldSerializer> serializers;
 
   public class FieldSerializer {
     public final AbstractType type;
     public final Function<T, Object> accessor;
+    private final TypeSerializer serializer;
 
     FieldSerializer(AbstractType type, Function<T, Object> accessor) {
       this.type = type;
       this.accessor = accessor;
+      this.serializer = type.getSerializer();
     }
 
     FieldSerializer(AbstractType type, final Field field) {
       field.setAccessible(true);
+      MethodHandle getter;
+      try {
+        getter =
+            MethodHandles.lookup()
+                .unreflectGetter(field)
+                .asType(MethodType.methodType(Object.class, Object.class));
+      } catch (IllegalAccessException e) {
+        throw new AssertionError("Should not happen as we set the field to accessible.");
+      }
       this.type = type;
+      this.serializer = type.getSerializer();
       this.accessor =
           (obj) -> {
             try {
-              return field.get(obj);
-            } catch (IllegalAccessException e) {
-              throw new AssertionError("Should not happen as we set the field to accessible.");
+              return (Object) getter.invokeExact((Object) obj);
+            } catch (RuntimeException | Error e) {
+              throw e;
+            } catch (Throwable t) {
+              // Field getters don't throw checked exceptions
+              throw new AssertionError(t);
             }
           };
     }
@@ -55,10 +78,28 @@ public class ObjectSerializer60x<T> implements ObjectSerializer<T> {
       if (value == null) {
         return null;
       }
-      return type.getSerializer().serialize(accessor.apply(obj));
+      return serializer.serialize(value);
     }
   }
 
+  private static final class CachedMetadata {
+    private final String ksName;
+    private final String cfName;
+    private final ResultMetadata metadata;
+
+    private CachedMetadata(String ksName, String cfName, ResultMetadata metadata) {
+      this.ksName = ksName;
+      this.cfName = cfName;
+      this.metadata = metadata;
+    }
+  }
+
+  /** Field serializers in column order, iterated for every row. */
+  private final List<FieldSerializer> fieldSerializers;
+
+  /** Result metadata of the last keyspace and table names, methods always use the same ones. */
+  private volatile CachedMetadata cachedMetadata;
+
   /**
    * Due to the magic of java generics, the class doesn't have the full generic information, hence
    * the double types. Also, this will only serialize **PUBLIC** fields (perhaps this should be
@@ -78,6 +119,7 @@ public class ObjectSerializer60x<T> implements ObjectSerializer<T> {
                                 new FieldSerializer(
                                     GenericSerializer60x.getType(field.getGenericType()), field))));
     // currently not recursive; multiple ways to do it
+    fieldSerializers = serializers.values().asList();
   }
 
   public ObjectSerializer60x(Class<T> clazz) {
@@ -92,21 +134,9 @@ public class ObjectSerializer60x<T> implements ObjectSerializer<T> {
    * @param cfName Pretend we are coming from this columnfamily
    */
   public ResultSet toResultSet(T obj, String ksName, String cfName) {
-    return new ResultSet(
-        new ResultMetadata(
-            serializers.entrySet().stream()
-                .map(
-                    e ->
-                        new ColumnSpecification(
-                            ksName,
-                            cfName,
-                            new ColumnIdentifier(e.getKey(), true),
-                            e.getValue().type))
-                .collect(Collectors.toList())),
-        Lists.<List<byte[]>>newArrayList(
-            toByteBufferList(obj).stream()
-                .map(bb -> bb == null ? null : bb.array())
-                .collect(Collectors.toList())));
+    List<List<byte[]>> rows = new ArrayList<>(1);
+    rows.add(toRow(toByteBufferList(obj)));
+    return new ResultSet(getResultMetadata(ksName, cfName), rows);
   }
 
   /**
@@ -117,59 +147,92 @@ public class ObjectSerializer60x<T> implements ObjectSerializer<T> {
    * @param cfName Pretend we are coming from this columnfamily
    */
   public ResultSet toMultiRowResultSet(Collection<T> obj, String ksName, String cfName) {
-    return new ResultSet(
-        new ResultMetadata(
-            serializers.entrySet().stream()
-                .map(
-                    e ->
-                        new ColumnSpecification(
-                            ksName,
-                            cfName,
-                            new ColumnIdentifier(e.getKey(), true),
-                            e.getValue().type))
-                .collect(Collectors.toList())),
-        obj.stream()
-            .map(
-                o ->
-                    toByteBufferList(o).stream()
-                        .map(bb -> bb == null ? null : bb.array())
-                        .collect(Collectors.toList()))
-            .collect(Collectors.toList()));
+    List<List<byte[]>> rows = new ArrayList<>(obj.size());
+    for (T row : obj) {
+      rows.add(toRow(toByteBufferList(row)));
+    }
+    return new ResultSet(getResultMetadata(ksName, cfName), rows);
+  }
+
+  /**
+   * Computing the metadata hashes the column specifications, so it is only done once per method.
+   * Each result set gets its own copy, the metadata is mutable.
+   */
+  private ResultMetadata getResultMetadata(String ksName, String cfName) {
+    CachedMetadata cached = cachedMetadata;
+    if (cached == null || !cached.ksName.equals(ksName) || !cached.cfName.equals(cfName)) {
+      List<ColumnSpecification> columns = new ArrayList<>(serializers.size());
+      for (Map.Entry<String, FieldSerializer> e : serializers.entrySet()) {
+        columns.add(
+            new ColumnSpecification(
+                ksName, cfName, new ColumnIdentifier(e.getKey(), true), e.getValue().type));
+      }
+      cached = new CachedMetadata(ksName, cfName, new ResultMetadata(columns));
+      cachedMetadata = cached;
+    }
+    return cached.metadata.copy();
   }
 
   public List<ByteBuffer> toByteBufferList(T obj) {
-    return serializers.values().stream()
-        .map(fs -> fs.serializeField(obj))
-        .collect(Collectors.toList());
+    return Arrays.asList(serializeFields(obj));
+  }
+
+  private ByteBuffer[] serializeFields(T obj) {
+    ByteBuffer[] values = new ByteBuffer[fieldSerializers.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = fieldSerializers.get(i).serializeField(obj);
+    }
+    return values;
+  }
+
+  private static List<byte[]> toRow(List<ByteBuffer> values) {
+    List<byte[]> row = new ArrayList<>(values.size());
+    for (ByteBuffer bb : values) {
+      row.add(bb == null ? null : bb.array());
+    }
+    return row;
   }
 
   public ByteBuffer toByteBuffer(T obj) {
-    // use reflection to figure out if we have the CEP-21 (accord) signature or the latest in trunk
+    if (PACK == null) {
+      throw new UnsupportedOperationException("No TupleType.pack method in this Cassandra version");
+    }
+    try {
+      return (ByteBuffer) PACK.invokeExact(serializeFields(obj));
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * Resolve TupleType.pack as a (ByteBuffer[]) -> ByteBuffer handle. Trunk takes the values as a
+   * Collection, the CEP-21 (accord) signature takes them as an array.
+   */
+  private static MethodHandle packHandle() {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    MethodHandle pack;
     try {
-      Method pack;
       try {
-        pack = TupleType.class.getDeclaredMethod("pack", ValueAccessor.class, Collection.class);
-        return (ByteBuffer)
-            (pack.invoke(
-                null,
-                ByteBufferAccessor.instance,
-                Arrays.asList(
-                    serializers.values().stream()
-                        .map(fs -> fs.serializeField(obj))
-                        .toArray(ByteBuffer[]::new))));
+        Method method =
+            TupleType.class.getDeclaredMethod("pack", ValueAccessor.class, Collection.class);
+        pack = lookup.unreflect(method).asFixedArity();
+        MethodHandle asList =
+            lookup
+                .findStatic(
+                    Arrays.class, "asList", MethodType.methodType(List.class, Object[].class))
+                .asFixedArity()
+                .asType(MethodType.methodType(Collection.class, Object[].class));
+        pack = MethodHandles.filterArguments(pack, 1, asList);
       } catch (NoSuchMethodException ex) {
         // try the CEP-21 version
-        pack = TupleType.class.getDeclaredMethod("pack", ValueAccessor.class, Object[].class);
-        return (ByteBuffer)
-            (pack.invoke(
-                null,
-                ByteBufferAccessor.instance,
-                serializers.values().stream()
-                    .map(fs -> fs.serializeField(obj))
-                    .toArray(ByteBuffer[]::new)));
+        Method method =
+            TupleType.class.getDeclaredMethod("pack", ValueAccessor.class, Object[].class);
+        pack = lookup.unreflect(method).asFixedArity();
       }
-    } catch (Throwable t) {
-      throw new RuntimeException(t);
+    } catch (ReflectiveOperationException e) {
+      return null;
     }
+    return MethodHandles.insertArguments(pack, 0, ByteBufferAccessor.instance)
+        .asType(MethodType.methodType(ByteBuffer.class, ByteBuffer[].class));
   }
 }
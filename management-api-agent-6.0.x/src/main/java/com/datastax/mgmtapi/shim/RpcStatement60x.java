@@ -6,6 +6,8 @@
 package com.datastax.mgmtapi.shim;
 
 import com.datastax.mgmtapi.shims.RpcStatementShim;
+import java.util.List;
+import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.QueryState;
@@ -15,10 +17,12 @@ import org.apache.cassandra.transport.messages.ResultMessage;
 public class RpcStatement60x implements RpcStatementShim {
   private final String method;
   private final String[] params;
+  private final List<ColumnSpecification> bindVariables;
 
-  public RpcStatement60x(String method, String[] params) {
+  public RpcStatement60x(String method, String[] params, List<ColumnSpecification> bindVariables) {
     this.method = method;
     this.params = params;
+    this.bindVariables = bindVariables;
   }
 
   @Override
@@ -47,4 +51,9 @@ public class RpcStatement60x implements RpcStatementShim {
   public String[] getParams() {
     return params;
   }
+
+  @Override
+  public List<ColumnSpecification> getBindVariables() {
+    return bindVariables;
+  }
 }
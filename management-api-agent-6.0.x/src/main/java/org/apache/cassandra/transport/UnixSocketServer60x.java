@@ -6,6 +6,7 @@
 package org.apache.cassandra.transport;
 
 import com.datastax.mgmtapi.ipc.IPCController;
+import com.datastax.mgmtapi.rpc.RpcFutureResult;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
@@ -17,11 +18,13 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.VoidChannelPromise;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.Attribute;
+import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.cassandra.auth.IAuthenticator;
+import org.apache.cassandra.config.EncryptionOptions;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.ClientWarn;
@@ -50,6 +53,43 @@ public class UnixSocketServer60x {
   private static final String INITIAL_HANDLER = "initialHandler";
   private static final String EXCEPTION_HANDLER = "exceptionHandler";
 
+  // Configures the v5 pipelines, requests are then executed by the native transport dispatcher
+  private static final PipelineConfigurator modernPipeline =
+      new PipelineConfigurator(
+          false, false, false, EncryptionOptions.TlsEncryptionPolicy.UNENCRYPTED);
+
+  /**
+   * The promise of the STARTUP response of a v5 connection. Once the response is flushed, the
+   * connection switches to the v5 framing: checksummed segments, LZ4 compressed if the client asked
+   * for it.
+   */
+  static ChannelPromise modernPipelinePromise(
+      ChannelHandlerContext ctx, ProtocolVersion version, Map<String, String> options) {
+    ChannelPromise promise = ctx.newPromise();
+    promise.addListener(
+        future -> {
+          if (!future.isSuccess()) {
+            logger.warn(
+                "Writing response to STARTUP failed, unable to configure pipeline",
+                future.cause());
+            ctx.close();
+            return;
+          }
+          try {
+            // The management socket clients share the resource limits of the local endpoint
+            modernPipeline.configureModernPipeline(
+                ctx,
+                ClientResourceLimits.getAllocatorForEndpoint(InetAddress.getLoopbackAddress()),
+                version,
+                options);
+          } catch (Throwable t) {
+            logger.warn("Unable to configure the {} pipeline", version, t);
+            ctx.close();
+          }
+        });
+    return promise;
+  }
+
   public static ChannelInitializer<Channel> makeSocketInitializer(
       final Server.ConnectionTracker connectionTracker) {
     logger.debug("Creating Channel Initializer");
@@ -96,7 +136,30 @@ public class UnixSocketServer60x {
                 request.type, connection.getVersion(), requestHeader.streamId);
 
         Message.Response r =
-            request.execute(qstate, Dispatcher.RequestTime.forImmediateExecution());
+            RpcFutureResult.deferring(
+                () -> request.execute(qstate, Dispatcher.RequestTime.forImmediateExecution()));
+
+        if (r instanceof RpcFutureResult) {
+          // Asynchronous RPC method, respond when it completes without holding the event loop
+          List<String> warnings = ClientWarn.instance.getWarnings();
+          ((RpcFutureResult) r)
+              .future.whenCompleteAsync(
+                  (result, error) -> {
+                    if (error != null) {
+                      writeError(ctx, request, RpcFutureResult.unwrap(error));
+                    } else {
+                      result.setTracingId(r.getTracingId());
+                      result.setWarnings(RpcFutureResult.warnings(warnings, result.getWarnings()));
+                      result.attach(connection);
+                      connection.applyStateTransition(request.type, result.type);
+                      ctx.writeAndFlush(
+                          result.encode(requestHeader.version, requestHeader.streamId));
+                      request.getSource().release();
+                    }
+                  },
+                  ctx.channel().eventLoop());
+          return;
+        }
 
         // UnixSocket has no auth
         response = r instanceof AuthenticateMessage ? new ReadyMessage() : r;
@@ -105,14 +168,7 @@ public class UnixSocketServer60x {
         response.attach(connection);
         connection.applyStateTransition(request.type, response.type);
       } catch (Throwable t) {
-        // logger.warn("Exception encountered", t);
-        JVMStabilityInspector.inspectThrowable(t);
-        ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
-            new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
-        ctx.writeAndFlush(
-            ErrorMessage.fromExceptionNoStreamId(t, handler)
-                .encode(requestHeader.version, requestHeader.streamId));
-        request.getSource().release();
+        writeError(ctx, request, t);
         return;
       } finally {
         ClientWarn.instance.resetWarnings();
@@ -121,6 +177,18 @@ public class UnixSocketServer60x {
       ctx.writeAndFlush(response.encode(requestHeader.version, requestHeader.streamId));
       request.getSource().release();
     }
+
+    private void writeError(ChannelHandlerContext ctx, Message.Request request, Throwable t) {
+      // logger.warn("Exception encountered", t);
+      JVMStabilityInspector.inspectThrowable(t);
+      ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
+          new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
+      Envelope.Header requestHeader = request.getSource().header;
+      ctx.writeAndFlush(
+          ErrorMessage.fromExceptionNoStreamId(t, handler)
+              .encode(requestHeader.version, requestHeader.streamId));
+      request.getSource().release();
+    }
   }
 
   static class UnixSocketConnection extends ServerConnection {
@@ -260,27 +328,29 @@ public class UnixSocketServer60x {
 
             ChannelPromise promise;
             if (inbound.header.version.isGreaterOrEqualTo(ProtocolVersion.V5)) {
-              // v5 not yet supported
-              logger.warn("PROTOCOL v5 not yet supported.");
+              // the STARTUP response is sent with the initial framing, the v5 pipeline is
+              // configured once it is flushed
+              promise = modernPipelinePromise(ctx, inbound.header.version, startup.options);
+            } else {
+              // no need to configure the pipeline asynchronously in this case
+              // the capacity obtained from allocator for the STARTUP message
+              // is released when flushed by the legacy dispatcher/flusher so
+              // there's no need to explicitly release that here either.
+
+              ChannelPipeline pipeline = ctx.channel().pipeline();
+              pipeline.addBefore(ENVELOPE_ENCODER, ENVELOPE_DECODER, new Envelope.Decoder());
+              pipeline.addBefore(
+                  INITIAL_HANDLER, MESSAGE_DECOMPRESSOR, Envelope.Decompressor.instance);
+              pipeline.addBefore(INITIAL_HANDLER, MESSAGE_COMPRESSOR, Envelope.Compressor.instance);
+              pipeline.addBefore(
+                  INITIAL_HANDLER, MESSAGE_DECODER, PreV5Handlers.ProtocolDecoder.instance);
+              pipeline.addBefore(
+                  INITIAL_HANDLER, MESSAGE_ENCODER, PreV5Handlers.EventMessageEncoder.instance);
+              pipeline.addBefore(INITIAL_HANDLER, LEGACY_MESSAGE_PROCESSOR, new UnixSockMessage());
+              pipeline.remove(INITIAL_HANDLER);
+
+              promise = new VoidChannelPromise(ctx.channel(), false);
             }
-            // no need to configure the pipeline asynchronously in this case
-            // the capacity obtained from allocator for the STARTUP message
-            // is released when flushed by the legacy dispatcher/flusher so
-            // there's no need to explicitly release that here either.
-
-            ChannelPipeline pipeline = ctx.channel().pipeline();
-            pipeline.addBefore(ENVELOPE_ENCODER, ENVELOPE_DECODER, new Envelope.Decoder());
-            pipeline.addBefore(
-                INITIAL_HANDLER, MESSAGE_DECOMPRESSOR, Envelope.Decompressor.instance);
-            pipeline.addBefore(INITIAL_HANDLER, MESSAGE_COMPRESSOR, Envelope.Compressor.instance);
-            pipeline.addBefore(
-                INITIAL_HANDLER, MESSAGE_DECODER, PreV5Handlers.ProtocolDecoder.instance);
-            pipeline.addBefore(
-                INITIAL_HANDLER, MESSAGE_ENCODER, PreV5Handlers.EventMessageEncoder.instance);
-            pipeline.addBefore(INITIAL_HANDLER, LEGACY_MESSAGE_PROCESSOR, new UnixSockMessage());
-            pipeline.remove(INITIAL_HANDLER);
-
-            promise = new VoidChannelPromise(ctx.channel(), false);
 
             Message.Response response =
                 Dispatcher.processRequest(
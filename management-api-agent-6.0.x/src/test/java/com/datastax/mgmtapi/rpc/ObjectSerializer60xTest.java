@@ -7,6 +7,10 @@ package com.datastax.mgmtapi.rpc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
 public class ObjectSerializer60xTest
     extends ObjectSerializerTestBase<ObjectSerializer60x<Example>> {
 
@@ -20,4 +24,20 @@ public class ObjectSerializer60xTest
     assertThat(serializer.serializers).containsKey(fieldName);
     return serializer.serializers.get(fieldName).type.toString();
   }
+
+  @Test
+  public void testTupleValue() {
+    ObjectSerializer60x<Example> exampleSerializer = createExampleSerializer();
+    Example example = new Example();
+    example.stringField = "value";
+
+    // Each field is prefixed by its length, -1 for the null ones
+    byte[] value = "value".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer expected = ByteBuffer.allocate(3 * 4 + value.length);
+    expected.putInt(-1).putInt(-1).putInt(value.length).put(value).flip();
+
+    assertThat(exampleSerializer.toByteBuffer(example)).isEqualTo(expected);
+    // The resolved pack method is reused
+    assertThat(exampleSerializer.toByteBuffer(example)).isEqualTo(expected);
+  }
 }
@@ -6,29 +6,44 @@
 package com.datastax.mgmtapi;
 
 import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.isBootstrapClassLoader;
+import static net.bytebuddy.matcher.ElementMatchers.isExtensionClassLoader;
 import static net.bytebuddy.matcher.ElementMatchers.isSynthetic;
 import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
 
 import com.datastax.mgmtapi.interceptors.CassandraDaemonInterceptor;
 import com.datastax.mgmtapi.interceptors.CassandraRoleManagerInterceptor;
+import com.datastax.mgmtapi.interceptors.ClientRequestInterceptor;
 import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor;
 import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor4x;
 import com.datastax.mgmtapi.interceptors.SystemDistributedReplicationInterceptor;
 import java.lang.instrument.Instrumentation;
+import java.util.concurrent.ConcurrentHashMap;
 import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.cassandra.gms.GossiperInterceptor;
 
 public class Agent {
 
   public static void premain(String arg, Instrumentation inst) throws Exception {
+    builder().installOn(inst);
+  }
 
-    new AgentBuilder.Default()
+  /**
+   * The agent transformations. Every class Cassandra loads goes through the matchers, so they only
+   * compare names: the classes of the bootstrap and extension loaders, and the JDK, library and
+   * agent packages of any loader, are ignored first, then the interceptors match their classes by
+   * name. The type descriptions resolved for the few matching classes are cached per class loader.
+   */
+  public static AgentBuilder builder() {
+    return new AgentBuilder.Default()
         // .disableClassFormatChanges()
         // .with(AgentBuilder.Listener.StreamWriting.toSystemOut().withTransformationsOnly()) //For
         // debug
-        .ignore(
-            new AgentBuilder.RawMatcher.ForElementMatchers(
-                nameStartsWith("net.bytebuddy.").or(isSynthetic()), any(), any()))
+        .with(new AgentBuilder.PoolStrategy.WithTypePoolCache.Simple(new ConcurrentHashMap<>()))
+        .ignore(any(), isBootstrapClassLoader().or(isExtensionClassLoader()))
+        .or(ignored())
         // Cassandra Daemon
         .type(CassandraDaemonInterceptor.type())
         .transform(CassandraDaemonInterceptor.transformer())
@@ -38,6 +53,11 @@ public class Agent {
         // Query Handler 4.0
         .type(QueryHandlerInterceptor4x.type())
         .transform(QueryHandlerInterceptor4x.transformer())
+        .type(QueryHandlerInterceptor4x.executeType())
+        .transform(QueryHandlerInterceptor4x.executeTransformer())
+        // Client request metrics
+        .type(ClientRequestInterceptor.type())
+        .transform(ClientRequestInterceptor.transformer())
         // Seed Reload support
         .type(GossiperInterceptor.type())
         .transform(GossiperInterceptor.transformer())
@@ -45,7 +65,28 @@ public class Agent {
         .type(CassandraRoleManagerInterceptor.type())
         .transform(CassandraRoleManagerInterceptor.transformer())
         .type(SystemDistributedReplicationInterceptor.type())
-        .transform(SystemDistributedReplicationInterceptor.transformer())
-        .installOn(inst);
+        .transform(SystemDistributedReplicationInterceptor.transformer());
+  }
+
+  /** Packages that never contain an intercepted class. */
+  static ElementMatcher.Junction<TypeDescription> ignored() {
+    return nameStartsWith("java.")
+        .or(nameStartsWith("javax."))
+        .or(nameStartsWith("jdk."))
+        .or(nameStartsWith("sun."))
+        .or(nameStartsWith("com.sun."))
+        .or(nameStartsWith("io.netty."))
+        .or(nameStartsWith("com.datastax.driver."))
+        .or(nameStartsWith("com.datastax.oss.driver."))
+        .or(nameStartsWith("com.datastax.shaded."))
+        .or(nameStartsWith("com.google."))
+        .or(nameStartsWith("com.codahale."))
+        .or(nameStartsWith("com.fasterxml."))
+        .or(nameStartsWith("org.slf4j."))
+        .or(nameStartsWith("ch.qos.logback."))
+        .or(nameStartsWith("net.bytebuddy."))
+        .or(nameStartsWith("io.k8ssandra."))
+        .or(nameStartsWith("com.datastax.mgmtapi."))
+        .or(isSynthetic());
   }
 }
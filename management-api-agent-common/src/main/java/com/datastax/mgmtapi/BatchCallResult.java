@@ -0,0 +1,34 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+/** The outcome of one call of a {@code NodeOps.batch} call. */
+public class BatchCallResult {
+  public static final String OK = "OK";
+  public static final String FAILED = "FAILED";
+
+  public final String call;
+  public final String status;
+  // The JSON encoded value returned by the call
+  public final String result;
+  public final String error;
+
+  public BatchCallResult(String call, String status, String result, String error) {
+    this.call = call;
+    this.status = status;
+    this.result = result;
+    this.error = error;
+  }
+
+  public static BatchCallResult success(String call, String result) {
+    return new BatchCallResult(call, OK, result, null);
+  }
+
+  public static BatchCallResult failure(String call, Throwable error) {
+    String message = error.getMessage() == null ? error.getClass().getName() : error.getMessage();
+    return new BatchCallResult(call, FAILED, null, message);
+  }
+}
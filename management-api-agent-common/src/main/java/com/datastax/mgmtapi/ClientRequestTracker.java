@@ -0,0 +1,257 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.cassandra.auth.AuthenticatedUser;
+import org.apache.cassandra.service.ClientState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the requests of the native transport clients, per connection and per driver and user.
+ *
+ * <p>The request path only does a {@link ConcurrentHashMap#get(Object)} and {@link LongAdder}
+ * updates. The labels of a connection are resolved once, on its first request. Closed connections
+ * are pruned against the connections Cassandra still knows about when the client inventory is
+ * listed, or in the background when too many connections accumulated.
+ */
+public class ClientRequestTracker {
+  private static final Logger logger = LoggerFactory.getLogger(ClientRequestTracker.class);
+
+  public static final ClientRequestTracker instance = new ClientRequestTracker();
+
+  static final String UNKNOWN = "unknown";
+  static final String ANONYMOUS = "anonymous";
+  private static final int PRUNE_THRESHOLD = 4096;
+
+  // Listing the connected clients scans all of them, it is kept off the request path
+  private static final Executor PRUNER =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("mgmtapi-client-requests-pruner")
+              .setDaemon(true)
+              .build());
+
+  private final ConcurrentHashMap<InetSocketAddress, Connection> connections =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<List<String>, Client> clients = new ConcurrentHashMap<>();
+  private final AtomicBoolean pruning = new AtomicBoolean();
+  private final Executor pruner;
+  private final int minPruneThreshold;
+  private volatile int pruneThreshold;
+
+  @VisibleForTesting
+  ClientRequestTracker() {
+    this(PRUNER, PRUNE_THRESHOLD);
+  }
+
+  @VisibleForTesting
+  ClientRequestTracker(Executor pruner, int pruneThreshold) {
+    this.pruner = pruner;
+    this.minPruneThreshold = pruneThreshold;
+    this.pruneThreshold = pruneThreshold;
+  }
+
+  /**
+   * Record the start of a request.
+   *
+   * @return the connection to pass the end of the request to, or null for internal requests
+   */
+  public Connection begin(ClientState state) {
+    InetSocketAddress address = state.getRemoteAddress();
+    if (address == null) {
+      return null;
+    }
+
+    Connection connection = connections.get(address);
+    if (connection == null) {
+      connection = register(address, driverName(state), driverVersion(state), user(state));
+    }
+    connection.begin();
+    return connection;
+  }
+
+  @VisibleForTesting
+  Connection begin(
+      InetSocketAddress address, String driverName, String driverVersion, String user) {
+    Connection connection = connections.get(address);
+    if (connection == null) {
+      connection = register(address, driverName, driverVersion, user);
+    }
+    connection.begin();
+    return connection;
+  }
+
+  public Connection getConnection(InetSocketAddress address) {
+    return connections.get(address);
+  }
+
+  public Collection<Client> getClients() {
+    return Collections.unmodifiableCollection(clients.values());
+  }
+
+  /**
+   * Forget the connections that are no longer open.
+   *
+   * @param open the addresses of the open connections
+   */
+  public void retain(Set<InetSocketAddress> open) {
+    connections.keySet().retainAll(open);
+  }
+
+  private Connection register(
+      InetSocketAddress address, String driverName, String driverVersion, String user) {
+    // At most one pending prune, the new connection doesn't wait for it
+    if (connections.size() >= pruneThreshold && pruning.compareAndSet(false, true)) {
+      try {
+        pruner.execute(this::prune);
+      } catch (RejectedExecutionException e) {
+        pruning.set(false);
+      }
+    }
+
+    List<String> key = Arrays.asList(driverName, driverVersion, user);
+    Client client = clients.computeIfAbsent(key, Client::new);
+    return connections.computeIfAbsent(address, a -> new Connection(client));
+  }
+
+  private void prune() {
+    try {
+      Set<InetSocketAddress> open = new HashSet<>();
+      for (Map<String, String> client : ShimLoader.instance.get().getConnectedClients()) {
+        open.add(parseAddress(client.get("address")));
+      }
+      retain(open);
+    } catch (Exception e) {
+      // Inventory not available on this version, only keep the busy connections
+      logger.debug("Unable to list connected clients, pruning idle connections", e);
+      connections.values().removeIf(c -> c.inFlight.sum() == 0);
+    } finally {
+      // Don't prune on every new connection when most of them are still open
+      pruneThreshold = Math.max(minPruneThreshold, connections.size() * 2);
+      pruning.set(false);
+    }
+  }
+
+  /** Parse the "/host:port" form of {@link InetSocketAddress#toString()}. */
+  static InetSocketAddress parseAddress(String address) {
+    if (address == null) {
+      return null;
+    }
+    int slash = address.indexOf('/');
+    int colon = address.lastIndexOf(':');
+    if (colon < 0) {
+      return null;
+    }
+    String host = address.substring(slash + 1, colon);
+    if (host.startsWith("[") && host.endsWith("]")) {
+      host = host.substring(1, host.length() - 1);
+    }
+    return new InetSocketAddress(host, Integer.parseInt(address.substring(colon + 1)));
+  }
+
+  private static String driverName(ClientState state) {
+    try {
+      return state.getDriverName().orElse(UNKNOWN);
+    } catch (LinkageError e) {
+      // Driver information is only available on Cassandra 4.0 and newer
+      return UNKNOWN;
+    }
+  }
+
+  private static String driverVersion(ClientState state) {
+    try {
+      return state.getDriverVersion().orElse(UNKNOWN);
+    } catch (LinkageError e) {
+      return UNKNOWN;
+    }
+  }
+
+  private static String user(ClientState state) {
+    AuthenticatedUser user = state.getUser();
+    return user == null ? ANONYMOUS : user.getName();
+  }
+
+  /** Counters of a single native transport connection. */
+  public static class Connection {
+    private final Client client;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    Connection(Client client) {
+      this.client = client;
+    }
+
+    private void begin() {
+      requests.increment();
+      inFlight.increment();
+      client.requests.increment();
+      client.inFlight.increment();
+    }
+
+    /** Record the end of a request started with {@link ClientRequestTracker#begin}. */
+    public void end() {
+      inFlight.decrement();
+      client.inFlight.decrement();
+    }
+
+    public long getRequests() {
+      return requests.sum();
+    }
+
+    public long getInFlight() {
+      return inFlight.sum();
+    }
+  }
+
+  /** Counters of all the connections sharing the same driver and user. */
+  public static class Client {
+    private final List<String> labels;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    Client(List<String> labels) {
+      this.labels = Collections.unmodifiableList(new ArrayList<>(labels));
+    }
+
+    public String getDriverName() {
+      return labels.get(0);
+    }
+
+    public String getDriverVersion() {
+      return labels.get(1);
+    }
+
+    public String getUser() {
+      return labels.get(2);
+    }
+
+    public long getRequests() {
+      return requests.sum();
+    }
+
+    public long getInFlight() {
+      return inFlight.sum();
+    }
+  }
+}
@@ -5,9 +5,21 @@
  */
 package com.datastax.mgmtapi;
 
+import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor;
 import com.datastax.mgmtapi.rpc.Rpc;
+import com.datastax.mgmtapi.rpc.RpcCacheable;
+import com.datastax.mgmtapi.rpc.RpcCall;
+import com.datastax.mgmtapi.rpc.RpcClientState;
+import com.datastax.mgmtapi.rpc.RpcCursor;
+import com.datastax.mgmtapi.rpc.RpcDeadline;
+import com.datastax.mgmtapi.rpc.RpcFutureResult;
+import com.datastax.mgmtapi.rpc.RpcLane;
+import com.datastax.mgmtapi.rpc.RpcMethod;
+import com.datastax.mgmtapi.rpc.RpcMetrics;
 import com.datastax.mgmtapi.rpc.RpcParam;
 import com.datastax.mgmtapi.rpc.RpcRegistry;
+import com.datastax.mgmtapi.rpc.RpcResultCache;
+import com.datastax.mgmtapi.rpc.RpcResultCache.Scope;
 import com.datastax.mgmtapi.util.Job;
 import com.datastax.mgmtapi.util.JobExecutor;
 import com.datastax.oss.driver.api.core.CqlIdentifier;
@@ -24,24 +36,36 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.k8ssandra.shaded.com.fasterxml.jackson.core.JsonProcessingException;
 import io.k8ssandra.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.management.openmbean.CompositeDataSupport;
 import javax.management.openmbean.TabularData;
 import org.apache.cassandra.auth.AuthenticatedUser;
@@ -52,6 +76,7 @@ import org.apache.cassandra.cql3.UntypedResultSet;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.db.compaction.OperationType;
 import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.exceptions.OverloadedException;
 import org.apache.cassandra.repair.RepairParallelism;
 import org.apache.cassandra.repair.messages.RepairOption;
 import org.apache.cassandra.service.StorageProxy;
@@ -67,15 +92,70 @@ public class NodeOpsProvider {
       Suppliers.memoize(() -> new NodeOpsProvider());
   public static JobExecutor service = new JobExecutor();
 
+  // Runs the asynchronous methods, their callers don't wait for the result on their own thread.
+  // Bounded like the RPC lanes, the calls are rejected as overloaded once the queue is full.
+  private static final ExecutorService asyncExecutor =
+      newAsyncExecutor(
+          Integer.getInteger("mgmtapi.nodeops.async.threads", 4),
+          Integer.getInteger("mgmtapi.nodeops.async.queue", 64));
+
   public static final String RPC_CLASS_NAME = "NodeOps";
 
+  // The read-only LIGHT methods polled by the operator, the other ones keep their own lane
+  @VisibleForTesting
+  static final Set<String> BATCHABLE_METHODS =
+      ImmutableSet.of(
+          "getClientConnections",
+          "getCompactions",
+          "getEndpointStates",
+          "getJobStatus",
+          "getKeyspaces",
+          "getLocalDataCenter",
+          "getRangeToEndpointMap",
+          "getReleaseVersion",
+          "getReplication",
+          "getStreamInfo",
+          "getTables",
+          "isFullQueryLogEnabled",
+          "listRoles");
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
   private static final DataTypeCqlNameParser DATA_TYPE_PARSER = new DataTypeCqlNameParser();
 
   @VisibleForTesting
   protected NodeOpsProvider() {}
 
+  @VisibleForTesting
+  static ExecutorService newAsyncExecutor(int threads, int queueSize) {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new ThreadFactoryBuilder()
+                .setNameFormat("mgmtapi-nodeops-async-%d")
+                .setDaemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  @VisibleForTesting
+  static <T> CompletableFuture<T> supplyAsync(
+      ExecutorService executor, java.util.function.Supplier<T> supplier) {
+    try {
+      return CompletableFuture.supplyAsync(supplier, executor);
+    } catch (RejectedExecutionException e) {
+      throw new OverloadedException("Too many pending asynchronous management calls");
+    }
+  }
+
   public synchronized void register() {
     RpcRegistry.register(RPC_CLASS_NAME, this);
+    RpcResultCache.instance.start();
   }
 
   public synchronized void unregister() {
@@ -108,9 +188,8 @@ public class NodeOpsProvider {
       statusChanges.add(change);
     }
 
-    ObjectMapper objectMapper = new ObjectMapper();
     try {
-      String s = objectMapper.writeValueAsString(statusChanges);
+      String s = OBJECT_MAPPER.writeValueAsString(statusChanges);
       resultMap.put("status_changes", s);
     } catch (JsonProcessingException e) {
       throw new RuntimeException(e);
@@ -180,7 +259,7 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().deleteIdentityToRole(identity);
   }
 
-  @Rpc(name = "decommission")
+  @Rpc(name = "decommission", lane = RpcLane.HEAVY)
   public String decommission(
       @RpcParam(name = "force") boolean force, @RpcParam(name = "async") boolean async)
       throws InterruptedException {
@@ -204,7 +283,7 @@ public class NodeOpsProvider {
     return jobPair.left;
   }
 
-  @Rpc(name = "rebuild")
+  @Rpc(name = "rebuild", lane = RpcLane.HEAVY)
   public String rebuild(@RpcParam(name = "srcDatacenter") String srcDatacenter) {
     logger.debug("Starting rebuild");
 
@@ -220,7 +299,7 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().getStorageService().setCompactionThroughputMbPerSec(value);
   }
 
-  @Rpc(name = "assassinate")
+  @Rpc(name = "assassinate", lane = RpcLane.HEAVY)
   public void assassinate(@RpcParam(name = "address") String address) throws UnknownHostException {
     logger.debug("Assassinating {}", address);
     ShimLoader.instance.get().getGossiper().assassinateEndpoint(address);
@@ -235,34 +314,36 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().getStorageService().setLoggingLevel(classQualifier, level);
   }
 
-  @Rpc(name = "drain")
+  @Rpc(name = "drain", lane = RpcLane.HEAVY)
   public void drain() throws InterruptedException, ExecutionException, IOException {
     logger.debug("Draining");
     ShimLoader.instance.get().getStorageService().drain();
   }
 
-  @Rpc(name = "truncateAllHints")
+  @Rpc(name = "truncateAllHints", lane = RpcLane.HEAVY)
   public void truncateHints() {
     logger.debug("Truncating all hints");
     ShimLoader.instance.get().getHintsService().deleteAllHints();
   }
 
-  @Rpc(name = "truncateHintsForHost")
+  @Rpc(name = "truncateHintsForHost", lane = RpcLane.HEAVY)
   public void truncateHints(@RpcParam(name = "host") String host) {
     logger.debug("Truncating hints for host {}", host);
     ShimLoader.instance.get().getHintsService().deleteAllHintsForEndpoint(host);
   }
 
-  @Rpc(name = "resetLocalSchema")
+  @Rpc(name = "resetLocalSchema", lane = RpcLane.HEAVY)
   public void resetLocalSchema() throws IOException {
     logger.debug("Resetting local schema");
     ShimLoader.instance.get().getStorageService().resetLocalSchema();
+    RpcResultCache.instance.invalidate(Scope.SCHEMA);
   }
 
-  @Rpc(name = "reloadLocalSchema")
+  @Rpc(name = "reloadLocalSchema", lane = RpcLane.HEAVY)
   public void reloadLocalSchema() {
     logger.debug("Reloading local schema");
     ShimLoader.instance.get().getStorageService().reloadLocalSchema();
+    RpcResultCache.instance.invalidate(Scope.SCHEMA);
   }
 
   private String submitJob(String operationName, Runnable operation, boolean async) {
@@ -275,7 +356,7 @@ public class NodeOpsProvider {
     return jobPair.left;
   }
 
-  @Rpc(name = "upgradeSSTables")
+  @Rpc(name = "upgradeSSTables", lane = RpcLane.HEAVY)
   public String upgradeSSTables(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "excludeCurrentVersion") boolean excludeCurrentVersion,
@@ -312,7 +393,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.UPGRADE_SSTABLES.name(), upgradeOperation, async);
   }
 
-  @Rpc(name = "forceKeyspaceCleanup")
+  @Rpc(name = "forceKeyspaceCleanup", lane = RpcLane.HEAVY)
   public String forceKeyspaceCleanup(
       @RpcParam(name = "jobs") int jobs,
       @RpcParam(name = "keyspaceName") String keyspaceName,
@@ -347,7 +428,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.CLEANUP.name(), cleanupOperation, async);
   }
 
-  @Rpc(name = "forceKeyspaceCompactionForTokenRange")
+  @Rpc(name = "forceKeyspaceCompactionForTokenRange", lane = RpcLane.HEAVY)
   public String forceKeyspaceCompactionForTokenRange(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "startToken") String startToken,
@@ -382,7 +463,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.COMPACTION.name(), compactionOperation, async);
   }
 
-  @Rpc(name = "forceKeyspaceCompaction")
+  @Rpc(name = "forceKeyspaceCompaction", lane = RpcLane.HEAVY)
   public String forceKeyspaceCompaction(
       @RpcParam(name = "splitOutput") boolean splitOutput,
       @RpcParam(name = "keyspaceName") String keyspaceName,
@@ -422,7 +503,7 @@ public class NodeOpsProvider {
     return ShimLoader.instance.get().getCompactionManager().getCompactions();
   }
 
-  @Rpc(name = "garbageCollect")
+  @Rpc(name = "garbageCollect", lane = RpcLane.HEAVY)
   public String garbageCollect(
       @RpcParam(name = "tombstoneOption") String tombstoneOption,
       @RpcParam(name = "jobs") int jobs,
@@ -456,7 +537,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.GARBAGE_COLLECT.name(), garbageCollectOperation, async);
   }
 
-  @Rpc(name = "loadNewSSTables")
+  @Rpc(name = "loadNewSSTables", lane = RpcLane.HEAVY)
   public void loadNewSSTables(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "table") String table) {
@@ -464,7 +545,7 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().getStorageService().loadNewSSTables(keyspaceName, table);
   }
 
-  @Rpc(name = "forceKeyspaceFlush")
+  @Rpc(name = "forceKeyspaceFlush", lane = RpcLane.HEAVY)
   public String forceKeyspaceFlush(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "tableNames") List<String> tableNames,
@@ -495,7 +576,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.FLUSH.name(), flushOperation, async);
   }
 
-  @Rpc(name = "scrub")
+  @Rpc(name = "scrub", lane = RpcLane.HEAVY)
   public String scrub(
       @RpcParam(name = "disableSnapshot") boolean disableSnapshot,
       @RpcParam(name = "skipCorrupted") boolean skipCorrupted,
@@ -538,7 +619,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.SCRUB.name(), scrubOperation, async);
   }
 
-  @Rpc(name = "forceUserDefinedCompaction")
+  @Rpc(name = "forceUserDefinedCompaction", lane = RpcLane.HEAVY)
   public String forceUserDefinedCompaction(
       @RpcParam(name = "datafiles") String datafiles, @RpcParam(name = "async") boolean async) {
     logger.debug("Forcing user defined compaction");
@@ -549,7 +630,7 @@ public class NodeOpsProvider {
     return submitJob(OperationType.COMPACTION.name(), compactOperation, async);
   }
 
-  @Rpc(name = "createRole")
+  @Rpc(name = "createRole", lane = RpcLane.HEAVY)
   public void createRole(
       @RpcParam(name = "username") String username,
       @RpcParam(name = "superuser") Boolean superUser,
@@ -571,7 +652,7 @@ public class NodeOpsProvider {
     return ShimLoader.instance.get().listRoles();
   }
 
-  @Rpc(name = "dropRole")
+  @Rpc(name = "dropRole", lane = RpcLane.HEAVY)
   public void dropRole(@RpcParam(name = "username") String username) {
     logger.debug("Dropping role {}", username);
     RoleResource rr = RoleResource.role(username);
@@ -579,8 +660,8 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().getRoleManager().dropRole(AuthenticatedUser.SYSTEM_USER, rr);
   }
 
-  @Rpc(name = "checkConsistencyLevel")
-  public Map<List<Long>, List<String>> checkConsistencyLevel(
+  @Rpc(name = "checkConsistencyLevel", lane = RpcLane.HEAVY)
+  public CompletableFuture<Map<List<Long>, List<String>>> checkConsistencyLevel(
       @RpcParam(name = "consistency_level") String consistencyLevelName,
       @RpcParam(name = "rf_per_dc") Integer rfPerDc) {
     logger.debug("Checking cl={} assuming {} replicas per node", consistencyLevelName, rfPerDc);
@@ -588,30 +669,62 @@ public class NodeOpsProvider {
     Preconditions.checkArgument(rfPerDc != null, "rf_per_dc must be defined");
     Preconditions.checkArgument(rfPerDc > 0, "rf_per_dc must be > 0");
 
-    return ShimLoader.instance.get().checkConsistencyLevel(consistencyLevelName, rfPerDc);
+    // Contacts the replicas of every range, can take as long as the read timeout
+    return supplyAsync(
+        asyncExecutor,
+        () -> ShimLoader.instance.get().checkConsistencyLevel(consistencyLevelName, rfPerDc));
   }
 
   @Rpc(name = "getEndpointStates")
+  @RpcCacheable(invalidatedBy = Scope.ENDPOINTS)
   public List<Map<String, String>> getEndpointStates() {
     return ShimLoader.instance.get().getEndpointStates();
   }
 
+  /** The endpoint states one row per endpoint, so that clients can page through large clusters. */
+  @Rpc(name = "getEndpointStatesPaged", multiRow = true)
+  @RpcCacheable(invalidatedBy = Scope.ENDPOINTS)
+  public Iterator<Map<String, String>> getEndpointStatesPaged() {
+    return ShimLoader.instance.get().getEndpointStates().iterator();
+  }
+
+  @Rpc(name = "getClientConnections")
+  public List<Map<String, String>> getClientConnections() {
+    List<Map<String, String>> clients = ShimLoader.instance.get().getConnectedClients();
+    Set<InetSocketAddress> open = new HashSet<>();
+    for (Map<String, String> client : clients) {
+      InetSocketAddress address = ClientRequestTracker.parseAddress(client.get("address"));
+      ClientRequestTracker.Connection connection =
+          address == null ? null : ClientRequestTracker.instance.getConnection(address);
+      client.put("inFlight", String.valueOf(connection == null ? 0 : connection.getInFlight()));
+      if (!client.containsKey("requests") && connection != null) {
+        client.put("requests", String.valueOf(connection.getRequests()));
+      }
+      open.add(address);
+    }
+    ClientRequestTracker.instance.retain(open);
+    return clients;
+  }
+
   @Rpc(name = "getStreamInfo")
   public List<Map<String, List<Map<String, String>>>> getStreamInfo() {
     return ShimLoader.instance.get().getStreamInfo();
   }
 
-  @Rpc(name = "getSchemaVersions")
-  public Map<String, List<String>> getSchemaVersions() {
-    return StorageProxy.instance.getSchemaVersions();
+  @Rpc(name = "getSchemaVersions", lane = RpcLane.HEAVY)
+  public CompletableFuture<Map<String, List<String>>> getSchemaVersions() {
+    // Waits for the schema version of every live node, up to the RPC timeout
+    return supplyAsync(asyncExecutor, StorageProxy.instance::getSchemaVersions);
   }
 
   @Rpc(name = "getKeyspaces")
+  @RpcCacheable(invalidatedBy = Scope.SCHEMA)
   public List<String> getKeyspaces() {
     return ShimLoader.instance.get().getKeyspaces();
   }
 
   @Rpc(name = "getReplication")
+  @RpcCacheable(invalidatedBy = Scope.SCHEMA)
   public Map<String, String> getReplication(@RpcParam(name = "keyspaceName") String keyspaceName) {
     String query =
         QueryBuilder.selectFrom("system_schema", "keyspaces")
@@ -625,7 +738,9 @@ public class NodeOpsProvider {
     return rows.one().getMap("replication", UTF8Type.instance, UTF8Type.instance);
   }
 
-  @Rpc(name = "getTables", multiRow = true)
+  // Rows of a single partition, sorted by table name
+  @Rpc(name = "getTables", multiRow = true, stableOrder = true)
+  @RpcCacheable(invalidatedBy = Scope.SCHEMA)
   public List<Table> getTables(@RpcParam(name = "keyspaceName") String keyspaceName) {
     String query =
         QueryBuilder.selectFrom("system_schema", "tables")
@@ -641,7 +756,7 @@ public class NodeOpsProvider {
     return tables;
   }
 
-  @Rpc(name = "createKeyspace")
+  @Rpc(name = "createKeyspace", lane = RpcLane.HEAVY)
   public void createKeyspace(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "replicationSettings") Map<String, Integer> replicationSettings)
@@ -657,9 +772,11 @@ public class NodeOpsProvider {
                 .withNetworkTopologyStrategy(replicationSettings)
                 .asCql(),
             ConsistencyLevel.ONE);
+    // Don't wait for the schema version to be gossiped to read our own write
+    RpcResultCache.instance.invalidate(Scope.SCHEMA);
   }
 
-  @Rpc(name = "createTable")
+  @Rpc(name = "createTable", lane = RpcLane.HEAVY)
   public void createTable(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "tableName") String tableName,
@@ -711,6 +828,7 @@ public class NodeOpsProvider {
     String query = stmtFinal.asCql();
     logger.debug("Generated query: {}", query);
     ShimLoader.instance.get().processQuery(query, ConsistencyLevel.ONE);
+    RpcResultCache.instance.invalidate(Scope.SCHEMA);
     logger.debug("Table successfully created: {}", tableId);
   }
 
@@ -719,7 +837,7 @@ public class NodeOpsProvider {
     return ShimLoader.instance.get().getLocalDataCenter();
   }
 
-  @Rpc(name = "alterKeyspace")
+  @Rpc(name = "alterKeyspace", lane = RpcLane.HEAVY)
   public void alterKeyspace(
       @RpcParam(name = "keyspaceName") String keyspaceName,
       @RpcParam(name = "replicationSettings") Map<String, Integer> replicationSettings)
@@ -734,42 +852,64 @@ public class NodeOpsProvider {
                 .withNetworkTopologyStrategy(replicationSettings)
                 .asCql(),
             ConsistencyLevel.ONE);
+    RpcResultCache.instance.invalidate(Scope.SCHEMA);
   }
 
-  @Rpc(name = "getSnapshotDetails")
+  @Rpc(name = "getSnapshotDetails", lane = RpcLane.HEAVY)
   public List<Map<String, String>> getSnapshotDetails(
       @RpcParam(name = "snapshotNames") List<String> snapshotNames,
       @RpcParam(name = "keyspaces") List<String> keyspaces) {
     logger.debug(
         "Fetching snapshots with snapshot names {} and keyspaces {}", snapshotNames, keyspaces);
-    List<Map<String, String>> detailsList = new ArrayList<>();
+    return snapshotDetails(snapshotNames, keyspaces).collect(Collectors.toList());
+  }
+
+  /**
+   * The snapshot details one row per snapshot and table. The rows are built as the client pages
+   * through them.
+   */
+  @Rpc(name = "getSnapshotDetailsPaged", multiRow = true, lane = RpcLane.HEAVY)
+  public Stream<Map<String, String>> getSnapshotDetailsPaged(
+      @RpcParam(name = "snapshotNames") List<String> snapshotNames,
+      @RpcParam(name = "keyspaces") List<String> keyspaces) {
+    logger.debug(
+        "Fetching snapshots with snapshot names {} and keyspaces {}", snapshotNames, keyspaces);
+    return snapshotDetails(snapshotNames, keyspaces);
+  }
+
+  private Stream<Map<String, String>> snapshotDetails(
+      List<String> snapshotNames, List<String> keyspaces) {
     // get the map of snapshots
     Map<String, TabularData> snapshots =
         ShimLoader.instance.get().getStorageService().getSnapshotDetails();
-    for (Map.Entry<String, TabularData> entry : snapshots.entrySet()) {
-      // create the map of data per snapshot name
-      String snapshotTag = entry.getKey();
-      if (snapshotNames == null || snapshotNames.isEmpty() || snapshotNames.contains(snapshotTag)) {
-        TabularData tabularData = entry.getValue();
-        for (CompositeDataSupport compositeData :
-            (Collection<CompositeDataSupport>) (tabularData.values())) {
-          String keyspaceName = compositeData.get("Keyspace name").toString();
-          if (keyspaces == null || keyspaces.isEmpty() || keyspaces.contains(keyspaceName)) {
-            Map<String, String> detailsMap = new HashMap<>();
-            for (String itemName : compositeData.getCompositeType().keySet()) {
-              Object item = compositeData.get(itemName);
-              String value = item == null ? "null" : item.toString();
-              detailsMap.put(itemName, value);
-            }
-            detailsList.add(detailsMap);
-          }
-        }
-      }
-    }
-    return detailsList;
+    return snapshots.entrySet().stream()
+        .filter(
+            entry ->
+                snapshotNames == null
+                    || snapshotNames.isEmpty()
+                    || snapshotNames.contains(entry.getKey()))
+        .flatMap(entry -> ((Collection<CompositeDataSupport>) entry.getValue().values()).stream())
+        .filter(
+            compositeData ->
+                keyspaces == null
+                    || keyspaces.isEmpty()
+                    || keyspaces.contains(compositeData.get("Keyspace name").toString()))
+        .map(
+            compositeData -> {
+              // Only stops the calls returning all the rows at once, paged rows are built later
+              RpcDeadline.check();
+              // create the map of data per snapshot and table
+              Map<String, String> detailsMap = new HashMap<>();
+              for (String itemName : compositeData.getCompositeType().keySet()) {
+                Object item = compositeData.get(itemName);
+                String value = item == null ? "null" : item.toString();
+                detailsMap.put(itemName, value);
+              }
+              return detailsMap;
+            });
   }
 
-  @Rpc(name = "takeSnapshot")
+  @Rpc(name = "takeSnapshot", lane = RpcLane.HEAVY)
   public void takeSnapshot(
       @RpcParam(name = "snapshotName") String snapshotName,
       @RpcParam(name = "keyspaces") List<String> keyspaces,
@@ -802,7 +942,7 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().getStorageService().takeSnapshot(snapshotName, optionsMap, entities);
   }
 
-  @Rpc(name = "clearSnapshots")
+  @Rpc(name = "clearSnapshots", lane = RpcLane.HEAVY)
   public void clearSnapshots(
       @RpcParam(name = "snapshotNames") List<String> snapshotNames,
       @RpcParam(name = "keyspaces") List<String> keyspaces)
@@ -824,7 +964,7 @@ public class NodeOpsProvider {
     }
   }
 
-  @Rpc(name = "repair")
+  @Rpc(name = "repair", lane = RpcLane.HEAVY)
   public String repair(
       @RpcParam(name = "keyspaceName") String keyspace,
       @RpcParam(name = "tables") List<String> tables,
@@ -904,7 +1044,7 @@ public class NodeOpsProvider {
     ShimLoader.instance.get().getStorageService().forceTerminateAllRepairSessions();
   }
 
-  @Rpc(name = "move")
+  @Rpc(name = "move", lane = RpcLane.HEAVY)
   public String move(
       @RpcParam(name = "newToken") String newToken, @RpcParam(name = "async") boolean async)
       throws IOException {
@@ -929,8 +1069,84 @@ public class NodeOpsProvider {
   }
 
   @Rpc(name = "getRangeToEndpointMap")
+  @RpcCacheable(invalidatedBy = {Scope.SCHEMA, Scope.RING})
   public Map<List<String>, List<String>> getRangeToEndpointMap(
       @RpcParam(name = "keyspaceName") String keyspaceName) {
     return ShimLoader.instance.get().getStorageService().getRangeToEndpointMap(keyspaceName);
   }
+
+  /** The token range endpoints one row per range, so that clients can page through them. */
+  @Rpc(name = "getRangeToEndpointMapPaged", multiRow = true)
+  @RpcCacheable(invalidatedBy = {Scope.SCHEMA, Scope.RING})
+  public Stream<TokenRangeEndpoints> getRangeToEndpointMapPaged(
+      @RpcParam(name = "keyspaceName") String keyspaceName) {
+    Map<List<String>, List<String>> ranges =
+        ShimLoader.instance.get().getStorageService().getRangeToEndpointMap(keyspaceName);
+    return ranges.entrySet().stream()
+        .map(entry -> new TokenRangeEndpoints(entry.getKey(), entry.getValue()));
+  }
+
+  /**
+   * Execute several calls in a single round trip. Each call is written as in a CALL statement,
+   * without the NodeOps prefix and with literal arguments only, like {@code getJobStatus(abc)}. The
+   * calls are executed in order, a failed call doesn't prevent the next ones. Only the {@link
+   * #BATCHABLE_METHODS} can be batched.
+   */
+  @Rpc(name = "batch", multiRow = true, lane = RpcLane.HEAVY)
+  public List<BatchCallResult> batch(
+      @RpcParam(name = "calls") List<String> calls, RpcClientState clientState) {
+    Preconditions.checkArgument(calls != null, "calls must be defined");
+
+    List<BatchCallResult> results = new ArrayList<>(calls.size());
+    for (String call : calls) {
+      try {
+        Object result = invokeBatchedCall(call, clientState);
+        results.add(BatchCallResult.success(call, OBJECT_MAPPER.writeValueAsString(result)));
+      } catch (Throwable t) {
+        logger.debug("Batched call {} failed", call, t);
+        results.add(BatchCallResult.failure(call, t));
+      }
+    }
+    return results;
+  }
+
+  private static Object invokeBatchedCall(String call, RpcClientState clientState)
+      throws Throwable {
+    // Not cached, the batched calls would evict the statements of the other clients
+    RpcCall rpcCall =
+        QueryHandlerInterceptor.parseUncached("CALL " + RPC_CLASS_NAME + "." + call);
+    if (rpcCall == null) {
+      throw new IllegalArgumentException("Invalid call " + call);
+    }
+    RpcMethod method = rpcCall.getMethod();
+    if (!BATCHABLE_METHODS.contains(method.getName())) {
+      throw new IllegalArgumentException(method.getName() + " can't be batched");
+    }
+
+    List<ByteBuffer> parameters = rpcCall.bind(Collections.emptyList());
+    // Batched calls are measured as their own method too
+    RpcMetrics.Method metrics = RpcMetrics.instance.forMethod(method.getName());
+    long start = metrics.begin();
+    Throwable error = null;
+    Object result;
+    try {
+      result = method.invoke(clientState, parameters);
+      if (result instanceof CompletableFuture) {
+        // The batch is answered once, when all its calls completed
+        result = ((CompletableFuture<?>) result).get();
+      }
+    } catch (ExecutionException e) {
+      error = RpcFutureResult.unwrap(e);
+      throw error;
+    } catch (Throwable t) {
+      error = t;
+      throw t;
+    } finally {
+      metrics.end(start, error);
+    }
+    if (result instanceof Iterator || result instanceof Stream) {
+      result = RpcCursor.collect(result);
+    }
+    return result;
+  }
 }
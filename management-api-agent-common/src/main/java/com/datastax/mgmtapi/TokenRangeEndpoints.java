@@ -0,0 +1,18 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import java.util.List;
+
+public class TokenRangeEndpoints {
+  public final List<String> range;
+  public final List<String> endpoints;
+
+  public TokenRangeEndpoints(List<String> range, List<String> endpoints) {
+    this.range = range;
+    this.endpoints = endpoints;
+  }
+}
@@ -38,7 +38,7 @@ public class CassandraDaemonInterceptor {
       CassandraDaemonInterceptor.class.getPackage().getImplementationVersion();
 
   public static ElementMatcher<? super TypeDescription> type() {
-    return ElementMatchers.nameEndsWith(".CassandraDaemon");
+    return ElementMatchers.named("org.apache.cassandra.service.CassandraDaemon");
   }
 
   public static Transformer transformer() {
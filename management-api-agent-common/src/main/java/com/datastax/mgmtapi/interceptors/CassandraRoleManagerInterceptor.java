@@ -28,7 +28,7 @@ public class CassandraRoleManagerInterceptor {
       LoggerFactory.getLogger(CassandraRoleManagerInterceptor.class);
 
   public static ElementMatcher<? super TypeDescription> type() {
-    return ElementMatchers.nameEndsWith(".CassandraRoleManager");
+    return ElementMatchers.named("org.apache.cassandra.auth.CassandraRoleManager");
   }
 
   public static AgentBuilder.Transformer transformer() {
@@ -0,0 +1,49 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.interceptors;
+
+import com.datastax.mgmtapi.ClientRequestTracker;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.cassandra.service.QueryState;
+
+/**
+ * Counts the batch requests of the native transport clients. Simple and prepared statements are
+ * counted by {@link QueryHandlerInterceptor}, which already intercepts {@code process} and {@code
+ * processPrepared}. Only the QueryHandler entry point, which takes the custom payload, is counted.
+ */
+public class ClientRequestInterceptor {
+
+  public static ElementMatcher<? super TypeDescription> type() {
+    return QueryHandlerInterceptor.type();
+  }
+
+  public static AgentBuilder.Transformer transformer() {
+    return (builder, typeDescription, classLoader, javaModule, protectionDomain) ->
+        builder.visit(
+            Advice.to(ClientRequestInterceptor.class)
+                .on(
+                    ElementMatchers.named("processBatch")
+                        .and(ElementMatchers.takesArguments(5))
+                        .and(ElementMatchers.takesArgument(1, QueryState.class))
+                        .and(ElementMatchers.not(ElementMatchers.isAbstract()))));
+  }
+
+  @Advice.OnMethodEnter
+  public static ClientRequestTracker.Connection enter(@Advice.Argument(1) QueryState state) {
+    return ClientRequestTracker.instance.begin(state.getClientState());
+  }
+
+  @Advice.OnMethodExit(onThrowable = Throwable.class)
+  public static void exit(@Advice.Enter ClientRequestTracker.Connection connection) {
+    if (connection != null) {
+      connection.end();
+    }
+  }
+}
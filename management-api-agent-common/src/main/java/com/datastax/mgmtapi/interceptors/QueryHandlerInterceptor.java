@@ -5,118 +5,248 @@
  */
 package com.datastax.mgmtapi.interceptors;
 
+import com.datastax.mgmtapi.ClientRequestTracker;
 import com.datastax.mgmtapi.NodeOpsProvider;
 import com.datastax.mgmtapi.ShimLoader;
+import com.datastax.mgmtapi.rpc.RpcCall;
+import com.datastax.mgmtapi.rpc.RpcDeadline;
+import com.datastax.mgmtapi.rpc.RpcLanes;
 import com.datastax.mgmtapi.rpc.RpcMethod;
-import com.datastax.mgmtapi.rpc.RpcRegistry;
+import com.datastax.mgmtapi.rpc.RpcMetrics;
+import com.datastax.mgmtapi.rpc.RpcTracing;
 import com.datastax.mgmtapi.shims.RpcStatementShim;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.implementation.MethodDelegation;
-import net.bytebuddy.implementation.bind.annotation.AllArguments;
-import net.bytebuddy.implementation.bind.annotation.RuntimeType;
-import net.bytebuddy.implementation.bind.annotation.SuperCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
-import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryHandler;
 import org.apache.cassandra.cql3.QueryOptions;
-import org.apache.cassandra.exceptions.InvalidRequestException;
+import org.apache.cassandra.exceptions.UnauthorizedException;
 import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.QueryState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Executes the {@code CALL NodeOps.method(...)} statements sent over the management socket.
+ *
+ * <p>Every client query goes through the intercepted {@code process} methods, so the check is
+ * inlined with {@link Advice}: non-CALL queries only pay for a type check and a failed prefix
+ * comparison, without any allocation. The advice code is copied into the Cassandra classes, it can
+ * only reference public members and constants.
+ */
 public class QueryHandlerInterceptor {
   private static final Logger logger = LoggerFactory.getLogger(QueryHandlerInterceptor.class);
+  static final String CUSTOM_QUERY_HANDLER_PROPERTY = "cassandra.custom_query_handler_class";
   static final String handlePrefix = "CALL " + NodeOpsProvider.RPC_CLASS_NAME + ".";
   static final Pattern opsPattern = Pattern.compile("^CALL NodeOps\\.([^\\(]+)\\(([^\\)]*)\\)");
 
+  /**
+   * Cassandra's QueryProcessor, the handler set with {@value #CUSTOM_QUERY_HANDLER_PROPERTY} and
+   * the DSE handlers. The subtype check, which resolves the type hierarchy, only runs for the DSE
+   * classes named like a query handler.
+   */
   public static ElementMatcher<? super TypeDescription> type() {
-    return ElementMatchers.isSubTypeOf(QueryHandler.class);
+    ElementMatcher.Junction<TypeDescription> handlers =
+        ElementMatchers.named("org.apache.cassandra.cql3.QueryProcessor")
+            .or(
+                ElementMatchers.nameStartsWith("com.datastax.bdp.")
+                    .and(ElementMatchers.nameEndsWith("QueryHandler"))
+                    .and(ElementMatchers.isSubTypeOf(QueryHandler.class)));
+    String customHandler = System.getProperty(CUSTOM_QUERY_HANDLER_PROPERTY);
+    return customHandler == null
+        ? handlers
+        : handlers.or(ElementMatchers.named(customHandler.trim()));
   }
 
   public static AgentBuilder.Transformer transformer() {
     return (builder, typeDescription, classLoader, javaModule, protectionDomain) ->
-        builder
-            .method(ElementMatchers.named("process"))
-            .intercept(MethodDelegation.to(QueryHandlerInterceptor.class));
+        builder.visit(advice());
   }
 
-  @RuntimeType
-  public static Object intercept(
-      @AllArguments Object[] allArguments, @SuperCall Callable<Object> zuper) throws Throwable {
-    if (allArguments.length > 0 && allArguments[0] != null) {
-      if (allArguments[0] instanceof String) {
-        String query = (String) allArguments[0];
-        if (query.startsWith(handlePrefix)) {
-          QueryState state = (QueryState) allArguments[1];
-          QueryOptions options = (QueryOptions) allArguments[2];
+  /**
+   * Prepared CALL statements are executed through {@code processPrepared}. The QueryHandler entry
+   * points, which take the custom payload, also count the client requests. The internal overloads
+   * they delegate to would count the same request twice.
+   */
+  public static AsmVisitorWrapper advice() {
+    ElementMatcher.Junction<MethodDescription> process =
+        ElementMatchers.namedOneOf("process", "processPrepared")
+            .and(ElementMatchers.takesArgument(1, QueryState.class))
+            .and(ElementMatchers.takesArgument(2, QueryOptions.class))
+            .and(ElementMatchers.not(ElementMatchers.isAbstract()));
+    return new AsmVisitorWrapper.Compound(
+        Advice.to(ProcessAdvice.class).on(process.and(ElementMatchers.takesArguments(5))),
+        Advice.to(CallAdvice.class)
+            .on(process.and(ElementMatchers.not(ElementMatchers.takesArguments(5)))));
+  }
 
-          if (state.getClientState().isInternal) {
-            Matcher m = opsPattern.matcher(query);
-            if (m.matches()) {
-              return handle(
-                  state.getClientState(),
-                  options,
-                  NodeOpsProvider.RPC_CLASS_NAME,
-                  m.group(1),
-                  m.group(2).trim().isEmpty() ? new String[] {} : m.group(2).split("\\s*,\\s*"));
-            }
-          }
+  public static class ProcessAdvice {
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static Object enter(
+        @Advice.Argument(0) Object statement,
+        @Advice.Argument(1) QueryState state,
+        @Advice.Argument(2) QueryOptions options,
+        @Advice.Argument(3) Object customPayload,
+        @Advice.Local("connection") ClientRequestTracker.Connection connection)
+        throws Exception {
+      if (statement instanceof String
+          ? ((String) statement).startsWith(handlePrefix)
+          : statement instanceof RpcStatementShim) {
+        Object result = handleRpc(statement, state, options, customPayload);
+        if (result != null) {
+          return result;
         }
-      } else if (allArguments[0] instanceof RpcStatementShim) {
-        RpcStatementShim statement = (RpcStatementShim) allArguments[0];
-        QueryState state = (QueryState) allArguments[1];
-        QueryOptions options = (QueryOptions) allArguments[2];
-
-        return handle(
-            state.getClientState(),
-            options,
-            NodeOpsProvider.RPC_CLASS_NAME,
-            statement.getMethod(),
-            statement.getParams());
       }
+      connection = ClientRequestTracker.instance.begin(state.getClientState());
+      return null;
     }
 
-    return zuper.call();
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void exit(
+        @Advice.Enter Object result,
+        @Advice.Local("connection") ClientRequestTracker.Connection connection,
+        @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returned) {
+      if (connection != null) {
+        connection.end();
+      }
+      if (result != null) {
+        returned = result;
+      }
+    }
   }
 
-  private static Object handle(
-      ClientState state, QueryOptions options, String object, String method, String[] params)
-      throws Exception {
-    Optional<RpcMethod> rpcMethod = RpcRegistry.lookupMethod(object, method);
+  public static class CallAdvice {
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static Object enter(
+        @Advice.Argument(0) Object statement,
+        @Advice.Argument(1) QueryState state,
+        @Advice.Argument(2) QueryOptions options)
+        throws Exception {
+      if (statement instanceof String
+          ? ((String) statement).startsWith(handlePrefix)
+          : statement instanceof RpcStatementShim) {
+        return handleRpc(statement, state, options);
+      }
+      return null;
+    }
 
-    if (!rpcMethod.isPresent()) {
-      throw new InvalidRequestException(String.format("Missing method: %s.%s", object, method));
+    @Advice.OnMethodExit
+    public static void exit(
+        @Advice.Enter Object result,
+        @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returned) {
+      if (result != null) {
+        returned = result;
+      }
     }
+  }
 
-    if (rpcMethod.get().getArgumentCount() != params.length) {
-      throw new InvalidRequestException(
-          String.format("Incorrect number of arguments received for method %s.%s", object, method));
+  /**
+   * Execute the RPC of a CALL statement.
+   *
+   * @return the RPC result, or null if the statement must be processed by Cassandra
+   */
+  public static Object handleRpc(Object statement, QueryState state, QueryOptions options)
+      throws Exception {
+    return handleRpc(statement, state, options, null);
+  }
+
+  /**
+   * Execute the RPC of a CALL statement, rejecting it if the deadline of its custom payload passed.
+   *
+   * @return the RPC result, or null if the statement must be processed by Cassandra
+   */
+  public static Object handleRpc(
+      Object statement, QueryState state, QueryOptions options, Object customPayload)
+      throws Exception {
+    if (statement instanceof String) {
+      String query = (String) statement;
+      if (query.startsWith(handlePrefix) && state.getClientState().isInternal) {
+        RpcCall call = parse(query);
+        if (call != null) {
+          return execute(call, state.getClientState(), options, customPayload);
+        }
+      }
+    } else if (statement instanceof RpcStatementShim) {
+      // Only the management socket prepares CALL statements, their ids are predictable
+      if (!state.getClientState().isInternal) {
+        throw new UnauthorizedException(
+            "CALL statements are only allowed on the management socket");
+      }
+      RpcCall call =
+          RpcCall.forStatement(NodeOpsProvider.RPC_CLASS_NAME, (RpcStatementShim) statement);
+      return execute(call, state.getClientState(), options, customPayload);
     }
+    return null;
+  }
 
-    List<ByteBuffer> parameters = new ArrayList<>();
-    int argumentIndex = 0;
+  /**
+   * Parse a CALL statement, repeated statements are served from the cache.
+   *
+   * @return the call, or null if the query isn't a well formed CALL statement
+   */
+  public static RpcCall parse(String query) {
+    RpcCall call = RpcCall.lookup(query);
+    return call == null ? parse(query, true) : call;
+  }
 
-    logger.trace("RPC CALL {} with {} args", method, rpcMethod.get().getArgumentCount());
+  /**
+   * Parse a CALL statement without caching it, for the calls that don't come as statements and
+   * must not evict the cached ones.
+   *
+   * @return the call, or null if the query isn't a well formed CALL statement
+   */
+  public static RpcCall parseUncached(String query) {
+    return parse(query, false);
+  }
 
-    for (String value : params) {
-      logger.trace("Arg {} = '{}'", argumentIndex, value);
-      ColumnSpecification spec = rpcMethod.get().getArgumentSpecification(argumentIndex++);
-      if (value.equals("?")) parameters.add(options.getValues().get(argumentIndex - 1));
-      else parameters.add(spec.type.fromString(value));
+  private static RpcCall parse(String query, boolean cache) {
+    Matcher m = opsPattern.matcher(query);
+    if (!m.matches()) {
+      return null;
     }
+    String[] params =
+        m.group(2).trim().isEmpty() ? new String[] {} : m.group(2).split("\\s*,\\s*");
+    return cache
+        ? RpcCall.create(query, NodeOpsProvider.RPC_CLASS_NAME, m.group(1), params)
+        : RpcCall.resolve(NodeOpsProvider.RPC_CLASS_NAME, m.group(1), params);
+  }
 
+  private static Object execute(
+      RpcCall call, ClientState state, QueryOptions options, Object customPayload)
+      throws Exception {
+    RpcMethod rpcMethod = call.getMethod();
+    logger.trace("RPC CALL {} with {} args", rpcMethod.getName(), rpcMethod.getArgumentCount());
+    // Checked again when the call runs, it may wait on its lane
+    long deadline = RpcDeadline.fromPayload(customPayload);
+    RpcDeadline.check(deadline);
+    long dispatched = RpcTracing.dispatch(customPayload);
+    List<ByteBuffer> parameters = call.bind(options.getValues());
+    // Measured where the method runs, DSE executes it asynchronously
+    RpcMetrics.Method metrics = RpcMetrics.instance.forMethod(rpcMethod.getName());
     return ShimLoader.instance
         .get()
-        .handleRpcResult(() -> rpcMethod.get().execute(state, parameters));
+        .handleRpcResult(
+            () ->
+                RpcLanes.instance.execute(
+                    rpcMethod.getLane(),
+                    () ->
+                        RpcDeadline.call(
+                            deadline,
+                            () ->
+                                RpcTracing.call(
+                                    dispatched,
+                                    () ->
+                                        metrics.record(
+                                            () ->
+                                                rpcMethod.execute(state, parameters, options))))));
   }
 }
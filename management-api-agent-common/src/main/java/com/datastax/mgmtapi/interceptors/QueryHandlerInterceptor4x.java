@@ -6,55 +6,206 @@
 package com.datastax.mgmtapi.interceptors;
 
 import static com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor.handlePrefix;
-import static com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor.opsPattern;
 
-import com.datastax.mgmtapi.ShimLoader;
-import java.util.concurrent.Callable;
-import java.util.regex.Matcher;
+import com.datastax.mgmtapi.rpc.RpcCall;
 import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.Advice;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.implementation.MethodDelegation;
-import net.bytebuddy.implementation.bind.annotation.AllArguments;
-import net.bytebuddy.implementation.bind.annotation.RuntimeType;
-import net.bytebuddy.implementation.bind.annotation.SuperCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
-import org.apache.cassandra.cql3.QueryHandler;
+import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.QueryState;
+import org.apache.cassandra.utils.MD5Digest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Parses and prepares the CALL statements into RPC statements, inlined like {@link
+ * QueryHandlerInterceptor}. Prepared calls are kept by the agent, Cassandra's prepared statements
+ * are looked up first. The ids of the prepared calls are only resolved for the EXECUTE requests
+ * of internal clients.
+ */
 public class QueryHandlerInterceptor4x {
+  private static final Logger logger = LoggerFactory.getLogger(QueryHandlerInterceptor4x.class);
+  static final String EXECUTE_MESSAGE_CLASS_NAME =
+      "org.apache.cassandra.transport.messages.ExecuteMessage";
+  // Set while an EXECUTE request of an internal client looks up its statement
+  private static final ThreadLocal<Boolean> internalExecute = new ThreadLocal<>();
+
   public static ElementMatcher<? super TypeDescription> type() {
-    return ElementMatchers.isSubTypeOf(QueryHandler.class);
+    return QueryHandlerInterceptor.type();
   }
 
   public static AgentBuilder.Transformer transformer() {
     return (builder, typeDescription, classLoader, javaModule, protectionDomain) ->
         builder
-            .method(ElementMatchers.named("parse"))
-            .intercept(MethodDelegation.to(QueryHandlerInterceptor4x.class));
-  }
-
-  @RuntimeType
-  public static Object intercept(
-      @AllArguments Object[] allArguments, @SuperCall Callable<Object> zuper) throws Throwable {
-    if (allArguments.length > 0 && allArguments[0] != null && allArguments[0] instanceof String) {
-      String query = (String) allArguments[0];
-      if (query.startsWith(handlePrefix)) {
-        QueryState state = (QueryState) allArguments[1];
-
-        if (state.getClientState().isInternal) {
-          Matcher m = opsPattern.matcher(query);
-          if (m.matches()) {
-            return ShimLoader.instance
-                .get()
-                .makeRpcStatement(
-                    m.group(1),
-                    m.group(2).trim().isEmpty() ? new String[] {} : m.group(2).split("\\s*,\\s*"));
-          }
-        }
+            .visit(
+                Advice.to(ParseAdvice.class)
+                    .on(
+                        ElementMatchers.named("parse")
+                            .and(ElementMatchers.takesArgument(0, String.class))
+                            .and(ElementMatchers.takesArgument(1, QueryState.class))
+                            .and(ElementMatchers.not(ElementMatchers.isAbstract()))))
+            .visit(
+                Advice.to(PrepareAdvice.class)
+                    .on(
+                        ElementMatchers.named("prepare")
+                            .and(ElementMatchers.takesArguments(3))
+                            .and(ElementMatchers.takesArgument(0, String.class))
+                            .and(ElementMatchers.takesArgument(1, ClientState.class))
+                            .and(ElementMatchers.not(ElementMatchers.isAbstract()))))
+            .visit(
+                Advice.to(GetPreparedAdvice.class)
+                    .on(
+                        ElementMatchers.named("getPrepared")
+                            .and(ElementMatchers.takesArguments(1))
+                            .and(ElementMatchers.takesArgument(0, MD5Digest.class))
+                            .and(ElementMatchers.not(ElementMatchers.isAbstract()))));
+  }
+
+  /** The EXECUTE requests, which look up the prepared statements. */
+  public static ElementMatcher<? super TypeDescription> executeType() {
+    return ElementMatchers.named(EXECUTE_MESSAGE_CLASS_NAME);
+  }
+
+  public static AgentBuilder.Transformer executeTransformer() {
+    return (builder, typeDescription, classLoader, javaModule, protectionDomain) ->
+        builder.visit(
+            Advice.to(ExecuteAdvice.class)
+                .on(
+                    ElementMatchers.named("execute")
+                        .and(ElementMatchers.takesArgument(0, QueryState.class))
+                        .and(ElementMatchers.not(ElementMatchers.isAbstract()))));
+  }
+
+  public static class ParseAdvice {
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static Object enter(
+        @Advice.Argument(0) String query, @Advice.Argument(1) QueryState state) {
+      if (query != null && query.startsWith(handlePrefix)) {
+        return makeRpcStatement(query, state);
       }
+      return null;
     }
 
-    return zuper.call();
+    @Advice.OnMethodExit
+    public static void exit(
+        @Advice.Enter Object statement,
+        @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returned) {
+      if (statement != null) {
+        returned = statement;
+      }
+    }
+  }
+
+  public static class PrepareAdvice {
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static Object enter(
+        @Advice.Argument(0) String query, @Advice.Argument(1) ClientState state) {
+      if (query != null && query.startsWith(handlePrefix)) {
+        return prepareRpcStatement(query, state);
+      }
+      return null;
+    }
+
+    @Advice.OnMethodExit
+    public static void exit(
+        @Advice.Enter Object prepared,
+        @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returned) {
+      if (prepared != null) {
+        returned = prepared;
+      }
+    }
+  }
+
+  public static class GetPreparedAdvice {
+    @Advice.OnMethodExit
+    public static void exit(
+        @Advice.Argument(0) MD5Digest id,
+        @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returned) {
+      // Client statements are found by Cassandra, they never pay for the second lookup
+      if (returned == null) {
+        returned = getPreparedRpcStatement(id);
+      }
+    }
+  }
+
+  public static class ExecuteAdvice {
+    @Advice.OnMethodEnter
+    public static boolean enter(@Advice.Argument(0) QueryState state) {
+      return beginExecute(state);
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void exit(@Advice.Enter boolean internal) {
+      if (internal) {
+        endExecute();
+      }
+    }
+  }
+
+  /**
+   * Start an EXECUTE request, the prepared calls are resolved until it ends if the client is
+   * internal.
+   *
+   * @return true if the client is internal, {@link #endExecute()} must then be called
+   */
+  public static boolean beginExecute(QueryState state) {
+    if (state.getClientState().isInternal) {
+      internalExecute.set(Boolean.TRUE);
+      return true;
+    }
+    return false;
+  }
+
+  public static void endExecute() {
+    internalExecute.remove();
+  }
+
+  /**
+   * The prepared call of an id. The ids are the digests of the statements, external clients could
+   * compute them, so they are only resolved for the internal clients.
+   *
+   * @return the prepared call, or null if the id isn't one or the client isn't internal
+   */
+  public static Object getPreparedRpcStatement(MD5Digest id) {
+    return internalExecute.get() != null ? RpcCall.getPrepared(id) : null;
+  }
+
+  /**
+   * Parse a CALL statement.
+   *
+   * @return the RPC statement, or null if the query must be parsed by Cassandra
+   */
+  public static Object makeRpcStatement(String query, QueryState state) {
+    if (state.getClientState().isInternal) {
+      RpcCall call = QueryHandlerInterceptor.parse(query);
+      if (call != null) {
+        return call.getStatement();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Prepare a CALL statement.
+   *
+   * @return the response to the PREPARE request, or null if the query must be prepared by
+   *     Cassandra
+   */
+  public static Object prepareRpcStatement(String query, ClientState state) {
+    if (state.isInternal) {
+      RpcCall call = QueryHandlerInterceptor.parse(query);
+      if (call != null) {
+        try {
+          return call.prepare(query);
+        } catch (UnsupportedOperationException | LinkageError e) {
+          // Cassandra rejects the statement, the caller falls back to unprepared statements
+          logger.debug("Unable to prepare {}", query, e);
+        }
+      }
+    }
+    return null;
   }
 }
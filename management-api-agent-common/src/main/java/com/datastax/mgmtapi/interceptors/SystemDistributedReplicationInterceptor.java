@@ -6,6 +6,7 @@
 package com.datastax.mgmtapi.interceptors;
 
 import static net.bytebuddy.matcher.ElementMatchers.nameEndsWith;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
 
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
@@ -128,9 +129,12 @@ public class SystemDistributedReplicationInterceptor {
   }
 
   public static ElementMatcher<? super TypeDescription> type() {
-    return nameEndsWith(".AuthKeyspace")
-        .or(nameEndsWith(".TraceKeyspace"))
-        .or(nameEndsWith(".SystemDistributedKeyspace"));
+    // SystemDistributedKeyspace moved from repair to schema in 4.1
+    return nameStartsWith("org.apache.cassandra.")
+        .and(
+            nameEndsWith(".AuthKeyspace")
+                .or(nameEndsWith(".TraceKeyspace"))
+                .or(nameEndsWith(".SystemDistributedKeyspace")));
   }
 
   public static AgentBuilder.Transformer transformer() {
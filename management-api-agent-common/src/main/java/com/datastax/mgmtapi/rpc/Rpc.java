@@ -18,4 +18,13 @@ public @interface Rpc {
   String name();
 
   boolean multiRow() default false;
+
+  /**
+   * Whether a multi-row method returns its rows in the same order on every call. Only these
+   * methods are invoked again to resume a paging client whose cursor expired.
+   */
+  boolean stableOrder() default false;
+
+  /** The executor the method runs on, heavy calls must not delay the light ones. */
+  RpcLane lane() default RpcLane.LIGHT;
 }
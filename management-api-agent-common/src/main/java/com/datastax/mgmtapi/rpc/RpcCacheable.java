@@ -0,0 +1,20 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Method annotation for RPC methods whose result only depends on their arguments and on the state
+ * they are invalidated by, see {@link RpcResultCache}.
+ *
+ * <p>Cached results are shared between calls and must not be modified.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RpcCacheable {
+  RpcResultCache.Scope[] invalidatedBy();
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.datastax.mgmtapi.ShimLoader;
+import com.datastax.mgmtapi.shims.RpcStatementShim;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.cql3.QueryHandler;
+import org.apache.cassandra.cql3.ResultSet;
+import org.apache.cassandra.exceptions.InvalidRequestException;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.apache.cassandra.utils.MD5Digest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A parsed CALL statement: the resolved method and its decoded literal arguments.
+ *
+ * <p>The management server sends the same statements over and over, the parsed calls are cached by
+ * statement text so repeated calls skip the parsing and the decoding of the literals. The cache is
+ * cleared when RPC objects are registered or unregistered.
+ */
+public class RpcCall {
+  private static final Logger logger = LoggerFactory.getLogger(RpcCall.class);
+
+  static final int CACHE_SIZE = 1024;
+  static final String BIND_MARKER = "?";
+
+  private static final Cache<String, RpcCall> calls =
+      CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+  // Weak keys compare by identity. The calls hold their statement, so the entries are never
+  // collected and the size bounds the cache; evicted statements are resolved again.
+  private static final Cache<RpcStatementShim, RpcCall> statements =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(CACHE_SIZE).build();
+  // Evicted statements are prepared again by the driver
+  private static final Cache<MD5Digest, QueryHandler.Prepared> preparedStatements =
+      CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  private final String methodName;
+  private final String[] params;
+  private final RpcMethod method;
+  // null for the bind markers
+  private final ByteBuffer[] values;
+  private final List<ColumnSpecification> bindVariables;
+  private volatile RpcStatementShim statement;
+
+  @VisibleForTesting
+  RpcCall(RpcMethod method, String methodName, String[] params) {
+    this.methodName = methodName;
+    this.params = params;
+    this.method = method;
+    this.values = new ByteBuffer[params.length];
+    List<ColumnSpecification> variables = new ArrayList<>();
+    for (int i = 0; i < params.length; i++) {
+      logger.trace("Arg {} = '{}'", i, params[i]);
+      ColumnSpecification spec = method.getArgumentSpecification(i);
+      if (params[i].equals(BIND_MARKER)) {
+        variables.add(spec);
+      } else {
+        values[i] = spec.type.fromString(params[i]);
+      }
+    }
+    this.bindVariables = Collections.unmodifiableList(variables);
+  }
+
+  private static RpcMethod resolve(String object, String methodName, int argumentCount) {
+    Optional<RpcMethod> rpcMethod = RpcRegistry.lookupMethod(object, methodName);
+    if (!rpcMethod.isPresent()) {
+      throw new InvalidRequestException(
+          String.format("Missing method: %s.%s", object, methodName));
+    }
+
+    if (rpcMethod.get().getArgumentCount() != argumentCount) {
+      throw new InvalidRequestException(
+          String.format(
+              "Incorrect number of arguments received for method %s.%s", object, methodName));
+    }
+    return rpcMethod.get();
+  }
+
+  /** The cached call of a statement, or null if it wasn't parsed yet. */
+  public static RpcCall lookup(String query) {
+    return calls.getIfPresent(query);
+  }
+
+  /** Resolve a call and cache it, only valid calls are cached. */
+  public static RpcCall create(String query, String object, String methodName, String[] params) {
+    RpcMethod method = resolve(object, methodName, params.length);
+    return cache(query, new RpcCall(method, methodName, params));
+  }
+
+  /** Resolve a call without caching it, for calls that aren't sent as statements. */
+  public static RpcCall resolve(String object, String methodName, String[] params) {
+    return new RpcCall(resolve(object, methodName, params.length), methodName, params);
+  }
+
+  @VisibleForTesting
+  static RpcCall cache(String query, RpcCall call) {
+    calls.put(query, call);
+    return call;
+  }
+
+  /** Resolve the call of a statement, cached if it was created by {@link #getStatement()}. */
+  public static RpcCall forStatement(String object, RpcStatementShim statement) {
+    RpcCall call = statements.getIfPresent(statement);
+    if (call == null) {
+      String[] params = statement.getParams();
+      RpcMethod method = resolve(object, statement.getMethod(), params.length);
+      call = new RpcCall(method, statement.getMethod(), params);
+    }
+    return call;
+  }
+
+  /** The prepared statement of an id, or null if it isn't a prepared call. */
+  public static QueryHandler.Prepared getPrepared(MD5Digest id) {
+    return preparedStatements.getIfPresent(id);
+  }
+
+  static void invalidateAll() {
+    calls.invalidateAll();
+    statements.invalidateAll();
+    preparedStatements.invalidateAll();
+  }
+
+  public RpcMethod getMethod() {
+    return method;
+  }
+
+  /** The specifications of the arguments passed as bind markers, in the statement order. */
+  public List<ColumnSpecification> getBindVariables() {
+    return bindVariables;
+  }
+
+  /**
+   * The arguments of the call.
+   *
+   * @param boundValues the bound values of the query, in the order of the bind markers
+   */
+  public List<ByteBuffer> bind(List<ByteBuffer> boundValues) {
+    if (boundValues.size() < bindVariables.size()) {
+      throw new InvalidRequestException(
+          String.format(
+              "Expected %d bound values, got %d", bindVariables.size(), boundValues.size()));
+    }
+
+    ByteBuffer[] arguments = new ByteBuffer[values.length];
+    int marker = 0;
+    for (int i = 0; i < values.length; i++) {
+      // Deserializers may move the position, every call gets its own view of the literals
+      arguments[i] = values[i] == null ? boundValues.get(marker++) : values[i].duplicate();
+    }
+    return Arrays.asList(arguments);
+  }
+
+  /** The statement the call is parsed into by Cassandra, created once. */
+  public RpcStatementShim getStatement() {
+    RpcStatementShim rpcStatement = statement;
+    if (rpcStatement == null) {
+      rpcStatement =
+          ShimLoader.instance.get().makeRpcStatement(methodName, params, bindVariables);
+      statements.put(rpcStatement, this);
+      statement = rpcStatement;
+    }
+    return rpcStatement;
+  }
+
+  /**
+   * Prepare the call, so that it can be executed by id. The statement has no result metadata, the
+   * rows of every execution carry their own.
+   *
+   * @return the response to the PREPARE request
+   */
+  public ResultMessage.Prepared prepare(String query) {
+    RpcStatementShim rpcStatement = getStatement();
+    MD5Digest id = MD5Digest.compute(query);
+    preparedStatements.put(id, new QueryHandler.Prepared(rpcStatement, query, true, null));
+    return new ResultMessage.Prepared(
+        id,
+        ResultSet.ResultMetadata.EMPTY.getResultMetadataId(),
+        new ResultSet.PreparedMetadata(bindVariables, null),
+        ResultSet.ResultMetadata.EMPTY);
+  }
+}
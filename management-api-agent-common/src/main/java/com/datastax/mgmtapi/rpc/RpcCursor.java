@@ -0,0 +1,190 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.cassandra.exceptions.InvalidRequestException;
+
+/**
+ * The rows of a multi-row RPC result left to return to a paging client.
+ *
+ * <p>The first page invokes the method and the next pages take their rows from the same iterator,
+ * so a result returned as an {@link Iterator} or a {@link Stream} is generated page by page.
+ * Cursors are only kept for a short time. When the cursor of a paging state expired, a method
+ * returning its rows in a stable order is invoked again and the rows already returned are skipped,
+ * the others fail and the client has to start over from the first page.
+ *
+ * <p>A paging state is bound to the method and the arguments of the call it was returned for, it
+ * is rejected by any other call.
+ */
+public class RpcCursor {
+  static final int MAX_CURSORS = 128;
+  static final long EXPIRY_SECONDS = 60;
+  // Cursor id, number of rows already returned and hash of the arguments, then the method name
+  static final int PAGING_STATE_HEADER_SIZE = 32;
+
+  private static final Cache<UUID, RpcCursor> cursors =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CURSORS)
+          .expireAfterWrite(EXPIRY_SECONDS, TimeUnit.SECONDS)
+          .build();
+
+  /** Invokes the RPC method. */
+  public interface Invocation {
+    Object invoke() throws Throwable;
+  }
+
+  private final UUID id;
+  private final byte[] method;
+  private final long argumentsHash;
+  private final Iterator<?> rows;
+  private long offset;
+
+  private RpcCursor(UUID id, byte[] method, long argumentsHash, Iterator<?> rows, long offset) {
+    this.id = id;
+    this.method = method;
+    this.argumentsHash = argumentsHash;
+    this.rows = rows;
+    this.offset = offset;
+  }
+
+  /**
+   * Open the cursor of a page.
+   *
+   * @param method the full name of the method, the paging state is only valid for this method
+   * @param arguments the serialized arguments, the paging state is only valid for these arguments
+   * @param stableOrder whether the method returns its rows in the same order on every invocation,
+   *     so that an expired cursor can be resumed by skipping the rows already returned
+   * @param pagingState the paging state of the previous page, null for the first page
+   * @param invocation invokes the method when there is no cursor to resume
+   */
+  public static RpcCursor open(
+      String method,
+      List<ByteBuffer> arguments,
+      boolean stableOrder,
+      ByteBuffer pagingState,
+      Invocation invocation)
+      throws Throwable {
+    byte[] methodName = method.getBytes(StandardCharsets.UTF_8);
+    long argumentsHash = hash(arguments);
+    if (pagingState == null) {
+      return new RpcCursor(
+          UUID.randomUUID(), methodName, argumentsHash, iterator(invocation.invoke()), 0);
+    }
+
+    if (pagingState.remaining() != PAGING_STATE_HEADER_SIZE + methodName.length) {
+      throw new InvalidRequestException("Invalid paging state of RPC method " + method);
+    }
+    int position = pagingState.position();
+    UUID id = new UUID(pagingState.getLong(position), pagingState.getLong(position + 8));
+    long offset = pagingState.getLong(position + 16);
+    ByteBuffer stateMethod = pagingState.duplicate();
+    stateMethod.position(position + PAGING_STATE_HEADER_SIZE);
+    if (pagingState.getLong(position + 24) != argumentsHash
+        || !stateMethod.equals(ByteBuffer.wrap(methodName))) {
+      throw new InvalidRequestException(
+          "The paging state was not returned by a call of " + method + " with these arguments");
+    }
+
+    // Each page is fetched by a single request, taking the cursor out makes it exclusive
+    RpcCursor cursor = cursors.asMap().remove(id);
+    if (cursor != null && cursor.offset == offset) {
+      return cursor;
+    }
+
+    if (!stableOrder) {
+      // Skipping the rows of another invocation would miss or repeat rows
+      throw new InvalidRequestException(
+          "The paging state of " + method + " expired, start over from the first page");
+    }
+    Iterator<?> rows = iterator(invocation.invoke());
+    for (long i = 0; i < offset && rows.hasNext(); i++) {
+      rows.next();
+    }
+    return new RpcCursor(id, methodName, argumentsHash, rows, offset);
+  }
+
+  /** Take the rows of the page. */
+  public List<Object> next(int pageSize) {
+    List<Object> page = new ArrayList<>();
+    while (page.size() < pageSize && rows.hasNext()) {
+      page.add(rows.next());
+    }
+    offset += page.size();
+    return page;
+  }
+
+  /**
+   * Keep the cursor for the next page.
+   *
+   * @return the paging state of the next page, or null if all the rows were returned
+   */
+  public ByteBuffer suspend() {
+    if (!rows.hasNext()) {
+      return null;
+    }
+    cursors.put(id, this);
+    ByteBuffer pagingState = ByteBuffer.allocate(PAGING_STATE_HEADER_SIZE + method.length);
+    pagingState
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .putLong(offset)
+        .putLong(argumentsHash)
+        .put(method);
+    pagingState.flip();
+    return pagingState;
+  }
+
+  /** All the rows of a multi-row result, for the clients that don't page. */
+  public static Collection<?> collect(Object result) {
+    if (result instanceof Collection) {
+      return (Collection<?>) result;
+    }
+    return Lists.newArrayList(iterator(result));
+  }
+
+  /** 64-bit FNV-1a hash of the arguments, null arguments hash differently from empty ones. */
+  private static long hash(List<ByteBuffer> arguments) {
+    long hash = 0xcbf29ce484222325L;
+    for (ByteBuffer argument : arguments) {
+      int length = argument == null ? -1 : argument.remaining();
+      for (int shift = 0; shift < 32; shift += 8) {
+        hash = (hash ^ ((length >>> shift) & 0xff)) * 0x100000001b3L;
+      }
+      for (int i = 0; i < length; i++) {
+        hash = (hash ^ (argument.get(argument.position() + i) & 0xff)) * 0x100000001b3L;
+      }
+    }
+    return hash;
+  }
+
+  private static Iterator<?> iterator(Object result) {
+    if (result == null) {
+      return Collections.emptyIterator();
+    } else if (result instanceof Iterable) {
+      return ((Iterable<?>) result).iterator();
+    } else if (result instanceof Iterator) {
+      return (Iterator<?>) result;
+    } else if (result instanceof Stream) {
+      return ((Stream<?>) result).iterator();
+    }
+    throw new IllegalArgumentException(
+        "Multi-row results must be an Iterable, an Iterator or a Stream, got "
+            + result.getClass().getName());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.google.common.base.Throwables;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.apache.cassandra.exceptions.RequestExecutionException;
+
+/**
+ * The deadline of a management call, sent by the Management API server as the {@link
+ * #PAYLOAD_KEY} entry of the CQL custom payload. It is the wall clock time, in milliseconds since
+ * the epoch, after which the server stops waiting for the response. The server and the agent run
+ * on the same host and share the clock.
+ *
+ * <p>Calls are rejected with a {@link RpcDeadlineExceededException} when their deadline passed
+ * before they are dispatched. Long running methods can call {@link #check()} to stop early once the
+ * server gave up on them.
+ */
+public final class RpcDeadline {
+  public static final String PAYLOAD_KEY = "mgmtapi.deadline";
+  /** The deadline of calls sent without one, they are never rejected. */
+  public static final long NONE = 0;
+
+  private static final ThreadLocal<Long> current = ThreadLocal.withInitial(() -> NONE);
+
+  private RpcDeadline() {}
+
+  /**
+   * Read the deadline of a request.
+   *
+   * @param customPayload the custom payload of the request, may be null
+   * @return the deadline, or {@link #NONE} if the request doesn't have one
+   */
+  public static long fromPayload(Object customPayload) {
+    if (!(customPayload instanceof Map)) {
+      return NONE;
+    }
+    Object value = ((Map<?, ?>) customPayload).get(PAYLOAD_KEY);
+    if (!(value instanceof ByteBuffer) || ((ByteBuffer) value).remaining() != Long.BYTES) {
+      return NONE;
+    }
+    ByteBuffer buffer = (ByteBuffer) value;
+    return buffer.getLong(buffer.position());
+  }
+
+  /** Reject a call whose deadline passed. */
+  public static void check(long deadline) {
+    if (deadline != NONE) {
+      long now = System.currentTimeMillis();
+      if (now >= deadline) {
+        throw new RpcDeadlineExceededException(now - deadline);
+      }
+    }
+  }
+
+  /** Stop the call executed by the current thread if its deadline passed. */
+  public static void check() {
+    check(current.get());
+  }
+
+  /**
+   * Execute a call, {@link #check()} sees its deadline while it runs.
+   *
+   * @throws RpcDeadlineExceededException if the deadline passed before or during the call
+   */
+  public static <T> T call(long deadline, Callable<T> call) throws Exception {
+    check(deadline);
+    if (deadline == NONE) {
+      return call.call();
+    }
+    long previous = current.get();
+    current.set(deadline);
+    try {
+      return call.call();
+    } catch (RequestExecutionException e) {
+      // The methods failures are wrapped, an expired call keeps its own error code
+      Throwable root = Throwables.getRootCause(e);
+      if (root instanceof RpcDeadlineExceededException) {
+        throw (RpcDeadlineExceededException) root;
+      }
+      throw e;
+    } finally {
+      current.set(previous);
+    }
+  }
+}
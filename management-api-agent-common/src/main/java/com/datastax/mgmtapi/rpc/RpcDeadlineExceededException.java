@@ -0,0 +1,32 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.exceptions.ReadTimeoutException;
+
+/**
+ * A management call whose {@link RpcDeadline} passed. It is sent with the read timeout error code,
+ * which tells it apart from the method failures (server errors) and the overloaded lanes, and which
+ * drivers don't retry when no replica responded.
+ */
+public final class RpcDeadlineExceededException extends ReadTimeoutException {
+  private final long lateMillis;
+
+  public RpcDeadlineExceededException(long lateMillis) {
+    super(ConsistencyLevel.ONE, 0, 1, false);
+    this.lateMillis = lateMillis;
+  }
+
+  public long getLateMillis() {
+    return lateMillis;
+  }
+
+  @Override
+  public String getMessage() {
+    return String.format("Management call deadline exceeded by %d ms", lateMillis);
+  }
+}
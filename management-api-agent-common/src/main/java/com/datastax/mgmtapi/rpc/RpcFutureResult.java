@@ -0,0 +1,121 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import org.apache.cassandra.transport.messages.ResultMessage;
+
+/**
+ * The pending result of an asynchronous RPC method, one returning a {@link CompletableFuture}.
+ *
+ * <p>The management socket servers execute the requests on their event loop. They let the result be
+ * deferred with {@link #deferring(Callable)} and write the response when the future completes, so
+ * slow methods don't hold an event loop thread. Elsewhere the result is waited for on the thread
+ * executing the method.
+ */
+public class RpcFutureResult extends ResultMessage.Void {
+  private static final ThreadLocal<Boolean> deferrable = ThreadLocal.withInitial(() -> false);
+
+  public final CompletableFuture<ResultMessage> future;
+
+  private RpcFutureResult(CompletableFuture<ResultMessage> future) {
+    this.future = future;
+  }
+
+  /** Execute a request, the results of asynchronous methods may be returned before completion. */
+  public static <T> T deferring(Callable<T> request) throws Exception {
+    boolean previous = deferrable.get();
+    deferrable.set(true);
+    try {
+      return request.call();
+    } finally {
+      deferrable.set(previous);
+    }
+  }
+
+  /** Whether the request being executed accepts a deferred result. */
+  public static boolean isDeferrable() {
+    return deferrable.get();
+  }
+
+  /** A result completed by the future, only for requests executed by {@link #deferring}. */
+  public static ResultMessage deferred(CompletableFuture<ResultMessage> future) {
+    return new RpcFutureResult(future);
+  }
+
+  /**
+   * The result message of an asynchronous method.
+   *
+   * @param result the future returned by the method
+   * @param toMessage serializes the value of the future
+   * @param toError converts the failures of the method
+   * @return a deferred result if the request is executed by {@link #deferring(Callable)}, otherwise
+   *     the completed result
+   */
+  public static ResultMessage of(
+      CompletableFuture<?> result,
+      Function<Object, ResultMessage> toMessage,
+      Function<Throwable, RuntimeException> toError) {
+    CompletableFuture<ResultMessage> future = new CompletableFuture<>();
+    result.whenComplete(
+        (value, error) -> {
+          try {
+            if (error != null) {
+              future.completeExceptionally(toError.apply(unwrap(error)));
+            } else {
+              future.complete(toMessage.apply(value));
+            }
+          } catch (Throwable t) {
+            future.completeExceptionally(toError.apply(t));
+          }
+        });
+
+    if (deferrable.get()) {
+      return new RpcFutureResult(future);
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw toError.apply(e);
+    } catch (ExecutionException e) {
+      throw (RuntimeException) e.getCause();
+    }
+  }
+
+  /**
+   * The warnings of a deferred response: those raised while the request was executed, then those
+   * attached to the result it completed with.
+   *
+   * @return the warnings, null if there are none
+   */
+  public static List<String> warnings(List<String> request, List<String> result) {
+    if (request == null || request.isEmpty()) {
+      return result;
+    }
+    if (result == null || result.isEmpty()) {
+      return request;
+    }
+    List<String> warnings = new ArrayList<>(request);
+    warnings.addAll(result);
+    return warnings;
+  }
+
+  /** The failure of a method, without the wrapping of the future. */
+  public static Throwable unwrap(Throwable error) {
+    while ((error instanceof CompletionException || error instanceof ExecutionException)
+        && error.getCause() != null) {
+      error = error.getCause();
+    }
+    return error;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls an {@link Rpc} method without reflection. The invoker is generated once, when the RPC
+ * object is registered, so a call costs the same as a regular interface call.
+ *
+ * <p>Public methods of classes visible from this class loader are bound with {@link
+ * LambdaMetafactory} up to {@link #MAX_LAMBDA_ARITY} arguments. Other methods go through a {@link
+ * MethodHandle} spreading the argument array.
+ */
+public abstract class RpcInvoker {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  static final int MAX_LAMBDA_ARITY = 2;
+
+  /**
+   * Invoke the method.
+   *
+   * @param args the arguments, in the method parameter order
+   * @return the result, or null for void methods
+   */
+  public abstract Object invoke(Object[] args) throws Throwable;
+
+  public static RpcInvoker create(Method method, Object target) {
+    Object receiver = Modifier.isStatic(method.getModifiers()) ? null : target;
+    try {
+      if (method.getParameterCount() <= MAX_LAMBDA_ARITY && isLinkable(method)) {
+        return lambdaInvoker(method, receiver);
+      }
+      return handleInvoker(method, receiver);
+    } catch (Throwable t) {
+      throw new AssertionError(
+          String.format(
+              "Unable to create invoker for %s.%s",
+              method.getDeclaringClass().getName(), method.getName()),
+          t);
+    }
+  }
+
+  /** Generated classes are defined next to this class and must be able to link the method. */
+  private static boolean isLinkable(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (!Modifier.isPublic(declaringClass.getModifiers())
+        || !Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    try {
+      return Class.forName(declaringClass.getName(), false, RpcInvoker.class.getClassLoader())
+          == declaringClass;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static RpcInvoker lambdaInvoker(Method method, Object receiver) throws Throwable {
+    boolean isVoid = method.getReturnType() == void.class;
+    Class<?> callType;
+    switch (method.getParameterCount()) {
+      case 0:
+        callType = isVoid ? VoidCall0.class : Call0.class;
+        break;
+      case 1:
+        callType = isVoid ? VoidCall1.class : Call1.class;
+        break;
+      default:
+        callType = isVoid ? VoidCall2.class : Call2.class;
+    }
+
+    Class<?>[] boxedParameterTypes = new Class<?>[method.getParameterCount()];
+    Class<?>[] erasedParameterTypes = new Class<?>[method.getParameterCount()];
+    for (int i = 0; i < boxedParameterTypes.length; i++) {
+      boxedParameterTypes[i] = Primitives.wrap(method.getParameterTypes()[i]);
+      erasedParameterTypes[i] = Object.class;
+    }
+    Class<?> returnType = isVoid ? void.class : Primitives.wrap(method.getReturnType());
+    Class<?> erasedReturnType = isVoid ? void.class : Object.class;
+
+    MethodType factoryType =
+        receiver == null
+            ? MethodType.methodType(callType)
+            : MethodType.methodType(callType, method.getDeclaringClass());
+    CallSite site =
+        LambdaMetafactory.metafactory(
+            LOOKUP,
+            "call",
+            factoryType,
+            MethodType.methodType(erasedReturnType, erasedParameterTypes),
+            LOOKUP.unreflect(method),
+            MethodType.methodType(returnType, boxedParameterTypes));
+    Object call = receiver == null ? site.getTarget().invoke() : site.getTarget().invoke(receiver);
+
+    switch (method.getParameterCount()) {
+      case 0:
+        return isVoid ? new Void0Invoker((VoidCall0) call) : new Call0Invoker((Call0) call);
+      case 1:
+        return isVoid ? new Void1Invoker((VoidCall1) call) : new Call1Invoker((Call1) call);
+      default:
+        return isVoid ? new Void2Invoker((VoidCall2) call) : new Call2Invoker((Call2) call);
+    }
+  }
+
+  private static RpcInvoker handleInvoker(Method method, Object receiver) throws Throwable {
+    method.setAccessible(true);
+    MethodHandle handle = LOOKUP.unreflect(method);
+    if (receiver != null) {
+      handle = handle.bindTo(receiver);
+    }
+    MethodHandle spreader =
+        handle
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+    return new RpcInvoker() {
+      @Override
+      public Object invoke(Object[] args) throws Throwable {
+        return spreader.invokeExact(args);
+      }
+    };
+  }
+
+  interface Call0 {
+    Object call();
+  }
+
+  interface Call1 {
+    Object call(Object a);
+  }
+
+  interface Call2 {
+    Object call(Object a, Object b);
+  }
+
+  interface VoidCall0 {
+    void call();
+  }
+
+  interface VoidCall1 {
+    void call(Object a);
+  }
+
+  interface VoidCall2 {
+    void call(Object a, Object b);
+  }
+
+  private static final class Call0Invoker extends RpcInvoker {
+    private final Call0 call;
+
+    Call0Invoker(Call0 call) {
+      this.call = call;
+    }
+
+    @Override
+    public Object invoke(Object[] args) {
+      return call.call();
+    }
+  }
+
+  private static final class Call1Invoker extends RpcInvoker {
+    private final Call1 call;
+
+    Call1Invoker(Call1 call) {
+      this.call = call;
+    }
+
+    @Override
+    public Object invoke(Object[] args) {
+      return call.call(args[0]);
+    }
+  }
+
+  private static final class Call2Invoker extends RpcInvoker {
+    private final Call2 call;
+
+    Call2Invoker(Call2 call) {
+      this.call = call;
+    }
+
+    @Override
+    public Object invoke(Object[] args) {
+      return call.call(args[0], args[1]);
+    }
+  }
+
+  private static final class Void0Invoker extends RpcInvoker {
+    private final VoidCall0 call;
+
+    Void0Invoker(VoidCall0 call) {
+      this.call = call;
+    }
+
+    @Override
+    public Object invoke(Object[] args) {
+      call.call();
+      return null;
+    }
+  }
+
+  private static final class Void1Invoker extends RpcInvoker {
+    private final VoidCall1 call;
+
+    Void1Invoker(VoidCall1 call) {
+      this.call = call;
+    }
+
+    @Override
+    public Object invoke(Object[] args) {
+      call.call(args[0]);
+      return null;
+    }
+  }
+
+  private static final class Void2Invoker extends RpcInvoker {
+    private final VoidCall2 call;
+
+    Void2Invoker(VoidCall2 call) {
+      this.call = call;
+    }
+
+    @Override
+    public Object invoke(Object[] args) {
+      call.call(args[0], args[1]);
+      return null;
+    }
+  }
+}
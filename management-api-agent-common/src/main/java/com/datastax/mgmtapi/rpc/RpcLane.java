@@ -0,0 +1,14 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+/** The executor an RPC method runs on when called through the management socket. */
+public enum RpcLane {
+  /** Quick calls, like probes and status queries. */
+  LIGHT,
+  /** Calls that can take long or do heavy work, like DDL, snapshots and compactions. */
+  HEAVY
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.cassandra.exceptions.OverloadedException;
+import org.apache.cassandra.service.ClientWarn;
+import org.apache.cassandra.transport.messages.ResultMessage;
+
+/**
+ * Executors of the RPC calls received on the management socket, one per {@link RpcLane}.
+ *
+ * <p>The management socket executes requests on a few event loop threads. Running the calls on
+ * their lane instead leaves the event loops to the other requests, like the readiness probe
+ * queries, and a burst of heavy calls only delays the heavy calls. Each lane has a bounded queue,
+ * calls beyond it fail with an {@link OverloadedException}. The calls run as deferring requests, an
+ * asynchronous method releases its lane thread as soon as it returns its future.
+ *
+ * <p>Calls received on other transports run on the thread executing the request.
+ */
+public class RpcLanes {
+  public static final RpcLanes instance =
+      new RpcLanes(
+          // As many light calls run at once as when they ran on the 8 management socket event loops
+          Integer.getInteger("mgmtapi.rpc_lane.light.threads", 8),
+          Integer.getInteger("mgmtapi.rpc_lane.light.queue", 256),
+          Integer.getInteger("mgmtapi.rpc_lane.heavy.threads", 4),
+          Integer.getInteger("mgmtapi.rpc_lane.heavy.queue", 64));
+
+  private final Map<RpcLane, Lane> lanes = new EnumMap<>(RpcLane.class);
+
+  @VisibleForTesting
+  RpcLanes(int lightThreads, int lightQueue, int heavyThreads, int heavyQueue) {
+    lanes.put(RpcLane.LIGHT, new Lane(RpcLane.LIGHT, lightThreads, lightQueue));
+    lanes.put(RpcLane.HEAVY, new Lane(RpcLane.HEAVY, heavyThreads, heavyQueue));
+  }
+
+  public Lane get(RpcLane lane) {
+    return lanes.get(lane);
+  }
+
+  public Collection<Lane> getLanes() {
+    return Collections.unmodifiableCollection(lanes.values());
+  }
+
+  /**
+   * Execute a call on its lane.
+   *
+   * @param call executes the method, returns its result message
+   * @return a deferred result if the request accepts one, otherwise the result of the call
+   */
+  public Object execute(RpcLane lane, Callable<Object> call) throws Exception {
+    if (!RpcFutureResult.isDeferrable()) {
+      return call.call();
+    }
+    return RpcFutureResult.deferred(lanes.get(lane).submit(call));
+  }
+
+  /** The executor and counters of a lane. */
+  public static class Lane {
+    private final RpcLane lane;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    Lane(RpcLane lane, int threads, int queueSize) {
+      this.lane = lane;
+      this.executor =
+          new ThreadPoolExecutor(
+              threads,
+              threads,
+              60,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(queueSize),
+              new ThreadFactoryBuilder()
+                  .setNameFormat("mgmtapi-rpc-" + getName() + "-%d")
+                  .setDaemon(true)
+                  .build());
+      executor.allowCoreThreadTimeOut(true);
+    }
+
+    CompletableFuture<ResultMessage> submit(Callable<Object> call) {
+      CompletableFuture<ResultMessage> future = new CompletableFuture<>();
+      try {
+        executor.execute(() -> run(call, future));
+      } catch (RejectedExecutionException e) {
+        rejected.increment();
+        throw new OverloadedException(
+            String.format("Too many pending %s management calls", getName()));
+      }
+      return future;
+    }
+
+    private static void run(Callable<Object> call, CompletableFuture<ResultMessage> future) {
+      // The warnings are raised on the lane thread, the server only sees those of its own thread
+      ClientWarn.instance.captureWarnings();
+      try {
+        Object result = RpcFutureResult.deferring(call);
+        List<String> warnings = ClientWarn.instance.getWarnings();
+        if (result instanceof RpcFutureResult) {
+          ((RpcFutureResult) result)
+              .future.whenComplete(
+                  (message, error) -> {
+                    if (error != null) {
+                      future.completeExceptionally(error);
+                    } else {
+                      future.complete(withWarnings(message, warnings));
+                    }
+                  });
+        } else {
+          future.complete(withWarnings((ResultMessage) result, warnings));
+        }
+      } catch (Throwable t) {
+        future.completeExceptionally(t);
+      } finally {
+        ClientWarn.instance.resetWarnings();
+      }
+    }
+
+    private static ResultMessage withWarnings(ResultMessage message, List<String> warnings) {
+      if (warnings != null && message.getWarnings() == null) {
+        message.setWarnings(warnings);
+      }
+      return message;
+    }
+
+    public String getName() {
+      return lane.name().toLowerCase(Locale.ROOT);
+    }
+
+    public int getQueued() {
+      return executor.getQueue().size();
+    }
+
+    public int getActive() {
+      return executor.getActiveCount();
+    }
+
+    public long getCompleted() {
+      return executor.getCompletedTaskCount();
+    }
+
+    public long getRejected() {
+      return rejected.sum();
+    }
+  }
+}
@@ -8,6 +8,7 @@ package com.datastax.mgmtapi.rpc;
 import java.nio.ByteBuffer;
 import java.util.List;
 import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.service.ClientState;
 
 public interface RpcMethod {
@@ -19,4 +20,24 @@ public interface RpcMethod {
   public ColumnSpecification getArgumentSpecification(int i);
 
   public Object execute(ClientState state, List<ByteBuffer> parameters);
+
+  /** The executor the method runs on, see {@link RpcLanes}. */
+  default RpcLane getLane() {
+    return RpcLane.LIGHT;
+  }
+
+  /**
+   * Invoke the method without serializing its result.
+   *
+   * @return the value returned by the method, or null for void methods
+   */
+  public Object invoke(RpcClientState clientState, List<ByteBuffer> parameters) throws Throwable;
+
+  /**
+   * Execute the method with the options of the request, multi-row results are paged with the page
+   * size and paging state of the options where supported.
+   */
+  default Object execute(ClientState state, List<ByteBuffer> parameters, QueryOptions options) {
+    return execute(state, parameters);
+  }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, errors and in-flight calls of each RPC method.
+ *
+ * <p>Methods are keyed by their name, the number of series is bounded by the registered methods. A
+ * call only does a {@link ConcurrentHashMap#get(Object)} and {@link LongAdder} updates.
+ */
+public class RpcMetrics {
+  public static final RpcMetrics instance = new RpcMetrics();
+
+  /** Upper bounds of the latency buckets, in seconds. */
+  public static final double[] LATENCY_BUCKETS = {
+    0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30, 60, 300
+  };
+
+  private final ConcurrentHashMap<String, Method> methods = new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  RpcMetrics() {}
+
+  public Method forMethod(String name) {
+    Method method = methods.get(name);
+    if (method == null) {
+      method = methods.computeIfAbsent(name, Method::new);
+    }
+    return method;
+  }
+
+  public Collection<Method> getMethods() {
+    return Collections.unmodifiableCollection(methods.values());
+  }
+
+  /** Counters of a single RPC method. */
+  public static class Method {
+    private final String name;
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    // Calls per bucket, the last one counts the calls slower than all the bounds
+    private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS.length + 1];
+
+    Method(String name) {
+      this.name = name;
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    /** Execute a call of the method, recording its latency and whether it failed. */
+    public Object record(Callable<Object> call) throws Exception {
+      long start = begin();
+      Object result;
+      try {
+        result = call.call();
+      } catch (Throwable t) {
+        end(start, t);
+        throw t;
+      }
+
+      if (result instanceof RpcFutureResult) {
+        // Asynchronous methods end when their result is complete
+        ((RpcFutureResult) result).future.whenComplete((r, error) -> end(start, error));
+      } else {
+        end(start, null);
+      }
+      return result;
+    }
+
+    /**
+     * Record the start of a call.
+     *
+     * @return the start time to pass to {@link #end(long, Throwable)}
+     */
+    public long begin() {
+      inFlight.increment();
+      return System.nanoTime();
+    }
+
+    /**
+     * Record the end of a call.
+     *
+     * @param error the failure of the call, null if it succeeded
+     */
+    public void end(long start, Throwable error) {
+      inFlight.decrement();
+      if (error != null) {
+        errors.increment();
+      }
+      observe(System.nanoTime() - start);
+    }
+
+    @VisibleForTesting
+    void observe(long nanos) {
+      totalNanos.add(nanos);
+      double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+      int bucket = 0;
+      while (bucket < LATENCY_BUCKETS.length && seconds > LATENCY_BUCKETS[bucket]) {
+        bucket++;
+      }
+      buckets[bucket].increment();
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getInFlight() {
+      return inFlight.sum();
+    }
+
+    public long getErrors() {
+      return errors.sum();
+    }
+
+    public double getTotalSeconds() {
+      return totalNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * The cumulative number of calls of each latency bucket, as Prometheus histograms expect them.
+     * The last value is the total number of calls.
+     */
+    public long[] getCumulativeBuckets() {
+      long[] counts = new long[buckets.length];
+      long total = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        total += buckets[i].sum();
+        counts[i] = total;
+      }
+      return counts;
+    }
+  }
+}
@@ -30,10 +30,13 @@ public class RpcRegistry {
     if (objects.putIfAbsent(name, new RpcObject(name, o)) != null) {
       throw new AssertionError("Multiple assignments to " + name + "!");
     }
+    RpcCall.invalidateAll();
   }
 
   public static boolean unregister(String name) {
-    return null != objects.remove(name);
+    boolean removed = null != objects.remove(name);
+    RpcCall.invalidateAll();
+    return removed;
   }
 
   public static Optional<RpcMethod> lookupMethod(String object, String method) {
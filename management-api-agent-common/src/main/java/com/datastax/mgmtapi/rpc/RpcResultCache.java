@@ -0,0 +1,238 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import com.datastax.mgmtapi.ShimLoader;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.cassandra.gms.ApplicationState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the results of the {@link RpcCacheable} methods, by method and arguments, until the state
+ * they depend on changes. The cache is opt-in, with the {@value #ENABLED_PROPERTY} system property.
+ *
+ * <p>Each {@link Scope} has a version, bumped when gossip notifies a change of that scope. Schema
+ * changes are noticed through the schema version every node gossips, including the local one. The
+ * ring only changes with the membership, status, tokens, host ids and placement of the endpoints,
+ * not with their load or severity updates. An
+ * entry records the versions of its scopes from before the method was invoked, and is stale as soon
+ * as one of them moved, so a change racing with an invocation can't leave a stale entry behind.
+ */
+public class RpcResultCache {
+  private static final Logger logger = LoggerFactory.getLogger(RpcResultCache.class);
+
+  public static final String ENABLED_PROPERTY = "mgmtapi.rpc_result_cache";
+  static final int MAX_ENTRIES = 1024;
+
+  public static final RpcResultCache instance =
+      new RpcResultCache(Boolean.getBoolean(ENABLED_PROPERTY));
+
+  /** The state cached results depend on. */
+  public enum Scope {
+    /** The schema of the cluster. */
+    SCHEMA,
+    /** The ring: membership, liveness, status, tokens, host ids, datacenters and racks. */
+    RING,
+    /** Any gossip state of the endpoints, including the ring and the frequently updated load. */
+    ENDPOINTS
+  }
+
+  private final AtomicLongArray versions = new AtomicLongArray(Scope.values().length);
+  private final Cache<List<Object>, Entry> entries =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+  private volatile boolean enabled;
+
+  @VisibleForTesting
+  RpcResultCache(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /** Listen to the changes invalidating the entries, disables the cache if not possible. */
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      ShimLoader.instance.get().registerEndpointStateListener(this::onEndpointStateChange);
+      logger.info("RPC result cache enabled");
+    } catch (UnsupportedOperationException e) {
+      logger.warn("RPC result cache disabled: {}", e.getMessage());
+      enabled = false;
+      entries.invalidateAll();
+    }
+  }
+
+  /**
+   * @param state the changed application state, null when an endpoint joins, is removed, restarts
+   *     or changes liveness
+   */
+  @VisibleForTesting
+  void onEndpointStateChange(ApplicationState state) {
+    if (state == ApplicationState.SCHEMA) {
+      invalidate(Scope.SCHEMA);
+    } else if (state == null || isRingState(state)) {
+      invalidate(Scope.RING);
+    }
+    // The endpoint states include the schema version
+    invalidate(Scope.ENDPOINTS);
+  }
+
+  private static boolean isRingState(ApplicationState state) {
+    // A switch, so that states missing from some versions don't fail the class initialization
+    switch (state) {
+      case STATUS:
+      case STATUS_WITH_PORT:
+      case TOKENS:
+      case HOST_ID:
+      case DC:
+      case RACK:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Invalidate the entries depending on the scope. */
+  public void invalidate(Scope scope) {
+    versions.incrementAndGet(scope.ordinal());
+  }
+
+  /**
+   * Wrap the invoker of a method with the cache if the method is {@link RpcCacheable}.
+   *
+   * @return the invoker, unchanged if the method isn't cacheable
+   */
+  public RpcInvoker wrap(Method method, RpcInvoker invoker) {
+    RpcCacheable cacheable = method.getAnnotation(RpcCacheable.class);
+    if (cacheable == null) {
+      return invoker;
+    }
+    Preconditions.checkArgument(
+        !Arrays.asList(method.getParameterTypes()).contains(RpcClientState.class),
+        "Cacheable RPC method %s can't depend on the client state",
+        method.getName());
+    Preconditions.checkArgument(
+        !CompletableFuture.class.isAssignableFrom(method.getReturnType()),
+        "Cacheable RPC method %s can't be asynchronous",
+        method.getName());
+
+    Scope[] scopes = cacheable.invalidatedBy();
+    return new RpcInvoker() {
+      @Override
+      public Object invoke(Object[] args) throws Throwable {
+        if (!enabled) {
+          return invoker.invoke(args);
+        }
+
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(method);
+        key.addAll(Arrays.asList(args));
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || !entry.isCurrent(scopes)) {
+          long[] entryVersions = versions(scopes);
+          entry = new Entry(entryVersions, materialize(invoker.invoke(args)));
+          entries.put(key, entry);
+        }
+        return entry.value();
+      }
+    };
+  }
+
+  private long[] versions(Scope[] scopes) {
+    long[] result = new long[scopes.length];
+    for (int i = 0; i < scopes.length; i++) {
+      result[i] = versions.get(scopes[i].ordinal());
+    }
+    return result;
+  }
+
+  /**
+   * Iterators and streams can only be consumed once, keep their elements instead. The results are
+   * shared by the callers, lists and maps are copied so that none of them can modify the entry.
+   */
+  private static Object materialize(Object result) {
+    if (result instanceof Iterator) {
+      return new Rows(immutableCopy(Lists.newArrayList((Iterator<?>) result)), false);
+    }
+    if (result instanceof Stream) {
+      return new Rows(immutableCopy(((Stream<?>) result).collect(Collectors.toList())), true);
+    }
+    return immutableCopy(result);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T immutableCopy(T value) {
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>(((List<?>) value).size());
+      for (Object element : (List<?>) value) {
+        copy.add(immutableCopy(element));
+      }
+      return (T) Collections.unmodifiableList(copy);
+    }
+    if (value instanceof Map) {
+      Map<Object, Object> copy = new LinkedHashMap<>();
+      for (Map.Entry<?, ?> element : ((Map<?, ?>) value).entrySet()) {
+        copy.put(immutableCopy(element.getKey()), immutableCopy(element.getValue()));
+      }
+      return (T) Collections.unmodifiableMap(copy);
+    }
+    return value;
+  }
+
+  private static final class Rows {
+    final List<?> rows;
+    final boolean stream;
+
+    Rows(List<?> rows, boolean stream) {
+      this.rows = rows;
+      this.stream = stream;
+    }
+  }
+
+  private final class Entry {
+    private final long[] entryVersions;
+    private final Object result;
+
+    Entry(long[] entryVersions, Object result) {
+      this.entryVersions = entryVersions;
+      this.result = result;
+    }
+
+    boolean isCurrent(Scope[] scopes) {
+      for (int i = 0; i < scopes.length; i++) {
+        if (entryVersions[i] != versions.get(scopes[i].ordinal())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    Object value() {
+      if (result instanceof Rows) {
+        Rows rows = (Rows) result;
+        return rows.stream ? rows.rows.stream() : rows.rows.iterator();
+      }
+      return result;
+    }
+  }
+}
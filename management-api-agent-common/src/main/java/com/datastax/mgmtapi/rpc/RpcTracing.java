@@ -0,0 +1,88 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.apache.cassandra.transport.messages.ResultMessage;
+
+/**
+ * Reports the agent side timings of the management calls traced by the server.
+ *
+ * <p>The server sends the W3C {@code traceparent} of its span in the custom payload. When it is
+ * sampled, the response carries the times, in microseconds since the epoch, at which the call was
+ * dispatched, started after waiting on its lane, and completed. The server records them as spans,
+ * so the Cassandra JVM doesn't need a tracing SDK. Calls without a sampled trace context only pay
+ * for a payload lookup.
+ */
+public final class RpcTracing {
+  public static final String TRACE_PARENT_KEY = "traceparent";
+  public static final String TIMINGS_KEY = "mgmtapi.trace";
+  /** The dispatch time of calls that aren't traced. */
+  public static final long NOT_TRACED = 0;
+
+  // version "-" trace-id "-" parent-id "-" trace-flags
+  private static final int TRACE_PARENT_LENGTH = 55;
+  private static final int SAMPLED_DIGIT_OFFSET = 54;
+
+  private RpcTracing() {}
+
+  /**
+   * Start timing a call.
+   *
+   * @param customPayload the custom payload of the request, may be null
+   * @return the dispatch time of the call, or {@link #NOT_TRACED} if the server doesn't sample it
+   */
+  public static long dispatch(Object customPayload) {
+    return isSampled(customPayload) ? nowMicros() : NOT_TRACED;
+  }
+
+  static boolean isSampled(Object customPayload) {
+    if (!(customPayload instanceof Map)) {
+      return false;
+    }
+    Object value = ((Map<?, ?>) customPayload).get(TRACE_PARENT_KEY);
+    if (!(value instanceof ByteBuffer) || ((ByteBuffer) value).remaining() < TRACE_PARENT_LENGTH) {
+      return false;
+    }
+    ByteBuffer traceParent = (ByteBuffer) value;
+    // The sampled bit is the lowest bit of the flags, in their second hex digit
+    int flags = Character.digit(traceParent.get(traceParent.position() + SAMPLED_DIGIT_OFFSET), 16);
+    return flags >= 0 && (flags & 1) == 1;
+  }
+
+  /** Execute a call, the timings are attached to its result if it is traced. */
+  public static Object call(long dispatched, Callable<Object> call) throws Exception {
+    if (dispatched == NOT_TRACED) {
+      return call.call();
+    }
+    long started = nowMicros();
+    Object result = call.call();
+    if (result instanceof ResultMessage && !(result instanceof RpcFutureResult)) {
+      attach((ResultMessage) result, dispatched, started, nowMicros());
+    }
+    return result;
+  }
+
+  static void attach(ResultMessage result, long dispatched, long started, long completed) {
+    ByteBuffer timings = ByteBuffer.allocate(3 * Long.BYTES);
+    timings.putLong(0, dispatched).putLong(Long.BYTES, started).putLong(2 * Long.BYTES, completed);
+    Map<String, ByteBuffer> payload =
+        result.getCustomPayload() == null
+            ? new HashMap<>()
+            : new HashMap<>(result.getCustomPayload());
+    payload.put(TIMINGS_KEY, timings);
+    result.setCustomPayload(payload);
+  }
+
+  static long nowMicros() {
+    Instant now = Instant.now();
+    return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+  }
+}
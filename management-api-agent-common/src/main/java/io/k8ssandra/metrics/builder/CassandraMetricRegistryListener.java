@@ -17,6 +17,7 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistryListener;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
@@ -26,7 +27,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -74,13 +79,16 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
     }
   }
 
-  private final CassandraMetricNameParser parser;
+  private volatile CassandraMetricNameParser parser;
 
   private final ConcurrentHashMap<String, RefreshableMetricFamilySamples> familyCache;
 
   // This cache is used for the remove purpose, we need dropwizardName -> metricName mapping
   private final ConcurrentHashMap<String, String> cache;
 
+  // Registered Dropwizard metrics, kept so the definitions can be recomputed on relabel changes
+  private final ConcurrentHashMap<String, Metric> metrics;
+
   private Method decayingHistogramOffsetMethod = null;
 
   private Field bucketOffsetField = null;
@@ -90,6 +98,7 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
       throws NoSuchMethodException {
     parser = CassandraMetricNameParser.getDefaultParser(config);
     cache = new ConcurrentHashMap<>();
+    metrics = new ConcurrentHashMap<>();
 
     // 4.1 and up should use microsecond buckets
     microLatencyBuckets = isMicrosecondLatencyBuckets();
@@ -129,12 +138,7 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
 
     familySampler
         .getDefinitions()
-        .removeIf(
-            cmd ->
-                (cmd.getMetricName().equals(metricName)
-                        || cmd.getMetricName().equals(metricName + "_count")
-                        || cmd.getMetricName().equals(metricName + "_total"))
-                    && cmd.getDropWizardName().equals(dropwizardName));
+        .removeIf(cmd -> isDefinitionOf(cmd, dropwizardName, metricName));
 
     if (familySampler.getDefinitions().isEmpty()) {
       this.familyCache.remove(metricName);
@@ -142,6 +146,137 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
     cache.remove(dropwizardName);
   }
 
+  /**
+   * Replace the definitions of a Dropwizard metric. The family holding them is swapped for a copy
+   * with the new definitions in a single compute, so a concurrent collect sees either the old or
+   * the new family, never one missing the metric.
+   */
+  private void replaceInCache(String dropwizardName, RefreshableMetricFamilySamples prototype) {
+    String previousName = cache.get(dropwizardName);
+    if (prototype.getDefinitions().isEmpty()) {
+      removeFromCache(dropwizardName);
+      return;
+    }
+
+    familyCache.compute(
+        prototype.name,
+        (name, familySamples) -> {
+          RefreshableMetricFamilySamples replacement =
+              emptyCopy(familySamples != null ? familySamples : prototype);
+          if (familySamples != null) {
+            familySamples.getDefinitions().stream()
+                .filter(cmd -> !isDefinitionOf(cmd, dropwizardName, name))
+                .forEach(replacement::addDefinition);
+          }
+          prototype.getDefinitions().forEach(replacement::addDefinition);
+          return replacement;
+        });
+    cache.put(dropwizardName, prototype.name);
+
+    if (previousName != null && !previousName.equals(prototype.name)) {
+      // Renamed, the metric is only dropped from its previous family once the new one holds it
+      familyCache.computeIfPresent(
+          previousName,
+          (name, familySamples) -> {
+            RefreshableMetricFamilySamples replacement = emptyCopy(familySamples);
+            familySamples.getDefinitions().stream()
+                .filter(cmd -> !isDefinitionOf(cmd, dropwizardName, name))
+                .forEach(replacement::addDefinition);
+            return replacement.getDefinitions().isEmpty() ? null : replacement;
+          });
+    }
+  }
+
+  private static RefreshableMetricFamilySamples emptyCopy(RefreshableMetricFamilySamples family) {
+    return new RefreshableMetricFamilySamples(
+        family.name, family.type, family.help, new ArrayList<>());
+  }
+
+  private static boolean isDefinitionOf(
+      CassandraMetricDefinition cmd, String dropwizardName, String metricName) {
+    return (cmd.getMetricName().equals(metricName)
+            || cmd.getMetricName().equals(metricName + "_count")
+            || cmd.getMetricName().equals(metricName + "_total"))
+        && cmd.getDropWizardName().equals(dropwizardName);
+  }
+
+  /**
+   * Swap the parser used to name and relabel the metrics. Every registered metric is parsed again
+   * with the new rules, but only the metrics whose definitions actually changed are replaced in the
+   * familyCache, the rest keep their existing definitions. If any metric can't be parsed with the
+   * new rules, nothing is swapped.
+   *
+   * @return the number of Dropwizard metrics whose definitions changed
+   */
+  public synchronized int reloadParser(CassandraMetricNameParser newParser) {
+    // Built before anything is swapped, so that a failure leaves the previous rules in place
+    Map<String, RefreshableMetricFamilySamples> prototypes = new LinkedHashMap<>();
+    for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+      String dropwizardName = entry.getKey();
+      RefreshableMetricFamilySamples prototype =
+          buildFamilySamples(newParser, dropwizardName, entry.getValue());
+      prototype.getDefinitions().removeIf(next -> !next.isKeep());
+      if (!isUnchanged(dropwizardName, prototype)) {
+        prototypes.put(dropwizardName, prototype);
+      }
+    }
+
+    this.parser = newParser;
+    prototypes.forEach(this::replaceInCache);
+    return prototypes.size();
+  }
+
+  private boolean isUnchanged(String dropwizardName, RefreshableMetricFamilySamples prototype) {
+    Set<CassandraMetricDefinition> current = new TreeSet<>();
+    String metricName = cache.get(dropwizardName);
+    if (metricName != null) {
+      RefreshableMetricFamilySamples familySamples = familyCache.get(metricName);
+      if (familySamples != null) {
+        for (CassandraMetricDefinition definition : familySamples.getDefinitions()) {
+          if (definition.getDropWizardName().equals(dropwizardName)) {
+            current.add(definition);
+          }
+        }
+      }
+    }
+
+    if (current.isEmpty() || prototype.getDefinitions().isEmpty()) {
+      return current.isEmpty() && prototype.getDefinitions().isEmpty();
+    }
+
+    return prototype.name.equals(metricName)
+        && current.equals(new TreeSet<>(prototype.getDefinitions()));
+  }
+
+  private synchronized void register(String dropwizardName, Metric metric) {
+    metrics.put(dropwizardName, metric);
+    RefreshableMetricFamilySamples familySamples =
+        buildFamilySamples(parser, dropwizardName, metric);
+    updateCache(dropwizardName, familySamples.name, familySamples);
+  }
+
+  private synchronized void unregister(String dropwizardName) {
+    metrics.remove(dropwizardName);
+    removeFromCache(dropwizardName);
+  }
+
+  private RefreshableMetricFamilySamples buildFamilySamples(
+      CassandraMetricNameParser parser, String dropwizardName, Metric metric) {
+    if (metric instanceof Gauge) {
+      return gaugeFamilySamples(parser, dropwizardName, (Gauge<?>) metric);
+    } else if (metric instanceof Counter) {
+      return counterFamilySamples(parser, dropwizardName, (Counter) metric);
+    } else if (metric instanceof Histogram) {
+      return histogramFamilySamples(parser, dropwizardName, (Histogram) metric);
+    } else if (metric instanceof Meter) {
+      return meterFamilySamples(parser, dropwizardName, (Meter) metric);
+    } else if (metric instanceof Timer) {
+      return timerFamilySamples(parser, dropwizardName, (Timer) metric);
+    }
+    throw new IllegalArgumentException(
+        String.format("Unsupported metric type %s for %s", metric.getClass(), dropwizardName));
+  }
+
   private void setGaugeHistogramFiller(Gauge gauge, CassandraMetricDefinition proto) {
     proto.setFiller(
         (samples) -> {
@@ -217,6 +352,11 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
       logger.debug("Exception caught fetching gauge", t);
       return;
     }
+    register(dropwizardName, gauge);
+  }
+
+  private RefreshableMetricFamilySamples gaugeFamilySamples(
+      CassandraMetricNameParser parser, String dropwizardName, Gauge<?> gauge) {
     if (gauge.getValue() instanceof long[]) {
       // Treat this as a histogram, not gauge
       List<String> additionalLabelNames = new ArrayList<>();
@@ -250,9 +390,7 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
               proto.getMetricName(), Collector.Type.SUMMARY, "", new ArrayList<>());
       familySamples.addDefinition(proto);
       familySamples.addDefinition(count);
-
-      updateCache(dropwizardName, proto.getMetricName(), familySamples);
-      return;
+      return familySamples;
     }
     Supplier<Double> gaugeSupplier = fromGauge(gauge);
     CassandraMetricDefinition sample =
@@ -262,16 +400,21 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
         new RefreshableMetricFamilySamples(
             sample.getMetricName(), Collector.Type.GAUGE, "", new ArrayList<>());
     familySamples.addDefinition(sample);
-    updateCache(dropwizardName, sample.getMetricName(), familySamples);
+    return familySamples;
   }
 
   @Override
   public void onGaugeRemoved(String name) {
-    removeFromCache(name);
+    unregister(name);
   }
 
   @Override
   public void onCounterAdded(String name, Counter counter) {
+    register(name, counter);
+  }
+
+  private RefreshableMetricFamilySamples counterFamilySamples(
+      CassandraMetricNameParser parser, String name, Counter counter) {
     Supplier<Double> getValue = () -> (double) counter.getCount();
     CassandraMetricDefinition sampler =
         parser.parseDropwizardMetric(name, "", new ArrayList<>(), new ArrayList<>());
@@ -280,16 +423,21 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
         new RefreshableMetricFamilySamples(
             sampler.getMetricName(), Collector.Type.GAUGE, "", new ArrayList<>());
     familySamples.addDefinition(sampler);
-    updateCache(name, sampler.getMetricName(), familySamples);
+    return familySamples;
   }
 
   @Override
   public void onCounterRemoved(String name) {
-    removeFromCache(name);
+    unregister(name);
   }
 
   @Override
   public void onHistogramAdded(String dropwizardName, Histogram histogram) {
+    register(dropwizardName, histogram);
+  }
+
+  private RefreshableMetricFamilySamples histogramFamilySamples(
+      CassandraMetricNameParser parser, String dropwizardName, Histogram histogram) {
     List<String> additionalLabelNames = new ArrayList<>();
     additionalLabelNames.add("quantile");
     final CassandraMetricDefinition proto =
@@ -306,8 +454,7 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
     count.setValueGetter(countSupplier);
     familySamples.addDefinition(proto);
     familySamples.addDefinition(count);
-
-    updateCache(dropwizardName, proto.getMetricName(), familySamples);
+    return familySamples;
   }
 
   private static void setHistogramFiller(
@@ -341,11 +488,16 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
 
   @Override
   public void onHistogramRemoved(String dropwizardName) {
-    removeFromCache(dropwizardName);
+    unregister(dropwizardName);
   }
 
   @Override
   public void onMeterAdded(String name, Meter meter) {
+    register(name, meter);
+  }
+
+  private RefreshableMetricFamilySamples meterFamilySamples(
+      CassandraMetricNameParser parser, String name, Meter meter) {
     Supplier<Double> getValue = () -> (double) meter.getCount();
     CassandraMetricDefinition total =
         parser.parseDropwizardMetric(name, "_total", new ArrayList<>(), new ArrayList<>());
@@ -355,12 +507,12 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
         new RefreshableMetricFamilySamples(
             total.getMetricName(), Collector.Type.COUNTER, "", new ArrayList<>());
     familySamples.addDefinition(total);
-    updateCache(name, total.getMetricName(), familySamples);
+    return familySamples;
   }
 
   @Override
   public void onMeterRemoved(String name) {
-    removeFromCache(name);
+    unregister(name);
   }
 
   private void setTimerFiller(
@@ -495,6 +647,11 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
 
   @Override
   public void onTimerAdded(String dropwizardName, Timer timer) {
+    register(dropwizardName, timer);
+  }
+
+  private RefreshableMetricFamilySamples timerFamilySamples(
+      CassandraMetricNameParser parser, String dropwizardName, Timer timer) {
     List<String> additionalLabelNames = new ArrayList<>();
     additionalLabelNames.add(QUANTILE_LABEL_NAME);
     List<String> additionalBucketLabel = new ArrayList<>();
@@ -516,8 +673,7 @@ public class CassandraMetricRegistryListener implements MetricRegistryListener {
         new RefreshableMetricFamilySamples(
             proto.getMetricName(), Collector.Type.HISTOGRAM, "", new ArrayList<>());
     familySamples.addDefinition(proto);
-
-    updateCache(dropwizardName, proto.getMetricName(), familySamples);
+    return familySamples;
   }
 
   @Override
@@ -65,13 +65,18 @@ public class ConfigReader {
     }
   }
 
-  public static Configuration readCustomConfig() {
+  public static String getConfigPath() {
     // Check env variable if there's any changes to the config path
     String configPath = System.getProperty(CONFIG_PATH_PROPERTY);
     if (configPath == null) {
       String maacPath = System.getenv("MAAC_PATH");
       configPath = String.format("%s%s", maacPath, CONFIG_PATH_DEFAULT);
     }
+    return configPath;
+  }
+
+  public static Configuration readCustomConfig() {
+    String configPath = getConfigPath();
 
     ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
     File configFile = new File(configPath);
@@ -87,4 +92,35 @@ public class ConfigReader {
 
     return new Configuration();
   }
+
+  /**
+   * Verify the relabeling rules are usable. The parser silently skips broken rules, which is fine
+   * at startup, but a reloaded configuration with broken rules is rejected instead of replacing a
+   * working one.
+   *
+   * @throws IllegalArgumentException if any of the rules is invalid
+   */
+  public static void validate(Configuration config) {
+    List<RelabelSpec> relabels = config.getRelabels();
+    if (relabels == null) {
+      return;
+    }
+
+    for (RelabelSpec relabel : relabels) {
+      if (relabel.getSourceLabels() == null || relabel.getSourceLabels().isEmpty()) {
+        throw new IllegalArgumentException("Relabel rule has no sourceLabels: " + relabel);
+      }
+      if (relabel.getRegexp() == null) {
+        throw new IllegalArgumentException("Relabel rule has no regex: " + relabel);
+      }
+      if (relabel.getAction() == RelabelSpec.Action.replace) {
+        if (relabel.getTargetLabel() == null || relabel.getTargetLabel().isEmpty()) {
+          throw new IllegalArgumentException("Replace rule has no targetLabel: " + relabel);
+        }
+        if (relabel.getReplacement() == null) {
+          throw new IllegalArgumentException("Replace rule has no replacement: " + relabel);
+        }
+      }
+    }
+  }
 }
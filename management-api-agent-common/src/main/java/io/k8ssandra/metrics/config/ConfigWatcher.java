@@ -0,0 +1,122 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.config;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the metrics collector configuration file and applies the new configuration when its
+ * content changes. Invalid configurations are logged and ignored, the previous configuration stays
+ * in use.
+ *
+ * <p>The whole parent directory is watched, since Kubernetes ConfigMap volumes update the file by
+ * swapping a symlink instead of modifying it in place.
+ */
+public class ConfigWatcher {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigWatcher.class);
+
+  private final Path configFile;
+  private final Consumer<Configuration> onReload;
+
+  private byte[] lastContent;
+
+  public ConfigWatcher(Path configFile, Consumer<Configuration> onReload) {
+    this.configFile = configFile.toAbsolutePath();
+    this.onReload = onReload;
+    this.lastContent = readContent();
+  }
+
+  public static ConfigWatcher forDefaultConfig(Consumer<Configuration> onReload) {
+    return new ConfigWatcher(Paths.get(ConfigReader.getConfigPath()), onReload);
+  }
+
+  public void start() throws IOException {
+    Path parent = configFile.getParent();
+    if (parent == null || !Files.isDirectory(parent)) {
+      logger.info("Metrics configuration directory {} does not exist, not watching it", parent);
+      return;
+    }
+
+    WatchService watchService = FileSystems.getDefault().newWatchService();
+    parent.register(
+        watchService,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_DELETE,
+        StandardWatchEventKinds.ENTRY_MODIFY);
+
+    Thread watcher =
+        new Thread(
+            () -> {
+              while (true) {
+                try {
+                  WatchKey key = watchService.take();
+                  // Any event in the directory could be the ConfigMap symlink swap, the content
+                  // comparison filters out the irrelevant ones
+                  key.pollEvents();
+                  if (!key.reset()) {
+                    logger.warn("Metrics configuration directory {} disappeared", parent);
+                    break;
+                  }
+                  checkForChanges();
+                } catch (InterruptedException e) {
+                  logger.info("Metrics configuration watcher interrupted, stopping");
+                  break;
+                }
+              }
+            },
+            "metrics-config-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+
+    logger.info("Watching {} for metrics configuration changes", configFile);
+  }
+
+  /**
+   * Reload the configuration if the file content changed since the last check.
+   *
+   * @return true if a new configuration was applied
+   */
+  boolean checkForChanges() {
+    byte[] content = readContent();
+    if (content == null || Arrays.equals(content, lastContent)) {
+      return false;
+    }
+
+    try {
+      Configuration config = ConfigReader.readConfig();
+      ConfigReader.validate(config);
+      onReload.accept(config);
+      lastContent = content;
+      logger.info("Metrics configuration {} reloaded", configFile);
+      return true;
+    } catch (Exception e) {
+      // Remember the broken content so the same error isn't logged on every directory event
+      logger.error("Invalid metrics configuration in {}, keeping the current one", configFile, e);
+      lastContent = content;
+      return false;
+    }
+  }
+
+  private byte[] readContent() {
+    try {
+      return Files.readAllBytes(configFile);
+    } catch (IOException e) {
+      // File is missing or in the middle of being replaced
+      return null;
+    }
+  }
+}
@@ -24,6 +24,12 @@ public class Configuration {
   @JsonProperty("extended_metrics_disabled")
   private boolean extendedDisabled;
 
+  @JsonProperty("snapshot")
+  private SnapshotConfiguration snapshotConfiguration;
+
+  @JsonProperty("client_request_metrics")
+  private boolean clientRequestMetrics;
+
   public Configuration() {
     relabels = new ArrayList<>();
   }
@@ -32,6 +38,10 @@ public class Configuration {
     return endpointConfiguration;
   }
 
+  public SnapshotConfiguration getSnapshotConfiguration() {
+    return snapshotConfiguration;
+  }
+
   public LabelConfiguration getLabels() {
     return labels;
   }
@@ -55,4 +65,12 @@ public class Configuration {
   public void setExtendedDisabled(boolean extendedDisabled) {
     this.extendedDisabled = extendedDisabled;
   }
+
+  public boolean isClientRequestMetrics() {
+    return clientRequestMetrics;
+  }
+
+  public void setClientRequestMetrics(boolean clientRequestMetrics) {
+    this.clientRequestMetrics = clientRequestMetrics;
+  }
 }
@@ -18,6 +18,9 @@ public class EndpointConfiguration {
   @JsonProperty("tls")
   private TLSConfiguration tlsConfig;
 
+  @JsonProperty("socket")
+  private String socketPath;
+
   public EndpointConfiguration() {}
 
   public int getPort() {
@@ -31,4 +34,12 @@ public class EndpointConfiguration {
   public TLSConfiguration getTlsConfig() {
     return tlsConfig;
   }
+
+  /**
+   * Optional unix domain socket path for same host scrapers. The socket is served without TLS,
+   * access is controlled by the file permissions.
+   */
+  public String getSocketPath() {
+    return socketPath;
+  }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.config;
+
+import io.k8ssandra.shaded.com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SnapshotConfiguration {
+
+  public static final int DEFAULT_INTERVAL_SECONDS = 10;
+
+  @JsonProperty("path")
+  private String path;
+
+  @JsonProperty("interval_seconds")
+  private int intervalSeconds = DEFAULT_INTERVAL_SECONDS;
+
+  // Metric family name prefixes to include, everything is included if empty
+  @JsonProperty("families")
+  private List<String> families = new ArrayList<>();
+
+  public SnapshotConfiguration() {}
+
+  public String getPath() {
+    return path;
+  }
+
+  public int getIntervalSeconds() {
+    return intervalSeconds;
+  }
+
+  public List<String> getFamilies() {
+    return families;
+  }
+}
@@ -5,14 +5,14 @@
  */
 package io.k8ssandra.metrics.http;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.ssl.SslContext;
 
-public class NettyHttpInitializer extends ChannelInitializer<SocketChannel> {
+public class NettyHttpInitializer extends ChannelInitializer<Channel> {
   private final SslContext sslCtx;
 
   public NettyHttpInitializer(SslContext sslCtx) {
@@ -20,7 +20,7 @@ public class NettyHttpInitializer extends ChannelInitializer<SocketChannel> {
   }
 
   @Override
-  public void initChannel(SocketChannel ch) {
+  public void initChannel(Channel ch) {
     ChannelPipeline p = ch.pipeline();
     if (sslCtx != null) {
       p.addLast(sslCtx.newHandler(ch.alloc()));
@@ -12,14 +12,18 @@ import io.k8ssandra.metrics.config.TLSConfiguration;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import java.io.File;
 import java.security.cert.CertificateException;
 import javax.net.ssl.SSLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class NettyMetricsHttpServer {
+  private static final Logger logger = LoggerFactory.getLogger(NettyMetricsHttpServer.class);
 
   public static final int DEFAULT_METRICS_PORT = 9000;
 
@@ -64,6 +68,44 @@ public class NettyMetricsHttpServer {
     }
 
     bind.syncUninterruptibly().channel();
+
+    if (config.getEndpointConfiguration() != null
+        && config.getEndpointConfiguration().getSocketPath() != null) {
+      startDomainSocket(group, config.getEndpointConfiguration().getSocketPath());
+    }
+  }
+
+  private void startDomainSocket(EventLoopGroup group, String socketPath) {
+    if (!NativeTransport.isNativeTransportAvailable()) {
+      logger.warn(
+          "Native transport is not available, /metrics is not served from socket {}", socketPath);
+      return;
+    }
+
+    // Remove a socket file left behind by a previous process
+    File socketFile = new File(socketPath);
+    if (socketFile.exists() && !socketFile.delete()) {
+      logger.warn("Unable to remove existing socket file {}", socketPath);
+    }
+
+    // io_uring has no domain socket channels, the socket gets its own native loop then
+    EventLoopGroup socketGroup = group;
+    if (!NativeTransport.supportsDomainSockets(group)) {
+      EventLoopGroup nativeGroup = NativeTransport.nativeEventLoopGroup(1);
+      Runtime.getRuntime().addShutdownHook(new Thread(nativeGroup::shutdownGracefully));
+      socketGroup = nativeGroup;
+    }
+
+    // Same-host scrapers are trusted through the socket file permissions, no TLS here
+    new ServerBootstrap()
+        .group(socketGroup)
+        .childHandler(new NettyHttpInitializer(null))
+        .channel(NativeTransport.nativeServerDomainSocketChannelClass())
+        .bind(new DomainSocketAddress(socketFile))
+        .syncUninterruptibly();
+
+    socketFile.deleteOnExit();
+    logger.info("Serving /metrics on unix socket {}", socketPath);
   }
 
   private SslContext buildSslContext() throws SSLException, CertificateException {
@@ -5,15 +5,26 @@
  */
 package io.k8ssandra.metrics.interceptors;
 
+import com.datastax.mgmtapi.ClientRequestTracker;
 import com.datastax.mgmtapi.ipc.NativeTransport;
+import com.datastax.mgmtapi.rpc.RpcLanes;
+import com.datastax.mgmtapi.rpc.RpcMetrics;
 import io.k8ssandra.metrics.config.ConfigReader;
+import io.k8ssandra.metrics.config.ConfigWatcher;
 import io.k8ssandra.metrics.config.Configuration;
+import io.k8ssandra.metrics.config.EndpointConfiguration;
 import io.k8ssandra.metrics.http.NettyMetricsHttpServer;
 import io.k8ssandra.metrics.prometheus.CassandraDropwizardExports;
 import io.k8ssandra.metrics.prometheus.CassandraTasksExports;
+import io.k8ssandra.metrics.prometheus.ClientRequestsExports;
 import io.k8ssandra.metrics.prometheus.JvmExports;
+import io.k8ssandra.metrics.prometheus.RpcMethodExports;
+import io.k8ssandra.metrics.snapshot.MetricsSnapshotPublisher;
 import io.netty.channel.EventLoopGroup;
+import io.prometheus.client.CollectorRegistry;
+import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import net.bytebuddy.agent.builder.AgentBuilder.Transformer;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.implementation.MethodDelegation;
@@ -30,7 +41,7 @@ public class MetricsInterceptor {
   private static final Logger logger = LoggerFactory.getLogger(MetricsInterceptor.class);
 
   public static ElementMatcher<? super TypeDescription> type() {
-    return ElementMatchers.nameEndsWith(".CassandraDaemon");
+    return ElementMatchers.named("org.apache.cassandra.service.CassandraDaemon");
   }
 
   public static Transformer transformer() {
@@ -68,14 +79,33 @@ public class MetricsInterceptor {
       Configuration config = ConfigReader.readConfig();
 
       // Add Cassandra metrics
-      new CassandraDropwizardExports(CassandraMetricsRegistry.Metrics, config).register();
+      CassandraDropwizardExports dropwizardExports =
+          new CassandraDropwizardExports(CassandraMetricsRegistry.Metrics, config);
+      dropwizardExports.register();
 
       // Add JVM metrics
-      new JvmExports(config).register();
+      JvmExports jvmExports = new JvmExports(config);
+      jvmExports.register();
 
       // Add task metrics
+      CassandraTasksExports tasksExports =
+          new CassandraTasksExports(CassandraMetricsRegistry.Metrics, config);
       if (!config.isExtendedDisabled()) {
-        new CassandraTasksExports(CassandraMetricsRegistry.Metrics, config).register();
+        tasksExports.register();
+      }
+
+      // Add management API RPC metrics
+      RpcMethodExports rpcMethodExports =
+          new RpcMethodExports(RpcMetrics.instance, RpcLanes.instance, config);
+      if (!config.isExtendedDisabled()) {
+        rpcMethodExports.register();
+      }
+
+      // Add per driver and user request metrics
+      ClientRequestsExports clientRequestsExports =
+          new ClientRequestsExports(ClientRequestTracker.instance, config);
+      if (config.isClientRequestMetrics()) {
+        clientRequestsExports.register();
       }
 
       // Create /metrics handler. Note, this doesn't support larger than nThreads=1
@@ -88,8 +118,74 @@ public class MetricsInterceptor {
       logger.info("Metrics collector started");
 
       Runtime.getRuntime().addShutdownHook(new Thread(httpGroup::shutdownGracefully));
+
+      // Share the selected families with the management API server, /metrics works without it
+      if (config.getSnapshotConfiguration() != null
+          && config.getSnapshotConfiguration().getPath() != null) {
+        try {
+          new MetricsSnapshotPublisher(
+                  config.getSnapshotConfiguration(), CollectorRegistry.defaultRegistry)
+              .start();
+        } catch (Throwable t) {
+          logger.warn("Unable to publish the metrics snapshots", t);
+        }
+      }
+
+      // Apply relabeling changes without restarting, the endpoint is served without it
+      try {
+        ConfigWatcher.forDefaultConfig(
+                new Consumer<Configuration>() {
+                  private Configuration current = config;
+
+                  @Override
+                  public void accept(Configuration updated) {
+                    dropwizardExports.reload(updated);
+                    jvmExports.reload(updated);
+                    tasksExports.reload(updated);
+                    rpcMethodExports.reload(updated);
+                    clientRequestsExports.reload(updated);
+
+                    if (current.isExtendedDisabled() != updated.isExtendedDisabled()) {
+                      if (updated.isExtendedDisabled()) {
+                        CollectorRegistry.defaultRegistry.unregister(tasksExports);
+                        CollectorRegistry.defaultRegistry.unregister(rpcMethodExports);
+                      } else {
+                        tasksExports.register();
+                        rpcMethodExports.register();
+                      }
+                    }
+
+                    if (current.isClientRequestMetrics() != updated.isClientRequestMetrics()) {
+                      if (updated.isClientRequestMetrics()) {
+                        clientRequestsExports.register();
+                      } else {
+                        CollectorRegistry.defaultRegistry.unregister(clientRequestsExports);
+                      }
+                    }
+
+                    if (endpointChanged(
+                        current.getEndpointConfiguration(), updated.getEndpointConfiguration())) {
+                      logger.warn("Metrics endpoint configuration changes require a restart");
+                    }
+                    current = updated;
+                  }
+                })
+            .start();
+      } catch (Throwable t) {
+        logger.warn("Unable to watch the metrics configuration, changes require a restart", t);
+      }
     } catch (Throwable t) {
       logger.error("Unable to start metrics endpoint", t);
     }
   }
+
+  private static boolean endpointChanged(
+      EndpointConfiguration current, EndpointConfiguration updated) {
+    if (current == null || updated == null) {
+      return current != updated;
+    }
+    return current.getPort() != updated.getPort()
+        || !Objects.equals(current.getHost(), updated.getHost())
+        || (current.getTlsConfig() == null) != (updated.getTlsConfig() == null);
+  }
 }
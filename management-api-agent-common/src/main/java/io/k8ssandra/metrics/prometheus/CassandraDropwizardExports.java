@@ -7,6 +7,7 @@ package io.k8ssandra.metrics.prometheus;
 
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
+import io.k8ssandra.metrics.builder.CassandraMetricNameParser;
 import io.k8ssandra.metrics.builder.CassandraMetricRegistryListener;
 import io.k8ssandra.metrics.builder.RefreshableMetricFamilySamples;
 import io.k8ssandra.metrics.config.Configuration;
@@ -28,6 +29,8 @@ public class CassandraDropwizardExports extends Collector implements Collector.D
 
   private ConcurrentHashMap<String, RefreshableMetricFamilySamples> familyCache;
 
+  private final CassandraMetricRegistryListener listener;
+
   /**
    * Creates a new CassandraDropwizardExports with a custom {@link MetricFilter}.
    *
@@ -39,7 +42,17 @@ public class CassandraDropwizardExports extends Collector implements Collector.D
     this.registry = registry;
     this.familyCache = new ConcurrentHashMap<>();
 
-    registry.addListener(new CassandraMetricRegistryListener(this.familyCache, config));
+    this.listener = new CassandraMetricRegistryListener(this.familyCache, config);
+    registry.addListener(listener);
+  }
+
+  /**
+   * Apply a new relabeling configuration. Only the metric families affected by the changed rules
+   * are recomputed.
+   */
+  public void reload(Configuration config) {
+    int changed = listener.reloadParser(CassandraMetricNameParser.getDefaultParser(config));
+    logger.info("Relabeling configuration reloaded, {} Dropwizard metrics changed", changed);
   }
 
   @Override
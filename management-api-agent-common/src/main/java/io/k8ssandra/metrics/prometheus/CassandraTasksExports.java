@@ -30,13 +30,18 @@ public class CassandraTasksExports extends Collector implements Collector.Descri
   private static final String METRICS_PREFIX = "org_apache_cassandra_metrics_extended_";
   private final MetricRegistry registry;
 
-  private final CassandraMetricNameParser parser;
+  private volatile CassandraMetricNameParser parser;
 
   public CassandraTasksExports(MetricRegistry registry, Configuration config) {
     this.registry = registry;
     parser = CassandraMetricNameParser.getDefaultParser(config);
   }
 
+  /** Replace the relabeling rules used for the following collections. */
+  public void reload(Configuration config) {
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+  }
+
   @Override
   public List<MetricFamilySamples> collect() {
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.prometheus;
+
+import com.datastax.mgmtapi.ClientRequestTracker;
+import com.google.common.collect.Lists;
+import io.k8ssandra.metrics.builder.CassandraMetricDefinition;
+import io.k8ssandra.metrics.builder.CassandraMetricNameParser;
+import io.k8ssandra.metrics.config.Configuration;
+import io.prometheus.client.Collector;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native transport requests aggregated per driver and user. Connections are not exported, the
+ * addresses would make the cardinality unbounded.
+ */
+public class ClientRequestsExports extends Collector implements Collector.Describable {
+
+  private static final String METRICS_PREFIX = "org_apache_cassandra_metrics_extended_";
+
+  private final ClientRequestTracker tracker;
+
+  private volatile CassandraMetricNameParser parser;
+
+  public ClientRequestsExports(ClientRequestTracker tracker, Configuration config) {
+    this.tracker = tracker;
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+  }
+
+  /** Replace the relabeling rules used for the following collections. */
+  public void reload(Configuration config) {
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+  }
+
+  @Override
+  public List<MetricFamilySamples> collect() {
+    ArrayList<String> additionalLabels =
+        Lists.newArrayList("driver_name", "driver_version", "user");
+
+    CassandraMetricDefinition requests =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "client_requests", "_total", additionalLabels, Lists.newArrayList());
+
+    CassandraMetricDefinition inFlight =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "client_requests_in_flight",
+            "",
+            additionalLabels,
+            Lists.newArrayList());
+
+    List<MetricFamilySamples.Sample> requestsSamples = new ArrayList<>();
+    List<MetricFamilySamples.Sample> inFlightSamples = new ArrayList<>();
+
+    for (ClientRequestTracker.Client client : tracker.getClients()) {
+      List<String> labelValues =
+          Lists.newArrayListWithCapacity(requests.getLabelValues().size() + 3);
+      labelValues.addAll(requests.getLabelValues());
+      labelValues.add(client.getDriverName());
+      labelValues.add(client.getDriverVersion());
+      labelValues.add(client.getUser());
+
+      requestsSamples.add(
+          new MetricFamilySamples.Sample(
+              requests.getMetricName(),
+              requests.getLabelNames(),
+              labelValues,
+              client.getRequests()));
+
+      inFlightSamples.add(
+          new MetricFamilySamples.Sample(
+              inFlight.getMetricName(),
+              inFlight.getLabelNames(),
+              labelValues,
+              client.getInFlight()));
+    }
+
+    List<MetricFamilySamples> familySamples = new ArrayList<>(2);
+    familySamples.add(
+        new MetricFamilySamples(requests.getMetricName(), Type.COUNTER, "", requestsSamples));
+    familySamples.add(
+        new MetricFamilySamples(inFlight.getMetricName(), Type.GAUGE, "", inFlightSamples));
+    return familySamples;
+  }
+
+  @Override
+  public List<MetricFamilySamples> describe() {
+    return new ArrayList<>();
+  }
+}
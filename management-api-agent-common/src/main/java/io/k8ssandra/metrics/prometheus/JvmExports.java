@@ -23,7 +23,7 @@ import java.util.List;
 
 public class JvmExports extends Collector implements Collector.Describable {
 
-  private final CassandraMetricNameParser parser;
+  private volatile CassandraMetricNameParser parser;
 
   private List<Collector> subCollectors;
 
@@ -40,6 +40,11 @@ public class JvmExports extends Collector implements Collector.Describable {
     subCollectors.add(new VersionInfoExports());
   }
 
+  /** Replace the relabeling rules used for the following collections. */
+  public void reload(Configuration config) {
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+  }
+
   @Override
   public List<MetricFamilySamples> collect() {
     ArrayList<MetricFamilySamples> resultSamples = Lists.newArrayList();
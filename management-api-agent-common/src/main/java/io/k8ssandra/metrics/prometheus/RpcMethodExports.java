@@ -0,0 +1,185 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.prometheus;
+
+import static io.k8ssandra.metrics.builder.CassandraMetricsTools.BUCKET_LABEL_NAME;
+import static io.k8ssandra.metrics.builder.CassandraMetricsTools.INF_BUCKET;
+
+import com.datastax.mgmtapi.rpc.RpcLanes;
+import com.datastax.mgmtapi.rpc.RpcMetrics;
+import com.google.common.collect.Lists;
+import io.k8ssandra.metrics.builder.CassandraMetricDefinition;
+import io.k8ssandra.metrics.builder.CassandraMetricNameParser;
+import io.k8ssandra.metrics.config.Configuration;
+import io.prometheus.client.Collector;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency histogram, errors and in-flight calls of the management API RPC methods, labeled by
+ * method name, and the queue and counters of the RPC lanes, labeled by lane name.
+ */
+public class RpcMethodExports extends Collector implements Collector.Describable {
+
+  private static final String METRICS_PREFIX = "org_apache_cassandra_metrics_extended_";
+
+  private final RpcMetrics metrics;
+  private final RpcLanes lanes;
+
+  private volatile CassandraMetricNameParser parser;
+
+  public RpcMethodExports(RpcMetrics metrics, RpcLanes lanes, Configuration config) {
+    this.metrics = metrics;
+    this.lanes = lanes;
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+  }
+
+  /** Replace the relabeling rules used for the following collections. */
+  public void reload(Configuration config) {
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+  }
+
+  @Override
+  public List<MetricFamilySamples> collect() {
+    ArrayList<String> methodLabel = Lists.newArrayList("method");
+    ArrayList<String> bucketLabels = Lists.newArrayList("method", BUCKET_LABEL_NAME);
+
+    CassandraMetricDefinition latency =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_latency_seconds", "", methodLabel, Lists.newArrayList());
+    CassandraMetricDefinition buckets =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_latency_seconds", "_bucket", bucketLabels, Lists.newArrayList());
+    CassandraMetricDefinition count =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_latency_seconds", "_count", methodLabel, Lists.newArrayList());
+    CassandraMetricDefinition sum =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_latency_seconds", "_sum", methodLabel, Lists.newArrayList());
+    CassandraMetricDefinition errors =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_errors", "_total", methodLabel, Lists.newArrayList());
+    CassandraMetricDefinition inFlight =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_in_flight", "", methodLabel, Lists.newArrayList());
+
+    List<MetricFamilySamples.Sample> latencySamples = new ArrayList<>();
+    List<MetricFamilySamples.Sample> errorsSamples = new ArrayList<>();
+    List<MetricFamilySamples.Sample> inFlightSamples = new ArrayList<>();
+
+    for (RpcMetrics.Method method : metrics.getMethods()) {
+      List<String> labelValues = withLabels(latency.getLabelValues(), method.getName());
+
+      long[] cumulativeBuckets = method.getCumulativeBuckets();
+      for (int i = 0; i < cumulativeBuckets.length; i++) {
+        String bound =
+            i < RpcMetrics.LATENCY_BUCKETS.length
+                ? Collector.doubleToGoString(RpcMetrics.LATENCY_BUCKETS[i])
+                : INF_BUCKET;
+        latencySamples.add(
+            new MetricFamilySamples.Sample(
+                buckets.getMetricName(),
+                buckets.getLabelNames(),
+                withLabels(buckets.getLabelValues(), method.getName(), bound),
+                cumulativeBuckets[i]));
+      }
+      latencySamples.add(
+          new MetricFamilySamples.Sample(
+              count.getMetricName(),
+              count.getLabelNames(),
+              labelValues,
+              cumulativeBuckets[cumulativeBuckets.length - 1]));
+      latencySamples.add(
+          new MetricFamilySamples.Sample(
+              sum.getMetricName(), sum.getLabelNames(), labelValues, method.getTotalSeconds()));
+
+      errorsSamples.add(
+          new MetricFamilySamples.Sample(
+              errors.getMetricName(), errors.getLabelNames(), labelValues, method.getErrors()));
+
+      inFlightSamples.add(
+          new MetricFamilySamples.Sample(
+              inFlight.getMetricName(),
+              inFlight.getLabelNames(),
+              labelValues,
+              method.getInFlight()));
+    }
+
+    List<MetricFamilySamples> familySamples = new ArrayList<>(7);
+    familySamples.add(
+        new MetricFamilySamples(latency.getMetricName(), Type.HISTOGRAM, "", latencySamples));
+    familySamples.add(
+        new MetricFamilySamples(errors.getMetricName(), Type.COUNTER, "", errorsSamples));
+    familySamples.add(
+        new MetricFamilySamples(inFlight.getMetricName(), Type.GAUGE, "", inFlightSamples));
+    collectLanes(familySamples);
+    return familySamples;
+  }
+
+  private void collectLanes(List<MetricFamilySamples> familySamples) {
+    ArrayList<String> laneLabel = Lists.newArrayList("lane");
+
+    CassandraMetricDefinition queued =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_lane_queued", "", laneLabel, Lists.newArrayList());
+    CassandraMetricDefinition active =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_lane_active", "", laneLabel, Lists.newArrayList());
+    CassandraMetricDefinition completed =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_lane_completed", "_total", laneLabel, Lists.newArrayList());
+    CassandraMetricDefinition rejected =
+        parser.parseDropwizardMetric(
+            METRICS_PREFIX + "rpc_lane_rejected", "_total", laneLabel, Lists.newArrayList());
+
+    List<MetricFamilySamples.Sample> queuedSamples = new ArrayList<>();
+    List<MetricFamilySamples.Sample> activeSamples = new ArrayList<>();
+    List<MetricFamilySamples.Sample> completedSamples = new ArrayList<>();
+    List<MetricFamilySamples.Sample> rejectedSamples = new ArrayList<>();
+
+    for (RpcLanes.Lane lane : lanes.getLanes()) {
+      List<String> labelValues = withLabels(queued.getLabelValues(), lane.getName());
+      queuedSamples.add(
+          new MetricFamilySamples.Sample(
+              queued.getMetricName(), queued.getLabelNames(), labelValues, lane.getQueued()));
+      activeSamples.add(
+          new MetricFamilySamples.Sample(
+              active.getMetricName(), active.getLabelNames(), labelValues, lane.getActive()));
+      completedSamples.add(
+          new MetricFamilySamples.Sample(
+              completed.getMetricName(),
+              completed.getLabelNames(),
+              labelValues,
+              lane.getCompleted()));
+      rejectedSamples.add(
+          new MetricFamilySamples.Sample(
+              rejected.getMetricName(), rejected.getLabelNames(), labelValues, lane.getRejected()));
+    }
+
+    familySamples.add(
+        new MetricFamilySamples(queued.getMetricName(), Type.GAUGE, "", queuedSamples));
+    familySamples.add(
+        new MetricFamilySamples(active.getMetricName(), Type.GAUGE, "", activeSamples));
+    familySamples.add(
+        new MetricFamilySamples(completed.getMetricName(), Type.COUNTER, "", completedSamples));
+    familySamples.add(
+        new MetricFamilySamples(rejected.getMetricName(), Type.COUNTER, "", rejectedSamples));
+  }
+
+  private static List<String> withLabels(List<String> labelValues, String... additionalValues) {
+    List<String> values = new ArrayList<>(labelValues.size() + additionalValues.length);
+    values.addAll(labelValues);
+    for (String value : additionalValues) {
+      values.add(value);
+    }
+    return values;
+  }
+
+  @Override
+  public List<MetricFamilySamples> describe() {
+    return new ArrayList<>();
+  }
+}
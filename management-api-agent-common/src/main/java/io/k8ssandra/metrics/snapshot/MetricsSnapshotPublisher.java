@@ -0,0 +1,104 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.snapshot;
+
+import com.datastax.mgmtapi.metrics.MetricsSnapshot;
+import com.datastax.mgmtapi.metrics.MetricsSnapshotFile;
+import io.k8ssandra.metrics.config.SnapshotConfiguration;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically writes the selected metric families to a {@link MetricsSnapshotFile}, so the
+ * management API server can read the local node metrics without calling into Cassandra.
+ */
+public class MetricsSnapshotPublisher {
+  private static final Logger logger = LoggerFactory.getLogger(MetricsSnapshotPublisher.class);
+
+  private final SnapshotConfiguration config;
+  private final CollectorRegistry registry;
+  private MetricsSnapshotFile file;
+
+  public MetricsSnapshotPublisher(SnapshotConfiguration config, CollectorRegistry registry) {
+    this.config = config;
+    this.registry = registry;
+  }
+
+  public void start() throws IOException {
+    file = MetricsSnapshotFile.openForWrite(Paths.get(config.getPath()));
+
+    ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "metrics-snapshot-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    int interval = Math.max(1, config.getIntervalSeconds());
+    executor.scheduleAtFixedRate(this::publish, 0, interval, TimeUnit.SECONDS);
+
+    logger.info("Writing metrics snapshot to {} every {} seconds", config.getPath(), interval);
+  }
+
+  void publish() {
+    try {
+      file.write(takeSnapshot());
+    } catch (Throwable t) {
+      // Don't let the exception cancel the scheduled task
+      logger.warn("Unable to write metrics snapshot", t);
+    }
+  }
+
+  MetricsSnapshot takeSnapshot() {
+    List<String> prefixes = config.getFamilies();
+    Enumeration<Collector.MetricFamilySamples> samples;
+    if (prefixes == null || prefixes.isEmpty()) {
+      samples = registry.metricFamilySamples();
+    } else {
+      samples =
+          registry.filteredMetricFamilySamples(
+              s -> {
+                for (String prefix : prefixes) {
+                  if (s.startsWith(prefix)) {
+                    return true;
+                  }
+                }
+                return false;
+              });
+    }
+
+    List<MetricsSnapshot.Family> families = new ArrayList<>();
+    while (samples.hasMoreElements()) {
+      Collector.MetricFamilySamples familySamples = samples.nextElement();
+      List<MetricsSnapshot.Sample> snapshotSamples =
+          new ArrayList<>(familySamples.samples.size());
+      for (Collector.MetricFamilySamples.Sample sample : familySamples.samples) {
+        Map<String, String> labels = new LinkedHashMap<>(sample.labelNames.size() * 2);
+        for (int i = 0; i < sample.labelNames.size(); i++) {
+          labels.put(sample.labelNames.get(i), sample.labelValues.get(i));
+        }
+        snapshotSamples.add(new MetricsSnapshot.Sample(sample.name, labels, sample.value));
+      }
+      families.add(
+          new MetricsSnapshot.Family(
+              familySamples.name, familySamples.type.name(), snapshotSamples));
+    }
+
+    return new MetricsSnapshot(System.currentTimeMillis(), families);
+  }
+}
@@ -16,7 +16,7 @@ import net.bytebuddy.matcher.ElementMatchers;
 
 public class GossiperInterceptor {
   public static ElementMatcher<? super TypeDescription> type() {
-    return ElementMatchers.nameEndsWith(".Gossiper");
+    return ElementMatchers.named("org.apache.cassandra.gms.Gossiper");
   }
 
   public static AgentBuilder.Transformer transformer() {
@@ -0,0 +1,111 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor;
+import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor4x;
+import com.datastax.mgmtapi.interceptors.SystemDistributedReplicationInterceptor;
+import com.google.common.io.ByteStreams;
+import io.netty.channel.Channel;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.utility.JavaModule;
+import org.apache.cassandra.auth.AuthKeyspace;
+import org.apache.cassandra.cql3.QueryHandler;
+import org.apache.cassandra.cql3.QueryProcessor;
+import org.apache.cassandra.tracing.TraceKeyspace;
+import org.apache.cassandra.transport.messages.ExecuteMessage;
+import org.junit.Test;
+
+public class AgentTest {
+
+  @Test
+  public void ignoresLibrariesButNotCassandra() {
+    assertTrue(Agent.ignored().matches(type(String.class)));
+    assertTrue(Agent.ignored().matches(type(Channel.class)));
+    assertTrue(Agent.ignored().matches(type(Agent.class)));
+    assertFalse(Agent.ignored().matches(type(QueryProcessor.class)));
+    assertFalse(Agent.ignored().matches(type(AuthKeyspace.class)));
+  }
+
+  @Test
+  public void matchesTheQueryProcessorByName() {
+    assertTrue(QueryHandlerInterceptor.type().matches(type(QueryProcessor.class)));
+    assertFalse(QueryHandlerInterceptor.type().matches(type(QueryHandler.class)));
+    assertFalse(QueryHandlerInterceptor.type().matches(type(String.class)));
+  }
+
+  @Test
+  public void matchesTheExecuteMessageByName() {
+    assertTrue(QueryHandlerInterceptor4x.executeType().matches(type(ExecuteMessage.class)));
+    assertFalse(QueryHandlerInterceptor4x.executeType().matches(type(QueryProcessor.class)));
+  }
+
+  @Test
+  public void matchesTheDistributedKeyspaces() {
+    assertTrue(SystemDistributedReplicationInterceptor.type().matches(type(AuthKeyspace.class)));
+    assertTrue(SystemDistributedReplicationInterceptor.type().matches(type(TraceKeyspace.class)));
+    assertFalse(SystemDistributedReplicationInterceptor.type().matches(type(QueryProcessor.class)));
+  }
+
+  @Test
+  public void ignoresLibrariesOfTheApplicationClassLoader() throws Exception {
+    Set<String> ignored = ConcurrentHashMap.newKeySet();
+    Set<String> matched = ConcurrentHashMap.newKeySet();
+    ClassFileTransformer transformer =
+        Agent.builder()
+            .with(
+                new AgentBuilder.Listener.Adapter() {
+                  @Override
+                  public void onIgnored(
+                      TypeDescription typeDescription,
+                      ClassLoader classLoader,
+                      JavaModule module,
+                      boolean loaded) {
+                    ignored.add(typeDescription.getName());
+                  }
+                })
+            // Records the types reaching the interceptor matchers
+            .type(
+                type -> {
+                  matched.add(type.getName());
+                  return false;
+                })
+            .transform((builder, type, classLoader, module, domain) -> builder)
+            .makeRaw();
+
+    // Loaded by the application class loader, not the bootstrap one
+    assertNotNull(Channel.class.getClassLoader());
+    transform(transformer, Channel.class);
+    transform(transformer, QueryHandler.class);
+
+    assertTrue(ignored.contains(Channel.class.getName()));
+    assertFalse(matched.contains(Channel.class.getName()));
+    assertTrue(matched.contains(QueryHandler.class.getName()));
+  }
+
+  private static void transform(ClassFileTransformer transformer, Class<?> type)
+      throws Exception {
+    String name = type.getName().replace('.', '/');
+    byte[] classFile;
+    try (InputStream in = type.getClassLoader().getResourceAsStream(name + ".class")) {
+      classFile = ByteStreams.toByteArray(in);
+    }
+    transformer.transform(type.getClassLoader(), name, null, null, classFile);
+  }
+
+  private static TypeDescription type(Class<?> type) {
+    return TypeDescription.ForLoadedType.of(type);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.mgmtapi.shims.CassandraAPI;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ClientRequestTrackerTest {
+
+  private static final String DRIVER = "DataStax Java driver for Apache Cassandra(R)";
+
+  @Test
+  public void countsRequestsPerConnectionAndClient() {
+    ClientRequestTracker tracker = new ClientRequestTracker();
+    InetSocketAddress first = new InetSocketAddress("127.0.0.1", 40001);
+    InetSocketAddress second = new InetSocketAddress("127.0.0.1", 40002);
+
+    ClientRequestTracker.Connection connection = tracker.begin(first, DRIVER, "4.17.0", "app");
+    tracker.begin(second, DRIVER, "4.17.0", "app").end();
+    connection.end();
+    tracker.begin(first, DRIVER, "4.17.0", "app");
+
+    assertEquals(2, tracker.getConnection(first).getRequests());
+    assertEquals(1, tracker.getConnection(first).getInFlight());
+    assertEquals(1, tracker.getConnection(second).getRequests());
+    assertEquals(0, tracker.getConnection(second).getInFlight());
+
+    assertEquals(1, tracker.getClients().size());
+    ClientRequestTracker.Client client = tracker.getClients().iterator().next();
+    assertEquals(DRIVER, client.getDriverName());
+    assertEquals("4.17.0", client.getDriverVersion());
+    assertEquals("app", client.getUser());
+    assertEquals(3, client.getRequests());
+    assertEquals(1, client.getInFlight());
+
+    // Closed connections are forgotten, the client totals are kept
+    tracker.retain(Collections.singleton(first));
+    assertNotNull(tracker.getConnection(first));
+    assertNull(tracker.getConnection(second));
+    assertEquals(3, client.getRequests());
+  }
+
+  @Test
+  public void separatesClientsByDriverAndUser() {
+    ClientRequestTracker tracker = new ClientRequestTracker();
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40001), DRIVER, "4.17.0", "app").end();
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40002), DRIVER, "4.17.0", "batch").end();
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40003), DRIVER, "4.18.0", "app").end();
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40004), DRIVER, "4.18.0", "app").end();
+
+    assertEquals(3, tracker.getClients().size());
+  }
+
+  @Test
+  public void prunesClosedConnectionsInTheBackground() {
+    List<Runnable> prunes = new ArrayList<>();
+    ClientRequestTracker tracker = new ClientRequestTracker(prunes::add, 2);
+    InetSocketAddress open = new InetSocketAddress("127.0.0.1", 40001);
+    InetSocketAddress closed = new InetSocketAddress("127.0.0.1", 40002);
+    tracker.begin(open, DRIVER, "4.17.0", "app").end();
+    tracker.begin(closed, DRIVER, "4.17.0", "app").end();
+
+    // Over the threshold, the new connections don't wait for the prune and only one is pending
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40003), DRIVER, "4.17.0", "app").end();
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40004), DRIVER, "4.17.0", "app").end();
+    assertEquals(1, prunes.size());
+    assertNotNull(tracker.getConnection(closed));
+
+    CassandraAPI api = mock(CassandraAPI.class);
+    Map<String, String> client = Collections.singletonMap("address", open.toString());
+    when(api.getConnectedClients()).thenReturn(Collections.singletonList(client));
+    ShimLoader.instance = () -> api;
+    prunes.get(0).run();
+
+    assertNotNull(tracker.getConnection(open));
+    assertNull(tracker.getConnection(closed));
+
+    // The next prune is scheduled once the threshold is reached again
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40005), DRIVER, "4.17.0", "app").end();
+    assertEquals(1, prunes.size());
+    tracker.begin(new InetSocketAddress("127.0.0.1", 40006), DRIVER, "4.17.0", "app").end();
+    assertEquals(2, prunes.size());
+  }
+
+  @Test
+  public void parsesInetSocketAddressStrings() {
+    InetSocketAddress v4 = new InetSocketAddress("127.0.0.1", 9042);
+    InetSocketAddress v6 = new InetSocketAddress("::1", 9042);
+    assertEquals(v4, ClientRequestTracker.parseAddress(v4.toString()));
+    assertEquals(v6, ClientRequestTracker.parseAddress(v6.toString()));
+    assertNull(ClientRequestTracker.parseAddress(null));
+  }
+}
@@ -6,17 +6,31 @@
 package com.datastax.mgmtapi;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
+import com.datastax.mgmtapi.rpc.Rpc;
+import com.datastax.mgmtapi.rpc.RpcLane;
 import com.datastax.mgmtapi.shims.CassandraAPI;
 import com.datastax.mgmtapi.util.Job;
 import com.datastax.mgmtapi.util.JobExecutor;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.exceptions.OverloadedException;
 import org.apache.cassandra.repair.messages.RepairOption;
 import org.apache.cassandra.service.StorageService;
 import org.junit.Before;
@@ -76,6 +90,54 @@ public class NodeOpsProviderTest {
     assertEquals("1", jobId);
   }
 
+  @Test
+  public void testSlowAsyncCallDoesNotBlockOtherCalls() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Map<List<Long>, List<String>> ranges = Collections.emptyMap();
+    when(cassandraApi.checkConsistencyLevel("LOCAL_QUORUM", 3))
+        .thenAnswer(
+            invocation -> {
+              release.await();
+              return ranges;
+            });
+    when(cassandraApi.getEndpointStates()).thenReturn(Collections.emptyList());
+
+    CompletableFuture<Map<List<Long>, List<String>>> slow =
+        nodeOpsProvider.checkConsistencyLevel("LOCAL_QUORUM", 3);
+    // The fast call completes while the check is still running
+    assertEquals(Collections.emptyList(), nodeOpsProvider.getEndpointStates());
+    assertFalse(slow.isDone());
+
+    release.countDown();
+    assertSame(ranges, slow.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testAsyncCallsAreRejectedWhenTheQueueIsFull() throws Exception {
+    ExecutorService executor = NodeOpsProvider.newAsyncExecutor(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      CompletableFuture<Boolean> running =
+          NodeOpsProvider.supplyAsync(executor, () -> awaitUninterruptibly(release));
+      CompletableFuture<Boolean> queued = NodeOpsProvider.supplyAsync(executor, () -> true);
+
+      assertThrows(
+          OverloadedException.class, () -> NodeOpsProvider.supplyAsync(executor, () -> true));
+
+      release.countDown();
+      assertTrue(running.get(10, TimeUnit.SECONDS));
+      assertTrue(queued.get(10, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private static boolean awaitUninterruptibly(CountDownLatch latch) {
+    Uninterruptibles.awaitUninterruptibly(latch);
+    return true;
+  }
+
   @Test
   public void testAddIdentityToRole() {
     nodeOpsProvider.addIdentityToRole("spiffe://example.test/user/1", "schema_reader", 3600);
@@ -358,4 +420,20 @@ public class NodeOpsProviderTest {
         ringRangeString,
         repairThreadCount);
   }
+
+  @Test
+  public void onlyBatchesReadOnlyLightMethods() {
+    Map<String, Rpc> rpcs = new HashMap<>();
+    for (Method method : NodeOpsProvider.class.getMethods()) {
+      Rpc rpc = method.getAnnotation(Rpc.class);
+      if (rpc != null) {
+        rpcs.put(rpc.name(), rpc);
+      }
+    }
+    for (String name : NodeOpsProvider.BATCHABLE_METHODS) {
+      assertTrue(name, rpcs.containsKey(name));
+      assertEquals(name, RpcLane.LIGHT, rpcs.get(name).lane());
+    }
+    assertFalse(NodeOpsProvider.BATCHABLE_METHODS.contains("batch"));
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.interceptors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.datastax.mgmtapi.shims.RpcStatementShim;
+import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.exceptions.UnauthorizedException;
+import org.apache.cassandra.service.ClientState;
+import org.apache.cassandra.service.QueryState;
+import org.apache.cassandra.utils.MD5Digest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class QueryHandlerInterceptorTest {
+  private static final String QUERY = "CALL NodeOps.dropRole(?)";
+
+  @BeforeClass
+  public static void setup() {
+    // ClientState loads the query processor, which reads the configuration
+    DatabaseDescriptor.clientInitialization();
+  }
+
+  @Test
+  public void rejectsPreparedCallsOfExternalClients() {
+    // Mocked client states are external, isInternal is left false
+    QueryState state = mock(QueryState.class);
+    when(state.getClientState()).thenReturn(mock(ClientState.class));
+    RpcStatementShim statement = mock(RpcStatementShim.class);
+    QueryOptions options = mock(QueryOptions.class);
+
+    assertThatThrownBy(() -> QueryHandlerInterceptor.handleRpc(statement, state, options, null))
+        .isInstanceOf(UnauthorizedException.class);
+    verifyNoInteractions(statement, options);
+  }
+
+  @Test
+  public void resolvesPreparedCallsOnlyForInternalClients() {
+    QueryState external = mock(QueryState.class);
+    when(external.getClientState()).thenReturn(mock(ClientState.class));
+    QueryState internal = new QueryState(ClientState.forInternalCalls());
+    MD5Digest id = MD5Digest.compute(QUERY);
+
+    assertThat(QueryHandlerInterceptor4x.beginExecute(external)).isFalse();
+    // An external EXECUTE of the digest of a CALL statement doesn't reach the prepared calls
+    assertThat(QueryHandlerInterceptor4x.getPreparedRpcStatement(id)).isNull();
+
+    assertThat(QueryHandlerInterceptor4x.beginExecute(internal)).isTrue();
+    QueryHandlerInterceptor4x.endExecute();
+    assertThat(QueryHandlerInterceptor4x.beginExecute(external)).isFalse();
+  }
+}
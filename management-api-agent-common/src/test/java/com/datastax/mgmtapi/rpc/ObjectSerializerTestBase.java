@@ -7,6 +7,9 @@ package com.datastax.mgmtapi.rpc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.junit.Test;
 
 /** A template for ObjectSerializer tests in implementation modules. */
@@ -39,6 +42,20 @@ public abstract class ObjectSerializerTestBase<S extends ObjectSerializer<Exampl
             + "org.apache.cassandra.db.marshal.Int32Type)))");
   }
 
+  @Test
+  public void testFieldValues() {
+    S exampleSerializer = createExampleSerializer();
+    Example example = new Example();
+    example.stringField = "value";
+
+    // Columns are sorted by field name
+    List<ByteBuffer> values = exampleSerializer.toByteBufferList(example);
+    assertThat(values).hasSize(3);
+    assertThat(values.get(0)).isNull();
+    assertThat(values.get(1)).isNull();
+    assertThat(values.get(2)).isEqualTo(ByteBuffer.wrap("value".getBytes(StandardCharsets.UTF_8)));
+  }
+
   private void expectType(S exampleSerializer, String fieldName, String expectedType) {
     String actualType = getCqlType(exampleSerializer, fieldName);
     assertThat(actualType).isEqualTo(expectedType);
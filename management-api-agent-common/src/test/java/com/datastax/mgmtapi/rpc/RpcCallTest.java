@@ -0,0 +1,83 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import org.apache.cassandra.cql3.ColumnIdentifier;
+import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.db.marshal.AbstractType;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.exceptions.InvalidRequestException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RpcCallTest {
+
+  private static final String QUERY = "CALL RpcCallTest.resize('table', 3)";
+
+  private RpcMethod method;
+
+  @Before
+  public void setUp() {
+    method = mock(RpcMethod.class);
+    when(method.getName()).thenReturn("resize");
+    when(method.getArgumentCount()).thenReturn(2);
+    when(method.getArgumentSpecification(0)).thenReturn(spec("name", UTF8Type.instance));
+    when(method.getArgumentSpecification(1)).thenReturn(spec("size", Int32Type.instance));
+    RpcCall.invalidateAll();
+  }
+
+  @Test
+  public void cachesCallsUntilTheRegistryChanges() {
+    assertNull(RpcCall.lookup(QUERY));
+    RpcCall call = RpcCall.cache(QUERY, new RpcCall(method, "resize", new String[] {"t", "3"}));
+    assertSame(call, RpcCall.lookup(QUERY));
+
+    RpcRegistry.unregister("RpcCallTest");
+    assertNull(RpcCall.lookup(QUERY));
+  }
+
+  @Test
+  public void bindsLiteralsAndBoundValues() {
+    RpcCall call = new RpcCall(method, "resize", new String[] {"table", "?"});
+    ByteBuffer size = Int32Type.instance.decompose(3);
+    assertEquals(1, call.getBindVariables().size());
+    assertEquals("size", call.getBindVariables().get(0).name.toString());
+
+    List<ByteBuffer> arguments = call.bind(Collections.singletonList(size));
+    assertEquals("table", UTF8Type.instance.compose(arguments.get(0)));
+    assertSame(size, arguments.get(1));
+
+    // The cached literals are not consumed by a call
+    arguments.get(0).position(arguments.get(0).limit());
+    arguments = call.bind(Collections.singletonList(size));
+    assertEquals("table", UTF8Type.instance.compose(arguments.get(0)));
+
+    assertThrows(InvalidRequestException.class, () -> call.bind(Collections.emptyList()));
+  }
+
+  @Test
+  public void doesNotCacheInvalidCalls() {
+    assertThrows(
+        InvalidRequestException.class,
+        () -> RpcCall.create(QUERY, "RpcCallTest", "resize", new String[] {"table", "3"}));
+    assertNull(RpcCall.lookup(QUERY));
+  }
+
+  private static ColumnSpecification spec(String name, AbstractType<?> type) {
+    return new ColumnSpecification("RpcCallTest", "resize", new ColumnIdentifier(name, true), type);
+  }
+}
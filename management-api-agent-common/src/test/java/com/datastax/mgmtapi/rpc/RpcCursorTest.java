@@ -0,0 +1,134 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.apache.cassandra.exceptions.InvalidRequestException;
+import org.junit.Test;
+
+public class RpcCursorTest {
+
+  private static final String METHOD = "RpcCursorTest.rows";
+  private static final List<ByteBuffer> ARGUMENTS =
+      Collections.singletonList(ByteBuffer.wrap(new byte[] {1, 2}));
+
+  @Test
+  public void pagesThroughTheRowsWithASingleInvocation() throws Throwable {
+    AtomicInteger invocations = new AtomicInteger();
+    RpcCursor.Invocation invocation =
+        () -> {
+          invocations.incrementAndGet();
+          return IntStream.range(0, 5).boxed();
+        };
+
+    RpcCursor cursor = open(false, null, invocation);
+    assertEquals(Arrays.asList(0, 1), cursor.next(2));
+    ByteBuffer pagingState = cursor.suspend();
+    assertNotNull(pagingState);
+
+    cursor = open(false, pagingState, invocation);
+    assertEquals(Arrays.asList(2, 3), cursor.next(2));
+    pagingState = cursor.suspend();
+
+    cursor = open(false, pagingState, invocation);
+    assertEquals(Collections.singletonList(4), cursor.next(2));
+    assertNull(cursor.suspend());
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  public void invokesAgainWhenTheCursorOfAStableOrderIsGone() throws Throwable {
+    AtomicInteger invocations = new AtomicInteger();
+    RpcCursor.Invocation invocation =
+        () -> {
+          invocations.incrementAndGet();
+          return Arrays.asList("a", "b", "c", "d");
+        };
+
+    RpcCursor cursor = open(true, null, invocation);
+    cursor.next(3);
+    ByteBuffer pagingState = cursor.suspend();
+
+    // The first open takes the cursor, a retry of the same page skips the rows already returned
+    open(true, pagingState.duplicate(), invocation);
+    cursor = open(true, pagingState.duplicate(), invocation);
+    assertEquals(Collections.singletonList("d"), cursor.next(3));
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  public void failsWhenTheCursorOfAnUnstableOrderIsGone() throws Throwable {
+    AtomicInteger invocations = new AtomicInteger();
+    RpcCursor.Invocation invocation =
+        () -> {
+          invocations.incrementAndGet();
+          return Arrays.asList("a", "b", "c", "d");
+        };
+
+    RpcCursor cursor = open(false, null, invocation);
+    cursor.next(3);
+    ByteBuffer pagingState = cursor.suspend();
+
+    open(false, pagingState.duplicate(), invocation);
+    assertThrows(
+        InvalidRequestException.class, () -> open(false, pagingState.duplicate(), invocation));
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  public void rejectsInvalidPagingStates() {
+    assertThrows(
+        InvalidRequestException.class,
+        () -> open(true, ByteBuffer.allocate(3), Collections::emptyList));
+  }
+
+  @Test
+  public void rejectsPagingStatesOfOtherCalls() throws Throwable {
+    RpcCursor cursor = open(true, null, () -> Arrays.asList(1, 2, 3));
+    cursor.next(1);
+    ByteBuffer pagingState = cursor.suspend();
+
+    List<ByteBuffer> otherArguments = Collections.singletonList(ByteBuffer.wrap(new byte[] {1}));
+    assertThrows(
+        InvalidRequestException.class,
+        () ->
+            RpcCursor.open(
+                METHOD, otherArguments, true, pagingState.duplicate(), Collections::emptyList));
+    assertThrows(
+        InvalidRequestException.class,
+        () ->
+            RpcCursor.open(
+                "RpcCursorTest.other",
+                ARGUMENTS,
+                true,
+                pagingState.duplicate(),
+                Collections::emptyList));
+    // The cursor is still there for the call it belongs to
+    assertEquals(Collections.singletonList(2), open(true, pagingState, null).next(1));
+  }
+
+  @Test
+  public void collectsUnpagedResults() {
+    assertEquals(Arrays.asList(1, 2), RpcCursor.collect(Arrays.asList(1, 2).iterator()));
+    assertEquals(Collections.emptyList(), RpcCursor.collect(null));
+  }
+
+  private static RpcCursor open(
+      boolean stableOrder, ByteBuffer pagingState, RpcCursor.Invocation invocation)
+      throws Throwable {
+    return RpcCursor.open(METHOD, ARGUMENTS, stableOrder, pagingState, invocation);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import org.apache.cassandra.exceptions.ExceptionCode;
+import org.junit.Test;
+
+public class RpcDeadlineTest {
+
+  @Test
+  public void readsTheDeadlineOfThePayload() {
+    ByteBuffer deadline = ByteBuffer.allocate(Long.BYTES);
+    deadline.putLong(0, 1234L);
+    assertEquals(
+        1234L,
+        RpcDeadline.fromPayload(Collections.singletonMap(RpcDeadline.PAYLOAD_KEY, deadline)));
+    assertEquals(RpcDeadline.NONE, RpcDeadline.fromPayload(null));
+    assertEquals(RpcDeadline.NONE, RpcDeadline.fromPayload(Collections.emptyMap()));
+    assertEquals(
+        RpcDeadline.NONE,
+        RpcDeadline.fromPayload(
+            Collections.singletonMap(RpcDeadline.PAYLOAD_KEY, ByteBuffer.allocate(4))));
+  }
+
+  @Test
+  public void rejectsExpiredCallsBeforeRunningThem() {
+    long expired = System.currentTimeMillis() - 1000;
+    RpcDeadlineExceededException e =
+        assertThrows(
+            RpcDeadlineExceededException.class,
+            () ->
+                RpcDeadline.call(
+                    expired,
+                    () -> {
+                      throw new AssertionError("Expired calls must not run");
+                    }));
+    assertEquals(ExceptionCode.READ_TIMEOUT, e.code());
+  }
+
+  @Test
+  public void exposesTheDeadlineWhileTheCallRuns() throws Exception {
+    // Without a deadline, nothing is ever stopped
+    RpcDeadline.check();
+
+    long deadline = System.currentTimeMillis() + 60_000;
+    assertEquals(
+        "done",
+        RpcDeadline.call(
+            deadline,
+            () -> {
+              RpcDeadline.check();
+              return "done";
+            }));
+
+    long soon = System.currentTimeMillis() + 50;
+    assertThrows(
+        RpcDeadlineExceededException.class,
+        () ->
+            RpcDeadline.call(
+                soon,
+                () -> {
+                  Thread.sleep(100);
+                  RpcDeadline.check();
+                  return null;
+                }));
+
+    // The deadline doesn't leak to the next calls of the thread
+    RpcDeadline.check();
+  }
+
+  @Test
+  public void unwrapsTheDeadlineOfFailedMethods() {
+    RpcDeadlineExceededException expired = new RpcDeadlineExceededException(10);
+    RpcDeadlineExceededException e =
+        assertThrows(
+            RpcDeadlineExceededException.class,
+            () ->
+                RpcDeadline.call(
+                    System.currentTimeMillis() + 60_000,
+                    () -> {
+                      throw RpcExecutionException.create("Failed to execute method", expired);
+                    }));
+    assertSame(expired, e);
+  }
+}
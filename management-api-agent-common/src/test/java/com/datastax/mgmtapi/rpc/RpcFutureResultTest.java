@@ -0,0 +1,77 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.junit.Test;
+
+public class RpcFutureResultTest {
+
+  private static final ResultMessage MESSAGE = new ResultMessage.Void();
+
+  @Test
+  public void waitsForTheResultOutsideOfDeferringRequests() {
+    CompletableFuture<String> result = CompletableFuture.completedFuture("done");
+    assertSame(MESSAGE, RpcFutureResult.of(result, value -> MESSAGE, RuntimeException::new));
+  }
+
+  @Test
+  public void defersTheResultOfDeferringRequests() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    ResultMessage message =
+        RpcFutureResult.deferring(
+            () -> RpcFutureResult.of(result, value -> MESSAGE, RuntimeException::new));
+
+    assertTrue(message instanceof RpcFutureResult);
+    CompletableFuture<ResultMessage> future = ((RpcFutureResult) message).future;
+    assertFalse(future.isDone());
+    result.complete("done");
+    assertSame(MESSAGE, future.get());
+  }
+
+  @Test
+  public void convertsTheFailuresOfTheMethod() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    result.completeExceptionally(new CompletionException(new IOException("boom")));
+
+    RuntimeException e =
+        assertThrows(
+            RuntimeException.class,
+            () -> RpcFutureResult.of(result, value -> MESSAGE, RuntimeException::new));
+    assertTrue(e.getCause() instanceof IOException);
+
+    ResultMessage message =
+        RpcFutureResult.deferring(
+            () -> RpcFutureResult.of(result, value -> MESSAGE, RuntimeException::new));
+    ExecutionException failure =
+        assertThrows(ExecutionException.class, () -> ((RpcFutureResult) message).future.get());
+    assertEquals("boom", RpcFutureResult.unwrap(failure).getCause().getMessage());
+  }
+
+  @Test
+  public void keepsTheWarningsOfTheRequestAndOfTheResult() {
+    List<String> request = Collections.singletonList("request");
+    List<String> result = Collections.singletonList("result");
+    assertEquals(Arrays.asList("request", "result"), RpcFutureResult.warnings(request, result));
+    assertSame(request, RpcFutureResult.warnings(request, null));
+    assertSame(result, RpcFutureResult.warnings(Collections.emptyList(), result));
+    assertNull(RpcFutureResult.warnings(null, null));
+  }
+}
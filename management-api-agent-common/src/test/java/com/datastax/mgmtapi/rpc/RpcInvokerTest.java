@@ -0,0 +1,93 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+public class RpcInvokerTest {
+
+  public static class Target {
+    int calls;
+
+    public String hello() {
+      return "hello";
+    }
+
+    public long twice(long value) {
+      return value * 2;
+    }
+
+    public String concat(String a, Integer b) {
+      return a + b;
+    }
+
+    public String concat3(String a, String b, String c) {
+      return a + b + c;
+    }
+
+    public void increment() {
+      calls++;
+    }
+
+    public void fail(String message) throws IOException {
+      throw new IOException(message);
+    }
+
+    public static String upper(String value) {
+      return value.toUpperCase();
+    }
+  }
+
+  static class Hidden {
+    public String hidden() {
+      return "hidden";
+    }
+  }
+
+  @Test
+  public void invokesMethodsOfAnyArity() throws Throwable {
+    Target target = new Target();
+    assertEquals("hello", invoker(target, "hello").invoke(new Object[0]));
+    assertEquals(42L, invoker(target, "twice").invoke(new Object[] {21L}));
+    assertEquals("a1", invoker(target, "concat").invoke(new Object[] {"a", 1}));
+    assertEquals("abc", invoker(target, "concat3").invoke(new Object[] {"a", "b", "c"}));
+    assertEquals("UP", invoker(target, "upper").invoke(new Object[] {"up"}));
+  }
+
+  @Test
+  public void returnsNullForVoidMethods() throws Throwable {
+    Target target = new Target();
+    assertNull(invoker(target, "increment").invoke(new Object[0]));
+    assertEquals(1, target.calls);
+  }
+
+  @Test
+  public void propagatesExceptionsUnwrapped() throws Throwable {
+    RpcInvoker invoker = invoker(new Target(), "fail");
+    IOException e = assertThrows(IOException.class, () -> invoker.invoke(new Object[] {"boom"}));
+    assertEquals("boom", e.getMessage());
+  }
+
+  @Test
+  public void invokesMethodsOfNonPublicClasses() throws Throwable {
+    assertEquals("hidden", invoker(new Hidden(), "hidden").invoke(new Object[0]));
+  }
+
+  private static RpcInvoker invoker(Object target, String name) {
+    for (Method method : target.getClass().getMethods()) {
+      if (method.getName().equals(name)) {
+        return RpcInvoker.create(method, target);
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+}
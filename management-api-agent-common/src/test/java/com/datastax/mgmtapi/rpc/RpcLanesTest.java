@@ -0,0 +1,144 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.cassandra.exceptions.OverloadedException;
+import org.apache.cassandra.service.ClientWarn;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.junit.Test;
+
+public class RpcLanesTest {
+
+  private static final ResultMessage MESSAGE = new ResultMessage.Void();
+
+  @Test
+  public void runsOnTheCallingThreadOutsideOfDeferringRequests() throws Exception {
+    RpcLanes lanes = new RpcLanes(1, 1, 1, 1);
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    Object result =
+        lanes.execute(
+            RpcLane.HEAVY,
+            () -> {
+              thread.set(Thread.currentThread());
+              return MESSAGE;
+            });
+
+    assertSame(MESSAGE, result);
+    assertSame(Thread.currentThread(), thread.get());
+  }
+
+  @Test
+  public void runsOnTheLaneOfDeferringRequests() throws Exception {
+    RpcLanes lanes = new RpcLanes(1, 1, 1, 1);
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    Object result =
+        RpcFutureResult.deferring(
+            () ->
+                lanes.execute(
+                    RpcLane.HEAVY,
+                    () -> {
+                      thread.set(Thread.currentThread());
+                      return MESSAGE;
+                    }));
+
+    assertTrue(result instanceof RpcFutureResult);
+    assertSame(MESSAGE, ((RpcFutureResult) result).future.get(10, TimeUnit.SECONDS));
+    assertNotEquals(Thread.currentThread(), thread.get());
+    assertTrue(thread.get().getName().startsWith("mgmtapi-rpc-heavy-"));
+  }
+
+  @Test
+  public void releasesTheLaneWhileAsynchronousMethodsComplete() throws Exception {
+    RpcLanes lanes = new RpcLanes(1, 1, 1, 1);
+    CompletableFuture<Object> pending = new CompletableFuture<>();
+    Callable<Object> asynchronous =
+        () -> RpcFutureResult.of(pending, value -> MESSAGE, RuntimeException::new);
+    RpcFutureResult slow =
+        (RpcFutureResult)
+            RpcFutureResult.deferring(() -> lanes.execute(RpcLane.HEAVY, asynchronous));
+
+    // The only heavy thread runs the next call while the first one is pending
+    RpcFutureResult fast =
+        (RpcFutureResult)
+            RpcFutureResult.deferring(() -> lanes.execute(RpcLane.HEAVY, () -> MESSAGE));
+    assertSame(MESSAGE, fast.future.get(10, TimeUnit.SECONDS));
+    assertFalse(slow.future.isDone());
+
+    pending.complete("done");
+    assertSame(MESSAGE, slow.future.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void keepsTheWarningsRaisedOnTheLane() throws Exception {
+    RpcLanes lanes = new RpcLanes(1, 1, 1, 1);
+    RpcFutureResult result =
+        (RpcFutureResult)
+            RpcFutureResult.deferring(
+                () ->
+                    lanes.execute(
+                        RpcLane.LIGHT,
+                        () -> {
+                          ClientWarn.instance.warn("slow call");
+                          return new ResultMessage.Void();
+                        }));
+
+    assertEquals(
+        Collections.singletonList("slow call"),
+        result.future.get(10, TimeUnit.SECONDS).getWarnings());
+  }
+
+  @Test
+  public void rejectsCallsBeyondTheQueueOfTheLane() throws Exception {
+    RpcLanes lanes = new RpcLanes(1, 1, 1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    RpcFutureResult running =
+        (RpcFutureResult)
+            RpcFutureResult.deferring(
+                () ->
+                    lanes.execute(
+                        RpcLane.HEAVY,
+                        () -> {
+                          started.countDown();
+                          release.await();
+                          return MESSAGE;
+                        }));
+    started.await();
+    RpcFutureResult queued =
+        (RpcFutureResult)
+            RpcFutureResult.deferring(() -> lanes.execute(RpcLane.HEAVY, () -> MESSAGE));
+
+    assertThrows(
+        OverloadedException.class,
+        () -> RpcFutureResult.deferring(() -> lanes.execute(RpcLane.HEAVY, () -> MESSAGE)));
+    RpcLanes.Lane heavy = lanes.get(RpcLane.HEAVY);
+    assertEquals(1, heavy.getQueued());
+    assertEquals(1, heavy.getRejected());
+
+    // The light lane isn't affected
+    RpcFutureResult light =
+        (RpcFutureResult)
+            RpcFutureResult.deferring(() -> lanes.execute(RpcLane.LIGHT, () -> MESSAGE));
+    assertSame(MESSAGE, light.future.get(10, TimeUnit.SECONDS));
+
+    release.countDown();
+    assertSame(MESSAGE, running.future.get(10, TimeUnit.SECONDS));
+    assertSame(MESSAGE, queued.future.get(10, TimeUnit.SECONDS));
+  }
+}
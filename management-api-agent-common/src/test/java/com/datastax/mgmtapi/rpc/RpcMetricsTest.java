@@ -0,0 +1,69 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RpcMetricsTest {
+
+  @Test
+  public void countsCallsAndErrorsPerMethod() throws Exception {
+    RpcMetrics metrics = new RpcMetrics();
+    RpcMetrics.Method method = metrics.forMethod("getEndpointStates");
+    assertSame(method, metrics.forMethod("getEndpointStates"));
+
+    assertEquals("ok", method.record(() -> "ok"));
+    assertThrows(
+        IOException.class,
+        () ->
+            method.record(
+                () -> {
+                  throw new IOException("boom");
+                }));
+    metrics.forMethod("getKeyspaces").record(() -> null);
+
+    assertEquals(2, metrics.getMethods().size());
+    long[] buckets = method.getCumulativeBuckets();
+    assertEquals(2, buckets[buckets.length - 1]);
+    assertEquals(1, method.getErrors());
+    assertEquals(0, method.getInFlight());
+  }
+
+  @Test
+  public void tracksInFlightCalls() throws Exception {
+    RpcMetrics.Method method = new RpcMetrics().forMethod("getStreamInfo");
+    method.record(
+        () -> {
+          assertEquals(1, method.getInFlight());
+          return null;
+        });
+    assertEquals(0, method.getInFlight());
+  }
+
+  @Test
+  public void fillsCumulativeLatencyBuckets() {
+    RpcMetrics.Method method = new RpcMetrics().forMethod("getCompactions");
+    method.observe(TimeUnit.MICROSECONDS.toNanos(500));
+    method.observe(TimeUnit.MILLISECONDS.toNanos(5));
+    method.observe(TimeUnit.MINUTES.toNanos(10));
+
+    long[] expected = new long[RpcMetrics.LATENCY_BUCKETS.length + 1];
+    expected[0] = 1;
+    for (int i = 1; i < expected.length - 1; i++) {
+      expected[i] = 2;
+    }
+    expected[expected.length - 1] = 3;
+    assertArrayEquals(expected, method.getCumulativeBuckets());
+    assertEquals(600.0055, method.getTotalSeconds(), 0.000001);
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.cassandra.gms.ApplicationState;
+import org.junit.Test;
+
+public class RpcResultCacheTest {
+
+  public static class Target {
+    int calls;
+
+    @RpcCacheable(invalidatedBy = RpcResultCache.Scope.SCHEMA)
+    public List<String> keyspaces(String prefix) {
+      calls++;
+      return Arrays.asList(prefix + calls);
+    }
+
+    @RpcCacheable(invalidatedBy = RpcResultCache.Scope.ENDPOINTS)
+    public Iterator<String> endpoints() {
+      calls++;
+      return Arrays.asList("a", "b").iterator();
+    }
+
+    @RpcCacheable(invalidatedBy = {RpcResultCache.Scope.SCHEMA, RpcResultCache.Scope.RING})
+    public Stream<String> ranges() {
+      calls++;
+      return Stream.of("r1", "r2");
+    }
+
+    final Map<String, String> state = new HashMap<>(Collections.singletonMap("k", "v"));
+
+    @RpcCacheable(invalidatedBy = RpcResultCache.Scope.ENDPOINTS)
+    public List<Map<String, String>> states() {
+      calls++;
+      return new ArrayList<>(Collections.singletonList(state));
+    }
+
+    public List<String> uncached() {
+      calls++;
+      return Arrays.asList("x");
+    }
+  }
+
+  @Test
+  public void cachesByMethodAndArguments() throws Throwable {
+    Target target = new Target();
+    RpcInvoker invoker = invoker(new RpcResultCache(true), target, "keyspaces");
+
+    Object first = invoker.invoke(new Object[] {"ks"});
+    assertSame(first, invoker.invoke(new Object[] {"ks"}));
+    assertEquals(Arrays.asList("other2"), invoker.invoke(new Object[] {"other"}));
+    assertEquals(2, target.calls);
+  }
+
+  @Test
+  public void invalidatesTheEntriesOfTheChangedScope() throws Throwable {
+    Target target = new Target();
+    RpcResultCache cache = new RpcResultCache(true);
+    RpcInvoker keyspaces = invoker(cache, target, "keyspaces");
+    RpcInvoker endpoints = invoker(cache, target, "endpoints");
+    RpcInvoker ranges = invoker(cache, target, "ranges");
+
+    keyspaces.invoke(new Object[] {"ks"});
+    endpoints.invoke(new Object[0]);
+    ranges.invoke(new Object[0]);
+    assertEquals(3, target.calls);
+
+    // Load updates don't change the ring
+    cache.onEndpointStateChange(ApplicationState.LOAD);
+    assertEquals(Arrays.asList("ks1"), keyspaces.invoke(new Object[] {"ks"}));
+    endpoints.invoke(new Object[0]);
+    ranges.invoke(new Object[0]);
+    assertEquals(4, target.calls);
+
+    cache.onEndpointStateChange(ApplicationState.TOKENS);
+    assertEquals(Arrays.asList("ks1"), keyspaces.invoke(new Object[] {"ks"}));
+    endpoints.invoke(new Object[0]);
+    ranges.invoke(new Object[0]);
+    assertEquals(6, target.calls);
+
+    // Membership and liveness changes
+    cache.onEndpointStateChange(null);
+    endpoints.invoke(new Object[0]);
+    ranges.invoke(new Object[0]);
+    assertEquals(8, target.calls);
+
+    cache.onEndpointStateChange(ApplicationState.SCHEMA);
+    assertEquals(Arrays.asList("ks9"), keyspaces.invoke(new Object[] {"ks"}));
+    endpoints.invoke(new Object[0]);
+    ranges.invoke(new Object[0]);
+    assertEquals(11, target.calls);
+  }
+
+  @Test
+  public void invalidatesTheEndpointsOnSchemaChanges() throws Throwable {
+    Target target = new Target();
+    RpcResultCache cache = new RpcResultCache(true);
+    RpcInvoker endpoints = invoker(cache, target, "endpoints");
+
+    endpoints.invoke(new Object[0]);
+    endpoints.invoke(new Object[0]);
+    assertEquals(1, target.calls);
+
+    // The endpoint states include the schema version
+    cache.onEndpointStateChange(ApplicationState.SCHEMA);
+    endpoints.invoke(new Object[0]);
+    assertEquals(2, target.calls);
+  }
+
+  @Test
+  public void sharesImmutableCopiesOfTheResults() throws Throwable {
+    Target target = new Target();
+    RpcResultCache cache = new RpcResultCache(true);
+    RpcInvoker states = invoker(cache, target, "states");
+
+    List<Map<String, String>> first = (List<Map<String, String>>) states.invoke(new Object[0]);
+    assertThrows(UnsupportedOperationException.class, () -> first.add(new HashMap<>()));
+    assertThrows(UnsupportedOperationException.class, () -> first.get(0).put("k", "x"));
+    target.state.put("k", "changed");
+    assertEquals(Collections.singletonMap("k", "v"), first.get(0));
+    assertSame(first, states.invoke(new Object[0]));
+  }
+
+  @Test
+  public void replaysIteratorsAndStreams() throws Throwable {
+    Target target = new Target();
+    RpcResultCache cache = new RpcResultCache(true);
+    RpcInvoker endpoints = invoker(cache, target, "endpoints");
+    RpcInvoker ranges = invoker(cache, target, "ranges");
+
+    for (int i = 0; i < 2; i++) {
+      List<String> rows = new ArrayList<>();
+      ((Iterator<String>) endpoints.invoke(new Object[0])).forEachRemaining(rows::add);
+      assertEquals(Arrays.asList("a", "b"), rows);
+      assertEquals(
+          Arrays.asList("r1", "r2"),
+          ((Stream<String>) ranges.invoke(new Object[0])).collect(Collectors.toList()));
+    }
+    assertEquals(2, target.calls);
+  }
+
+  @Test
+  public void onlyCachesCacheableMethodsWhenEnabled() throws Throwable {
+    Target target = new Target();
+    invoker(new RpcResultCache(true), target, "uncached").invoke(new Object[0]);
+    invoker(new RpcResultCache(true), target, "uncached").invoke(new Object[0]);
+
+    RpcInvoker disabled = invoker(new RpcResultCache(false), target, "keyspaces");
+    disabled.invoke(new Object[] {"ks"});
+    disabled.invoke(new Object[] {"ks"});
+    assertEquals(4, target.calls);
+  }
+
+  private static RpcInvoker invoker(RpcResultCache cache, Object target, String name) {
+    for (Method method : target.getClass().getMethods()) {
+      if (method.getName().equals(name)) {
+        return cache.wrap(method, RpcInvoker.create(method, target));
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+}
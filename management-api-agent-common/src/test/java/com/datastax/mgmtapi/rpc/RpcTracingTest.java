@@ -0,0 +1,64 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.junit.Test;
+
+public class RpcTracingTest {
+
+  private static final String SAMPLED = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+  private static final String NOT_SAMPLED =
+      "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00";
+
+  @Test
+  public void onlyTimesSampledCalls() {
+    assertTrue(RpcTracing.isSampled(payload(SAMPLED)));
+    assertFalse(RpcTracing.isSampled(payload(NOT_SAMPLED)));
+    assertFalse(RpcTracing.isSampled(payload("00-garbage")));
+    assertFalse(RpcTracing.isSampled(null));
+    assertFalse(RpcTracing.isSampled(Collections.emptyMap()));
+    assertEquals(RpcTracing.NOT_TRACED, RpcTracing.dispatch(payload(NOT_SAMPLED)));
+  }
+
+  @Test
+  public void attachesTheTimingsToTheResult() throws Exception {
+    long dispatched = RpcTracing.dispatch(payload(SAMPLED));
+    assertTrue(dispatched > 0);
+
+    ResultMessage result = (ResultMessage) RpcTracing.call(dispatched, ResultMessage.Void::new);
+
+    ByteBuffer timings = result.getCustomPayload().get(RpcTracing.TIMINGS_KEY);
+    assertEquals(3 * Long.BYTES, timings.remaining());
+    long started = timings.getLong(Long.BYTES);
+    long completed = timings.getLong(2 * Long.BYTES);
+    assertEquals(dispatched, timings.getLong(0));
+    assertTrue(started >= dispatched);
+    assertTrue(completed >= started);
+  }
+
+  @Test
+  public void leavesUntracedResultsAlone() throws Exception {
+    ResultMessage result =
+        (ResultMessage) RpcTracing.call(RpcTracing.NOT_TRACED, ResultMessage.Void::new);
+    assertNull(result.getCustomPayload());
+  }
+
+  private static Map<String, ByteBuffer> payload(String traceParent) {
+    return Collections.singletonMap(
+        RpcTracing.TRACE_PARENT_KEY,
+        ByteBuffer.wrap(traceParent.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
@@ -9,9 +9,20 @@ import static io.k8ssandra.metrics.builder.CassandraMetricsTools.INF_BUCKET;
 import static io.k8ssandra.metrics.builder.CassandraMetricsTools.LATENCY_OFFSETS;
 import static io.k8ssandra.metrics.builder.CassandraMetricsTools.LATENCY_OFFSETS_TEXT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
@@ -23,6 +34,7 @@ import io.k8ssandra.metrics.prometheus.CassandraDropwizardExports;
 import io.prometheus.client.Collector;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -198,6 +210,116 @@ public class CassandraMetricRegistryListenerTest {
     assertSampleValue(samples, SIBLING_TABLE_NAME, 10.0);
   }
 
+  @Test
+  public void reloadReplacesOnlyChangedDefinitions() throws Exception {
+    ConcurrentHashMap<String, RefreshableMetricFamilySamples> familyCache =
+        new ConcurrentHashMap<>();
+    CassandraMetricRegistryListener listener =
+        new CassandraMetricRegistryListener(familyCache, tableMetricConfiguration());
+    listener.onCounterAdded(tableMetricName(TABLE_NAME), new Counter());
+    listener.onCounterAdded(tableMetricName(SIBLING_TABLE_NAME), new Counter());
+
+    CassandraMetricDefinition unchanged =
+        findDefinition(familyCache.get(PROMETHEUS_METRIC_NAME), tableMetricName(TABLE_NAME));
+    assertNotNull(unchanged);
+
+    Configuration reloaded = tableMetricConfiguration();
+    List<RelabelSpec> relabels = new ArrayList<>(reloaded.getRelabels());
+    relabels.add(
+        new RelabelSpec(
+            Collections.singletonList("table"), "", SIBLING_TABLE_NAME, "drop", "", ""));
+    reloaded.setRelabels(relabels);
+
+    int changed = listener.reloadParser(CassandraMetricNameParser.getDefaultParser(reloaded));
+
+    assertEquals("Only the dropped metric should change", 1, changed);
+    RefreshableMetricFamilySamples family = familyCache.get(PROMETHEUS_METRIC_NAME);
+    assertEquals(1, family.getDefinitions().size());
+    assertSame(
+        "Unaffected definition should be kept as is",
+        unchanged,
+        findDefinition(family, tableMetricName(TABLE_NAME)));
+
+    // Reverting the rules brings the dropped metric back
+    changed =
+        listener.reloadParser(
+            CassandraMetricNameParser.getDefaultParser(tableMetricConfiguration()));
+    assertEquals(1, changed);
+    assertEquals(2, familyCache.get(PROMETHEUS_METRIC_NAME).getDefinitions().size());
+  }
+
+  @Test
+  public void reloadSwapsTheChangedFamily() throws Exception {
+    ConcurrentHashMap<String, RefreshableMetricFamilySamples> familyCache =
+        new ConcurrentHashMap<>();
+    CassandraMetricRegistryListener listener =
+        new CassandraMetricRegistryListener(familyCache, tableMetricConfiguration());
+    listener.onCounterAdded(tableMetricName(TABLE_NAME), new Counter());
+    listener.onCounterAdded(tableMetricName(SIBLING_TABLE_NAME), new Counter());
+    RefreshableMetricFamilySamples previous = familyCache.get(PROMETHEUS_METRIC_NAME);
+
+    Configuration reloaded = tableMetricConfiguration();
+    List<RelabelSpec> relabels = new ArrayList<>(reloaded.getRelabels());
+    relabels.add(
+        new RelabelSpec(Collections.singletonList("table"), "", TABLE_NAME, "", "dc", "dc1"));
+    reloaded.setRelabels(relabels);
+
+    assertEquals(1, listener.reloadParser(CassandraMetricNameParser.getDefaultParser(reloaded)));
+
+    // A collect still iterating the previous family sees all of its definitions
+    assertEquals(2, previous.getDefinitions().size());
+    RefreshableMetricFamilySamples family = familyCache.get(PROMETHEUS_METRIC_NAME);
+    assertNotSame(previous, family);
+    assertEquals(2, family.getDefinitions().size());
+    assertTrue(
+        findDefinition(family, tableMetricName(TABLE_NAME)).getLabelNames().contains("dc"));
+    assertFalse(
+        findDefinition(previous, tableMetricName(TABLE_NAME)).getLabelNames().contains("dc"));
+  }
+
+  @Test
+  public void failedReloadKeepsThePreviousParser() throws Exception {
+    ConcurrentHashMap<String, RefreshableMetricFamilySamples> familyCache =
+        new ConcurrentHashMap<>();
+    CassandraMetricRegistryListener listener =
+        new CassandraMetricRegistryListener(familyCache, tableMetricConfiguration());
+    listener.onCounterAdded(tableMetricName(TABLE_NAME), new Counter());
+    listener.onCounterAdded(tableMetricName(SIBLING_TABLE_NAME), new Counter());
+    RefreshableMetricFamilySamples previous = familyCache.get(PROMETHEUS_METRIC_NAME);
+
+    Configuration reloaded = tableMetricConfiguration();
+    List<RelabelSpec> relabels = new ArrayList<>(reloaded.getRelabels());
+    relabels.add(
+        new RelabelSpec(Collections.singletonList("table"), "", TABLE_NAME, "", "dc", "dc1"));
+    reloaded.setRelabels(relabels);
+    CassandraMetricNameParser failing = spy(CassandraMetricNameParser.getDefaultParser(reloaded));
+    doThrow(new IllegalStateException("invalid rule"))
+        .when(failing)
+        .parseDropwizardMetric(
+            eq(tableMetricName(SIBLING_TABLE_NAME)), anyString(), anyList(), anyList());
+
+    assertThrows(IllegalStateException.class, () -> listener.reloadParser(failing));
+
+    // Neither metric is replaced, and the new metrics are still parsed by the previous parser
+    assertSame(previous, familyCache.get(PROMETHEUS_METRIC_NAME));
+    assertFalse(
+        findDefinition(previous, tableMetricName(TABLE_NAME)).getLabelNames().contains("dc"));
+    clearInvocations(failing);
+    listener.onCounterAdded(tableMetricName("other_table"), new Counter());
+    verifyNoInteractions(failing);
+    assertEquals(3, familyCache.get(PROMETHEUS_METRIC_NAME).getDefinitions().size());
+  }
+
+  private CassandraMetricDefinition findDefinition(
+      RefreshableMetricFamilySamples family, String dropwizardName) {
+    for (CassandraMetricDefinition definition : family.getDefinitions()) {
+      if (definition.getDropWizardName().equals(dropwizardName)) {
+        return definition;
+      }
+    }
+    return null;
+  }
+
   private String tableMetricName(String tableName) {
     return String.format(
         "org.apache.cassandra.metrics.Table.MetricName.%s.%s", KEYSPACE_NAME, tableName);
@@ -9,9 +9,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import io.k8ssandra.metrics.builder.relabel.RelabelSpec;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 
 public class ConfigReaderTest {
@@ -36,6 +41,7 @@ public class ConfigReaderTest {
     assertEquals(3, configuration.getRelabels().size());
     assertEquals(9000, configuration.getEndpointConfiguration().getPort());
     assertEquals("127.0.0.1", configuration.getEndpointConfiguration().getHost());
+    assertEquals("/tmp/metrics.sock", configuration.getEndpointConfiguration().getSocketPath());
 
     assertNull(configuration.getEndpointConfiguration().getTlsConfig());
     assertNotNull(configuration.getLabels());
@@ -79,4 +85,20 @@ public class ConfigReaderTest {
     assertEquals(
         "^(a|b|c),.*", configuration.getRelabels().get(totalSize - 1).getRegexp().toString());
   }
+
+  @Test
+  public void validateRejectsIncompleteRelabelRules() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    URL resource = classLoader.getResource("collector.yaml");
+
+    System.setProperty(ConfigReader.CONFIG_PATH_PROPERTY, resource.getFile());
+    Configuration configuration = ConfigReader.readConfig();
+    ConfigReader.validate(configuration);
+
+    List<RelabelSpec> relabels = new ArrayList<>(configuration.getRelabels());
+    relabels.add(
+        new RelabelSpec(Collections.singletonList("__origname__"), "", ".*", "", null, "$1"));
+    configuration.setRelabels(relabels);
+    assertThrows(IllegalArgumentException.class, () -> ConfigReader.validate(configuration));
+  }
 }
@@ -6,13 +6,17 @@
 package com.datastax.mgmtapi.rpc;
 
 import com.google.common.collect.ImmutableSortedMap;
-import com.google.common.collect.Lists;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.cassandra.cql3.ColumnIdentifier;
@@ -21,6 +25,7 @@ import org.apache.cassandra.cql3.ResultSet;
 import org.apache.cassandra.cql3.ResultSet.ResultMetadata;
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.TupleType;
+import org.apache.cassandra.serializers.TypeSerializer;
 
 public class ObjectSerializerDse68<T> implements ObjectSerializer<T> {
   public final ImmutableSortedMap<String, FieldSerializer> serializers;
@@ -28,21 +33,36 @@ public class ObjectSerializerDse68<T> implements ObjectSerializer<T> {
   public class FieldSerializer {
     public final AbstractType type;
     public final Function<T, Object> accessor;
+    private final TypeSerializer serializer;
 
     FieldSerializer(AbstractType type, Function<T, Object> accessor) {
       this.type = type;
       this.accessor = accessor;
+      this.serializer = type.getSerializer();
     }
 
     FieldSerializer(AbstractType type, final Field field) {
       field.setAccessible(true);
+      MethodHandle getter;
+      try {
+        getter =
+            MethodHandles.lookup()
+                .unreflectGetter(field)
+                .asType(MethodType.methodType(Object.class, Object.class));
+      } catch (IllegalAccessException e) {
+        throw new AssertionError("Should not happen as we set the field to accessible.");
+      }
       this.type = type;
+      this.serializer = type.getSerializer();
       this.accessor =
           (obj) -> {
             try {
-              return field.get(obj);
-            } catch (IllegalAccessException e) {
-              throw new AssertionError("Should not happen as we set the field to accessible.");
+              return (Object) getter.invokeExact((Object) obj);
+            } catch (RuntimeException | Error e) {
+              throw e;
+            } catch (Throwable t) {
+              // Field getters don't throw checked exceptions
+              throw new AssertionError(t);
             }
           };
     }
@@ -52,10 +72,28 @@ public class ObjectSerializerDse68<T> implements ObjectSerializer<T> {
       if (value == null) {
         return null;
       }
-      return type.getSerializer().serialize(accessor.apply(obj));
+      return serializer.serialize(value);
+    }
+  }
+
+  private static final class CachedMetadata {
+    private final String ksName;
+    private final String cfName;
+    private final ResultMetadata metadata;
+
+    private CachedMetadata(String ksName, String cfName, ResultMetadata metadata) {
+      this.ksName = ksName;
+      this.cfName = cfName;
+      this.metadata = metadata;
     }
   }
 
+  /** Field serializers in column order, iterated for every row. */
+  private final List<FieldSerializer> fieldSerializers;
+
+  /** Result metadata of the last keyspace and table names, methods always use the same ones. */
+  private volatile CachedMetadata cachedMetadata;
+
   /**
    * Due to the magic of java generics, the class doesn't have the full generic information, hence
    * the double types. Also, this will only serialize **PUBLIC** fields (perhaps this should be
@@ -76,6 +114,7 @@ public class ObjectSerializerDse68<T> implements ObjectSerializer<T> {
                                     GenericSerializerDse68.getType(field.getGenericType()),
                                     field))));
     // currently not recursive; multiple ways to do it
+    fieldSerializers = serializers.values().asList();
   }
 
   public ObjectSerializerDse68(Class<T> clazz) {
@@ -90,18 +129,9 @@ public class ObjectSerializerDse68<T> implements ObjectSerializer<T> {
    * @param cfName Pretend we are coming from this columnfamily
    */
   public ResultSet toResultSet(T obj, String ksName, String cfName) {
-    return new ResultSet(
-        new ResultMetadata(
-            serializers.entrySet().stream()
-                .map(
-                    e ->
-                        new ColumnSpecification(
-                            ksName,
-                            cfName,
-                            new ColumnIdentifier(e.getKey(), true),
-                            e.getValue().type))
-                .collect(Collectors.toList())),
-        Lists.<List<ByteBuffer>>newArrayList(toByteBufferList(obj)));
+    List<List<ByteBuffer>> rows = new ArrayList<>(1);
+    rows.add(toByteBufferList(obj));
+    return new ResultSet(getResultMetadata(ksName, cfName), rows);
   }
 
   /**
@@ -112,28 +142,45 @@ public class ObjectSerializerDse68<T> implements ObjectSerializer<T> {
    * @param cfName Pretend we are coming from this columnfamily
    */
   public ResultSet toMultiRowResultSet(Collection<T> obj, String ksName, String cfName) {
-    return new ResultSet(
-        new ResultMetadata(
-            serializers.entrySet().stream()
-                .map(
-                    e ->
-                        new ColumnSpecification(
-                            ksName,
-                            cfName,
-                            new ColumnIdentifier(e.getKey(), true),
-                            e.getValue().type))
-                .collect(Collectors.toList())),
-        obj.stream().map(this::toByteBufferList).collect(Collectors.toList()));
+    List<List<ByteBuffer>> rows = new ArrayList<>(obj.size());
+    for (T row : obj) {
+      rows.add(toByteBufferList(row));
+    }
+    return new ResultSet(getResultMetadata(ksName, cfName), rows);
+  }
+
+  /**
+   * Computing the metadata hashes the column specifications, so it is only done once per method.
+   * Each result set gets its own copy, the metadata is mutable.
+   */
+  private ResultMetadata getResultMetadata(String ksName, String cfName) {
+    CachedMetadata cached = cachedMetadata;
+    if (cached == null || !cached.ksName.equals(ksName) || !cached.cfName.equals(cfName)) {
+      List<ColumnSpecification> columns = new ArrayList<>(serializers.size());
+      for (Map.Entry<String, FieldSerializer> e : serializers.entrySet()) {
+        columns.add(
+            new ColumnSpecification(
+                ksName, cfName, new ColumnIdentifier(e.getKey(), true), e.getValue().type));
+      }
+      cached = new CachedMetadata(ksName, cfName, new ResultMetadata(columns));
+      cachedMetadata = cached;
+    }
+    return cached.metadata.copy();
   }
 
   public List<ByteBuffer> toByteBufferList(T obj) {
-    return serializers.values().stream()
-        .map(fs -> fs.serializeField(obj))
-        .collect(Collectors.toList());
+    return Arrays.asList(serializeFields(obj));
+  }
+
+  private ByteBuffer[] serializeFields(T obj) {
+    ByteBuffer[] values = new ByteBuffer[fieldSerializers.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = fieldSerializers.get(i).serializeField(obj);
+    }
+    return values;
   }
 
   public ByteBuffer toByteBuffer(T obj) {
-    return TupleType.buildValue(
-        serializers.values().stream().map(fs -> fs.serializeField(obj)).toArray(ByteBuffer[]::new));
+    return TupleType.buildValue(serializeFields(obj));
   }
 }
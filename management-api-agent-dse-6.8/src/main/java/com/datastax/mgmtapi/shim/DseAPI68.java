@@ -6,6 +6,7 @@
 package com.datastax.mgmtapi.shim;
 
 import com.datastax.bdp.transport.common.DseReloadableTrustManager;
+import com.datastax.mgmtapi.rpc.RpcDeadline;
 import com.datastax.mgmtapi.shims.CassandraAPI;
 import com.datastax.mgmtapi.shims.RpcStatementShim;
 import com.google.common.base.Suppliers;
@@ -23,12 +24,14 @@ import java.net.InetAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.cassandra.auth.IRoleManager;
 import org.apache.cassandra.auth.RoleResource;
 import org.apache.cassandra.concurrent.TPCTaskType;
 import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.cql3.UntypedResultSet;
 import org.apache.cassandra.db.ConsistencyLevel;
@@ -115,6 +118,8 @@ public class DseAPI68 implements CassandraAPI {
 
       // For each range check the endpoints can achieve cl using the midpoint
       for (Range<Token> range : tokenRanges) {
+        // Stop once the caller gave up, large rings take a while
+        RpcDeadline.check();
         Token midpoint = partitioner.midpoint(range.left, range.right);
         List<InetAddress> endpoints =
             mockStrategy.calculateNaturalEndpoints(midpoint, tokenMetadata);
@@ -321,7 +326,8 @@ public class DseAPI68 implements CassandraAPI {
   }
 
   @Override
-  public RpcStatementShim makeRpcStatement(String method, String[] params) {
+  public RpcStatementShim makeRpcStatement(
+      String method, String[] params, List<ColumnSpecification> bindVariables) {
     throw new UnsupportedOperationException();
   }
 
@@ -334,6 +340,16 @@ public class DseAPI68 implements CassandraAPI {
     DseReloadableTrustManager.serverEncryptionInstance().reloadTrustManager();
   }
 
+  @Override
+  public List<Map<String, String>> getConnectedClients() {
+    throw new UnsupportedOperationException("Client connection inventory is not supported on DSE");
+  }
+
+  @Override
+  public void registerEndpointStateListener(Consumer<ApplicationState> listener) {
+    throw new UnsupportedOperationException("Endpoint state listeners are not supported on DSE");
+  }
+
   @Override
   public List<Map<String, String>> listRoles() {
     IRoleManager roleManager = getRoleManager();
@@ -0,0 +1,122 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package org.apache.cassandra.transport;
+
+import com.google.common.base.Throwables;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import org.apache.cassandra.service.QueryState;
+import org.apache.cassandra.transport.messages.StartupMessage;
+
+/**
+ * The transport internals of Converged Cassandra/Core 4 that became asynchronous (CNDB-10759),
+ * resolved once for the running version so that requests don't go through reflection.
+ */
+final class TransportHooksHcd {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /** Whether {@link #execute} returns a CompletableFuture of the response. */
+  final boolean asyncExecute;
+  /** Whether {@link #processStartup} returns a CompletableFuture of the response. */
+  final boolean asyncStartup;
+  // (Message.Request, QueryState, long)Object
+  private final MethodHandle execute;
+  // (ServerConnection, StartupMessage)Object
+  private final MethodHandle processStartup;
+
+  private TransportHooksHcd() throws ReflectiveOperationException {
+    Method requestExecute =
+        Message.Request.class.getDeclaredMethod("execute", QueryState.class, long.class);
+    asyncExecute = CompletableFuture.class.equals(requestExecute.getReturnType());
+    execute =
+        unreflect(requestExecute)
+            .asType(
+                MethodType.methodType(
+                    Object.class, Message.Request.class, QueryState.class, long.class));
+
+    MethodType startupType =
+        MethodType.methodType(Object.class, ServerConnection.class, StartupMessage.class);
+    MethodHandle startup;
+    boolean async = false;
+    try {
+      startup =
+          unreflect(
+              Dispatcher.class.getDeclaredMethod(
+                  "processInit", ServerConnection.class, StartupMessage.class));
+      async = true;
+    } catch (NoSuchMethodException e) {
+      Method processRequest;
+      try {
+        processRequest =
+            Dispatcher.class.getDeclaredMethod(
+                "processRequest",
+                ServerConnection.class,
+                Message.Request.class,
+                ClientResourceLimits.Overload.class);
+      } catch (NoSuchMethodException e2) {
+        // A signature that may have never existed
+        processRequest =
+            Dispatcher.class.getDeclaredMethod(
+                "processRequest",
+                ServerConnection.class,
+                StartupMessage.class,
+                ClientResourceLimits.Overload.class);
+      }
+      startup =
+          MethodHandles.insertArguments(
+              unreflect(processRequest), 2, ClientResourceLimits.Overload.NONE);
+    }
+    asyncStartup = async;
+    processStartup = startup.asType(startupType);
+  }
+
+  /**
+   * Resolve the hooks of the running version.
+   *
+   * @throws IllegalStateException if the version has signatures the agent doesn't know about
+   */
+  static TransportHooksHcd resolve() {
+    try {
+      return new TransportHooksHcd();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          "Unsupported transport internals, the Management API agent can't serve the management"
+              + " socket",
+          e);
+    }
+  }
+
+  /** Execute a request, see {@link #asyncExecute} for the type of the result. */
+  Object execute(Message.Request request, QueryState state, long queryStartNanoTime) {
+    try {
+      return (Object) execute.invokeExact(request, state, queryStartNanoTime);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  /** Process a STARTUP message, see {@link #asyncStartup} for the type of the result. */
+  Object processStartup(ServerConnection connection, StartupMessage startup) {
+    try {
+      return (Object) processStartup.invokeExact(connection, startup);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    method.setAccessible(true);
+    return LOOKUP.unreflect(method);
+  }
+
+  private static RuntimeException propagate(Throwable t) {
+    Throwables.throwIfUnchecked(t);
+    throw new RuntimeException(t);
+  }
+}
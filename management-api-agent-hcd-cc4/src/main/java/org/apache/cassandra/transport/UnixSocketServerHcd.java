@@ -6,6 +6,7 @@
 package org.apache.cassandra.transport;
 
 import com.datastax.mgmtapi.ipc.IPCController;
+import com.datastax.mgmtapi.rpc.RpcFutureResult;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
@@ -17,7 +18,6 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.VoidChannelPromise;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.Attribute;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -39,6 +39,8 @@ import org.slf4j.LoggerFactory;
 
 public class UnixSocketServerHcd {
   private static final Logger logger = LoggerFactory.getLogger(IPCController.class);
+  // Resolved when the management socket starts, fails it on unknown Cassandra internals
+  private static final TransportHooksHcd hooks = TransportHooksHcd.resolve();
 
   // Names of handlers used in pre-V5 pipelines
   private static final String ENVELOPE_DECODER = "envelopeDecoder";
@@ -96,43 +98,25 @@ public class UnixSocketServerHcd {
         // logger.info("Executing {} {} {}", request, connection.getVersion(),
         // request.getStreamId());
 
-        // Converged Cassandra/Core 4 added Async processing as part of CNDB-10759. See if we have
-        // the method that returns a CompletableFuture.
-        try {
-          Method requestExecute =
-              Message.Request.class.getDeclaredMethod("execute", QueryState.class, long.class);
-          // get CompletableFuture type
-          if (CompletableFuture.class.equals(requestExecute.getReturnType())) {
-            // newer Async processing
-            CompletableFuture<Message.Response> future =
-                (CompletableFuture<Message.Response>)
-                    requestExecute.invoke(request, qstate, queryStartNanoTime);
-            future.whenComplete(
-                (Message.Response response, Throwable ignore) -> {
-                  processMessageResponse(response, request, connection, ctx);
-                });
-          } else if (Message.Response.class.equals(requestExecute.getReturnType())) {
-            // older non-async processing
-            Message.Response response =
-                (Message.Response) requestExecute.invoke(request, qstate, queryStartNanoTime);
-
-            processMessageResponse(response, request, connection, ctx);
-          }
-        } catch (NoSuchMethodException ex) {
-          // Unexepected missing method, throw an error and figure out what method signature we have
-          logger.error(
-              "Expected Cassandra Message.Request.execute() method signature not found. Management API agent will not be able to start Cassandra.",
-              ex);
-          throw ex;
+        // Converged Cassandra/Core 4 added Async processing as part of CNDB-10759
+        if (hooks.asyncExecute) {
+          CompletableFuture<Message.Response> future =
+              RpcFutureResult.deferring(
+                  () ->
+                      (CompletableFuture<Message.Response>)
+                          hooks.execute(request, qstate, queryStartNanoTime));
+          future.whenComplete(
+              (Message.Response response, Throwable ignore) -> {
+                processMessageResponse(response, request, connection, ctx);
+              });
+        } else {
+          Message.Response response =
+              RpcFutureResult.deferring(
+                  () -> (Message.Response) hooks.execute(request, qstate, queryStartNanoTime));
+          processMessageResponse(response, request, connection, ctx);
         }
       } catch (Throwable t) {
-        // logger.warn("Exception encountered", t);
-        JVMStabilityInspector.inspectThrowable(t);
-        ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
-            new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
-        ctx.writeAndFlush(
-            ErrorMessage.fromException(t, handler).setStreamId(request.getStreamId()));
-        request.getSource().release();
+        writeError(ctx, request, t);
         return;
       } finally {
         ClientWarn.instance.resetWarnings();
@@ -144,17 +128,47 @@ public class UnixSocketServerHcd {
         Message.Request request,
         final UnixSocketConnection connection,
         ChannelHandlerContext ctx) {
+      if (response instanceof RpcFutureResult) {
+        // Asynchronous RPC method, respond when it completes without holding the event loop
+        Message.Response deferred = response;
+        List<String> warnings = ClientWarn.instance.getWarnings();
+        ((RpcFutureResult) response)
+            .future.whenCompleteAsync(
+                (result, error) -> {
+                  if (error != null) {
+                    writeError(ctx, request, RpcFutureResult.unwrap(error));
+                  } else {
+                    result.setTracingId(deferred.getTracingId());
+                    result.setWarnings(RpcFutureResult.warnings(warnings, result.getWarnings()));
+                    processMessageResponse(result, request, connection, ctx);
+                  }
+                },
+                ctx.channel().eventLoop());
+        return;
+      }
       if (response instanceof AuthenticateMessage) {
         // UnixSocket has no auth
         response = new ReadyMessage();
       }
       response.setStreamId(request.getStreamId());
-      response.setWarnings(ClientWarn.instance.getWarnings());
+      if (response.getWarnings() == null) {
+        // Deferred results already carry the warnings of their request
+        response.setWarnings(ClientWarn.instance.getWarnings());
+      }
       response.attach(connection);
       connection.applyStateTransition(request.type, response.type);
       ctx.writeAndFlush(response);
       request.getSource().release();
     }
+
+    private void writeError(ChannelHandlerContext ctx, Message.Request request, Throwable t) {
+      // logger.warn("Exception encountered", t);
+      JVMStabilityInspector.inspectThrowable(t);
+      ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
+          new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
+      ctx.writeAndFlush(ErrorMessage.fromException(t, handler).setStreamId(request.getStreamId()));
+      request.getSource().release();
+    }
   }
 
   static class UnixSocketConnection extends ServerConnection {
@@ -294,8 +308,17 @@ public class UnixSocketServerHcd {
 
             ChannelPromise promise;
             if (inbound.header.version.isGreaterOrEqualTo(ProtocolVersion.V5)) {
-              // v5 not yet supported
-              logger.warn("PROTOCOL v5 not yet supported.");
+              // The v5 framing isn't available on the management socket of Converged Cassandra,
+              // this error makes the drivers fall back to v4
+              ErrorMessage error =
+                  ErrorMessage.fromException(
+                      new ProtocolException(
+                          String.format(
+                              "Invalid or unsupported protocol version (%d); the management socket"
+                                  + " supports up to v4",
+                              inbound.header.version.asInt())));
+              ctx.writeAndFlush(error.encode(inbound.header.version));
+              break;
             }
             // no need to configure the pipeline asynchronously in this case
             // the capacity obtained from allocator for the STARTUP message
@@ -319,13 +342,9 @@ public class UnixSocketServerHcd {
             // More Converged Cassandra/Core 4 changes for Async processing. This is generally a
             // copy of upstream's InitConnectionHandler.
 
-            // Try to get the newer processInit static method
-            try {
-              Method processInit =
-                  Dispatcher.class.getDeclaredMethod(
-                      "processInit", ServerConnection.class, StartupMessage.class);
+            if (hooks.asyncStartup) {
               ((CompletableFuture<Message.Response>)
-                      processInit.invoke(null, (ServerConnection) connection, startup))
+                      hooks.processStartup((ServerConnection) connection, startup))
                   .whenComplete(
                       (Message.Response response, Throwable error) -> {
                         if (error == null) {
@@ -339,52 +358,12 @@ public class UnixSocketServerHcd {
                           ctx.writeAndFlush(encoded);
                         }
                       });
-              break;
-            } catch (NoSuchMethodException nsme) {
-              // try the older processRequest method
-              try {
-                Method processRequest =
-                    Dispatcher.class.getDeclaredMethod(
-                        "processRequest",
-                        ServerConnection.class,
-                        Message.Request.class,
-                        ClientResourceLimits.Overload.class);
-                Message.Response response =
-                    (Message.Response)
-                        processRequest.invoke(
-                            null,
-                            (ServerConnection) connection,
-                            startup,
-                            ClientResourceLimits.Overload.NONE);
-                processStartupResponse(response, inbound, ctx, promise);
-                break;
-              } catch (NoSuchMethodException nsme2) {
-                // try a different signature that may have never worked
-                try {
-                  Method processRequest =
-                      Dispatcher.class.getDeclaredMethod(
-                          "processRequest",
-                          ServerConnection.class,
-                          StartupMessage.class,
-                          ClientResourceLimits.Overload.class);
-                  Message.Response response =
-                      (Message.Response)
-                          processRequest.invoke(
-                              null,
-                              (ServerConnection) connection,
-                              startup,
-                              ClientResourceLimits.Overload.NONE);
-                  processStartupResponse(response, inbound, ctx, promise);
-                  break;
-                } catch (NoSuchMethodException nsme3) {
-                  // Expected method not found. Log an error and figure out what signature we need
-                  logger.error(
-                      "Expected Cassandra Dispatcher.processRequest() method signature not found. Management API agent will not be able to start Cassandra.",
-                      nsme3);
-                  throw nsme3;
-                }
-              }
+            } else {
+              Message.Response response =
+                  (Message.Response) hooks.processStartup((ServerConnection) connection, startup);
+              processStartupResponse(response, inbound, ctx, promise);
             }
+            break;
 
           default:
             ErrorMessage error =
@@ -6,6 +6,7 @@
 package org.apache.cassandra.transport;
 
 import com.datastax.mgmtapi.ipc.IPCController;
+import com.datastax.mgmtapi.rpc.RpcFutureResult;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
@@ -99,20 +100,14 @@ public class UnixSocketServerHcd {
         // start time. We'll need to introduce reflection here to create the correct Objects and
         // make the correct calls based on which version of 4.1.x we are. For Cassandra 5.0, this
         // patch was ported between 5.0-rc1 and 5.0-rc2.
-        request
-            .execute(qstate, Dispatcher.RequestTime.forImmediateExecution())
+        RpcFutureResult.deferring(
+                () -> request.execute(qstate, Dispatcher.RequestTime.forImmediateExecution()))
             .addCallback(
                 (Message.Response response, Throwable ignore) -> {
                   processMessageResponse(response, request, connection, ctx);
                 });
       } catch (Throwable t) {
-        // logger.warn("Exception encountered", t);
-        JVMStabilityInspector.inspectThrowable(t);
-        ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
-            new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
-        ctx.writeAndFlush(
-            ErrorMessage.fromException(t, handler).setStreamId(request.getStreamId()));
-        request.getSource().release();
+        writeError(ctx, request, t);
         return;
       } finally {
         ClientWarn.instance.resetWarnings();
@@ -124,17 +119,47 @@ public class UnixSocketServerHcd {
         Message.Request request,
         final UnixSocketConnection connection,
         ChannelHandlerContext ctx) {
+      if (response instanceof RpcFutureResult) {
+        // Asynchronous RPC method, respond when it completes without holding the event loop
+        Message.Response deferred = response;
+        List<String> warnings = ClientWarn.instance.getWarnings();
+        ((RpcFutureResult) response)
+            .future.whenCompleteAsync(
+                (result, error) -> {
+                  if (error != null) {
+                    writeError(ctx, request, RpcFutureResult.unwrap(error));
+                  } else {
+                    result.setTracingId(deferred.getTracingId());
+                    result.setWarnings(RpcFutureResult.warnings(warnings, result.getWarnings()));
+                    processMessageResponse(result, request, connection, ctx);
+                  }
+                },
+                ctx.channel().eventLoop());
+        return;
+      }
       if (response instanceof AuthenticateMessage) {
         // UnixSocket has no auth
         response = new ReadyMessage();
       }
       response.setStreamId(request.getStreamId());
-      response.setWarnings(ClientWarn.instance.getWarnings());
+      if (response.getWarnings() == null) {
+        // Deferred results already carry the warnings of their request
+        response.setWarnings(ClientWarn.instance.getWarnings());
+      }
       response.attach(connection);
       connection.applyStateTransition(request.type, response.type);
       ctx.writeAndFlush(response);
       request.getSource().release();
     }
+
+    private void writeError(ChannelHandlerContext ctx, Message.Request request, Throwable t) {
+      // logger.warn("Exception encountered", t);
+      JVMStabilityInspector.inspectThrowable(t);
+      ExceptionHandlers.UnexpectedChannelExceptionHandler handler =
+          new ExceptionHandlers.UnexpectedChannelExceptionHandler(ctx.channel(), true);
+      ctx.writeAndFlush(ErrorMessage.fromException(t, handler).setStreamId(request.getStreamId()));
+      request.getSource().release();
+    }
   }
 
   static class UnixSocketConnection extends ServerConnection {
@@ -275,8 +300,17 @@ public class UnixSocketServerHcd {
 
             ChannelPromise promise;
             if (version.isGreaterOrEqualTo(ProtocolVersion.V5)) {
-              // v5 not yet supported
-              logger.warn("PROTOCOL v5 not yet supported.");
+              // The v5 framing isn't available on the management socket of Converged Cassandra,
+              // this error makes the drivers fall back to v4
+              ErrorMessage error =
+                  ErrorMessage.fromException(
+                      new ProtocolException(
+                          String.format(
+                              "Invalid or unsupported protocol version (%d); the management socket"
+                                  + " supports up to v4",
+                              version.asInt())));
+              ctx.writeAndFlush(error.encode(version));
+              break;
             }
             // no need to configure the pipeline asynchronously in this case
             // the capacity obtained from allocator for the STARTUP message
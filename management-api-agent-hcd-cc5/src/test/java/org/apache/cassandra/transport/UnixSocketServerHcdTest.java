@@ -0,0 +1,91 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package org.apache.cassandra.transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.function.BooleanSupplier;
+import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.exceptions.ExceptionCode;
+import org.apache.cassandra.exceptions.TransportException;
+import org.apache.cassandra.transport.messages.ErrorMessage;
+import org.apache.cassandra.transport.messages.StartupMessage;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class UnixSocketServerHcdTest {
+
+  @BeforeClass
+  public static void setup() {
+    DatabaseDescriptor.clientInitialization();
+  }
+
+  @Test
+  public void rejectsV5SoThatDriversFallBackToV4() throws Exception {
+    EmbeddedChannel channel = newChannel();
+
+    channel.writeInbound(
+        encode(
+            new StartupMessage(Collections.singletonMap(StartupMessage.CQL_VERSION, "3.0.0")),
+            ProtocolVersion.V5));
+
+    Message response = readResponse(channel);
+    assertThat(response).isInstanceOf(ErrorMessage.class);
+    TransportException error = ((ErrorMessage) response).error;
+    assertThat(error.code()).isEqualTo(ExceptionCode.PROTOCOL_ERROR);
+    assertThat(error.getMessage()).startsWith("Invalid or unsupported protocol version (5)");
+    // The connection stays on the initial framing, ready for the v4 attempt
+    assertThat(channel.pipeline().get(UnixSocketServerHcd.PipelineChannelInitializer.class))
+        .isNotNull();
+  }
+
+  private static EmbeddedChannel newChannel() throws Exception {
+    // Mirrors CassandraDaemonInterceptor, the constructor isn't accessible
+    for (Constructor<?> constructor : Server.ConnectionTracker.class.getDeclaredConstructors()) {
+      Class<?>[] types = constructor.getParameterTypes();
+      constructor.setAccessible(true);
+      if (types.length == 0) {
+        return newChannel((Server.ConnectionTracker) constructor.newInstance());
+      } else if (types.length == 1 && types[0].equals(BooleanSupplier.class)) {
+        BooleanSupplier isRunning = () -> true;
+        return newChannel((Server.ConnectionTracker) constructor.newInstance(isRunning));
+      }
+    }
+    throw new AssertionError("No suitable Server.ConnectionTracker constructor");
+  }
+
+  private static EmbeddedChannel newChannel(Server.ConnectionTracker connectionTracker) {
+    return new EmbeddedChannel(UnixSocketServerHcd.makeSocketInitializer(connectionTracker));
+  }
+
+  private static ByteBuf encode(Message message, ProtocolVersion version) {
+    EmbeddedChannel encoder = new EmbeddedChannel(Envelope.Encoder.instance);
+    encoder.writeOutbound(message.encode(version));
+    return readOutbound(encoder);
+  }
+
+  private static Message readResponse(EmbeddedChannel channel) {
+    Envelope envelope = new Envelope.Decoder().decode(readOutbound(channel));
+    assertThat(envelope).isNotNull();
+    return Message.Decoder.decodeMessage(channel, envelope);
+  }
+
+  private static ByteBuf readOutbound(EmbeddedChannel channel) {
+    CompositeByteBuf bytes = Unpooled.compositeBuffer();
+    for (Object message = channel.readOutbound();
+        message != null;
+        message = channel.readOutbound()) {
+      bytes.addComponent(true, (ByteBuf) message);
+    }
+    return bytes;
+  }
+}
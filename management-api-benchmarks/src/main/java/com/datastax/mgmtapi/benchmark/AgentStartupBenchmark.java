@@ -0,0 +1,164 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.benchmark;
+
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.isSubTypeOf;
+import static net.bytebuddy.matcher.ElementMatchers.isSynthetic;
+import static net.bytebuddy.matcher.ElementMatchers.nameEndsWith;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
+
+import com.datastax.mgmtapi.Agent;
+import com.datastax.mgmtapi.interceptors.CassandraDaemonInterceptor;
+import com.datastax.mgmtapi.interceptors.CassandraRoleManagerInterceptor;
+import com.datastax.mgmtapi.interceptors.ClientRequestInterceptor;
+import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor;
+import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor4x;
+import com.datastax.mgmtapi.interceptors.SystemDistributedReplicationInterceptor;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import net.bytebuddy.agent.ByteBuddyAgent;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import org.apache.cassandra.cql3.QueryHandler;
+import org.apache.cassandra.gms.GossiperInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Startup cost of the agent: installing it in {@code premain}, then passing every class of the
+ * benchmark class path, Cassandra and its libraries, through its transformer as if the classes were
+ * loaded. The {@code baseline} matchers are the ones the agent used before they were narrowed to
+ * class names, with subtype checks on every class and only ByteBuddy's own classes ignored.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentStartupBenchmark {
+
+  @Param({"baseline", "narrow"})
+  public String matching;
+
+  private Instrumentation instrumentation;
+  private final List<String> classNames = new ArrayList<>();
+  private final List<byte[]> classFiles = new ArrayList<>();
+  private ResettableClassFileTransformer installed;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    instrumentation = ByteBuddyAgent.install();
+    for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      if (path.endsWith(".jar")) {
+        readClasses(new File(path));
+      }
+    }
+  }
+
+  private void readClasses(File jar) throws IOException {
+    try (JarFile file = new JarFile(jar)) {
+      Enumeration<JarEntry> entries = file.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry entry = entries.nextElement();
+        String name = entry.getName();
+        if (name.endsWith(".class")
+            && !name.startsWith("META-INF/")
+            && !name.endsWith("module-info.class")) {
+          try (InputStream in = file.getInputStream(entry)) {
+            classNames.add(name.substring(0, name.length() - ".class".length()));
+            classFiles.add(readAll(in));
+          }
+        }
+      }
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    byte[] buffer = new byte[8192];
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private AgentBuilder builder() {
+    return matching.equals("narrow") ? Agent.builder() : baselineBuilder();
+  }
+
+  @TearDown(Level.Invocation)
+  public void reset() {
+    if (installed != null) {
+      installed.reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED);
+      installed = null;
+    }
+  }
+
+  @Benchmark
+  public void premain() {
+    installed = builder().installOn(instrumentation);
+  }
+
+  /** The classes are new to the transformer, so its caches start cold like in Cassandra. */
+  @Benchmark
+  public void transformClassPath(Blackhole blackhole) throws Exception {
+    ClassFileTransformer transformer = builder().makeRaw();
+    ClassLoader loader = getClass().getClassLoader();
+    for (int i = 0; i < classNames.size(); i++) {
+      blackhole.consume(
+          transformer.transform(loader, classNames.get(i), null, null, classFiles.get(i)));
+    }
+  }
+
+  private static AgentBuilder baselineBuilder() {
+    return new AgentBuilder.Default()
+        .ignore(
+            new AgentBuilder.RawMatcher.ForElementMatchers(
+                nameStartsWith("net.bytebuddy.").or(isSynthetic()), any(), any()))
+        .type(nameEndsWith(".CassandraDaemon"))
+        .transform(CassandraDaemonInterceptor.transformer())
+        .type(isSubTypeOf(QueryHandler.class))
+        .transform(QueryHandlerInterceptor.transformer())
+        .type(isSubTypeOf(QueryHandler.class))
+        .transform(QueryHandlerInterceptor4x.transformer())
+        .type(isSubTypeOf(QueryHandler.class))
+        .transform(ClientRequestInterceptor.transformer())
+        .type(nameEndsWith(".Gossiper"))
+        .transform(GossiperInterceptor.transformer())
+        .type(nameEndsWith(".CassandraRoleManager"))
+        .transform(CassandraRoleManagerInterceptor.transformer())
+        .type(
+            nameEndsWith(".AuthKeyspace")
+                .or(nameEndsWith(".TraceKeyspace"))
+                .or(nameEndsWith(".SystemDistributedKeyspace")))
+        .transform(SystemDistributedReplicationInterceptor.transformer());
+  }
+}
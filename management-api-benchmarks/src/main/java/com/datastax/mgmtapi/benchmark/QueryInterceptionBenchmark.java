@@ -0,0 +1,156 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.benchmark;
+
+import com.datastax.mgmtapi.ClientRequestTracker;
+import com.datastax.mgmtapi.interceptors.QueryHandlerInterceptor;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperCall;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.service.ClientState;
+import org.apache.cassandra.service.QueryState;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a client query through the {@code process} method of a query handler: without
+ * interception, with the MethodDelegation interceptor the agent used to install and with the
+ * inlined advice. The handler does no work, so the results are the cost of the interception alone,
+ * including the request tracking of the client connection.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryInterceptionBenchmark {
+
+  private static final String QUERY = "SELECT * FROM system.local WHERE key = 'local'";
+  private static final InetSocketAddress CLIENT_ADDRESS =
+      new InetSocketAddress(InetAddress.getLoopbackAddress(), 50000);
+
+  @Param({"none", "delegation", "advice"})
+  public String interception;
+
+  private ClientQueryHandler handler;
+  private QueryState state;
+  private final Map<String, ByteBuffer> customPayload = Collections.emptyMap();
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    DatabaseDescriptor.clientInitialization();
+    // A client connection, so both interceptors go through the per client request tracking
+    state = new QueryState(ClientState.forExternalCalls(CLIENT_ADDRESS));
+    handler = (ClientQueryHandler) handlerType().getDeclaredConstructor().newInstance();
+  }
+
+  private Class<?> handlerType() {
+    switch (interception) {
+      case "none":
+        return NoopQueryHandler.class;
+      case "delegation":
+        return new ByteBuddy()
+            .rebase(NoopQueryHandler.class)
+            .method(ElementMatchers.named("process"))
+            .intercept(MethodDelegation.to(DelegatingInterceptor.class))
+            .make()
+            .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.CHILD_FIRST)
+            .getLoaded();
+      case "advice":
+        return new ByteBuddy()
+            .redefine(NoopQueryHandler.class)
+            .visit(QueryHandlerInterceptor.advice())
+            .make()
+            .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.CHILD_FIRST)
+            .getLoaded();
+      default:
+        throw new IllegalArgumentException("Unknown interception " + interception);
+    }
+  }
+
+  @Benchmark
+  public ResultMessage process() {
+    return handler.process(QUERY, state, QueryOptions.DEFAULT, customPayload, System.nanoTime());
+  }
+
+  /** The 3.11 QueryHandler entry point, the advice matches it by its parameter types. */
+  public interface ClientQueryHandler {
+    ResultMessage process(
+        String query,
+        QueryState state,
+        QueryOptions options,
+        Map<String, ByteBuffer> customPayload,
+        long queryStartNanoTime);
+  }
+
+  public static class NoopQueryHandler implements ClientQueryHandler {
+    private static final ResultMessage RESULT = new ResultMessage.Void();
+
+    @Override
+    public ResultMessage process(
+        String query,
+        QueryState state,
+        QueryOptions options,
+        Map<String, ByteBuffer> customPayload,
+        long queryStartNanoTime) {
+      return RESULT;
+    }
+  }
+
+  /** The interceptor of {@code process} before it was replaced by the advice. */
+  public static class DelegatingInterceptor {
+    @RuntimeType
+    public static Object intercept(
+        @AllArguments Object[] allArguments, @SuperCall Callable<Object> zuper) throws Throwable {
+      if (allArguments.length > 0 && allArguments[0] != null) {
+        Object result =
+            QueryHandlerInterceptor.handleRpc(
+                allArguments[0], (QueryState) allArguments[1], (QueryOptions) allArguments[2]);
+        if (result != null) {
+          return result;
+        }
+      }
+
+      if (allArguments.length == 5) {
+        ClientRequestTracker.Connection connection =
+            ClientRequestTracker.instance.begin(((QueryState) allArguments[1]).getClientState());
+        try {
+          return zuper.call();
+        } finally {
+          if (connection != null) {
+            connection.end();
+          }
+        }
+      }
+      return zuper.call();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import io.k8ssandra.metrics.prometheus.CassandraDropwizardExports;
+import io.prometheus.client.Collector;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** A single collect() of the registered metrics, what every scrape pays before rendering. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectBenchmark extends MetricsBenchmarkState {
+
+  private CassandraDropwizardExports exports;
+
+  @Setup(Level.Trial)
+  public void register() throws Exception {
+    exports = registerAll(new MetricRegistry());
+  }
+
+  @Benchmark
+  public List<Collector.MetricFamilySamples> collect() {
+    return exports.collect();
+  }
+}
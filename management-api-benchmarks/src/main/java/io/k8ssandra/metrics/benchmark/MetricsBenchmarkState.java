@@ -0,0 +1,49 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.benchmark;
+
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import io.k8ssandra.metrics.config.ConfigReader;
+import io.k8ssandra.metrics.config.Configuration;
+import io.k8ssandra.metrics.prometheus.CassandraDropwizardExports;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Registry size shared by the metrics pipeline benchmarks. Every table has {@code metricsPerType}
+ * metrics of each Dropwizard type, relabeled with the default agent rules.
+ */
+@State(Scope.Benchmark)
+public class MetricsBenchmarkState {
+
+  @Param({"10", "100", "1000"})
+  public int tables;
+
+  @Param({"1", "4"})
+  public int metricsPerType;
+
+  protected Configuration config;
+  protected Map<String, Metric> metrics;
+
+  @Setup(Level.Trial)
+  public void createMetrics() {
+    config = ConfigReader.readConfig();
+    metrics = SyntheticMetrics.tableMetrics(tables, metricsPerType);
+  }
+
+  protected CassandraDropwizardExports registerAll(MetricRegistry registry) throws Exception {
+    CassandraDropwizardExports exports = new CassandraDropwizardExports(registry, config);
+    for (Map.Entry<String, Metric> metric : metrics.entrySet()) {
+      registry.register(metric.getKey(), metric.getValue());
+    }
+    return exports;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.benchmark;
+
+import io.k8ssandra.metrics.builder.CassandraMetricNameParser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Parsing and relabeling of the Dropwizard names with the default rules. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameParserBenchmark extends MetricsBenchmarkState {
+
+  private CassandraMetricNameParser parser;
+  private List<String> names;
+
+  @Setup(Level.Trial)
+  public void createParser() {
+    parser = CassandraMetricNameParser.getDefaultParser(config);
+    names = new ArrayList<>(metrics.keySet());
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) {
+    for (String name : names) {
+      blackhole.consume(
+          parser.parseDropwizardMetric(name, "", new ArrayList<>(), new ArrayList<>()));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package io.k8ssandra.metrics.benchmark;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Timer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.metrics.DecayingEstimatedHistogramReservoir;
+
+/** Builds Dropwizard metrics named and shaped like the Cassandra table metrics. */
+final class SyntheticMetrics {
+
+  private static final String TABLE_PREFIX = "org.apache.cassandra.metrics.Table.";
+
+  private SyntheticMetrics() {}
+
+  /**
+   * @param tables number of tables, spread over 10 keyspaces
+   * @param metricsPerType number of counters, gauges, histograms, meters and timers per table
+   */
+  static Map<String, Metric> tableMetrics(int tables, int metricsPerType) {
+    Map<String, Metric> metrics = new LinkedHashMap<>();
+    for (int t = 0; t < tables; t++) {
+      String scope = String.format("keyspace%d.table%d", t % 10, t);
+      for (int i = 0; i < metricsPerType; i++) {
+        String suffix = i == 0 ? "" : String.valueOf(i);
+
+        Counter counter = new Counter();
+        counter.inc(t + i);
+        metrics.put(name("PendingFlushes" + suffix, scope), counter);
+
+        long gaugeValue = 1024L * t;
+        metrics.put(name("LiveDiskSpaceUsed" + suffix, scope), (Gauge<Long>) () -> gaugeValue);
+
+        Histogram histogram = new Histogram(new DecayingEstimatedHistogramReservoir());
+        for (int v = 1; v <= 16; v++) {
+          histogram.update(v);
+        }
+        metrics.put(name("SSTablesPerReadHistogram" + suffix, scope), histogram);
+
+        Meter meter = new Meter();
+        meter.mark(t + i);
+        metrics.put(name("ReadRepairRequests" + suffix, scope), meter);
+
+        Timer timer = new Timer(new DecayingEstimatedHistogramReservoir());
+        for (int v = 1; v <= 64; v++) {
+          timer.update(v * 37L, TimeUnit.MICROSECONDS);
+        }
+        metrics.put(name("ReadLatency" + suffix, scope), timer);
+      }
+    }
+    return metrics;
+  }
+
+  private static String name(String metric, String scope) {
+    return TABLE_PREFIX + metric + "." + scope;
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.ipc;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+
+/**
+ * The io_uring classes, only loaded by {@link NativeTransport} when io_uring was requested. The
+ * incubator transport may be missing from the classpath or built against a different Netty than
+ * the one Cassandra ships, so the availability check also covers linkage errors.
+ */
+final class IOUringTransport {
+
+  private IOUringTransport() {}
+
+  /**
+   * @return null if io_uring can be used, the reason why it can't otherwise
+   */
+  static Throwable unavailabilityCause() {
+    try {
+      return IOUring.isAvailable() ? null : IOUring.unavailabilityCause();
+    } catch (LinkageError e) {
+      return e;
+    }
+  }
+
+  static EventLoopGroup eventLoopGroup(int nThreads) {
+    return new IOUringEventLoopGroup(nThreads);
+  }
+
+  static Class<? extends ServerChannel> serverSocketChannelClass() {
+    return IOUringServerSocketChannel.class;
+  }
+}
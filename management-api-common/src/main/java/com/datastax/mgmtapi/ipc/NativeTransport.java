@@ -20,12 +20,19 @@ import io.netty.channel.kqueue.KQueueServerDomainSocketChannel;
 import io.netty.channel.kqueue.KQueueServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Centralises Netty transport selection: epoll (Linux), kqueue (macOS), or NIO (last resort).
  *
  * <p>Epoll is the preferred transport. Falling back to kqueue or NIO if available.
  *
+ * <p>TCP listeners can use io_uring instead, with {@code -D}{@value #TRANSPORT_PROPERTY}{@code
+ * =io_uring}. It falls back to the default selection, with a warning, when the kernel or the
+ * incubator transport doesn't support it. The io_uring transport has no Unix domain socket
+ * channels, those keep using epoll or kqueue.
+ *
  * <p>Unix-domain-socket channels ({@link #nativeDomainSocketChannelClass()}, {@link
  * #nativeServerDomainSocketChannelClass()}, {@link #nativeEventLoopGroup(int)}) require native
  * transport (epoll or kqueue) and will throw {@link UnsupportedOperationException} if neither is
@@ -35,12 +42,48 @@ import io.netty.channel.socket.nio.NioServerSocketChannel;
  * back to NIO when no native transport is available.
  */
 public final class NativeTransport {
+  private static final Logger logger = LoggerFactory.getLogger(NativeTransport.class);
+
+  public static final String TRANSPORT_PROPERTY = "mgmtapi.netty.transport";
+  static final String IO_URING = "io_uring";
 
   private static final boolean EPOLL_AVAILABLE = Epoll.isAvailable();
   private static final boolean KQUEUE_AVAILABLE = KQueue.isAvailable();
+  private static final boolean IO_URING_ENABLED =
+      ioUringEnabled(System.getProperty(TRANSPORT_PROPERTY));
 
   private NativeTransport() {}
 
+  static boolean ioUringEnabled(String transport) {
+    if (transport == null || transport.trim().isEmpty()) {
+      return false;
+    }
+    if (!transport.trim().equals(IO_URING)) {
+      logger.warn("Unknown {} {}, using the default transport", TRANSPORT_PROPERTY, transport);
+      return false;
+    }
+    Throwable cause = IOUringTransport.unavailabilityCause();
+    if (cause != null) {
+      logger.warn("io_uring is not available, using the default transport", cause);
+      return false;
+    }
+    logger.info("Using io_uring for TCP listeners");
+    return true;
+  }
+
+  /** Returns {@code true} if io_uring was requested and is used for TCP connections. */
+  public static boolean isIOUringEnabled() {
+    return IO_URING_ENABLED;
+  }
+
+  /**
+   * Returns {@code true} if Unix domain socket channels can be registered with the group. It isn't
+   * the case of the io_uring groups of {@link #tcpEventLoopGroup(int)}.
+   */
+  public static boolean supportsDomainSockets(EventLoopGroup group) {
+    return group instanceof EpollEventLoopGroup || group instanceof KQueueEventLoopGroup;
+  }
+
   /** Returns {@code true} if epoll or kqueue is available on this platform. */
   public static boolean isNativeTransportAvailable() {
     return EPOLL_AVAILABLE || KQUEUE_AVAILABLE;
@@ -85,7 +128,7 @@ public final class NativeTransport {
    *
    * <p>Throws {@link UnsupportedOperationException} if native transport is unavailable.
    */
-  public static Class<? extends Channel> nativeServerDomainSocketChannelClass() {
+  public static Class<? extends ServerChannel> nativeServerDomainSocketChannelClass() {
     if (EPOLL_AVAILABLE) {
       return EpollServerDomainSocketChannel.class;
     }
@@ -98,11 +141,15 @@ public final class NativeTransport {
   /**
    * Returns an {@link EventLoopGroup} for TCP socket connections.
    *
-   * <p>Prefers epoll; falls back to kqueue or {@link NioEventLoopGroup}.
+   * <p>Uses io_uring when enabled. Otherwise prefers epoll; falls back to kqueue or {@link
+   * NioEventLoopGroup}.
    *
    * @param nThreads number of threads in the event loop group
    */
   public static EventLoopGroup tcpEventLoopGroup(int nThreads) {
+    if (IO_URING_ENABLED) {
+      return IOUringTransport.eventLoopGroup(nThreads);
+    }
     if (EPOLL_AVAILABLE) {
       return new EpollEventLoopGroup(nThreads);
     }
@@ -115,9 +162,13 @@ public final class NativeTransport {
   /**
    * Returns the server socket channel class for TCP connections.
    *
-   * <p>Prefers epoll; falls back to kqueue or {@link NioServerSocketChannel}.
+   * <p>Uses io_uring when enabled. Otherwise prefers epoll; falls back to kqueue or {@link
+   * NioServerSocketChannel}.
    */
   public static Class<? extends ServerChannel> tcpServerSocketChannelClass() {
+    if (IO_URING_ENABLED) {
+      return IOUringTransport.serverSocketChannelClass();
+    }
     if (EPOLL_AVAILABLE) {
       return EpollServerSocketChannel.class;
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point in time copy of the metric families exported by the agent, shared with the management API
+ * server through {@link MetricsSnapshotFile}.
+ *
+ * <p>The binary encoding is a family count followed by the families, each family being its name,
+ * type and samples. A sample is its name, label count, label name/value pairs and the value.
+ * Strings are written with {@link DataOutputStream#writeUTF(String)}.
+ */
+public final class MetricsSnapshot {
+
+  private final long timestamp;
+  private final List<Family> families;
+
+  public MetricsSnapshot(long timestamp, List<Family> families) {
+    this.timestamp = timestamp;
+    this.families = Collections.unmodifiableList(families);
+  }
+
+  /** Milliseconds since the epoch when the agent took the snapshot. */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public List<Family> getFamilies() {
+    return families;
+  }
+
+  public byte[] encode() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(families.size());
+      for (Family family : families) {
+        out.writeUTF(family.name);
+        out.writeUTF(family.type);
+        out.writeInt(family.samples.size());
+        for (Sample sample : family.samples) {
+          out.writeUTF(sample.name);
+          out.writeShort(sample.labels.size());
+          for (Map.Entry<String, String> label : sample.labels.entrySet()) {
+            out.writeUTF(label.getKey());
+            out.writeUTF(label.getValue());
+          }
+          out.writeDouble(sample.value);
+        }
+      }
+    } catch (IOException e) {
+      // Not possible with an in-memory stream
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  public static MetricsSnapshot decode(byte[] payload, long timestamp) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      int familyCount = in.readInt();
+      List<Family> families = new ArrayList<>(familyCount);
+      for (int i = 0; i < familyCount; i++) {
+        String name = in.readUTF();
+        String type = in.readUTF();
+        int sampleCount = in.readInt();
+        List<Sample> samples = new ArrayList<>(sampleCount);
+        for (int j = 0; j < sampleCount; j++) {
+          String sampleName = in.readUTF();
+          int labelCount = in.readUnsignedShort();
+          Map<String, String> labels = new LinkedHashMap<>(labelCount * 2);
+          for (int k = 0; k < labelCount; k++) {
+            labels.put(in.readUTF(), in.readUTF());
+          }
+          samples.add(new Sample(sampleName, labels, in.readDouble()));
+        }
+        families.add(new Family(name, type, samples));
+      }
+      return new MetricsSnapshot(timestamp, families);
+    }
+  }
+
+  public static final class Family {
+    private final String name;
+    private final String type;
+    private final List<Sample> samples;
+
+    public Family(String name, String type, List<Sample> samples) {
+      this.name = name;
+      this.type = type;
+      this.samples = Collections.unmodifiableList(samples);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    public List<Sample> getSamples() {
+      return samples;
+    }
+  }
+
+  public static final class Sample {
+    private final String name;
+    private final Map<String, String> labels;
+    private final double value;
+
+    public Sample(String name, Map<String, String> labels, double value) {
+      this.name = name;
+      this.labels = Collections.unmodifiableMap(labels);
+      this.value = value;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Map<String, String> getLabels() {
+      return labels;
+    }
+
+    public double getValue() {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file holding the latest {@link MetricsSnapshot}. The agent is the single writer and
+ * the management API server reads it without any RPC to the Cassandra process.
+ *
+ * <p>The 32 byte header is followed by the encoded snapshot:
+ *
+ * <pre>
+ *   0  int   magic
+ *   4  int   format version
+ *   8  long  sequence, odd while the writer is updating the file
+ *   16 long  snapshot timestamp
+ *   24 int   payload length
+ *   28 int   payload CRC32
+ * </pre>
+ *
+ * <p>Readers use the sequence as a seqlock: a copy is only accepted if the sequence was even and
+ * unchanged before and after copying the payload. Java 8 offers no portable memory fences on mapped
+ * buffers, so the copy must also match the CRC32 written by the writer.
+ */
+public final class MetricsSnapshotFile implements Closeable {
+
+  static final int MAGIC = 0x4d474d53; // "MGMS"
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 32;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 4;
+  private static final int SEQUENCE_OFFSET = 8;
+  private static final int TIMESTAMP_OFFSET = 16;
+  private static final int LENGTH_OFFSET = 24;
+  private static final int CHECKSUM_OFFSET = 28;
+
+  private static final int MIN_CAPACITY = 64 * 1024;
+  private static final int MAX_READ_ATTEMPTS = 100;
+
+  private final FileChannel channel;
+  private final boolean writable;
+  private MappedByteBuffer buffer;
+
+  private MetricsSnapshotFile(FileChannel channel, boolean writable) {
+    this.channel = channel;
+    this.writable = writable;
+  }
+
+  /**
+   * Open the file for writing, creating it if needed. The sequence continues from an existing file
+   * so readers of the previous instance don't mistake the new content for the old one.
+   */
+  public static MetricsSnapshotFile openForWrite(Path path) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    MetricsSnapshotFile file = new MetricsSnapshotFile(channel, true);
+    try {
+      long sequence = 0;
+      if (channel.size() >= HEADER_SIZE) {
+        file.map(channel.size());
+        if (file.buffer.getInt(MAGIC_OFFSET) == MAGIC) {
+          sequence = (file.buffer.getLong(SEQUENCE_OFFSET) + 1) & ~1L;
+        }
+      }
+      file.map(Math.max(channel.size(), MIN_CAPACITY));
+      file.buffer.putInt(MAGIC_OFFSET, MAGIC);
+      file.buffer.putInt(VERSION_OFFSET, VERSION);
+      file.buffer.putLong(SEQUENCE_OFFSET, sequence);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    return file;
+  }
+
+  public static MetricsSnapshotFile openForRead(Path path) throws IOException {
+    return new MetricsSnapshotFile(FileChannel.open(path, StandardOpenOption.READ), false);
+  }
+
+  public synchronized void write(MetricsSnapshot snapshot) throws IOException {
+    if (!writable) {
+      throw new IllegalStateException("Snapshot file is opened read-only");
+    }
+
+    byte[] payload = snapshot.encode();
+    CRC32 crc = new CRC32();
+    crc.update(payload, 0, payload.length);
+
+    long sequence = buffer.getLong(SEQUENCE_OFFSET);
+    buffer.putLong(SEQUENCE_OFFSET, sequence + 1);
+
+    if (HEADER_SIZE + payload.length > buffer.capacity()) {
+      long capacity = buffer.capacity();
+      while (capacity < HEADER_SIZE + payload.length) {
+        capacity *= 2;
+      }
+      map(capacity);
+    }
+
+    ByteBuffer target = buffer.duplicate();
+    target.position(HEADER_SIZE);
+    target.put(payload);
+    buffer.putLong(TIMESTAMP_OFFSET, snapshot.getTimestamp());
+    buffer.putInt(LENGTH_OFFSET, payload.length);
+    buffer.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+
+    buffer.putLong(SEQUENCE_OFFSET, sequence + 2);
+  }
+
+  /**
+   * Read the latest snapshot.
+   *
+   * @return the snapshot, or null if none has been published yet or the writer kept updating the
+   *     file while it was being copied
+   */
+  public synchronized MetricsSnapshot read() throws IOException {
+    for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+      if (buffer == null || buffer.capacity() < channel.size()) {
+        if (channel.size() < HEADER_SIZE) {
+          return null;
+        }
+        map(channel.size());
+      }
+
+      if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+        return null;
+      }
+      if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+        throw new IOException(
+            "Unsupported metrics snapshot version " + buffer.getInt(VERSION_OFFSET));
+      }
+
+      long before = buffer.getLong(SEQUENCE_OFFSET);
+      if ((before & 1) != 0) {
+        Thread.yield();
+        continue;
+      }
+
+      long timestamp = buffer.getLong(TIMESTAMP_OFFSET);
+      int length = buffer.getInt(LENGTH_OFFSET);
+      int checksum = buffer.getInt(CHECKSUM_OFFSET);
+      if (length == 0) {
+        return null;
+      }
+      if (length < 0 || HEADER_SIZE + length > buffer.capacity()) {
+        // File grew after we mapped it
+        buffer = null;
+        continue;
+      }
+
+      byte[] payload = new byte[length];
+      ByteBuffer source = buffer.duplicate();
+      source.position(HEADER_SIZE);
+      source.get(payload);
+
+      CRC32 crc = new CRC32();
+      crc.update(payload, 0, payload.length);
+      if (before == buffer.getLong(SEQUENCE_OFFSET) && checksum == (int) crc.getValue()) {
+        return MetricsSnapshot.decode(payload, timestamp);
+      }
+    }
+
+    return null;
+  }
+
+  private void map(long size) throws IOException {
+    buffer =
+        channel.map(
+            writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -15,20 +15,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.apache.cassandra.auth.INetworkAuthorizer;
 import org.apache.cassandra.auth.IRoleManager;
 import org.apache.cassandra.auth.RoleResource;
 import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.cql3.UntypedResultSet;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.db.compaction.CompactionManager;
 import org.apache.cassandra.dht.Token;
+import org.apache.cassandra.gms.ApplicationState;
+import org.apache.cassandra.gms.EndpointState;
 import org.apache.cassandra.gms.Gossiper;
+import org.apache.cassandra.gms.IEndpointStateChangeSubscriber;
+import org.apache.cassandra.gms.VersionedValue;
 import org.apache.cassandra.hints.HintsService;
+import org.apache.cassandra.locator.InetAddressAndPort;
 import org.apache.cassandra.locator.SeedProvider;
+import org.apache.cassandra.metrics.ClientMetrics;
 import org.apache.cassandra.service.StorageService;
+import org.apache.cassandra.transport.ConnectedClient;
 import org.apache.cassandra.transport.Server;
 
 /** Place to abstract C* apis that change across versions */
@@ -83,7 +92,13 @@ public interface CassandraAPI {
 
   String getLocalDataCenter();
 
-  RpcStatementShim makeRpcStatement(String method, String[] params);
+  /**
+   * Make the statement a CALL statement is parsed into.
+   *
+   * @param bindVariables the arguments passed as bind markers, in the statement order
+   */
+  RpcStatementShim makeRpcStatement(
+      String method, String[] params, List<ColumnSpecification> bindVariables);
 
   HintsService getHintsService();
 
@@ -122,6 +137,69 @@ public interface CassandraAPI {
     return roles;
   }
 
+  /**
+   * List the native transport client connections. Each connection is a mutable copy of {@link
+   * ConnectedClient#asMap()}, the address being formatted by {@link
+   * java.net.InetSocketAddress#toString()}.
+   */
+  default List<Map<String, String>> getConnectedClients() {
+    List<Map<String, String>> clients = new ArrayList<>();
+    for (ConnectedClient client : ClientMetrics.instance.allConnectedClients()) {
+      clients.add(new HashMap<>(client.asMap()));
+    }
+    return clients;
+  }
+
+  /**
+   * Listen to the gossip state changes of the cluster.
+   *
+   * @param listener called with the changed application state, or null when an endpoint joins, is
+   *     removed, restarts or changes liveness
+   */
+  default void registerEndpointStateListener(Consumer<ApplicationState> listener) {
+    getGossiper()
+        .register(
+            new IEndpointStateChangeSubscriber() {
+              @Override
+              public void onJoin(InetAddressAndPort endpoint, EndpointState epState) {
+                listener.accept(null);
+              }
+
+              @Override
+              public void beforeChange(
+                  InetAddressAndPort endpoint,
+                  EndpointState currentState,
+                  ApplicationState newStateKey,
+                  VersionedValue newValue) {}
+
+              @Override
+              public void onChange(
+                  InetAddressAndPort endpoint, ApplicationState state, VersionedValue value) {
+                listener.accept(state);
+              }
+
+              @Override
+              public void onAlive(InetAddressAndPort endpoint, EndpointState state) {
+                listener.accept(null);
+              }
+
+              @Override
+              public void onDead(InetAddressAndPort endpoint, EndpointState state) {
+                listener.accept(null);
+              }
+
+              @Override
+              public void onRemove(InetAddressAndPort endpoint) {
+                listener.accept(null);
+              }
+
+              @Override
+              public void onRestart(InetAddressAndPort endpoint, EndpointState state) {
+                listener.accept(null);
+              }
+            });
+  }
+
   default Collection<Token> getTokens() {
     return StorageService.instance.getTokenMetadata().sortedTokens();
   }
@@ -5,6 +5,7 @@
  */
 package com.datastax.mgmtapi.ipc;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -108,4 +109,40 @@ public class NativeTransportTest {
     assertNotNull(cls);
     assertTrue(cls == EpollServerSocketChannel.class || cls == KQueueServerSocketChannel.class);
   }
+
+  // -------------------------------------------------------------------------
+  // io_uring — opt-in, falls back to the default selection
+  // -------------------------------------------------------------------------
+
+  @Test
+  public void ioUringEnabled_onlyWhenRequested() {
+    assertFalse(NativeTransport.ioUringEnabled(null));
+    assertFalse(NativeTransport.ioUringEnabled(""));
+    assertFalse(NativeTransport.ioUringEnabled("dpdk"));
+  }
+
+  @Test
+  public void ioUringEnabled_fallsBackWhenUnavailable() {
+    assertEquals(
+        IOUringTransport.unavailabilityCause() == null,
+        NativeTransport.ioUringEnabled(NativeTransport.IO_URING));
+  }
+
+  @Test
+  public void supportsDomainSockets_onlyForNativeGroups() throws Exception {
+    EventLoopGroup nio = new NioEventLoopGroup(1);
+    try {
+      assertFalse(NativeTransport.supportsDomainSockets(nio));
+    } finally {
+      nio.shutdownGracefully().sync();
+    }
+
+    assumeTrue(NativeTransport.isNativeTransportAvailable());
+    EventLoopGroup group = NativeTransport.nativeEventLoopGroup(1);
+    try {
+      assertTrue(NativeTransport.supportsDomainSockets(group));
+    } finally {
+      group.shutdownGracefully().sync();
+    }
+  }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetricsSnapshotFileTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void readsWhatWasWritten() throws Exception {
+    File path = new File(folder.getRoot(), "metrics.snapshot");
+    try (MetricsSnapshotFile writer = MetricsSnapshotFile.openForWrite(path.toPath());
+        MetricsSnapshotFile reader = MetricsSnapshotFile.openForRead(path.toPath())) {
+      assertNull("Nothing has been published yet", reader.read());
+
+      writer.write(snapshot(1000L, 3));
+      MetricsSnapshot read = reader.read();
+      assertEquals(1000L, read.getTimestamp());
+      assertEquals(1, read.getFamilies().size());
+
+      MetricsSnapshot.Family family = read.getFamilies().get(0);
+      assertEquals("org_apache_cassandra_metrics_table_read_latency", family.getName());
+      assertEquals("GAUGE", family.getType());
+      assertEquals(3, family.getSamples().size());
+      assertEquals("table2", family.getSamples().get(2).getLabels().get("table"));
+      assertEquals(2.0, family.getSamples().get(2).getValue(), 0.0);
+
+      writer.write(snapshot(2000L, 1));
+      assertEquals(2000L, reader.read().getTimestamp());
+    }
+  }
+
+  @Test
+  public void readerFollowsFileGrowth() throws Exception {
+    File path = new File(folder.getRoot(), "metrics.snapshot");
+    try (MetricsSnapshotFile writer = MetricsSnapshotFile.openForWrite(path.toPath());
+        MetricsSnapshotFile reader = MetricsSnapshotFile.openForRead(path.toPath())) {
+      writer.write(snapshot(1000L, 1));
+      assertEquals(1, reader.read().getFamilies().get(0).getSamples().size());
+
+      // Larger than the initial mapping
+      writer.write(snapshot(2000L, 5000));
+      assertEquals(5000, reader.read().getFamilies().get(0).getSamples().size());
+    }
+  }
+
+  @Test
+  public void reopenedWriterKeepsSnapshotReadable() throws Exception {
+    File path = new File(folder.getRoot(), "metrics.snapshot");
+    try (MetricsSnapshotFile writer = MetricsSnapshotFile.openForWrite(path.toPath())) {
+      writer.write(snapshot(1000L, 1));
+    }
+
+    try (MetricsSnapshotFile writer = MetricsSnapshotFile.openForWrite(path.toPath());
+        MetricsSnapshotFile reader = MetricsSnapshotFile.openForRead(path.toPath())) {
+      writer.write(snapshot(2000L, 2));
+      assertEquals(2000L, reader.read().getTimestamp());
+    }
+  }
+
+  private MetricsSnapshot snapshot(long timestamp, int sampleCount) {
+    List<MetricsSnapshot.Sample> samples = new ArrayList<>();
+    for (int i = 0; i < sampleCount; i++) {
+      Map<String, String> labels = new LinkedHashMap<>();
+      labels.put("keyspace", "ks");
+      labels.put("table", "table" + i);
+      samples.add(
+          new MetricsSnapshot.Sample(
+              "org_apache_cassandra_metrics_table_read_latency", labels, (double) i));
+    }
+    return new MetricsSnapshot(
+        timestamp,
+        Collections.singletonList(
+            new MetricsSnapshot.Family(
+                "org_apache_cassandra_metrics_table_read_latency", "GAUGE", samples)));
+  }
+}
@@ -31,10 +31,9 @@ import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
-import io.netty.handler.ssl.ClientAuth;
-import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
 import io.netty.util.AttributeKey;
 import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.logging.InternalLoggerFactory;
@@ -166,6 +165,34 @@ public class Cli implements Runnable {
 
   private File tlsKey;
 
+  @Option(
+      name = {"--tls-provider"},
+      arity = 1,
+      description =
+          "TLS implementation of the https listeners, openssl or jdk. Defaults to openssl when netty-tcnative is available")
+  private String tls_provider;
+
+  private SslProvider sslProvider;
+
+  @Option(
+      name = {"--tls-boss-threads"},
+      arity = 1,
+      description = "Number of threads accepting the https connections")
+  private int tls_boss_threads = NettyJaxrsTLSServer.DEFAULT_BOSS_THREADS;
+
+  @Option(
+      name = {"--tls-worker-threads"},
+      arity = 1,
+      description = "Number of threads serving the https connections")
+  private int tls_worker_threads = NettyJaxrsTLSServer.DEFAULT_WORKER_THREADS;
+
+  @Option(
+      name = {"--metrics-snapshot-file"},
+      arity = 1,
+      description =
+          "Path to the metrics snapshot file written by the agent (snapshot.path in metrics-collector.yaml)")
+  private String metrics_snapshot_file;
+
   private boolean useTls = false;
   private File dbUnixSocketFile = null;
   private File dbHomeDir = null;
@@ -221,6 +248,9 @@ public class Cli implements Runnable {
     application =
         new ManagementApplication(
             dbHomeDir, dbCmdFile, dbUnixSocketFile, new CqlService(), dbExtraArgs);
+    if (metrics_snapshot_file != null) {
+      application.setMetricsSnapshotPath(Paths.get(metrics_snapshot_file));
+    }
 
     try {
       for (String uriString : listen_address) {
@@ -458,6 +488,30 @@ public class Cli implements Runnable {
     }
 
     useTls = hasAny;
+    if (!useTls) {
+      return;
+    }
+
+    if (tls_provider == null) {
+      sslProvider = NettyJaxrsTLSServer.defaultSslProvider();
+    } else if ("openssl".equalsIgnoreCase(tls_provider)) {
+      if (!OpenSsl.isAvailable()) {
+        logger.error("OpenSSL TLS provider is not available", OpenSsl.unavailabilityCause());
+        System.exit(17);
+      }
+      sslProvider = SslProvider.OPENSSL;
+    } else if ("jdk".equalsIgnoreCase(tls_provider)) {
+      sslProvider = SslProvider.JDK;
+    } else {
+      logger.error("Unknown TLS provider: {}, expected openssl or jdk", tls_provider);
+      System.exit(18);
+    }
+    logger.info("Using the {} TLS provider", sslProvider);
+
+    if (tls_boss_threads < 1 || tls_worker_threads < 1) {
+      logger.error("TLS boss and worker thread counts must be positive");
+      System.exit(19);
+    }
   }
 
   void preflightChecks() {
@@ -470,11 +524,7 @@ public class Cli implements Runnable {
   @VisibleForTesting
   void createSSLContext() throws SSLException {
     this.sslContext =
-        SslContextBuilder.forServer(tlsCert, tlsKey)
-            .trustManager(tlsCaCert)
-            .clientAuth(ClientAuth.REQUIRE)
-            .ciphers(null, IdentityCipherSuiteFilter.INSTANCE)
-            .build();
+        NettyJaxrsTLSServer.createSslContext(tlsCert, tlsKey, tlsCaCert, sslProvider);
   }
 
   @VisibleForTesting
@@ -552,7 +602,7 @@ public class Cli implements Runnable {
     if (useTls) {
       createSSLContext();
       createSSLWatcher();
-      server = new NettyJaxrsTLSServer(sslContext);
+      server = new NettyJaxrsTLSServer(sslContext, tls_boss_threads, tls_worker_threads);
     } else {
       server = new NettyJaxrsServer();
       server.setIoWorkerCount(2);
@@ -5,11 +5,35 @@
  */
 package com.datastax.mgmtapi;
 
+import com.datastax.mgmtapi.tracing.Tracing;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.NoNodeAvailableException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.SimpleStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.datastax.oss.driver.api.core.type.codec.CodecNotFoundException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterators;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.http.ConnectionClosedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +41,17 @@ import org.slf4j.LoggerFactory;
 public class CqlService {
   private static final Logger logger = LoggerFactory.getLogger(CqlService.class);
 
+  /** The custom payload entry carrying the deadline of a request, read by the agent. */
+  static final String DEADLINE_PAYLOAD_KEY = "mgmtapi.deadline";
+
+  // The asynchronous results are held in memory until they complete
+  private static final int MAX_FETCHED_ROWS =
+      Integer.getInteger("mgmtapi.cql.max_fetched_rows", 100000);
+
+  private final ConcurrentHashMap<String, Optional<PreparedStatement>> preparedStatements =
+      new ConcurrentHashMap<>();
+  private volatile CqlSession preparedSession;
+
   public ResultSet executeCql(File dbUnixSocketFile, String query)
       throws ConnectionClosedException {
     CqlSession session = UnixSocketCQLAccess.get(dbUnixSocketFile).orElse(null);
@@ -26,7 +61,7 @@ public class CqlService {
     }
 
     try {
-      return session.execute(query);
+      return execute(session, query, withDeadline(session, SimpleStatement.newInstance(query)));
     } catch (NoNodeAvailableException e) {
       try {
         session.close();
@@ -47,14 +82,8 @@ public class CqlService {
       throw new ConnectionClosedException("Internal connection to Cassandra closed");
     }
 
-    SimpleStatementBuilder ssb = new SimpleStatementBuilder(query);
-
-    for (Object obj : values) {
-      ssb = ssb.addPositionalValue(obj);
-    }
-
     try {
-      return session.execute(ssb.build());
+      return execute(session, query, withDeadline(session, bind(session, query, values)));
     } catch (NoNodeAvailableException e) {
       try {
         session.close();
@@ -66,6 +95,220 @@ public class CqlService {
     }
   }
 
+  /**
+   * Executes a CQL query without blocking the calling thread.
+   *
+   * @return the result, completed on a driver thread, or failed with a {@link
+   *     ConnectionClosedException} if the connection to Cassandra is closed
+   */
+  public CompletionStage<ResultSet> executeCqlAsync(File dbUnixSocketFile, String query) {
+    CqlSession session = UnixSocketCQLAccess.get(dbUnixSocketFile).orElse(null);
+    if (session == null || session.isClosed()) {
+      return closedConnection();
+    }
+    return executeAsync(
+        session,
+        query,
+        CompletableFuture.completedFuture(
+            withDeadline(session, SimpleStatement.newInstance(query))));
+  }
+
+  /** Executes a prepared CQL query without blocking the calling thread. */
+  public CompletionStage<ResultSet> executePreparedStatementAsync(
+      File cassandraUnixSocketFile, String query, Object... values) {
+    CqlSession session = UnixSocketCQLAccess.get(cassandraUnixSocketFile).orElse(null);
+    if (session == null || session.isClosed()) {
+      return closedConnection();
+    }
+    return executeAsync(
+        session,
+        query,
+        prepareAsync(session, query)
+            .thenApply(prepared -> withDeadline(session, bind(prepared, query, values))));
+  }
+
+  /**
+   * Executes a slow CQL query without blocking the calling thread, with the "slow" execution
+   * profile of {@link #executeSlowCql}.
+   */
+  public CompletionStage<ResultSet> executeSlowCqlAsync(File dbUnixSocketFile, String query) {
+    CqlSession session = UnixSocketCQLAccess.get(dbUnixSocketFile).orElse(null);
+    if (session == null || session.isClosed()) {
+      return closedConnection();
+    }
+    return executeAsync(
+        session,
+        query,
+        CompletableFuture.completedFuture(
+            new SimpleStatementBuilder(query).setExecutionProfileName("slow").build()));
+  }
+
+  private static CompletionStage<ResultSet> closedConnection() {
+    CompletableFuture<ResultSet> result = new CompletableFuture<>();
+    result.completeExceptionally(
+        new ConnectionClosedException("Internal connection to Cassandra closed"));
+    return result;
+  }
+
+  static CompletionStage<ResultSet> executeAsync(
+      CqlSession session, String query, CompletionStage<Statement<?>> statement) {
+    return executeAsync(session, query, statement, MAX_FETCHED_ROWS);
+  }
+
+  /**
+   * All the pages of the result are fetched before it completes: the rows are iterated on a driver
+   * thread, where the synchronous result sets are not allowed to fetch the next pages. The pages
+   * are held in memory, a result with more rows than {@code maxRows} fails instead.
+   */
+  @VisibleForTesting
+  static CompletionStage<ResultSet> executeAsync(
+      CqlSession session, String query, CompletionStage<Statement<?>> statement, int maxRows) {
+    return statement
+        .thenCompose(s -> Tracing.instance.traceCqlAsync(query, s, session::executeAsync))
+        .thenCompose(first -> fetchAll(query, first, new ArrayList<>(), 0, maxRows))
+        .<ResultSet>thenApply(FetchedResultSet::new)
+        .whenComplete(
+            (result, error) -> {
+              if (unwrap(error) instanceof NoNodeAvailableException) {
+                try {
+                  session.close();
+                } catch (Throwable t) {
+                  // close quietly
+                }
+              }
+            });
+  }
+
+  private static CompletionStage<List<AsyncResultSet>> fetchAll(
+      String query, AsyncResultSet page, List<AsyncResultSet> pages, int rows, int maxRows) {
+    pages.add(page);
+    int fetched = rows + page.remaining();
+    if (!page.hasMorePages()) {
+      return CompletableFuture.completedFuture(pages);
+    }
+    if (fetched >= maxRows) {
+      CompletableFuture<List<AsyncResultSet>> tooLarge = new CompletableFuture<>();
+      tooLarge.completeExceptionally(
+          new IllegalStateException(
+              String.format("The result of %s has more than %d rows", query, maxRows)));
+      return tooLarge;
+    }
+    return page.fetchNextPage()
+        .thenCompose(next -> fetchAll(query, next, pages, fetched, maxRows));
+  }
+
+  /** The cause of the failure of a stage, without the wrapping of the dependent stages. */
+  public static Throwable unwrap(Throwable error) {
+    while (error instanceof CompletionException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    return error;
+  }
+
+  private Statement<?> bind(CqlSession session, String query, Object... values) {
+    return bind(prepare(session, query), query, values);
+  }
+
+  private static Statement<?> bind(PreparedStatement prepared, String query, Object... values) {
+    if (prepared != null) {
+      try {
+        return prepared.bind(values);
+      } catch (CodecNotFoundException e) {
+        // The values don't match the declared types of the method, let the agent convert them
+        logger.debug("Unable to bind the values of {}", query, e);
+      }
+    }
+
+    SimpleStatementBuilder ssb = new SimpleStatementBuilder(query);
+
+    for (Object obj : values) {
+      ssb = ssb.addPositionalValue(obj);
+    }
+    return ssb.build();
+  }
+
+  private static ResultSet execute(CqlSession session, String query, Statement<?> statement) {
+    return Tracing.instance.traceCql(query, statement, session::execute);
+  }
+
+  /**
+   * Send the time at which the driver request times out along with the statement. The agent
+   * doesn't start calls the server already gave up on, and long running methods stop early. The
+   * server and the agent share the host clock.
+   */
+  static Statement<?> withDeadline(CqlSession session, Statement<?> statement) {
+    Duration timeout =
+        session
+            .getContext()
+            .getConfig()
+            .getDefaultProfile()
+            .getDuration(DefaultDriverOption.REQUEST_TIMEOUT);
+    if (timeout.isZero()) {
+      return statement;
+    }
+    ByteBuffer deadline = ByteBuffer.allocate(Long.BYTES);
+    deadline.putLong(0, System.currentTimeMillis() + timeout.toMillis());
+    return statement.setCustomPayload(Collections.singletonMap(DEADLINE_PAYLOAD_KEY, deadline));
+  }
+
+  /**
+   * The prepared statements are cached per query, which is a single method for the CALL statements.
+   * The request path then only sends the statement id and the values.
+   *
+   * @return the prepared statement, or null if the agent can't prepare the query
+   */
+  private PreparedStatement prepare(CqlSession session, String query) {
+    Optional<PreparedStatement> prepared = cachedPreparedStatement(session, query);
+    if (prepared == null) {
+      try {
+        prepared = Optional.of(session.prepare(query));
+      } catch (QueryValidationException e) {
+        // Older agents only execute CALL statements unprepared
+        logger.debug("Unable to prepare {}, executing it unprepared", query, e);
+        prepared = Optional.empty();
+      }
+      preparedStatements.putIfAbsent(query, prepared);
+    }
+    return prepared.orElse(null);
+  }
+
+  /** Prepares a query like {@link #prepare}, without blocking the calling thread. */
+  private CompletionStage<PreparedStatement> prepareAsync(CqlSession session, String query) {
+    Optional<PreparedStatement> prepared = cachedPreparedStatement(session, query);
+    if (prepared != null) {
+      return CompletableFuture.completedFuture(prepared.orElse(null));
+    }
+    return session
+        .prepareAsync(query)
+        .handle(
+            (statement, error) -> {
+              Optional<PreparedStatement> result;
+              if (error == null) {
+                result = Optional.of(statement);
+              } else if (unwrap(error) instanceof QueryValidationException) {
+                logger.debug("Unable to prepare {}, executing it unprepared", query, error);
+                result = Optional.empty();
+              } else {
+                throw new CompletionException(unwrap(error));
+              }
+              preparedStatements.putIfAbsent(query, result);
+              return result.orElse(null);
+            });
+  }
+
+  /** @return the cached statement of the query, or null if it wasn't prepared yet */
+  private Optional<PreparedStatement> cachedPreparedStatement(CqlSession session, String query) {
+    if (session != preparedSession) {
+      synchronized (preparedStatements) {
+        if (session != preparedSession) {
+          preparedStatements.clear();
+          preparedSession = session;
+        }
+      }
+    }
+    return preparedStatements.get(query);
+  }
+
   /**
    * Used for NodeOpsProvider implementations that are synchronous and may take a while to complete.
    * (example node drain). The implementation here uses the Java driver's execution profile
@@ -85,7 +328,7 @@ public class CqlService {
     SimpleStatementBuilder ssb = new SimpleStatementBuilder(query).setExecutionProfileName("slow");
 
     try {
-      return session.execute(ssb.build());
+      return execute(session, query, ssb.build());
     } catch (NoNodeAvailableException e) {
       try {
         session.close();
@@ -96,4 +339,52 @@ public class CqlService {
       throw e;
     }
   }
+
+  /** A result whose pages were all fetched asynchronously. */
+  static class FetchedResultSet implements ResultSet {
+    private final List<AsyncResultSet> pages;
+
+    FetchedResultSet(List<AsyncResultSet> pages) {
+      this.pages = pages;
+    }
+
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+      return pages.get(0).getColumnDefinitions();
+    }
+
+    @Override
+    public List<ExecutionInfo> getExecutionInfos() {
+      List<ExecutionInfo> executionInfos = new ArrayList<>(pages.size());
+      for (AsyncResultSet page : pages) {
+        executionInfos.add(page.getExecutionInfo());
+      }
+      return executionInfos;
+    }
+
+    @Override
+    public boolean isFullyFetched() {
+      return true;
+    }
+
+    @Override
+    public int getAvailableWithoutFetching() {
+      int available = 0;
+      for (AsyncResultSet page : pages) {
+        available += page.remaining();
+      }
+      return available;
+    }
+
+    @Override
+    public boolean wasApplied() {
+      return pages.get(0).wasApplied();
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+      return Iterators.concat(
+          Iterators.transform(pages.iterator(), page -> page.currentPage().iterator()));
+    }
+  }
 }
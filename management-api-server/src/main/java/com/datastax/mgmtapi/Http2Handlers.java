@@ -0,0 +1,131 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * HTTP/2 support of the REST servers.
+ *
+ * <p>Each stream of an HTTP/2 connection is a child channel converting its frames to the HTTP/1.1
+ * objects the RESTEasy handlers expect. A client can run concurrent requests on one connection
+ * instead of opening a connection per request or queueing them behind each other.
+ */
+final class Http2Handlers {
+  /** Streams a client can open concurrently on one connection. */
+  static final int MAX_CONCURRENT_STREAMS = 100;
+
+  /** Offers h2, then http/1.1, to the TLS clients. */
+  static final ApplicationProtocolConfig ALPN =
+      new ApplicationProtocolConfig(
+          ApplicationProtocolConfig.Protocol.ALPN,
+          ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+          ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+          ApplicationProtocolNames.HTTP_2,
+          ApplicationProtocolNames.HTTP_1_1);
+
+  private Http2Handlers() {}
+
+  /**
+   * Adds the handlers closing the idle connections. They are added before the protocol is
+   * negotiated, so the connections that never send anything are closed too.
+   *
+   * @param idleTimeout seconds without any read or write before the connection is closed, 0 to
+   *     keep it
+   */
+  static void addIdleHandlers(ChannelPipeline pipeline, int idleTimeout) {
+    if (idleTimeout > 0) {
+      pipeline.addLast("idleStateHandler", new IdleStateHandler(0, 0, idleTimeout));
+      pipeline.addLast(IdleConnectionHandler.INSTANCE);
+    }
+  }
+
+  /**
+   * Adds the handlers of an HTTP/2 connection.
+   *
+   * @param httpHandlers adds the HTTP/1.1 handlers (aggregation and RESTEasy) of each stream
+   */
+  static void configure(ChannelPipeline pipeline, Consumer<ChannelPipeline> httpHandlers) {
+    pipeline.addLast(
+        Http2FrameCodecBuilder.forServer()
+            .initialSettings(
+                Http2Settings.defaultSettings().maxConcurrentStreams(MAX_CONCURRENT_STREAMS))
+            .build());
+    pipeline.addLast(
+        new Http2MultiplexHandler(
+            new ChannelInitializer<Channel>() {
+              @Override
+              protected void initChannel(Channel ch) {
+                ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(true));
+                httpHandlers.accept(ch.pipeline());
+              }
+            }));
+  }
+
+  /**
+   * Serves the cleartext connections starting with the HTTP/2 connection preface (h2c with prior
+   * knowledge) with HTTP/2, and the others with HTTP/1.1.
+   */
+  abstract static class CleartextNegotiationHandler extends ByteToMessageDecoder {
+    private static final ByteBuf PREFACE = Http2CodecUtil.connectionPrefaceBuf();
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      int length = Math.min(in.readableBytes(), PREFACE.readableBytes());
+      if (!ByteBufUtil.equals(PREFACE, PREFACE.readerIndex(), in, in.readerIndex(), length)) {
+        configureHttp1(ctx.pipeline());
+      } else if (length == PREFACE.readableBytes()) {
+        configureHttp2(ctx.pipeline());
+      } else {
+        // Wait for the rest of the preface
+        return;
+      }
+      // The bytes read so far are passed to the new handlers
+      ctx.pipeline().remove(this);
+    }
+
+    protected abstract void configureHttp1(ChannelPipeline pipeline);
+
+    protected abstract void configureHttp2(ChannelPipeline pipeline);
+  }
+
+  /**
+   * Closes the idle connections, whether the protocol is negotiated yet or not. With HTTP/2, the
+   * RESTEasy handlers only see the streams.
+   */
+  @ChannelHandler.Sharable
+  private static final class IdleConnectionHandler extends ChannelInboundHandlerAdapter {
+    static final IdleConnectionHandler INSTANCE = new IdleConnectionHandler();
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+      if (evt instanceof IdleStateEvent) {
+        ctx.close();
+      } else {
+        super.userEventTriggered(ctx, evt);
+      }
+    }
+  }
+}
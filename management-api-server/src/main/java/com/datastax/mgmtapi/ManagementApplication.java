@@ -10,10 +10,15 @@ import com.datastax.mgmtapi.resources.K8OperatorResources;
 import com.datastax.mgmtapi.resources.KeyspaceOpsResources;
 import com.datastax.mgmtapi.resources.LifecycleResources;
 import com.datastax.mgmtapi.resources.MetadataResources;
+import com.datastax.mgmtapi.resources.MetricsResources;
 import com.datastax.mgmtapi.resources.NodeOpsResources;
 import com.datastax.mgmtapi.resources.TableOpsResources;
+import com.datastax.mgmtapi.resources.v2.BatchResourcesV2;
+import com.datastax.mgmtapi.resources.v2.ClientResourcesV2;
 import com.datastax.mgmtapi.resources.v2.RepairResourcesV2;
 import com.datastax.mgmtapi.resources.v2.TokenResourcesV2;
+import com.datastax.mgmtapi.tracing.Tracing;
+import com.datastax.mgmtapi.tracing.TracingFilter;
 import com.google.common.collect.ImmutableSet;
 import io.swagger.v3.jaxrs2.SwaggerSerializers;
 import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
@@ -21,6 +26,7 @@ import jakarta.ws.rs.ApplicationPath;
 import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.Response;
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -41,6 +47,7 @@ public class ManagementApplication extends Application {
   private final Set<Object> resources;
   private final AtomicReference<STATE> requestedState = new AtomicReference<>(STATE.UNKNOWN);
   private final AtomicReference<String> activeProfile = new AtomicReference<>(null);
+  private final AtomicReference<Path> metricsSnapshotPath = new AtomicReference<>(null);
 
   public ManagementApplication(
       File dbHome,
@@ -55,13 +62,14 @@ public class ManagementApplication extends Application {
     this.lifecycle = new LifecycleResources(this);
     this.cqlService = cqlService;
 
-    resources =
+    Set<Object> singletons =
         ImmutableSet.of(
             lifecycle,
             new K8OperatorResources(this),
             new KeyspaceOpsResources(this),
             new com.datastax.mgmtapi.resources.v1.KeyspaceOpsResources(this),
             new MetadataResources(this),
+            new MetricsResources(this),
             new NodeOpsResources(this),
             new com.datastax.mgmtapi.resources.v1.NodeOpsResources(this),
             new TableOpsResources(this),
@@ -69,9 +77,18 @@ public class ManagementApplication extends Application {
             new AuthResources(this),
             new com.datastax.mgmtapi.resources.v1.AuthResources(this),
             new RepairResourcesV2(this),
+            new ClientResourcesV2(this),
             new TokenResourcesV2(this),
+            new BatchResourcesV2(this),
             new OpenApiResource(),
             new SwaggerSerializers());
+    resources =
+        Tracing.instance.isEnabled()
+            ? ImmutableSet.builder()
+                .addAll(singletons)
+                .add(new TracingFilter(Tracing.instance))
+                .build()
+            : singletons;
   }
 
   @Override
@@ -111,6 +128,15 @@ public class ManagementApplication extends Application {
     activeProfile.set(profile);
   }
 
+  /** Metrics snapshot file written by the agent, null if not configured. */
+  public Path getMetricsSnapshotPath() {
+    return metricsSnapshotPath.get();
+  }
+
+  public void setMetricsSnapshotPath(Path path) {
+    metricsSnapshotPath.set(path);
+  }
+
   public static String getServerCommonName(File dbCmdFile) {
     if (dbCmdFile != null) {
       final String dbExeString = dbCmdFile.getAbsolutePath();
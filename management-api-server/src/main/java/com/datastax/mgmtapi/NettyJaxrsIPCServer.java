@@ -15,7 +15,6 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
-import io.netty.handler.timeout.IdleStateHandler;
 import java.io.File;
 import java.util.Collections;
 import java.util.List;
@@ -113,24 +112,42 @@ public class NettyJaxrsIPCServer extends NettyJaxrsServer {
     }
   }
 
+  /**
+   * Serves HTTP/1.1, or h2c when the client starts the connection with the HTTP/2 preface (prior
+   * knowledge, there is no TLS to negotiate it).
+   */
   protected void setupHandlers(
       Channel ch, RequestDispatcher dispatcher, RestEasyHttpRequestDecoder.Protocol protocol) {
-    ChannelPipeline channelPipeline = ch.pipeline();
+    Http2Handlers.addIdleHandlers(ch.pipeline(), idleTimeout);
+    ch.pipeline()
+        .addLast(
+            new Http2Handlers.CleartextNegotiationHandler() {
+              @Override
+              protected void configureHttp1(ChannelPipeline pipeline) {
+                pipeline.addLast(
+                    new HttpRequestDecoder(maxInitialLineLength, maxHeaderSize, maxChunkSize));
+                pipeline.addLast(new HttpResponseEncoder());
+                addHttpHandlers(pipeline, dispatcher, protocol);
+              }
+
+              @Override
+              protected void configureHttp2(ChannelPipeline pipeline) {
+                Http2Handlers.configure(
+                    pipeline, stream -> addHttpHandlers(stream, dispatcher, protocol));
+              }
+            });
+  }
 
-    channelPipeline.addLast(
-        new HttpRequestDecoder(maxInitialLineLength, maxHeaderSize, maxChunkSize));
-    channelPipeline.addLast(new HttpResponseEncoder());
+  private void addHttpHandlers(
+      ChannelPipeline channelPipeline,
+      RequestDispatcher dispatcher,
+      RestEasyHttpRequestDecoder.Protocol protocol) {
     channelPipeline.addLast(new HttpObjectAggregator(maxRequestSize));
     channelPipeline.addLast(
         httpChannelHandlers.toArray(new ChannelHandler[httpChannelHandlers.size()]));
     channelPipeline.addLast(
         new RestEasyHttpRequestDecoder(dispatcher.getDispatcher(), root, protocol));
     channelPipeline.addLast(new RestEasyHttpResponseEncoder());
-
-    if (idleTimeout > 0) {
-      channelPipeline.addLast("idleStateHandler", new IdleStateHandler(0, 0, idleTimeout));
-    }
-
     channelPipeline.addLast(new RequestHandler(dispatcher));
   }
 }
@@ -5,21 +5,30 @@
  */
 package com.datastax.mgmtapi;
 
+import com.datastax.mgmtapi.ipc.NativeTransport;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
 import io.netty.handler.ssl.SslContext;
-import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import java.io.File;
 import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.Map;
+import javax.net.ssl.SSLException;
 import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
 import org.jboss.resteasy.plugins.server.netty.RequestDispatcher;
 import org.jboss.resteasy.plugins.server.netty.RequestHandler;
@@ -27,9 +36,17 @@ import org.jboss.resteasy.plugins.server.netty.RestEasyHttpRequestDecoder;
 import org.jboss.resteasy.plugins.server.netty.RestEasyHttpResponseEncoder;
 import org.jboss.resteasy.util.EmbeddedServerHelper;
 
+/**
+ * HTTPS server requiring client certificates, speaking h2 or HTTP/1.1. Connections are accepted and
+ * served on {@link NativeTransport} event loops (io_uring or epoll when available).
+ */
 public class NettyJaxrsTLSServer extends NettyJaxrsServer {
-  private SslContext sslContext;
-  private final EventLoopGroup eventLoopGroup = new NioEventLoopGroup(2);
+  public static final int DEFAULT_BOSS_THREADS = 1;
+  public static final int DEFAULT_WORKER_THREADS = 2;
+
+  private volatile SslContext sslContext;
+  private final EventLoopGroup bossGroup;
+  private final EventLoopGroup workerGroup;
   private final Map<ChannelOption, Object> channelOptions = Collections.emptyMap();
   private final int maxRequestSize = 1024 * 1024 * 10;
   private final int maxInitialLineLength = 4096;
@@ -40,7 +57,49 @@ public class NettyJaxrsTLSServer extends NettyJaxrsServer {
   private final EmbeddedServerHelper serverHelper = new EmbeddedServerHelper();
 
   public NettyJaxrsTLSServer(SslContext sslContext) {
+    this(sslContext, DEFAULT_BOSS_THREADS, DEFAULT_WORKER_THREADS);
+  }
+
+  /**
+   * @param bossThreads number of threads accepting the connections
+   * @param workerThreads number of threads doing the TLS and HTTP work of the connections
+   */
+  public NettyJaxrsTLSServer(SslContext sslContext, int bossThreads, int workerThreads) {
     this.sslContext = sslContext;
+    this.bossGroup = NativeTransport.tcpEventLoopGroup(bossThreads);
+    this.workerGroup = NativeTransport.tcpEventLoopGroup(workerThreads);
+  }
+
+  /** OpenSSL (netty-tcnative) when its native library can be loaded, the JDK engine otherwise. */
+  public static SslProvider defaultSslProvider() {
+    return OpenSsl.isAvailable() ? SslProvider.OPENSSL : SslProvider.JDK;
+  }
+
+  /**
+   * Creates the server context for mutual TLS with the given provider. h2 is offered with ALPN
+   * when the provider supports it, clients without ALPN get HTTP/1.1.
+   *
+   * <p>With OpenSSL, session tickets are enabled: a returning client resumes its session with an
+   * abbreviated handshake instead of a full one. The ticket keys are generated and rotated by the
+   * native library.
+   */
+  public static SslContext createSslContext(
+      File certFile, File keyFile, File trustCertFile, SslProvider provider) throws SSLException {
+    SslContext context =
+        SslContextBuilder.forServer(certFile, keyFile)
+            .trustManager(trustCertFile)
+            .clientAuth(ClientAuth.REQUIRE)
+            .ciphers(null, IdentityCipherSuiteFilter.INSTANCE)
+            .sslProvider(provider)
+            .applicationProtocolConfig(
+                SslProvider.isAlpnSupported(provider) ? Http2Handlers.ALPN : null)
+            .build();
+
+    if (context.sessionContext() instanceof OpenSslSessionContext) {
+      // Netty disables tickets by default, without keys the native library manages its own
+      ((OpenSslSessionContext) context.sessionContext()).setTicketKeys();
+    }
+    return context;
   }
 
   @Override
@@ -54,8 +113,8 @@ public class NettyJaxrsTLSServer extends NettyJaxrsServer {
 
     // Configure the server.
     bootstrap
-        .group(eventLoopGroup)
-        .channel(NioServerSocketChannel.class)
+        .group(bossGroup, workerGroup)
+        .channel(NativeTransport.tcpServerSocketChannelClass())
         .childHandler(
             new ChannelInitializer<Channel>() {
               @Override
@@ -83,24 +142,42 @@ public class NettyJaxrsTLSServer extends NettyJaxrsServer {
     return this;
   }
 
+  /** Serves h2 or HTTP/1.1, as negotiated with ALPN during the TLS handshake. */
   protected void setupHandlers(
       Channel ch, RequestDispatcher dispatcher, RestEasyHttpRequestDecoder.Protocol protocol) {
     ChannelPipeline channelPipeline = ch.pipeline();
 
     channelPipeline.addFirst(sslContext.newHandler(ch.alloc()));
+    Http2Handlers.addIdleHandlers(channelPipeline, idleTimeout);
 
     channelPipeline.addLast(
-        new HttpRequestDecoder(maxInitialLineLength, maxHeaderSize, maxChunkSize));
-    channelPipeline.addLast(new HttpResponseEncoder());
+        new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1) {
+          @Override
+          protected void configurePipeline(ChannelHandlerContext ctx, String applicationProtocol) {
+            ChannelPipeline pipeline = ctx.pipeline();
+            if (ApplicationProtocolNames.HTTP_2.equals(applicationProtocol)) {
+              Http2Handlers.configure(
+                  pipeline, stream -> addHttpHandlers(stream, dispatcher, protocol));
+            } else if (ApplicationProtocolNames.HTTP_1_1.equals(applicationProtocol)) {
+              pipeline.addLast(
+                  new HttpRequestDecoder(maxInitialLineLength, maxHeaderSize, maxChunkSize));
+              pipeline.addLast(new HttpResponseEncoder());
+              addHttpHandlers(pipeline, dispatcher, protocol);
+            } else {
+              throw new IllegalStateException("Unsupported protocol: " + applicationProtocol);
+            }
+          }
+        });
+  }
+
+  private void addHttpHandlers(
+      ChannelPipeline channelPipeline,
+      RequestDispatcher dispatcher,
+      RestEasyHttpRequestDecoder.Protocol protocol) {
     channelPipeline.addLast(new HttpObjectAggregator(maxRequestSize));
     channelPipeline.addLast(
         new RestEasyHttpRequestDecoder(dispatcher.getDispatcher(), root, protocol));
     channelPipeline.addLast(new RestEasyHttpResponseEncoder());
-
-    if (idleTimeout > 0) {
-      channelPipeline.addLast("idleStateHandler", new IdleStateHandler(0, 0, idleTimeout));
-    }
-
     channelPipeline.addLast(new RequestHandler(dispatcher));
   }
 
@@ -111,6 +188,7 @@ public class NettyJaxrsTLSServer extends NettyJaxrsServer {
   @Override
   public void stop() {
     runtimePort = -1;
-    eventLoopGroup.shutdownGracefully();
+    bossGroup.shutdownGracefully();
+    workerGroup.shutdownGracefully();
   }
 }
@@ -121,15 +121,21 @@ public class UnixSocketCQLAccess {
 
     session =
         new LocalSessionBuilder(unixSocketEndpoint)
-            .withConfigLoader(
-                DriverConfigLoader.programmaticBuilder()
-                    .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.of(30, SECONDS))
-                    // force protocol V4 for now
-                    .withString(DefaultDriverOption.PROTOCOL_VERSION, "V4")
-                    .build())
+            .withConfigLoader(configLoader())
             .build();
   }
 
+  /**
+   * The driver configuration of the management socket. The protocol version comes from
+   * advanced.protocol.version, V4 by default: v5 requests bypass the RPC lanes of the agent and
+   * share the resource limits of the local clients, so v5 is opt-in.
+   */
+  static DriverConfigLoader configLoader() {
+    return DriverConfigLoader.programmaticBuilder()
+        .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.of(30, SECONDS))
+        .build();
+  }
+
   static class LocalSessionBuilder extends CqlSessionBuilder {
     final EndPoint unixSocketEndpoint;
 
@@ -27,12 +27,16 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +46,7 @@ public class K8OperatorResources extends BaseResources {
 
   private static final ObjectMapper jsonMapper = new ObjectMapper();
 
-  private boolean bootStrapped = false;
+  private volatile boolean bootStrapped = false;
 
   public K8OperatorResources(ManagementApplication application) {
     super(application);
@@ -92,32 +96,45 @@ public class K8OperatorResources extends BaseResources {
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
   @ApiResponse(responseCode = "500", description = "Service is not ready to handle requests")
-  public Response checkReadiness() {
-    return handle(
+  public void checkReadiness(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
+          CompletionStage<ResultSet> bootstrapped = CompletableFuture.completedFuture(null);
           if (!bootStrapped) {
-            ResultSet bootstrapped =
-                app.cqlService.executeCql(
+            bootstrapped =
+                app.cqlService.executeCqlAsync(
                     app.dbUnixSocketFile,
                     "SELECT bootstrapped FROM system.local WHERE key = 'local'");
-            Row resultBootstrap = bootstrapped.one();
-            if (resultBootstrap != null) {
-              if ("COMPLETED".equalsIgnoreCase(resultBootstrap.getString("bootstrapped"))) {
-                bootStrapped = true;
-              }
-            }
           }
 
-          ResultSet resultSet =
-              app.cqlService.executeCql(app.dbUnixSocketFile, "SELECT * from system.local");
-          Row result = resultSet.one();
+          return bootstrapped
+              .thenCompose(
+                  step(
+                      bootstrappedResult -> {
+                        if (bootstrappedResult != null) {
+                          Row resultBootstrap = bootstrappedResult.one();
+                          if (resultBootstrap != null
+                              && "COMPLETED"
+                                  .equalsIgnoreCase(resultBootstrap.getString("bootstrapped"))) {
+                            bootStrapped = true;
+                          }
+                        }
+                        return app.cqlService.executeCqlAsync(
+                            app.dbUnixSocketFile, "SELECT * from system.local");
+                      }))
+              .thenApply(
+                  resultSet -> {
+                    Row result = resultSet.one();
 
-          if (result != null && bootStrapped) {
-            return Response.ok("OK").build();
-          } else {
-            Response.ResponseBuilder rb = Response.status(Response.Status.INTERNAL_SERVER_ERROR);
-            return rb.build();
-          }
+                    if (result != null && bootStrapped) {
+                      return Response.ok("OK").build();
+                    } else {
+                      Response.ResponseBuilder rb =
+                          Response.status(Response.Status.INTERNAL_SERVER_ERROR);
+                      return rb.build();
+                    }
+                  });
         });
   }
 
@@ -148,10 +165,12 @@ public class K8OperatorResources extends BaseResources {
                               + "    \"[-7599446072150209635, -6632081829071674136]\": [\n"
                               + "        \"2 replicas required, but only 1 nodes in the ring\"\n"
                               + "    ]}")))
-  public Response checkClusterConsistency(
+  public void checkClusterConsistency(
       @QueryParam(value = "consistency_level") String consistencyLevelStr,
-      @QueryParam(value = "rf_per_dc") Integer rfPerDcVal) {
-    return handle(
+      @QueryParam(value = "rf_per_dc") Integer rfPerDcVal,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           String consistencyLevel = consistencyLevelStr;
           if (consistencyLevel == null) consistencyLevel = "LOCAL_QUORUM";
@@ -159,21 +178,25 @@ public class K8OperatorResources extends BaseResources {
           Integer rfPerDc = rfPerDcVal;
           if (rfPerDc == null) rfPerDc = 3;
 
-          ResultSet result =
-              app.cqlService.executePreparedStatement(
+          return app.cqlService
+              .executePreparedStatementAsync(
                   app.dbUnixSocketFile,
                   "CALL NodeOps.checkConsistencyLevel(?, ?)",
                   consistencyLevel,
-                  rfPerDc);
-
-          Map<List, List> response = result.one().getMap("result", List.class, List.class);
+                  rfPerDc)
+              .thenApply(
+                  step(
+                      result -> {
+                        Map<List, List> response =
+                            result.one().getMap("result", List.class, List.class);
 
-          if (response.isEmpty()) return Response.ok().build();
+                        if (response.isEmpty()) return Response.ok().build();
 
-          return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-              .entity(jsonMapper.writeValueAsString(response))
-              .type(MediaType.APPLICATION_JSON)
-              .build();
+                        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(jsonMapper.writeValueAsString(response))
+                            .type(MediaType.APPLICATION_JSON)
+                            .build();
+                      }));
         });
   }
 
@@ -191,17 +214,22 @@ public class K8OperatorResources extends BaseResources {
               mediaType = MediaType.APPLICATION_JSON,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "[127.0.0.1, 127.0.0.2]")))
-  public Response seedReload() {
-    return handle(
-        () -> {
-          ResultSet result =
-              app.cqlService.executeCql(app.dbUnixSocketFile, "CALL NodeOps.reloadSeeds()");
+  public void seedReload(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executeCqlAsync(app.dbUnixSocketFile, "CALL NodeOps.reloadSeeds()")
+                .thenApply(
+                    step(
+                        result -> {
+                          List<String> response = result.one().getList("result", String.class);
 
-          List<String> response = result.one().getList("result", String.class);
-
-          return Response.ok(jsonMapper.writeValueAsString(response), MediaType.APPLICATION_JSON)
-              .build();
-        });
+                          return Response.ok(
+                                  jsonMapper.writeValueAsString(response),
+                                  MediaType.APPLICATION_JSON)
+                              .build();
+                        })));
   }
 
   @GET
@@ -222,34 +250,41 @@ public class K8OperatorResources extends BaseResources {
           @Content(
               mediaType = MediaType.APPLICATION_JSON,
               schema = @Schema(implementation = Job.class)))
-  public Response getJobStatus(
-      @Parameter(required = true) @QueryParam(value = "job_id") String jobId) {
-    return handle(
-        () -> {
-          Map<String, String> jobResponse =
-              (Map<String, String>)
-                  ResponseTools.getSingleRowResponse(
-                      app.dbUnixSocketFile, app.cqlService, "CALL NodeOps.getJobStatus(?)", jobId);
-          if (jobResponse.isEmpty()) {
-            return Response.status(Response.Status.NOT_FOUND).entity(jobResponse).build();
-          }
+  public void getJobStatus(
+      @Parameter(required = true) @QueryParam(value = "job_id") String jobId,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            ResponseTools.getSingleRowResponseAsync(
+                    app.dbUnixSocketFile, app.cqlService, "CALL NodeOps.getJobStatus(?)", jobId)
+                .thenApply(
+                    response -> {
+                      Map<String, String> jobResponse = (Map<String, String>) response;
+                      if (jobResponse.isEmpty()) {
+                        return Response.status(Response.Status.NOT_FOUND)
+                            .entity(jobResponse)
+                            .build();
+                      }
 
-          TypeReference listOfJobStatus = new TypeReference<List<Job.StatusChange>>() {};
-          try {
-            Job outJob =
-                new Job(
-                    jobResponse.get("id"),
-                    jobResponse.get("type"),
-                    jobResponse.get("status"),
-                    Long.parseLong(jobResponse.get("submit_time")),
-                    Long.parseLong(jobResponse.get("end_time")),
-                    jobResponse.get("error"),
-                    (List<Job.StatusChange>)
-                        jsonMapper.readValue(jobResponse.get("status_changes"), listOfJobStatus));
-            return Response.ok(outJob, MediaType.APPLICATION_JSON).build();
-          } catch (Exception e) {
-            throw new RuntimeException(e);
-          }
-        });
+                      TypeReference listOfJobStatus =
+                          new TypeReference<List<Job.StatusChange>>() {};
+                      try {
+                        Job outJob =
+                            new Job(
+                                jobResponse.get("id"),
+                                jobResponse.get("type"),
+                                jobResponse.get("status"),
+                                Long.parseLong(jobResponse.get("submit_time")),
+                                Long.parseLong(jobResponse.get("end_time")),
+                                jobResponse.get("error"),
+                                (List<Job.StatusChange>)
+                                    jsonMapper.readValue(
+                                        jobResponse.get("status_changes"), listOfJobStatus));
+                        return Response.ok(outJob, MediaType.APPLICATION_JSON).build();
+                      } catch (Exception e) {
+                        throw new RuntimeException(e);
+                      }
+                    }));
   }
 }
@@ -18,8 +18,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.List;
 
 @Path("/api/v0/metadata")
 public class MetadataResources extends BaseResources {
@@ -58,7 +60,13 @@ public class MetadataResources extends BaseResources {
               mediaType = MediaType.APPLICATION_JSON,
               schema = @Schema(implementation = EndpointStates.class)))
   public Response getEndpointStates() {
-    return executeWithJSONResponse("CALL NodeOps.getEndpointStates()");
+    return handle(
+        () -> {
+          List<Object> endpoints =
+              ResponseTools.getRowsResponse(
+                  app.dbUnixSocketFile, app.cqlService, "CALL NodeOps.getEndpointStatesPaged()");
+          return Response.ok(Entity.json(endpoints)).build();
+        });
   }
 
   @GET
@@ -0,0 +1,94 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources;
+
+import com.datastax.mgmtapi.ManagementApplication;
+import com.datastax.mgmtapi.metrics.MetricsSnapshot;
+import com.datastax.mgmtapi.metrics.MetricsSnapshotFile;
+import com.datastax.mgmtapi.resources.common.BaseResources;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+@Path("/api/v0/metrics")
+public class MetricsResources extends BaseResources {
+
+  private MetricsSnapshotFile snapshotFile;
+
+  public MetricsResources(ManagementApplication application) {
+    super(application);
+  }
+
+  @GET
+  @Path("/snapshot")
+  @Operation(
+      summary = "Returns the latest metrics snapshot written by the agent",
+      operationId = "getMetricsSnapshot")
+  @Produces(MediaType.APPLICATION_JSON)
+  @ApiResponse(
+      responseCode = "200",
+      description = "Metric families of the local node",
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON,
+              schema = @Schema(implementation = MetricsSnapshot.class)))
+  @ApiResponse(responseCode = "404", description = "Metrics snapshot is not configured")
+  @ApiResponse(responseCode = "503", description = "No metrics snapshot has been written yet")
+  public Response getSnapshot(@QueryParam(value = "name") List<String> names) {
+    return handle(
+        () -> {
+          if (app.getMetricsSnapshotPath() == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity("Metrics snapshot is not configured")
+                .build();
+          }
+
+          MetricsSnapshot snapshot = readSnapshot();
+          if (snapshot == null) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity("Metrics snapshot is not available")
+                .build();
+          }
+
+          if (names != null && !names.isEmpty()) {
+            List<MetricsSnapshot.Family> families = new ArrayList<>();
+            for (MetricsSnapshot.Family family : snapshot.getFamilies()) {
+              for (String name : names) {
+                if (family.getName().startsWith(name)) {
+                  families.add(family);
+                  break;
+                }
+              }
+            }
+            snapshot = new MetricsSnapshot(snapshot.getTimestamp(), families);
+          }
+
+          return Response.ok(snapshot, MediaType.APPLICATION_JSON).build();
+        });
+  }
+
+  private synchronized MetricsSnapshot readSnapshot() throws IOException {
+    if (snapshotFile == null) {
+      // The agent creates the file once Cassandra has started
+      if (!Files.exists(app.getMetricsSnapshotPath())) {
+        return null;
+      }
+      snapshotFile = MetricsSnapshotFile.openForRead(app.getMetricsSnapshotPath());
+    }
+    return snapshotFile.read();
+  }
+}
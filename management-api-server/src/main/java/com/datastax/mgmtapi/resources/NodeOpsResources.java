@@ -7,6 +7,7 @@ package com.datastax.mgmtapi.resources;
 
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
+import com.datastax.mgmtapi.CqlService;
 import com.datastax.mgmtapi.ManagementApplication;
 import com.datastax.mgmtapi.resources.common.BaseResources;
 import com.datastax.mgmtapi.resources.helpers.ResponseTools;
@@ -14,6 +15,8 @@ import com.datastax.mgmtapi.resources.models.RepairRequest;
 import com.datastax.mgmtapi.resources.models.SnapshotDetails;
 import com.datastax.mgmtapi.resources.models.StreamingInfo;
 import com.datastax.mgmtapi.resources.models.TakeSnapshotRequest;
+import com.datastax.oss.driver.api.core.connection.ClosedConnectionException;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
 import com.google.common.collect.ImmutableList;
@@ -31,10 +34,15 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -109,14 +117,15 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
-  public Response decommission(@QueryParam(value = "force") boolean force) {
-    return handle(
-        () -> {
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile, "CALL NodeOps.decommission(?, ?)", force, false);
-
-          return Response.ok("OK").build();
-        });
+  public void decommission(
+      @QueryParam(value = "force") boolean force, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executePreparedStatementAsync(
+                    app.dbUnixSocketFile, "CALL NodeOps.decommission(?, ?)", force, false)
+                .thenApply(result -> Response.ok("OK").build()));
   }
 
   @POST
@@ -134,14 +143,15 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
-  public Response setCompactionThroughput(@QueryParam(value = "value") int value) {
-    return handle(
-        () -> {
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile, "CALL NodeOps.setCompactionThroughput(?)", value);
-
-          return Response.ok("OK").build();
-        });
+  public void setCompactionThroughput(
+      @QueryParam(value = "value") int value, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executePreparedStatementAsync(
+                    app.dbUnixSocketFile, "CALL NodeOps.setCompactionThroughput(?)", value)
+                .thenApply(result -> Response.ok("OK").build()));
   }
 
   @POST
@@ -167,19 +177,22 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "Address must be provided")))
-  public Response assassinate(@QueryParam(value = "address") String address) {
-    return handle(
+  public void assassinate(
+      @QueryParam(value = "address") String address, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           if (StringUtils.isBlank(address)) {
-            return Response.status(HttpStatus.SC_BAD_REQUEST)
-                .entity("Address must be provided")
-                .build();
+            return CompletableFuture.completedFuture(
+                Response.status(HttpStatus.SC_BAD_REQUEST)
+                    .entity("Address must be provided")
+                    .build());
           }
 
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile, "CALL NodeOps.assassinate(?)", address);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile, "CALL NodeOps.assassinate(?)", address)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -198,10 +211,12 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
-  public Response setLoggingLevel(
+  public void setLoggingLevel(
       @QueryParam(value = "target") String targetStr,
-      @QueryParam(value = "rawLevel") String rawLevelStr) {
-    return handle(
+      @QueryParam(value = "rawLevel") String rawLevelStr,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           // Retaining logic from org.apache.cassandra.tools.nodetool.SetLoggingLevel
           String target = StringUtils.isNotBlank(targetStr) ? targetStr : EMPTY;
@@ -209,15 +224,21 @@ public class NodeOpsResources extends BaseResources {
 
           List<String> classQualifiers = classes.getOrDefault(target, ImmutableList.of(target));
 
+          // One after the other, like nodetool
+          CompletionStage<ResultSet> done = CompletableFuture.completedFuture(null);
           for (String classQualifier : classQualifiers) {
-            app.cqlService.executePreparedStatement(
-                app.dbUnixSocketFile,
-                "CALL NodeOps.setLoggingLevel(?, ?)",
-                classQualifier,
-                rawLevel);
+            done =
+                done.thenCompose(
+                    step(
+                        previous ->
+                            app.cqlService.executePreparedStatementAsync(
+                                app.dbUnixSocketFile,
+                                "CALL NodeOps.setLoggingLevel(?, ?)",
+                                classQualifier,
+                                rawLevel)));
           }
 
-          return Response.ok("OK").build();
+          return done.thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -235,19 +256,21 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
-  // TODO Make async
-  public Response drain() {
-    return handle(
-        () -> {
-          try {
-            app.cqlService.executeSlowCql(app.dbUnixSocketFile, "CALL NodeOps.drain()");
-
-            return Response.ok("OK").build();
-          } catch (com.datastax.oss.driver.api.core.connection.ClosedConnectionException cce) {
-            // Closed connection is expected when draining the node
-            return Response.ok("OK").build();
-          }
-        });
+  public void drain(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executeSlowCqlAsync(app.dbUnixSocketFile, "CALL NodeOps.drain()")
+                .handle(
+                    (result, error) -> {
+                      // Closed connection is expected when draining the node
+                      if (error == null
+                          || CqlService.unwrap(error) instanceof ClosedConnectionException) {
+                        return Response.ok("OK").build();
+                      }
+                      throw new CompletionException(CqlService.unwrap(error));
+                    }));
   }
 
   @POST
@@ -265,17 +288,23 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
-  public Response truncateHints(@QueryParam(value = "host") String host) {
-    return handle(
+  public void truncateHints(
+      @QueryParam(value = "host") String host, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
+          CompletionStage<ResultSet> result;
           if (StringUtils.isBlank(host)) {
-            app.cqlService.executeCql(app.dbUnixSocketFile, "CALL NodeOps.truncateAllHints()");
+            result =
+                app.cqlService.executeCqlAsync(
+                    app.dbUnixSocketFile, "CALL NodeOps.truncateAllHints()");
           } else {
-            app.cqlService.executePreparedStatement(
-                app.dbUnixSocketFile, "CALL NodeOps.truncateHintsForHost(?)", host);
+            result =
+                app.cqlService.executePreparedStatementAsync(
+                    app.dbUnixSocketFile, "CALL NodeOps.truncateHintsForHost(?)", host);
           }
 
-          return Response.ok("OK").build();
+          return result.thenApply(r -> Response.ok("OK").build());
         });
   }
 
@@ -291,13 +320,13 @@ public class NodeOpsResources extends BaseResources {
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
   @Operation(summary = "Reset node's local schema and resync", operationId = "resetLocalSchema")
-  public Response resetLocalSchema() {
-    return handle(
-        () -> {
-          app.cqlService.executeCql(app.dbUnixSocketFile, "CALL NodeOps.resetLocalSchema()");
-
-          return Response.ok("OK").build();
-        });
+  public void resetLocalSchema(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executeCqlAsync(app.dbUnixSocketFile, "CALL NodeOps.resetLocalSchema()")
+                .thenApply(result -> Response.ok("OK").build()));
   }
 
   @POST
@@ -314,13 +343,13 @@ public class NodeOpsResources extends BaseResources {
   @Operation(
       summary = "Reload local node schema from system tables",
       operationId = "reloadLocalSchema")
-  public Response reloadLocalSchema() {
-    return handle(
-        () -> {
-          app.cqlService.executeCql(app.dbUnixSocketFile, "CALL NodeOps.reloadLocalSchema()");
-
-          return Response.ok("OK").build();
-        });
+  public void reloadLocalSchema(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executeCqlAsync(app.dbUnixSocketFile, "CALL NodeOps.reloadLocalSchema()")
+                .thenApply(result -> Response.ok("OK").build()));
   }
 
   @GET
@@ -334,18 +363,13 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.APPLICATION_JSON,
               schema = @Schema(implementation = StreamingInfo.class)))
   @Operation(summary = "Retrieve Streaming status information", operationId = "getStreamInfo")
-  public Response getStreamInfo() {
-    return handle(
-        () -> {
-          Row row =
-              app.cqlService.executeCql(app.dbUnixSocketFile, "CALL NodeOps.getStreamInfo()").one();
-
-          Object queryResponse = null;
-          if (row != null) {
-            queryResponse = row.getObject(0);
-          }
-          return Response.ok(Entity.json(queryResponse)).build();
-        });
+  public void getStreamInfo(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            ResponseTools.getSingleRowResponseAsync(
+                    app.dbUnixSocketFile, app.cqlService, "CALL NodeOps.getStreamInfo()")
+                .thenApply(queryResponse -> Response.ok(Entity.json(queryResponse)).build()));
   }
 
   @GET
@@ -360,26 +384,20 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.APPLICATION_JSON,
               schema = @Schema(implementation = SnapshotDetails.class)))
   @Operation(summary = "Retrieve snapshot details", operationId = "getSnapshotDetails")
-  public Response getSnapshotDetails(
+  public void getSnapshotDetails(
       @QueryParam("snapshotNames") List<String> snapshotNames,
-      @QueryParam("keyspaces") List<String> keyspace) {
-    return handle(
-        () -> {
-          Row row =
-              app.cqlService
-                  .executePreparedStatement(
-                      app.dbUnixSocketFile,
-                      "CALL NodeOps.getSnapshotDetails(?, ?)",
-                      snapshotNames,
-                      keyspace)
-                  .one();
-
-          Object queryResponse = null;
-          if (row != null) {
-            queryResponse = row.getObject(0);
-          }
-          return Response.ok(Entity.json(queryResponse)).build();
-        });
+      @QueryParam("keyspaces") List<String> keyspace,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            ResponseTools.getRowsResponseAsync(
+                    app.dbUnixSocketFile,
+                    app.cqlService,
+                    "CALL NodeOps.getSnapshotDetailsPaged(?, ?)",
+                    snapshotNames,
+                    keyspace)
+                .thenApply(queryResponse -> Response.ok(Entity.json(queryResponse)).build()));
   }
 
   @POST
@@ -406,8 +424,10 @@ public class NodeOpsResources extends BaseResources {
                       value =
                           "When specifying keyspace_tables, specifying keyspaces is not allowed")))
   @Operation(summary = "Take a snapshot", operationId = "takeSnapshot")
-  public Response takeSnapshot(TakeSnapshotRequest takeSnapshotRequest) {
-    return handle(
+  public void takeSnapshot(
+      TakeSnapshotRequest takeSnapshotRequest, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           String snapshotName = takeSnapshotRequest.snapshotName;
           List<String> keyspaces = takeSnapshotRequest.keyspaces;
@@ -418,36 +438,40 @@ public class NodeOpsResources extends BaseResources {
           if (keyspaces != null && !keyspaces.isEmpty()) {
             if (keyspaceTables != null && !keyspaceTables.isEmpty()) {
               // when specifying Keyspace.table lists, you can not specify any keyspaces
-              return Response.status(Response.Status.BAD_REQUEST)
-                  .entity("When specifying keyspace_tables, specifying keyspaces is not allowed")
-                  .build();
+              return CompletableFuture.completedFuture(
+                  Response.status(Response.Status.BAD_REQUEST)
+                      .entity(
+                          "When specifying keyspace_tables, specifying keyspaces is not allowed")
+                      .build());
             }
             if (tableName != null && keyspaces.size() > 1) {
               // when specifying a table name (column family), you must specify exactly 1 keyspace
-              return Response.status(Response.Status.BAD_REQUEST)
-                  .entity("Exactly 1 keyspace must be specified when specifying table_name")
-                  .build();
+              return CompletableFuture.completedFuture(
+                  Response.status(Response.Status.BAD_REQUEST)
+                      .entity("Exactly 1 keyspace must be specified when specifying table_name")
+                      .build());
             }
           } else {
             // no keyspaces specified
             if (tableName != null) {
               // when specifying a table name (column family), you must specify exactly 1 keyspace
-              return Response.status(Response.Status.BAD_REQUEST)
-                  .entity("Exactly 1 keyspace must be specified when specifying table_name")
-                  .build();
+              return CompletableFuture.completedFuture(
+                  Response.status(Response.Status.BAD_REQUEST)
+                      .entity("Exactly 1 keyspace must be specified when specifying table_name")
+                      .build());
             }
           }
 
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.takeSnapshot(?, ?, ?, ?, ?)",
-              snapshotName,
-              keyspaces,
-              tableName,
-              skipFlsuh,
-              keyspaceTables);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile,
+                  "CALL NodeOps.takeSnapshot(?, ?, ?, ?, ?)",
+                  snapshotName,
+                  keyspaces,
+                  tableName,
+                  skipFlsuh,
+                  keyspaceTables)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -463,15 +487,20 @@ public class NodeOpsResources extends BaseResources {
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
   @Operation(summary = "Clear snapshots", operationId = "clearSnapshots")
-  public Response clearSnapshots(
+  public void clearSnapshots(
       @QueryParam(value = "snapshotNames") List<String> snapshotNames,
-      @QueryParam(value = "keyspaces") List<String> keyspaces) {
-    return handle(
-        () -> {
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile, "CALL NodeOps.clearSnapshots(?, ?)", snapshotNames, keyspaces);
-          return Response.ok("OK").build();
-        });
+      @QueryParam(value = "keyspaces") List<String> keyspaces,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executePreparedStatementAsync(
+                    app.dbUnixSocketFile,
+                    "CALL NodeOps.clearSnapshots(?, ?)",
+                    snapshotNames,
+                    keyspaces)
+                .thenApply(result -> Response.ok("OK").build()));
   }
 
   @POST
@@ -494,29 +523,31 @@ public class NodeOpsResources extends BaseResources {
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "keyspaceName must be specified")))
   @Operation(summary = "Execute a nodetool repair operation", operationId = "repair")
-  public Response repair(RepairRequest repairRequest) {
-    return handle(
+  public void repair(RepairRequest repairRequest, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           if (repairRequest.keyspaceName == null) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                .entity("keyspaceName must be specified")
-                .build();
+            return CompletableFuture.completedFuture(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity("keyspaceName must be specified")
+                    .build());
           }
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.repair(?, ?, ?, ?, ?, ?, ?, ?)",
-              repairRequest.keyspaceName,
-              repairRequest.tables,
-              repairRequest.full,
-              false,
-              // The default repair does not allow for specifying things like parallelism,
-              // threadCounts, source DCs or ranges etc.
-              null,
-              null,
-              null,
-              null);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile,
+                  "CALL NodeOps.repair(?, ?, ?, ?, ?, ?, ?, ?)",
+                  repairRequest.keyspaceName,
+                  repairRequest.tables,
+                  repairRequest.full,
+                  false,
+                  // The default repair does not allow for specifying things like parallelism,
+                  // threadCounts, source DCs or ranges etc.
+                  null,
+                  null,
+                  null,
+                  null)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -534,13 +565,17 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
-  public Response setFullQuerylog(@QueryParam(value = "enabled") boolean fullQueryLoggingEnabled) {
-    return handle(
+  public void setFullQuerylog(
+      @QueryParam(value = "enabled") boolean fullQueryLoggingEnabled,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           logger.debug("Running CALL NodeOps.setFullQuerylog(?) " + fullQueryLoggingEnabled);
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile, "CALL NodeOps.setFullQuerylog(?)", fullQueryLoggingEnabled);
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile, "CALL NodeOps.setFullQuerylog(?)", fullQueryLoggingEnabled)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -558,20 +593,23 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.APPLICATION_JSON,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = FQL_QUERY_RESPONSE_EXAMPLE)))
-  public Response isFullQueryLogEnabled() {
-    return handle(
+  public void isFullQueryLogEnabled(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           logger.debug("CALL NodeOps.isFullQueryLogEnabled()");
-          Row row =
-              app.cqlService
-                  .executePreparedStatement(
-                      app.dbUnixSocketFile, "CALL NodeOps.isFullQueryLogEnabled()")
-                  .one();
-          Object queryResponse = null;
-          if (row != null) {
-            queryResponse = row.getObject(0);
-          }
-          return Response.ok(Entity.json(queryResponse)).build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile, "CALL NodeOps.isFullQueryLogEnabled()")
+              .thenApply(
+                  result -> {
+                    Row row = result.one();
+                    Object queryResponse = null;
+                    if (row != null) {
+                      queryResponse = row.getObject(0);
+                    }
+                    return Response.ok(Entity.json(queryResponse)).build();
+                  });
         });
   }
 
@@ -598,23 +636,25 @@ public class NodeOpsResources extends BaseResources {
               mediaType = MediaType.TEXT_PLAIN,
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "newToken must be specified")))
-  public Response move(@QueryParam(value = "newToken") String newToken) {
-    return handle(
+  public void move(
+      @QueryParam(value = "newToken") String newToken, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           if (StringUtils.isBlank(newToken)) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                .entity("newToken must be specified")
-                .build();
+            return CompletableFuture.completedFuture(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity("newToken must be specified")
+                    .build());
           }
 
-          return Response.accepted(
-                  ResponseTools.getSingleRowStringResponse(
-                      app.dbUnixSocketFile,
-                      app.cqlService,
-                      "CALL NodeOps.move(?, ?)",
-                      newToken,
-                      true))
-              .build();
+          return ResponseTools.getSingleRowStringResponseAsync(
+                  app.dbUnixSocketFile,
+                  app.cqlService,
+                  "CALL NodeOps.move(?, ?)",
+                  newToken,
+                  true)
+              .thenApply(jobId -> Response.accepted(jobId).build());
         });
   }
 
@@ -634,33 +674,47 @@ public class NodeOpsResources extends BaseResources {
   @ApiResponse(
       responseCode = "404",
       description = "An attempt is made to rebuild a non-existing index")
-  public Response searchIndexRebuild(
-      @QueryParam(value = "keyspace") String keyspace, @QueryParam(value = "table") String table) {
-    return handle(
-        () -> {
-          // check if we're dealing with DSE
-          final String releaseVersion =
-              ResponseTools.getSingleRowStringResponse(
-                  app.dbUnixSocketFile, app.cqlService, CASSANDRA_VERSION_CQL_STRING);
-          if (releaseVersion == null) {
-            // couldn't get release version, something is wrong
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
-          }
-          if (!releaseVersion.startsWith("4.0.0.68") && !releaseVersion.startsWith("4.0.0.69")) {
-            // rebuilding search index is only possible on DSE
-            return Response.status(Response.Status.BAD_REQUEST)
-                .entity("Rebuilding Search Index is only supported on DSE")
-                .build();
-          }
-          try {
-            String rebuild_query = String.format("REBUILD SEARCH INDEX ON %s.%s;", keyspace, table);
-            app.cqlService.executeCql(app.dbUnixSocketFile, rebuild_query);
-          } catch (InvalidQueryException iqe) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-          }
-
-          return Response.status(Response.Status.OK).build();
-        });
+  public void searchIndexRebuild(
+      @QueryParam(value = "keyspace") String keyspace,
+      @QueryParam(value = "table") String table,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            // check if we're dealing with DSE
+            ResponseTools.getSingleRowStringResponseAsync(
+                    app.dbUnixSocketFile, app.cqlService, CASSANDRA_VERSION_CQL_STRING)
+                .thenCompose(
+                    step(
+                        releaseVersion -> {
+                          if (releaseVersion == null) {
+                            // couldn't get release version, something is wrong
+                            return CompletableFuture.completedFuture(
+                                Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
+                          }
+                          if (!releaseVersion.startsWith("4.0.0.68")
+                              && !releaseVersion.startsWith("4.0.0.69")) {
+                            // rebuilding search index is only possible on DSE
+                            return CompletableFuture.completedFuture(
+                                Response.status(Response.Status.BAD_REQUEST)
+                                    .entity("Rebuilding Search Index is only supported on DSE")
+                                    .build());
+                          }
+                          String rebuild_query =
+                              String.format("REBUILD SEARCH INDEX ON %s.%s;", keyspace, table);
+                          return app.cqlService
+                              .executeCqlAsync(app.dbUnixSocketFile, rebuild_query)
+                              .handle(
+                                  (result, error) -> {
+                                    if (error == null) {
+                                      return Response.status(Response.Status.OK).build();
+                                    }
+                                    if (CqlService.unwrap(error) instanceof InvalidQueryException) {
+                                      return Response.status(Response.Status.NOT_FOUND).build();
+                                    }
+                                    throw new CompletionException(CqlService.unwrap(error));
+                                  });
+                        })));
   }
 
   @POST
@@ -685,24 +739,31 @@ public class NodeOpsResources extends BaseResources {
                   @ExampleObject(
                       value = "Reloading the truststore manually is only possible on DSE")))
   @Operation(summary = "reload truststore", operationId = "reloadTruststore")
-  public Response reloadTruststore() {
-    return handle(
-        () -> {
-          final String releaseVersion =
-              ResponseTools.getSingleRowStringResponse(
-                  app.dbUnixSocketFile, app.cqlService, CASSANDRA_VERSION_CQL_STRING);
-          if (!releaseVersion.startsWith("4.0.0.68") && !releaseVersion.startsWith("4.0.0.69")) {
-            // rebuilding search index is only possible on DSE
-            return Response.status(Response.Status.BAD_REQUEST)
-                .entity("Reloading the truststore manually is only possible on DSE")
-                .build();
-          }
-
-          app.cqlService.executeCql(
-              app.dbUnixSocketFile, "CALL NodeOps.reloadInternodeEncryptionTruststore()");
-
-          return Response.ok("OK").build();
-        });
+  public void reloadTruststore(@Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
+        () ->
+            ResponseTools.getSingleRowStringResponseAsync(
+                    app.dbUnixSocketFile, app.cqlService, CASSANDRA_VERSION_CQL_STRING)
+                .thenCompose(
+                    step(
+                        releaseVersion -> {
+                          if (!releaseVersion.startsWith("4.0.0.68")
+                              && !releaseVersion.startsWith("4.0.0.69")) {
+                            // rebuilding search index is only possible on DSE
+                            return CompletableFuture.completedFuture(
+                                Response.status(Response.Status.BAD_REQUEST)
+                                    .entity(
+                                        "Reloading the truststore manually is only possible on DSE")
+                                    .build());
+                          }
+
+                          return app.cqlService
+                              .executeCqlAsync(
+                                  app.dbUnixSocketFile,
+                                  "CALL NodeOps.reloadInternodeEncryptionTruststore()")
+                              .thenApply(result -> Response.ok("OK").build());
+                        })));
   }
 
   private static final String FQL_QUERY_RESPONSE_EXAMPLE =
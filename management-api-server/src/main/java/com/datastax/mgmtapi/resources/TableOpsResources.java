@@ -5,6 +5,7 @@
  */
 package com.datastax.mgmtapi.resources;
 
+import com.datastax.mgmtapi.CqlService;
 import com.datastax.mgmtapi.ManagementApplication;
 import com.datastax.mgmtapi.resources.common.BaseResources;
 import com.datastax.mgmtapi.resources.models.CompactRequest;
@@ -25,10 +26,14 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -54,8 +59,9 @@ public class TableOpsResources extends BaseResources {
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
   @Operation(summary = "Scrub (rebuild sstables for) one or more tables", operationId = "scrub")
-  public Response scrub(ScrubRequest scrubRequest) {
-    return handle(
+  public void scrub(ScrubRequest scrubRequest, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           List<String> tables = scrubRequest.tables;
           if (CollectionUtils.isEmpty(tables)) {
@@ -67,19 +73,19 @@ public class TableOpsResources extends BaseResources {
             keyspaceName = "ALL";
           }
 
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.scrub(?, ?, ?, ?, ?, ?, ?, ?)",
-              scrubRequest.disableSnapshot,
-              scrubRequest.skipCorrupted,
-              scrubRequest.checkData,
-              scrubRequest.reinsertOverflowedTTL,
-              scrubRequest.jobs,
-              keyspaceName,
-              tables,
-              false);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile,
+                  "CALL NodeOps.scrub(?, ?, ?, ?, ?, ?, ?, ?)",
+                  scrubRequest.disableSnapshot,
+                  scrubRequest.skipCorrupted,
+                  scrubRequest.checkData,
+                  scrubRequest.reinsertOverflowedTTL,
+                  scrubRequest.jobs,
+                  keyspaceName,
+                  tables,
+                  false)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -99,10 +105,12 @@ public class TableOpsResources extends BaseResources {
       summary =
           "Rewrite sstables (for the requested tables) that are not on the current version (thus upgrading them to said current version)",
       operationId = "upgradeSSTables")
-  public Response upgradeSSTables(
+  public void upgradeSSTables(
       @QueryParam(value = "excludeCurrentVersion") boolean excludeCurrentVersion,
-      KeyspaceRequest keyspaceRequest) {
-    return handle(
+      KeyspaceRequest keyspaceRequest,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           List<String> tables = keyspaceRequest.tables;
           if (CollectionUtils.isEmpty(tables)) {
@@ -114,16 +122,16 @@ public class TableOpsResources extends BaseResources {
             keyspaceName = "ALL";
           }
 
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.upgradeSSTables(?, ?, ?, ?, ?)",
-              keyspaceName,
-              !excludeCurrentVersion,
-              keyspaceRequest.jobs,
-              tables,
-              false);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile,
+                  "CALL NodeOps.upgradeSSTables(?, ?, ?, ?, ?)",
+                  keyspaceName,
+                  !excludeCurrentVersion,
+                  keyspaceRequest.jobs,
+                  tables,
+                  false)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -153,43 +161,52 @@ public class TableOpsResources extends BaseResources {
       summary =
           "Force a (major) compaction on one or more tables or user-defined compaction on given SSTables",
       operationId = "compact")
-  public Response compact(CompactRequest compactRequest) {
-    return handle(
+  public void compact(CompactRequest compactRequest, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           // Retaining logic from org.apache.cassandra.tools.nodetool.Compact
           boolean tokenProvided =
               !(StringUtils.isBlank(compactRequest.startToken)
                   && StringUtils.isBlank(compactRequest.endToken));
           if (compactRequest.splitOutput && (compactRequest.userDefined || tokenProvided)) {
-            return Response.status(HttpStatus.SC_BAD_REQUEST)
-                .entity("Invalid option combination: Can not use split-output here")
-                .build();
+            return CompletableFuture.completedFuture(
+                Response.status(HttpStatus.SC_BAD_REQUEST)
+                    .entity("Invalid option combination: Can not use split-output here")
+                    .build());
           }
           if (compactRequest.userDefined && tokenProvided) {
-            return Response.status(HttpStatus.SC_BAD_REQUEST)
-                .entity(
-                    "Invalid option combination: Can not provide tokens when using user-defined")
-                .build();
+            return CompletableFuture.completedFuture(
+                Response.status(HttpStatus.SC_BAD_REQUEST)
+                    .entity(
+                        "Invalid option combination: Can not provide tokens when using user-defined")
+                    .build());
           }
 
           if (compactRequest.userDefined) {
-            try {
-              if (CollectionUtils.isEmpty(compactRequest.userDefinedFiles)) {
-                return Response.status(HttpStatus.SC_BAD_REQUEST)
-                    .entity("Must provide a file if setting userDefined to true")
-                    .build();
-              }
-
-              String userDefinedFiles = String.join(",", compactRequest.userDefinedFiles);
-              app.cqlService.executePreparedStatement(
-                  app.dbUnixSocketFile,
-                  "CALL NodeOps.forceUserDefinedCompaction(?, ?)",
-                  userDefinedFiles,
-                  false);
-            } catch (Exception e) {
-              throw new RuntimeException("Error occurred during user defined compaction", e);
+            if (CollectionUtils.isEmpty(compactRequest.userDefinedFiles)) {
+              return CompletableFuture.completedFuture(
+                  Response.status(HttpStatus.SC_BAD_REQUEST)
+                      .entity("Must provide a file if setting userDefined to true")
+                      .build());
             }
-            return Response.ok("OK").build();
+
+            String userDefinedFiles = String.join(",", compactRequest.userDefinedFiles);
+            return app.cqlService
+                .executePreparedStatementAsync(
+                    app.dbUnixSocketFile,
+                    "CALL NodeOps.forceUserDefinedCompaction(?, ?)",
+                    userDefinedFiles,
+                    false)
+                .handle(
+                    (result, error) -> {
+                      if (error != null) {
+                        throw new RuntimeException(
+                            "Error occurred during user defined compaction",
+                            CqlService.unwrap(error));
+                      }
+                      return Response.ok("OK").build();
+                    });
           }
 
           List<String> tables = compactRequest.tables;
@@ -202,26 +219,29 @@ public class TableOpsResources extends BaseResources {
             keyspaceName = "ALL";
           }
 
+          CompletionStage<ResultSet> result;
           if (tokenProvided) {
-            app.cqlService.executePreparedStatement(
-                app.dbUnixSocketFile,
-                "CALL NodeOps.forceKeyspaceCompactionForTokenRange(?, ?, ?, ?, ?)",
-                keyspaceName,
-                compactRequest.startToken,
-                compactRequest.endToken,
-                tables,
-                false);
+            result =
+                app.cqlService.executePreparedStatementAsync(
+                    app.dbUnixSocketFile,
+                    "CALL NodeOps.forceKeyspaceCompactionForTokenRange(?, ?, ?, ?, ?)",
+                    keyspaceName,
+                    compactRequest.startToken,
+                    compactRequest.endToken,
+                    tables,
+                    false);
           } else {
-            app.cqlService.executePreparedStatement(
-                app.dbUnixSocketFile,
-                "CALL NodeOps.forceKeyspaceCompaction(?, ?, ?, ?)",
-                compactRequest.splitOutput,
-                keyspaceName,
-                tables,
-                false);
+            result =
+                app.cqlService.executePreparedStatementAsync(
+                    app.dbUnixSocketFile,
+                    "CALL NodeOps.forceKeyspaceCompaction(?, ?, ?, ?)",
+                    compactRequest.splitOutput,
+                    keyspaceName,
+                    tables,
+                    false);
           }
 
-          return Response.ok("OK").build();
+          return result.thenApply(r -> Response.ok("OK").build());
         });
   }
 
@@ -248,10 +268,12 @@ public class TableOpsResources extends BaseResources {
   @Operation(
       summary = "Remove deleted data from one or more tables",
       operationId = "garbageCollect")
-  public Response garbageCollect(
+  public void garbageCollect(
       @QueryParam(value = "tombstoneOption") String tombstoneOptionStr,
-      KeyspaceRequest keyspaceRequest) {
-    return handle(
+      KeyspaceRequest keyspaceRequest,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           List<String> tables = keyspaceRequest.tables;
           if (CollectionUtils.isEmpty(tables)) {
@@ -269,21 +291,22 @@ public class TableOpsResources extends BaseResources {
 
           if (!StringUtils.equalsIgnoreCase("ROW", tombstoneOption)
               && !StringUtils.equalsIgnoreCase("CELL", tombstoneOption)) {
-            return Response.status(HttpStatus.SC_BAD_REQUEST)
-                .entity("tombstoneOption must be either ROW or CELL")
-                .build();
+            return CompletableFuture.completedFuture(
+                Response.status(HttpStatus.SC_BAD_REQUEST)
+                    .entity("tombstoneOption must be either ROW or CELL")
+                    .build());
           }
 
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.garbageCollect(?, ?, ?, ?, ?)",
-              tombstoneOption,
-              keyspaceRequest.jobs,
-              keyspaceName,
-              tables,
-              false);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile,
+                  "CALL NodeOps.garbageCollect(?, ?, ?, ?, ?)",
+                  tombstoneOption,
+                  keyspaceRequest.jobs,
+                  keyspaceName,
+                  tables,
+                  false)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -300,8 +323,9 @@ public class TableOpsResources extends BaseResources {
               schema = @Schema(implementation = String.class),
               examples = @ExampleObject(value = "OK")))
   @Operation(summary = "Flush one or more tables", operationId = "flush")
-  public Response flush(KeyspaceRequest keyspaceRequest) {
-    return handle(
+  public void flush(KeyspaceRequest keyspaceRequest, @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           List<String> tables = keyspaceRequest.tables;
           if (CollectionUtils.isEmpty(tables)) {
@@ -313,14 +337,14 @@ public class TableOpsResources extends BaseResources {
             keyspaceName = "ALL";
           }
 
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.forceKeyspaceFlush(?, ?, ?)",
-              keyspaceName,
-              tables,
-              false);
-
-          return Response.ok("OK").build();
+          return app.cqlService
+              .executePreparedStatementAsync(
+                  app.dbUnixSocketFile,
+                  "CALL NodeOps.forceKeyspaceFlush(?, ?, ?)",
+                  keyspaceName,
+                  tables,
+                  false)
+              .thenApply(result -> Response.ok("OK").build());
         });
   }
 
@@ -346,22 +370,30 @@ public class TableOpsResources extends BaseResources {
                       value = "List tables failed. Non-empty 'keyspaceName' must be provided")))
   @Consumes(MediaType.APPLICATION_JSON)
   @Operation(summary = "List the table names in the given keyspace", operationId = "listTables")
-  public Response list(
-      @Parameter(required = true) @QueryParam(value = "keyspaceName") String keyspaceName) {
+  public void list(
+      @Parameter(required = true) @QueryParam(value = "keyspaceName") String keyspaceName,
+      @Suspended AsyncResponse asyncResponse) {
     if (StringUtils.isBlank(keyspaceName)) {
-      return Response.status(HttpStatus.SC_BAD_REQUEST)
-          .entity("List tables failed. Non-empty 'keyspaceName' must be provided")
-          .build();
+      asyncResponse.resume(
+          Response.status(HttpStatus.SC_BAD_REQUEST)
+              .entity("List tables failed. Non-empty 'keyspaceName' must be provided")
+              .build());
+      return;
     }
-    return handle(
-        () -> {
-          ResultSet result =
-              app.cqlService.executePreparedStatement(
-                  app.dbUnixSocketFile, "CALL NodeOps.getTables(?)", keyspaceName);
-          List<String> tables =
-              result.all().stream().map(row -> row.getString("name")).collect(Collectors.toList());
-          return Response.ok(tables, MediaType.APPLICATION_JSON).build();
-        });
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executePreparedStatementAsync(
+                    app.dbUnixSocketFile, "CALL NodeOps.getTables(?)", keyspaceName)
+                .thenApply(
+                    result -> {
+                      List<String> tables =
+                          result.all().stream()
+                              .map(row -> row.getString("name"))
+                              .collect(Collectors.toList());
+                      return Response.ok(tables, MediaType.APPLICATION_JSON).build();
+                    }));
   }
 
   @POST
@@ -385,30 +417,32 @@ public class TableOpsResources extends BaseResources {
               examples = @ExampleObject(value = "Table creation failed: some failure message")))
   @Consumes(MediaType.APPLICATION_JSON)
   @Operation(summary = "Create a new table in an existing keyspace", operationId = "createTable")
-  public Response create(CreateTableRequest request) {
+  public void create(CreateTableRequest request, @Suspended AsyncResponse asyncResponse) {
     try {
       request.validate();
     } catch (RuntimeException e) {
-      return Response.status(HttpStatus.SC_BAD_REQUEST)
-          .entity("Table creation failed: " + e.getMessage())
-          .build();
+      asyncResponse.resume(
+          Response.status(HttpStatus.SC_BAD_REQUEST)
+              .entity("Table creation failed: " + e.getMessage())
+              .build());
+      return;
     }
-    return handle(
-        () -> {
-          app.cqlService.executePreparedStatement(
-              app.dbUnixSocketFile,
-              "CALL NodeOps.createTable(?, ?, ?, ?, ?, ?, ?, ?, ?)",
-              request.keyspaceName,
-              request.tableName,
-              request.columnNamesAndTypes(),
-              request.partitionKeyColumnNames(),
-              request.clusteringColumnNames(),
-              request.clusteringOrders(),
-              request.staticColumnNames(),
-              request.simpleOptions(),
-              request.complexOptions());
-
-          return Response.ok("OK").build();
-        });
+    handleAsync(
+        asyncResponse,
+        () ->
+            app.cqlService
+                .executePreparedStatementAsync(
+                    app.dbUnixSocketFile,
+                    "CALL NodeOps.createTable(?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    request.keyspaceName,
+                    request.tableName,
+                    request.columnNamesAndTypes(),
+                    request.partitionKeyColumnNames(),
+                    request.clusteringColumnNames(),
+                    request.clusteringOrders(),
+                    request.staticColumnNames(),
+                    request.simpleOptions(),
+                    request.complexOptions())
+                .thenApply(result -> Response.ok("OK").build()));
   }
 }
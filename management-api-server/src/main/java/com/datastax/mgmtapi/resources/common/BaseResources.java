@@ -5,14 +5,20 @@
  */
 package com.datastax.mgmtapi.resources.common;
 
+import com.datastax.mgmtapi.CqlService;
 import com.datastax.mgmtapi.ManagementApplication;
 import com.datastax.mgmtapi.resources.helpers.ResponseTools;
+import com.datastax.mgmtapi.tracing.Tracing;
 import com.datastax.oss.driver.api.core.NoNodeAvailableException;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.container.AsyncResponse;
 import jakarta.ws.rs.core.Response;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import org.apache.http.ConnectionClosedException;
 import org.apache.http.HttpStatus;
 
@@ -65,16 +71,68 @@ public abstract class BaseResources {
   protected Response handle(Callable<Response> action) {
     try {
       return action.call();
-    } catch (NoNodeAvailableException | ConnectionClosedException e) {
-      return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR)
-          .entity("Internal connection to Cassandra closed")
-          .build();
     } catch (Throwable t) {
-      t.printStackTrace();
+      return errorResponse(t);
+    }
+  }
+
+  /**
+   * Handles a request without blocking the RESTEasy thread on Cassandra. The action starts the CQL
+   * calls and returns the stage of the response, the request is resumed when it completes. Errors
+   * are mapped to responses like {@link #handle(Callable)}.
+   */
+  protected void handleAsync(AsyncResponse asyncResponse, AsyncAction action) {
+    CompletionStage<Response> response;
+    try {
+      response = action.call();
+    } catch (Throwable t) {
+      asyncResponse.resume(errorResponse(t));
+      return;
+    }
+    response.whenComplete(
+        (result, error) -> asyncResponse.resume(error == null ? result : errorResponse(error)));
+  }
+
+  /**
+   * Adapts a step of an asynchronous request, which may throw like the synchronous handlers, for
+   * {@link CompletionStage#thenApply} and {@link CompletionStage#thenCompose}.
+   */
+  protected static <T, R> Function<T, R> step(Step<T, R> step) {
+    return Tracing.instance.wrap(
+        value -> {
+          try {
+            return step.apply(value);
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  private static Response errorResponse(Throwable error) {
+    Throwable t = CqlService.unwrap(error);
+    if (t instanceof NoNodeAvailableException || t instanceof ConnectionClosedException) {
       return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR)
-          .entity(t.getLocalizedMessage())
+          .entity("Internal connection to Cassandra closed")
           .build();
     }
+    t.printStackTrace();
+    return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR)
+        .entity(t.getLocalizedMessage())
+        .build();
+  }
+
+  /** Starts the asynchronous part of a request. */
+  @FunctionalInterface
+  protected interface AsyncAction {
+    CompletionStage<Response> call() throws Exception;
+  }
+
+  /** A step of an asynchronous request. */
+  @FunctionalInterface
+  protected interface Step<T, R> {
+    R apply(T value) throws Exception;
   }
 
   /**
@@ -9,6 +9,9 @@ import com.datastax.mgmtapi.CqlService;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 import org.apache.http.ConnectionClosedException;
 
 public class ResponseTools {
@@ -37,9 +40,67 @@ public class ResponseTools {
     return queryResponse;
   }
 
+  /**
+   * The first column of all the rows of a multi-row result. The driver fetches the next pages while
+   * the rows are iterated.
+   */
+  public static List<Object> getRowsResponse(
+      final File dbUnixSocketFile, CqlService cqlService, String query, Object... params)
+      throws ConnectionClosedException {
+    List<Object> queryResponse = new ArrayList<>();
+    for (Row row : execute(dbUnixSocketFile, cqlService, query, params)) {
+      queryResponse.add(row.getObject(0));
+    }
+
+    return queryResponse;
+  }
+
+  /** Asynchronous {@link #getSingleRowStringResponse}. */
+  public static CompletionStage<String> getSingleRowStringResponseAsync(
+      final File dbUnixSocketFile, CqlService cqlService, String query, Object... params) {
+    return executeAsync(dbUnixSocketFile, cqlService, query, params)
+        .thenApply(
+            rs -> {
+              Row row = rs.one();
+              return row == null ? null : row.getString(0);
+            });
+  }
+
+  /** Asynchronous {@link #getSingleRowResponse}. */
+  public static CompletionStage<Object> getSingleRowResponseAsync(
+      final File dbUnixSocketFile, CqlService cqlService, String query, Object... params) {
+    return executeAsync(dbUnixSocketFile, cqlService, query, params)
+        .thenApply(
+            rs -> {
+              Row row = rs.one();
+              return row == null ? null : row.getObject(0);
+            });
+  }
+
+  /** Asynchronous {@link #getRowsResponse}, all the pages are fetched before it completes. */
+  public static CompletionStage<List<Object>> getRowsResponseAsync(
+      final File dbUnixSocketFile, CqlService cqlService, String query, Object... params) {
+    return executeAsync(dbUnixSocketFile, cqlService, query, params)
+        .thenApply(
+            rs -> {
+              List<Object> queryResponse = new ArrayList<>();
+              for (Row row : rs) {
+                queryResponse.add(row.getObject(0));
+              }
+              return queryResponse;
+            });
+  }
+
   private static Row getRow(
       File dbUnixSocketFile, CqlService cqlService, String query, Object[] params)
       throws ConnectionClosedException {
+    Row row = execute(dbUnixSocketFile, cqlService, query, params).one();
+    return row;
+  }
+
+  private static ResultSet execute(
+      File dbUnixSocketFile, CqlService cqlService, String query, Object[] params)
+      throws ConnectionClosedException {
     ResultSet rs;
 
     if (params.length > 0) {
@@ -48,7 +109,14 @@ public class ResponseTools {
       rs = cqlService.executeCql(dbUnixSocketFile, query);
     }
 
-    Row row = rs.one();
-    return row;
+    return rs;
+  }
+
+  private static CompletionStage<ResultSet> executeAsync(
+      File dbUnixSocketFile, CqlService cqlService, String query, Object[] params) {
+    if (params.length > 0) {
+      return cqlService.executePreparedStatementAsync(dbUnixSocketFile, query, params);
+    }
+    return cqlService.executeCqlAsync(dbUnixSocketFile, query);
   }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2;
+
+import com.datastax.mgmtapi.ManagementApplication;
+import com.datastax.mgmtapi.resources.common.BaseResources;
+import com.datastax.mgmtapi.resources.v2.models.BatchCall;
+import com.datastax.mgmtapi.resources.v2.models.BatchCallResult;
+import com.datastax.mgmtapi.resources.v2.models.BatchRequest;
+import com.datastax.mgmtapi.resources.v2.models.BatchResponse;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs several read-only node operations in a single round trip to Cassandra, for the clients that
+ * need a consistent view of the node without paying a request per operation.
+ */
+@Path("/api/v2/batch")
+public class BatchResourcesV2 extends BaseResources {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /** The read-only NodeOps methods that can be batched. */
+  @VisibleForTesting
+  static final Set<String> BATCHABLE_METHODS =
+      ImmutableSet.of(
+          "getClientConnections",
+          "getCompactions",
+          "getEndpointStates",
+          "getJobStatus",
+          "getKeyspaces",
+          "getLocalDataCenter",
+          "getRangeToEndpointMap",
+          "getReleaseVersion",
+          "getReplication",
+          "getStreamInfo",
+          "getTables",
+          "isFullQueryLogEnabled",
+          "listRoles");
+
+  public BatchResourcesV2(ManagementApplication application) {
+    super(application);
+  }
+
+  @POST
+  @Operation(
+      summary = "Run several read-only node operations in a single request",
+      operationId = "postBatchV2")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes("application/json")
+  @ApiResponse(
+      responseCode = "200",
+      description = "The result of each call, in the request order",
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON,
+              schema = @Schema(implementation = BatchResponse.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid batch request",
+      content =
+          @Content(
+              mediaType = MediaType.TEXT_PLAIN,
+              schema = @Schema(implementation = String.class),
+              examples = @ExampleObject(value = "method decommission can't be batched")))
+  public Response batch(BatchRequest request) {
+    return handle(
+        () -> {
+          if (request == null || request.calls == null || request.calls.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("calls must be specified")
+                .build();
+          }
+
+          List<String> calls = new ArrayList<>(request.calls.size());
+          for (BatchCall call : request.calls) {
+            if (call.method == null || !BATCHABLE_METHODS.contains(call.method)) {
+              return Response.status(Response.Status.BAD_REQUEST)
+                  .entity(String.format("method %s can't be batched", call.method))
+                  .build();
+            }
+            if (call.args != null && !call.args.stream().allMatch(BatchResourcesV2::isLiteral)) {
+              return Response.status(Response.Status.BAD_REQUEST)
+                  .entity(String.format("invalid arguments for method %s", call.method))
+                  .build();
+            }
+            calls.add(toCall(call));
+          }
+
+          ResultSet rows =
+              app.cqlService.executePreparedStatement(
+                  app.dbUnixSocketFile, "CALL NodeOps.batch(?)", calls);
+          return Response.ok(convert(request.calls, rows)).build();
+        });
+  }
+
+  /** The arguments are sent as CQL literals, they can't contain the call delimiters. */
+  private static boolean isLiteral(String arg) {
+    return arg != null
+        && !arg.trim().isEmpty()
+        && !arg.trim().equals("?")
+        && arg.chars().noneMatch(c -> c == ',' || c == '(' || c == ')');
+  }
+
+  @VisibleForTesting
+  static String toCall(BatchCall call) {
+    return call.method + "(" + (call.args == null ? "" : String.join(", ", call.args)) + ")";
+  }
+
+  private static BatchResponse convert(List<BatchCall> calls, ResultSet rows) throws IOException {
+    List<BatchCallResult> results = new ArrayList<>(calls.size());
+    int i = 0;
+    for (Row row : rows) {
+      String result = row.getString("result");
+      results.add(
+          new BatchCallResult(
+              calls.get(i++).method,
+              row.getString("status"),
+              result == null ? null : objectMapper.readTree(result),
+              row.getString("error")));
+    }
+    return new BatchResponse(results);
+  }
+}
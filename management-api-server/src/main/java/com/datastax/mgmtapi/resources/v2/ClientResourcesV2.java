@@ -0,0 +1,73 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2;
+
+import com.datastax.mgmtapi.ManagementApplication;
+import com.datastax.mgmtapi.resources.common.BaseResources;
+import com.datastax.mgmtapi.resources.helpers.ResponseTools;
+import com.datastax.mgmtapi.resources.v2.models.ClientConnection;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Path("/api/v2/clients")
+public class ClientResourcesV2 extends BaseResources {
+
+  public ClientResourcesV2(ManagementApplication application) {
+    super(application);
+  }
+
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(
+      summary = "List the native transport client connections of the node",
+      operationId = "getClientConnectionsV2")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Client connections retrieval was successful",
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON,
+              array = @ArraySchema(schema = @Schema(implementation = ClientConnection.class))))
+  public Response getClientConnections() {
+    return handle(
+        () -> {
+          List<Map<String, String>> clients =
+              (List<Map<String, String>>)
+                  ResponseTools.getSingleRowResponse(
+                      app.dbUnixSocketFile, app.cqlService, "CALL NodeOps.getClientConnections()");
+          return Response.ok(convert(clients)).build();
+        });
+  }
+
+  static List<ClientConnection> convert(List<Map<String, String>> clients) {
+    List<ClientConnection> connections = new ArrayList<>(clients.size());
+    for (Map<String, String> client : clients) {
+      connections.add(
+          new ClientConnection(
+              client.get("address"),
+              client.get("user"),
+              client.get("driverName"),
+              client.get("driverVersion"),
+              client.get("version") == null ? null : Integer.valueOf(client.get("version")),
+              client.get("keyspace"),
+              client.get("ssl") == null ? null : Boolean.valueOf(client.get("ssl")),
+              client.get("requests") == null ? null : Long.valueOf(client.get("requests")),
+              client.get("inFlight") == null ? null : Long.valueOf(client.get("inFlight"))));
+    }
+    return connections;
+  }
+}
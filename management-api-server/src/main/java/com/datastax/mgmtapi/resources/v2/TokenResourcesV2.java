@@ -7,9 +7,10 @@ package com.datastax.mgmtapi.resources.v2;
 
 import com.datastax.mgmtapi.ManagementApplication;
 import com.datastax.mgmtapi.resources.common.BaseResources;
-import com.datastax.mgmtapi.resources.helpers.ResponseTools;
 import com.datastax.mgmtapi.resources.v2.models.TokenRangeToEndpointResponse;
 import com.datastax.mgmtapi.resources.v2.models.TokenRangeToEndpoints;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -24,7 +25,6 @@ import jakarta.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 @Path("/api/v2/tokens")
 public class TokenResourcesV2 extends BaseResources {
@@ -61,25 +61,22 @@ public class TokenResourcesV2 extends BaseResources {
             return Response.status(Response.Status.NOT_FOUND).entity("keyspace not found").build();
           }
 
-          Map<List<String>, List<String>> map =
-              (Map<List<String>, List<String>>)
-                  ResponseTools.getSingleRowResponse(
-                      app.dbUnixSocketFile,
-                      app.cqlService,
-                      "CALL NodeOps.getRangeToEndpointMap(?)",
-                      keyspaceName);
-          return Response.ok(convert(map)).build();
+          ResultSet rows =
+              app.cqlService.executePreparedStatement(
+                  app.dbUnixSocketFile, "CALL NodeOps.getRangeToEndpointMapPaged(?)", keyspaceName);
+          return Response.ok(convert(rows)).build();
         });
   }
 
-  private TokenRangeToEndpointResponse convert(Map<List<String>, List<String>> map) {
-    List<TokenRangeToEndpoints> rangesToEndpoints = new ArrayList<>(map.size());
-    map.entrySet()
-        .forEach(
-            (Map.Entry<List<String>, List<String>> e) -> {
-              rangesToEndpoints.add(
-                  new TokenRangeToEndpoints(convertRanges(e.getKey()), e.getValue()));
-            });
+  private TokenRangeToEndpointResponse convert(ResultSet rows) {
+    // the driver fetches the next pages of ranges while iterating
+    List<TokenRangeToEndpoints> rangesToEndpoints = new ArrayList<>();
+    for (Row row : rows) {
+      rangesToEndpoints.add(
+          new TokenRangeToEndpoints(
+              convertRanges(row.getList("range", String.class)),
+              row.getList("endpoints", String.class)));
+    }
     return new TokenRangeToEndpointResponse(rangesToEndpoints);
   }
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+public class BatchCall {
+
+  @JsonProperty(value = "method", required = true)
+  public final String method;
+
+  @Nullable
+  @JsonProperty(value = "args")
+  public final List<String> args;
+
+  @JsonCreator
+  public BatchCall(
+      @JsonProperty(value = "method", required = true) String method,
+      @JsonProperty(value = "args") List<String> args) {
+    this.method = method;
+    this.args = args;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BatchCall other = (BatchCall) o;
+    return Objects.equals(method, other.method) && Objects.equals(args, other.args);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(method) + Objects.hashCode(args);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCallResult {
+
+  public static final String OK = "OK";
+  public static final String FAILED = "FAILED";
+
+  @JsonProperty(value = "method", required = true)
+  public final String method;
+
+  @JsonProperty(value = "status", required = true)
+  public final String status;
+
+  @Nullable
+  @JsonProperty(value = "result")
+  public final JsonNode result;
+
+  @Nullable
+  @JsonProperty(value = "error")
+  public final String error;
+
+  @JsonCreator
+  public BatchCallResult(
+      @JsonProperty(value = "method", required = true) String method,
+      @JsonProperty(value = "status", required = true) String status,
+      @JsonProperty(value = "result") JsonNode result,
+      @JsonProperty(value = "error") String error) {
+    this.method = method;
+    this.status = status;
+    this.result = result;
+    this.error = error;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BatchCallResult other = (BatchCallResult) o;
+    return Objects.equals(method, other.method)
+        && Objects.equals(status, other.status)
+        && Objects.equals(result, other.result)
+        && Objects.equals(error, other.error);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(method)
+        + Objects.hashCode(status)
+        + Objects.hashCode(result)
+        + Objects.hashCode(error);
+  }
+}
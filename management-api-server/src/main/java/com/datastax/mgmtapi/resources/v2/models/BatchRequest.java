@@ -0,0 +1,39 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Objects;
+
+public class BatchRequest {
+
+  @JsonProperty(value = "calls", required = true)
+  public final List<BatchCall> calls;
+
+  @JsonCreator
+  public BatchRequest(@JsonProperty(value = "calls", required = true) List<BatchCall> calls) {
+    this.calls = calls;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BatchRequest other = (BatchRequest) o;
+    return Objects.equals(calls, other.calls);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(calls);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Objects;
+
+public class BatchResponse {
+
+  @JsonProperty(value = "results", required = true)
+  public final List<BatchCallResult> results;
+
+  @JsonCreator
+  public BatchResponse(
+      @JsonProperty(value = "results", required = true) List<BatchCallResult> results) {
+    this.results = results;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BatchResponse other = (BatchResponse) o;
+    return Objects.equals(results, other.results);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(results);
+  }
+}
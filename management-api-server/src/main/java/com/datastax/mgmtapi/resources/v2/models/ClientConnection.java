@@ -0,0 +1,110 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Objects;
+
+public class ClientConnection {
+
+  @JsonProperty(value = "address", required = true)
+  public final String address;
+
+  @JsonProperty(value = "user")
+  public final String user;
+
+  @JsonProperty(value = "driver_name")
+  public final String driverName;
+
+  @JsonProperty(value = "driver_version")
+  public final String driverVersion;
+
+  @JsonProperty(value = "protocol_version")
+  public final Integer protocolVersion;
+
+  @JsonProperty(value = "keyspace")
+  public final String keyspace;
+
+  @JsonProperty(value = "ssl")
+  public final Boolean ssl;
+
+  @JsonProperty(value = "requests")
+  public final Long requests;
+
+  @JsonProperty(value = "in_flight")
+  public final Long inFlight;
+
+  @JsonCreator
+  public ClientConnection(
+      @JsonProperty(value = "address", required = true) String address,
+      @JsonProperty(value = "user") String user,
+      @JsonProperty(value = "driver_name") String driverName,
+      @JsonProperty(value = "driver_version") String driverVersion,
+      @JsonProperty(value = "protocol_version") Integer protocolVersion,
+      @JsonProperty(value = "keyspace") String keyspace,
+      @JsonProperty(value = "ssl") Boolean ssl,
+      @JsonProperty(value = "requests") Long requests,
+      @JsonProperty(value = "in_flight") Long inFlight) {
+    this.address = address;
+    this.user = user;
+    this.driverName = driverName;
+    this.driverVersion = driverVersion;
+    this.protocolVersion = protocolVersion;
+    this.keyspace = keyspace;
+    this.ssl = ssl;
+    this.requests = requests;
+    this.inFlight = inFlight;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    ClientConnection other = (ClientConnection) obj;
+    return Objects.equals(this.address, other.address)
+        && Objects.equals(this.user, other.user)
+        && Objects.equals(this.driverName, other.driverName)
+        && Objects.equals(this.driverVersion, other.driverVersion)
+        && Objects.equals(this.protocolVersion, other.protocolVersion)
+        && Objects.equals(this.keyspace, other.keyspace)
+        && Objects.equals(this.ssl, other.ssl)
+        && Objects.equals(this.requests, other.requests)
+        && Objects.equals(this.inFlight, other.inFlight);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        address,
+        user,
+        driverName,
+        driverVersion,
+        protocolVersion,
+        keyspace,
+        ssl,
+        requests,
+        inFlight);
+  }
+
+  @Override
+  public String toString() {
+    try {
+      return new ObjectMapper().writeValueAsString(this);
+    } catch (JsonProcessingException e) {
+      return String.format("Unable to format ClientConnection (%s)", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Appends the spans to a file, one JSON object per line, to check traces without a collector. */
+public class FileSpanExporter implements SpanExporter {
+  private static final Logger logger = LoggerFactory.getLogger(FileSpanExporter.class);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Writer writer;
+
+  public FileSpanExporter(Path path) throws IOException {
+    this.writer =
+        Files.newBufferedWriter(
+            path,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND,
+            StandardOpenOption.WRITE);
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+    try {
+      for (SpanData span : spans) {
+        writer.write(objectMapper.writeValueAsString(toMap(span)));
+        writer.write('\n');
+      }
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      logger.warn("Unable to write {} spans", spans.size(), e);
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  static Map<String, Object> toMap(SpanData span) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("traceId", span.getTraceId());
+    map.put("spanId", span.getSpanId());
+    if (span.getParentSpanContext().isValid()) {
+      map.put("parentSpanId", span.getParentSpanId());
+    }
+    map.put("name", span.getName());
+    map.put("kind", span.getKind().name());
+    map.put("startTimeUnixNano", span.getStartEpochNanos());
+    map.put("endTimeUnixNano", span.getEndEpochNanos());
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+    map.put("attributes", attributes);
+    map.put("status", span.getStatus().getStatusCode().name());
+    return map;
+  }
+
+  @Override
+  public synchronized CompletableResultCode flush() {
+    try {
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode shutdown() {
+    try {
+      writer.close();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+}
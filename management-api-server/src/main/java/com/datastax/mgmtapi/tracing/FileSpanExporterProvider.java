@@ -0,0 +1,33 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.tracing;
+
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigurationException;
+import io.opentelemetry.sdk.autoconfigure.spi.traces.ConfigurableSpanExporterProvider;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/** The {@code file} span exporter, writing to {@code otel.exporter.file.path}. */
+public class FileSpanExporterProvider implements ConfigurableSpanExporterProvider {
+  static final String PATH_PROPERTY = "otel.exporter.file.path";
+
+  @Override
+  public SpanExporter createExporter(ConfigProperties config) {
+    String path = config.getString(PATH_PROPERTY, "management-api-spans.jsonl");
+    try {
+      return new FileSpanExporter(Paths.get(path));
+    } catch (IOException e) {
+      throw new ConfigurationException("Unable to open the span file " + path, e);
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "file";
+  }
+}
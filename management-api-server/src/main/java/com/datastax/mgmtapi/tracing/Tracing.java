@@ -0,0 +1,235 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.tracing;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jboss.resteasy.core.ResteasyContext;
+import org.jboss.resteasy.spi.HttpRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optional OpenTelemetry tracing of the REST requests and of the management calls they send to the
+ * agent.
+ *
+ * <p>Tracing is configured with the standard OpenTelemetry SDK properties, from system properties
+ * or environment variables. It is enabled by choosing a span exporter: {@code
+ * otel.traces.exporter=otlp}, or {@code file} to write the spans as JSON lines to {@code
+ * otel.exporter.file.path}. The sampling is set with {@code otel.traces.sampler}. When no exporter
+ * is chosen, nothing is instrumented: the REST filter isn't registered and the CQL statements are
+ * executed untouched.
+ *
+ * <p>The trace context is sent to the agent in the W3C {@code traceparent} custom payload entry.
+ * For sampled calls the agent answers with the times at which the call was dispatched, started and
+ * completed, recorded here as child spans of the CQL call: the Cassandra JVM doesn't need an
+ * exporter.
+ */
+public class Tracing {
+  private static final Logger logger = LoggerFactory.getLogger(Tracing.class);
+
+  public static final Tracing instance = create();
+
+  /** The request property holding the context of the REST request span. */
+  static final String CONTEXT_PROPERTY = TracingFilter.class.getName() + ".context";
+
+  static final String TRACE_PARENT_KEY = "traceparent";
+  static final String AGENT_TIMINGS_KEY = "mgmtapi.trace";
+  private static final Pattern CALL_PATTERN = Pattern.compile("^CALL (\\w+\\.\\w+)\\(");
+
+  private final boolean enabled;
+  private final Tracer tracer;
+
+  Tracing(OpenTelemetry openTelemetry, boolean enabled) {
+    this.enabled = enabled;
+    this.tracer = openTelemetry.getTracer("io.k8ssandra.mgmtapi");
+  }
+
+  private static Tracing create() {
+    String exporter = property("otel.traces.exporter");
+    if (exporter == null || exporter.trim().isEmpty() || exporter.trim().equals("none")) {
+      return new Tracing(OpenTelemetry.noop(), false);
+    }
+    try {
+      Map<String, String> defaults = new HashMap<>();
+      defaults.put("otel.service.name", "management-api");
+      // Only the traces are exported, the metrics are scraped from the agent
+      defaults.put("otel.metrics.exporter", "none");
+      defaults.put("otel.logs.exporter", "none");
+      OpenTelemetry openTelemetry =
+          AutoConfiguredOpenTelemetrySdk.builder()
+              .addPropertiesSupplier(() -> defaults)
+              .build()
+              .getOpenTelemetrySdk();
+      logger.info("Tracing enabled, exporting spans with {}", exporter);
+      return new Tracing(openTelemetry, true);
+    } catch (RuntimeException e) {
+      logger.warn("Unable to configure tracing, spans won't be exported", e);
+      return new Tracing(OpenTelemetry.noop(), false);
+    }
+  }
+
+  private static String property(String name) {
+    String value = System.getProperty(name);
+    return value != null ? value : System.getenv(name.toUpperCase().replace('.', '_'));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Tracer getTracer() {
+    return tracer;
+  }
+
+  /**
+   * Execute a CQL statement in a client span. The trace context is added to the custom payload of
+   * the statement, and the timings sent back by the agent are recorded as child spans.
+   *
+   * @param query the query of the statement, names the span
+   * @param execute executes the statement with the trace context
+   */
+  public ResultSet traceCql(
+      String query, Statement<?> statement, Function<Statement<?>, ResultSet> execute) {
+    if (!enabled) {
+      return execute.apply(statement);
+    }
+    Span span = startCqlSpan(query);
+    try (Scope ignored = span.makeCurrent()) {
+      ResultSet result = execute.apply(inject(statement));
+      recordAgentSpans(span, result.getExecutionInfo().getIncomingPayload());
+      return result;
+    } catch (RuntimeException e) {
+      span.recordException(e);
+      span.setStatus(StatusCode.ERROR);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * Execute a CQL statement asynchronously in a client span, like {@link #traceCql}. The span ends
+   * when the statement completes.
+   */
+  public CompletionStage<AsyncResultSet> traceCqlAsync(
+      String query,
+      Statement<?> statement,
+      Function<Statement<?>, CompletionStage<AsyncResultSet>> execute) {
+    if (!enabled) {
+      return execute.apply(statement);
+    }
+    Span span = startCqlSpan(query);
+    CompletionStage<AsyncResultSet> result;
+    try (Scope ignored = span.makeCurrent()) {
+      result = execute.apply(inject(statement));
+    } catch (RuntimeException e) {
+      span.recordException(e);
+      span.setStatus(StatusCode.ERROR);
+      span.end();
+      throw e;
+    }
+    return result.whenComplete(
+        (resultSet, error) -> {
+          if (error != null) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+          } else {
+            recordAgentSpans(span, resultSet.getExecutionInfo().getIncomingPayload());
+          }
+          span.end();
+        });
+  }
+
+  /**
+   * Run a later step of an asynchronous request in the trace of the request. The step usually runs
+   * on a driver thread, where neither the request nor its span are current.
+   */
+  public <T, R> Function<T, R> wrap(Function<T, R> step) {
+    return enabled ? parentContext().wrapFunction(step) : step;
+  }
+
+  private Span startCqlSpan(String query) {
+    Matcher call = CALL_PATTERN.matcher(query);
+    return tracer
+        .spanBuilder(call.find() ? call.group(1) : "CQL")
+        .setParent(parentContext())
+        .setSpanKind(SpanKind.CLIENT)
+        .setAttribute("db.system", "cassandra")
+        .setAttribute("db.statement", query)
+        .startSpan();
+  }
+
+  /** The current context if it has a span, the one of the current REST request otherwise. */
+  private static Context parentContext() {
+    Context current = Context.current();
+    if (Span.fromContextOrNull(current) != null) {
+      return current;
+    }
+    HttpRequest request = ResteasyContext.getContextData(HttpRequest.class);
+    Object context = request == null ? null : request.getAttribute(CONTEXT_PROPERTY);
+    return context instanceof Context ? (Context) context : current;
+  }
+
+  private static Statement<?> inject(Statement<?> statement) {
+    Map<String, ByteBuffer> payload = new HashMap<>(statement.getCustomPayload());
+    W3CTraceContextPropagator.getInstance()
+        .inject(
+            Context.current(),
+            payload,
+            (carrier, key, value) ->
+                carrier.put(key, ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII))));
+    return statement.setCustomPayload(payload);
+  }
+
+  /**
+   * Record the agent side of a call: the time it waited on its lane, then its execution. The agent
+   * and the server share the host clock.
+   */
+  private void recordAgentSpans(Span parent, Map<String, ByteBuffer> payload) {
+    ByteBuffer timings = payload == null ? null : payload.get(AGENT_TIMINGS_KEY);
+    if (timings == null || timings.remaining() != 3 * Long.BYTES) {
+      return;
+    }
+    int position = timings.position();
+    long dispatched = timings.getLong(position);
+    long started = timings.getLong(position + Long.BYTES);
+    long ended = timings.getLong(position + 2 * Long.BYTES);
+
+    Context context = Context.current().with(parent);
+    tracer
+        .spanBuilder("agent queue")
+        .setParent(context)
+        .setStartTimestamp(dispatched, TimeUnit.MICROSECONDS)
+        .startSpan()
+        .end(started, TimeUnit.MICROSECONDS);
+    tracer
+        .spanBuilder("agent execution")
+        .setParent(context)
+        .setStartTimestamp(started, TimeUnit.MICROSECONDS)
+        .startSpan()
+        .end(ended, TimeUnit.MICROSECONDS);
+  }
+}
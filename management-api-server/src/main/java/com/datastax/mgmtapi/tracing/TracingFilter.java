@@ -0,0 +1,79 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Traces the REST requests in server spans, continuing the trace of the caller when it sends a W3C
+ * {@code traceparent} header. The CQL calls of the resources are recorded as child spans.
+ *
+ * <p>The span isn't made current: asynchronous resources complete on another thread than the one
+ * of the filter. {@link Tracing} finds it in the properties of the current request instead.
+ */
+@Provider
+public class TracingFilter implements ContainerRequestFilter, ContainerResponseFilter {
+  private static final String SPAN_PROPERTY = TracingFilter.class.getName() + ".span";
+
+  private static final TextMapGetter<ContainerRequestContext> HEADERS =
+      new TextMapGetter<ContainerRequestContext>() {
+        @Override
+        public Iterable<String> keys(ContainerRequestContext request) {
+          return request.getHeaders().keySet();
+        }
+
+        @Override
+        public String get(ContainerRequestContext request, String key) {
+          return request == null ? null : request.getHeaderString(key);
+        }
+      };
+
+  private final Tracing tracing;
+
+  public TracingFilter(Tracing tracing) {
+    this.tracing = tracing;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext request) {
+    Context parent =
+        W3CTraceContextPropagator.getInstance().extract(Context.root(), request, HEADERS);
+    String path = "/" + request.getUriInfo().getPath(false);
+    Span span =
+        tracing
+            .getTracer()
+            .spanBuilder(request.getMethod() + " " + path)
+            .setParent(parent)
+            .setSpanKind(SpanKind.SERVER)
+            .setAttribute("http.request.method", request.getMethod())
+            .setAttribute("url.path", path)
+            .startSpan();
+    request.setProperty(SPAN_PROPERTY, span);
+    request.setProperty(Tracing.CONTEXT_PROPERTY, parent.with(span));
+  }
+
+  @Override
+  public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+    Object span = request.getProperty(SPAN_PROPERTY);
+    if (span instanceof Span) {
+      ((Span) span).setAttribute("http.response.status_code", response.getStatus());
+      if (response.getStatus() >= 500) {
+        ((Span) span).setStatus(StatusCode.ERROR);
+      }
+      ((Span) span).end();
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.NoNodeAvailableException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import org.apache.http.ConnectionClosedException;
+import org.junit.Test;
+
+public class CqlServiceTest {
+  private static final String QUERY = "CALL NodeOps.getKeyspaces()";
+
+  @Test
+  public void fetchesAllThePagesAsynchronously() throws Exception {
+    Row first = mock(Row.class);
+    Row second = mock(Row.class);
+    Row third = mock(Row.class);
+    AsyncResultSet lastPage = page(false, third);
+    AsyncResultSet firstPage = page(true, first, second);
+    CompletableFuture<AsyncResultSet> nextPage = new CompletableFuture<>();
+    when(firstPage.fetchNextPage()).thenReturn(nextPage);
+    CqlSession session = mock(CqlSession.class);
+    when(session.executeAsync(any(Statement.class)))
+        .thenReturn(CompletableFuture.completedFuture(firstPage));
+
+    CompletableFuture<ResultSet> result = execute(session);
+
+    // The result only completes once the last page is fetched
+    assertThat(result).isNotDone();
+    nextPage.complete(lastPage);
+    ResultSet resultSet = result.get();
+    assertThat(resultSet).isInstanceOf(CqlService.FetchedResultSet.class);
+    assertThat(resultSet.isFullyFetched()).isTrue();
+    assertThat(resultSet.getAvailableWithoutFetching()).isEqualTo(3);
+    assertThat(resultSet.getExecutionInfos()).hasSize(2);
+    assertThat(resultSet.wasApplied()).isTrue();
+    assertThat(resultSet.all()).containsExactly(first, second, third);
+    verify(lastPage, never()).fetchNextPage();
+  }
+
+  @Test
+  public void failsWhenTheResultHasTooManyRows() throws Exception {
+    AsyncResultSet firstPage = page(true, mock(Row.class), mock(Row.class));
+    CqlSession session = mock(CqlSession.class);
+    when(session.executeAsync(any(Statement.class)))
+        .thenReturn(CompletableFuture.completedFuture(firstPage));
+
+    CompletableFuture<ResultSet> result = execute(session, 2);
+
+    // The next pages are not fetched once the limit is reached
+    assertThat(result).isCompletedExceptionally();
+    assertThat(CqlService.unwrap(error(result)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("The result of " + QUERY + " has more than 2 rows");
+    verify(firstPage, never()).fetchNextPage();
+  }
+
+  @Test
+  public void closesTheSessionWhenNoNodeIsAvailable() throws Exception {
+    CqlSession session = mock(CqlSession.class);
+    CompletableFuture<AsyncResultSet> failure = new CompletableFuture<>();
+    failure.completeExceptionally(new NoNodeAvailableException());
+    when(session.executeAsync(any(Statement.class))).thenReturn(failure);
+
+    CompletableFuture<ResultSet> result = execute(session);
+
+    assertThat(result).isCompletedExceptionally();
+    assertThat(CqlService.unwrap(error(result))).isInstanceOf(NoNodeAvailableException.class);
+    verify(session).close();
+  }
+
+  @Test
+  public void failsWithoutAConnection() throws Exception {
+    CompletableFuture<ResultSet> result =
+        new CqlService()
+            .executeCqlAsync(new File("/tmp/does-not-exist/cassandra.sock"), QUERY)
+            .toCompletableFuture();
+
+    assertThat(result).isCompletedExceptionally();
+    assertThat(CqlService.unwrap(error(result)))
+        .isInstanceOf(ConnectionClosedException.class)
+        .hasMessage("Internal connection to Cassandra closed");
+  }
+
+  private static CompletableFuture<ResultSet> execute(CqlSession session) {
+    CompletionStage<Statement<?>> statement =
+        CompletableFuture.completedFuture(SimpleStatement.newInstance(QUERY));
+    return CqlService.executeAsync(session, QUERY, statement).toCompletableFuture();
+  }
+
+  private static CompletableFuture<ResultSet> execute(CqlSession session, int maxRows) {
+    CompletionStage<Statement<?>> statement =
+        CompletableFuture.completedFuture(SimpleStatement.newInstance(QUERY));
+    return CqlService.executeAsync(session, QUERY, statement, maxRows).toCompletableFuture();
+  }
+
+  private static AsyncResultSet page(boolean hasMorePages, Row... rows) {
+    List<Row> currentPage = Arrays.asList(rows);
+    AsyncResultSet page = mock(AsyncResultSet.class);
+    when(page.hasMorePages()).thenReturn(hasMorePages);
+    when(page.currentPage()).thenReturn(currentPage);
+    when(page.remaining()).thenReturn(rows.length);
+    when(page.wasApplied()).thenReturn(true);
+    when(page.getExecutionInfo()).thenReturn(mock(ExecutionInfo.class));
+    return page;
+  }
+
+  private static Throwable error(CompletableFuture<?> result) throws InterruptedException {
+    try {
+      result.get();
+      throw new AssertionError("The result didn't fail");
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+  }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.datastax.mgmtapi.helpers.AsyncMocks;
 import com.datastax.mgmtapi.resources.AuthResources;
 import com.datastax.mgmtapi.resources.K8OperatorResources;
 import com.datastax.mgmtapi.resources.KeyspaceOpsResources;
@@ -82,16 +83,14 @@ public class K8OperatorResourcesTest {
     CqlService cqlService;
 
     MockHttpResponse invoke(HttpRequest request) {
-      MockHttpResponse response = new MockHttpResponse();
-      dispatcher.invoke(request, response);
-      return response;
+      return AsyncMocks.invoke(dispatcher, request);
     }
   }
 
   static Context setup() {
     Context context = new Context();
     context.dispatcher = createDispatcher();
-    context.cqlService = mock(CqlService.class);
+    context.cqlService = AsyncMocks.mockCqlService();
 
     ManagementApplication app =
         new ManagementApplication(null, null, null, context.cqlService, null);
@@ -1750,13 +1749,14 @@ public class K8OperatorResourcesTest {
   public void testGetSnapshotDetails() throws Exception {
     Context context = setup();
     ResultSet mockResultSet = mock(ResultSet.class);
-    Row mockRow = mock(Row.class);
+    Row mockRow1 = mock(Row.class);
+    Row mockRow2 = mock(Row.class);
 
     MockHttpRequest request = MockHttpRequest.get(ROOT_PATH + "/ops/node/snapshots");
     when(context.cqlService.executePreparedStatement(any(), anyString(), any(Object[].class)))
         .thenReturn(mockResultSet);
 
-    when(mockResultSet.one()).thenReturn(mockRow);
+    when(mockResultSet.iterator()).thenReturn(Arrays.asList(mockRow1, mockRow2).iterator());
 
     List<Map<String, String>> result = new ArrayList<>();
 
@@ -1782,7 +1782,8 @@ public class K8OperatorResourcesTest {
 
     String resultAsJSON = WriterUtility.asString(result, MediaType.APPLICATION_JSON);
 
-    when(mockRow.getObject(0)).thenReturn(result);
+    when(mockRow1.getObject(0)).thenReturn(result1);
+    when(mockRow2.getObject(0)).thenReturn(result2);
 
     MockHttpResponse response = context.invoke(request);
 
@@ -1791,7 +1792,7 @@ public class K8OperatorResourcesTest {
 
     verify(context.cqlService)
         .executePreparedStatement(
-            any(), eq("CALL NodeOps.getSnapshotDetails(?, ?)"), any(Object[].class));
+            any(), eq("CALL NodeOps.getSnapshotDetailsPaged(?, ?)"), any(Object[].class));
   }
 
   @Test
@@ -12,6 +12,7 @@ import com.datastax.mgmtapi.ipc.NativeTransport;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -26,6 +27,11 @@ import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -38,6 +44,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jboss.resteasy.core.ResteasyDeploymentImpl;
 import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
 import org.jboss.resteasy.spi.ResteasyDeployment;
@@ -188,6 +195,94 @@ public class NettyHttpOverIPCTest {
     }
   }
 
+  @Test
+  public void testHttp2IPC() throws IOException, InterruptedException {
+    if (!shouldRun()) return;
+
+    File socketFile = Files.createTempFile("http2-over-ipc-test-", ".sock").toFile();
+    socketFile.delete();
+    EventLoopGroup loopGroup = eventLoop();
+
+    ResteasyDeployment deployment = new ResteasyDeploymentImpl();
+    NettyJaxrsIPCServer server = new NettyJaxrsIPCServer(loopGroup, socketFile);
+    server.setDeployment(deployment);
+    server.setRootResourcePath("");
+    server.setIdleTimeout(IDLE_TIMEOUT);
+    server.setSecurityDomain(null);
+
+    server.start();
+
+    deployment.getRegistry().addSingletonResource(new Resource());
+
+    int streams = 3;
+    IPCController client = null;
+    CountDownLatch latch = new CountDownLatch(streams);
+    AtomicInteger succeeded = new AtomicInteger();
+    try {
+      // h2c with prior knowledge, the client starts with the HTTP/2 preface
+      client =
+          IPCController.newClient()
+              .withEventLoop(eventLoop())
+              .withSocketFile(socketFile)
+              .withChannelHandler(
+                  new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) throws Exception {
+                      ch.pipeline().addLast(Http2FrameCodecBuilder.forClient().build());
+                      ch.pipeline()
+                          .addLast(new Http2MultiplexHandler(new ChannelInboundHandlerAdapter()));
+                    }
+                  })
+              .build();
+
+      client.start();
+
+      Channel channel = client.channel().orElseThrow(() -> new RuntimeException("NoClient"));
+      // Concurrent requests, each on its own stream of the single connection
+      for (int i = 0; i < streams; i++) {
+        Http2StreamChannel stream =
+            new Http2StreamChannelBootstrap(channel)
+                .handler(
+                    new ChannelInitializer<Channel>() {
+                      @Override
+                      protected void initChannel(Channel ch) throws Exception {
+                        ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false));
+                        ch.pipeline().addLast(new HttpObjectAggregator(4096));
+                        ch.pipeline()
+                            .addLast(
+                                new SimpleChannelInboundHandler<FullHttpResponse>() {
+                                  @Override
+                                  protected void channelRead0(
+                                      ChannelHandlerContext ctx, FullHttpResponse msg) {
+                                    if (HttpResponseStatus.OK.equals(msg.status())) {
+                                      succeeded.incrementAndGet();
+                                    }
+                                    latch.countDown();
+                                  }
+                                });
+                      }
+                    })
+                .open()
+                .syncUninterruptibly()
+                .getNow();
+
+        HttpRequest request =
+            new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/test");
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        stream.writeAndFlush(request);
+      }
+
+      Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(streams, succeeded.get());
+
+      channel.close().await();
+    } finally {
+      server.stop();
+
+      if (client != null) client.stop();
+    }
+  }
+
   private static boolean shouldRun() {
     return NativeTransport.isNativeTransportAvailable();
   }
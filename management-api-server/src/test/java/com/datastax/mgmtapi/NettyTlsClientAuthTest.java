@@ -6,6 +6,7 @@
 package com.datastax.mgmtapi;
 
 import static org.jboss.resteasy.test.TestPortProvider.generateURL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -20,9 +21,12 @@ import com.datastax.mgmtapi.util.SocketUtils;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -37,10 +41,23 @@ import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.ReferenceCountedOpenSslEngine;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import java.io.File;
@@ -49,6 +66,7 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -233,6 +251,54 @@ public class NettyTlsClientAuthTest {
                 .sessionTimeout(0)
                 .build();
 
+    callServer(new NettyJaxrsTLSServer(serverSslCtx), clientSslCtx);
+  }
+
+  @Test
+  public void testOpenSslProvider() throws Throwable {
+    assumeTrue(OpenSsl.isAvailable());
+    File trustCertFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_ca.pem");
+    File serverKeyFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_server.key");
+    File serverCrtFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_server.crt");
+
+    SslContext serverSslCtx =
+        NettyJaxrsTLSServer.createSslContext(
+            serverCrtFile, serverKeyFile, trustCertFile, SslProvider.OPENSSL);
+    assertTrue(serverSslCtx.sessionContext() instanceof OpenSslSessionContext);
+
+    SslContext clientSslCtx =
+        SslContextBuilder.forClient()
+            .sslProvider(SslProvider.OPENSSL)
+            .trustManager(trustCertFile)
+            .keyManager(serverCrtFile, serverKeyFile)
+            .build();
+
+    List<SslHandler> handshakes =
+        callServer(new NettyJaxrsTLSServer(serverSslCtx, 1, 1), clientSslCtx, 2);
+
+    // The second connection resumes the session of the first one with its ticket
+    assertFalse(((ReferenceCountedOpenSslEngine) handshakes.get(0).engine()).isSessionReused());
+    assertTrue(((ReferenceCountedOpenSslEngine) handshakes.get(1).engine()).isSessionReused());
+  }
+
+  @Test
+  public void testAlpnHttp2() throws Throwable {
+    assumeTrue(SslProvider.isAlpnSupported(SslProvider.JDK));
+    File trustCertFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_ca.pem");
+    File serverKeyFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_server.key");
+    File serverCrtFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_server.crt");
+
+    SslContext serverSslCtx =
+        NettyJaxrsTLSServer.createSslContext(
+            serverCrtFile, serverKeyFile, trustCertFile, SslProvider.JDK);
+    SslContext clientSslCtx =
+        SslContextBuilder.forClient()
+            .sslProvider(SslProvider.JDK)
+            .trustManager(trustCertFile)
+            .keyManager(serverCrtFile, serverKeyFile)
+            .applicationProtocolConfig(Http2Handlers.ALPN)
+            .build();
+
     NettyJaxrsServer netty = new NettyJaxrsTLSServer(serverSslCtx);
     ResteasyDeployment deployment = new ResteasyDeploymentImpl();
     netty.setDeployment(deployment);
@@ -242,13 +308,70 @@ public class NettyTlsClientAuthTest {
     netty.start();
     deployment.getRegistry().addSingletonResource(new NettyHttpOverIPCTest.Resource());
     try {
-      clientCall(clientSslCtx);
+      assertEquals(ApplicationProtocolNames.HTTP_2, http2ClientCall(clientSslCtx));
+    } finally {
+      netty.stop();
+    }
+  }
+
+  @Test
+  public void testAlpnHttp1Fallback() throws Throwable {
+    assumeTrue(SslProvider.isAlpnSupported(SslProvider.JDK));
+    File trustCertFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_ca.pem");
+    File serverKeyFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_server.key");
+    File serverCrtFile = IntegrationTestUtils.getFile(getClass(), "mutual_auth_server.crt");
+
+    SslContext serverSslCtx =
+        NettyJaxrsTLSServer.createSslContext(
+            serverCrtFile, serverKeyFile, trustCertFile, SslProvider.JDK);
+    // A client that only speaks HTTP/1.1
+    SslContext clientSslCtx =
+        SslContextBuilder.forClient()
+            .sslProvider(SslProvider.JDK)
+            .trustManager(trustCertFile)
+            .keyManager(serverCrtFile, serverKeyFile)
+            .applicationProtocolConfig(
+                new ApplicationProtocolConfig(
+                    ApplicationProtocolConfig.Protocol.ALPN,
+                    ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                    ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                    ApplicationProtocolNames.HTTP_1_1))
+            .build();
+
+    List<SslHandler> handshakes =
+        callServer(new NettyJaxrsTLSServer(serverSslCtx), clientSslCtx, 1);
+
+    assertEquals(ApplicationProtocolNames.HTTP_1_1, handshakes.get(0).applicationProtocol());
+  }
+
+  private void callServer(NettyJaxrsServer netty, SslContext clientSslCtx) throws Throwable {
+    callServer(netty, clientSslCtx, 1);
+  }
+
+  /** @return the client TLS handler of each call, for the TLS calls */
+  private List<SslHandler> callServer(NettyJaxrsServer netty, SslContext clientSslCtx, int calls)
+      throws Throwable {
+    ResteasyDeployment deployment = new ResteasyDeploymentImpl();
+    netty.setDeployment(deployment);
+    netty.setPort(TestPortProvider.getPort());
+    netty.setRootResourcePath("");
+    netty.setSecurityDomain(null);
+    netty.start();
+    deployment.getRegistry().addSingletonResource(new NettyHttpOverIPCTest.Resource());
+    try {
+      List<SslHandler> handlers = new ArrayList<>();
+      for (int i = 0; i < calls; i++) {
+        handlers.add(clientCall(clientSslCtx));
+      }
+      return handlers;
     } finally {
       netty.stop();
     }
   }
 
-  private void clientCall(SslContext clientSslCtx) throws Throwable {
+  /** @return the client TLS handler, null without TLS */
+  private SslHandler clientCall(SslContext clientSslCtx) throws Throwable {
+    final AtomicReference<SslHandler> sslHandler = new AtomicReference<>(null);
     final CountDownLatch latch = new CountDownLatch(1);
     final AtomicReference<Throwable> serverException = new AtomicReference<>(null);
 
@@ -262,8 +385,13 @@ public class NettyTlsClientAuthTest {
                 @Override
                 protected void initChannel(Channel ch) throws Exception {
 
-                  if (clientSslCtx != null)
-                    ch.pipeline().addFirst(clientSslCtx.newHandler(ch.alloc()));
+                  if (clientSslCtx != null) {
+                    // The peer host and port let the client resume its sessions
+                    URL url = new URL(BASE_URI);
+                    sslHandler.set(
+                        clientSslCtx.newHandler(ch.alloc(), url.getHost(), url.getPort()));
+                    ch.pipeline().addFirst(sslHandler.get());
+                  }
 
                   ch.pipeline().addLast(new HttpClientCodec());
                   ch.pipeline().addLast(new HttpObjectAggregator(4096));
@@ -305,12 +433,84 @@ public class NettyTlsClientAuthTest {
 
       if (serverException.get() != null) throw serverException.get();
 
+      ch.close().sync();
+      return sslHandler.get();
     } finally {
       // Shut down executor threads to exit.
       group.shutdownGracefully();
     }
   }
 
+  /**
+   * Calls the test resource on an h2 stream.
+   *
+   * @return the protocol negotiated with ALPN
+   */
+  private String http2ClientCall(SslContext clientSslCtx) throws Throwable {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicReference<HttpResponseStatus> status = new AtomicReference<>(null);
+
+    EventLoopGroup group = new NioEventLoopGroup();
+    try {
+      URL url = new URL(BASE_URI + "/test");
+      SslHandler sslHandler =
+          clientSslCtx.newHandler(ByteBufAllocator.DEFAULT, url.getHost(), url.getPort());
+      Bootstrap b = new Bootstrap();
+      b.group(group)
+          .channel(NioSocketChannel.class)
+          .handler(
+              new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                  ch.pipeline().addLast(sslHandler);
+                  ch.pipeline().addLast(Http2FrameCodecBuilder.forClient().build());
+                  // The server doesn't open streams, only the request stream below is used
+                  ch.pipeline()
+                      .addLast(new Http2MultiplexHandler(new ChannelInboundHandlerAdapter()));
+                }
+              });
+
+      final Channel ch = b.connect(url.getHost(), url.getPort()).sync().channel();
+      sslHandler.handshakeFuture().sync();
+
+      Http2StreamChannel stream =
+          new Http2StreamChannelBootstrap(ch)
+              .handler(
+                  new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel streamChannel) {
+                      ChannelPipeline pipeline = streamChannel.pipeline();
+                      pipeline.addLast(new Http2StreamFrameToHttpObjectCodec(false));
+                      pipeline.addLast(new HttpObjectAggregator(4096));
+                      pipeline.addLast(
+                          new SimpleChannelInboundHandler<FullHttpResponse>() {
+                            @Override
+                            protected void channelRead0(
+                                ChannelHandlerContext ctx, FullHttpResponse msg) {
+                              status.set(msg.status());
+                              latch.countDown();
+                            }
+                          });
+                    }
+                  })
+              .open()
+              .sync()
+              .getNow();
+
+      HttpRequest request =
+          new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, url.getFile());
+      request.headers().set(HttpHeaderNames.HOST, url.getHost());
+      request.headers().set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(), "https");
+      stream.writeAndFlush(request);
+
+      Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+      assertEquals(HttpResponseStatus.OK, status.get());
+      return sslHandler.applicationProtocol();
+    } finally {
+      group.shutdownGracefully();
+    }
+  }
+
   @Test
   public void testManagementAPIWithTLS() throws IOException {
     assumeTrue(IntegrationTestUtils.shouldRun());
@@ -10,6 +10,7 @@ import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.datastax.mgmtapi.helpers.AsyncMocks;
 import com.datastax.mgmtapi.resources.K8OperatorResources;
 import com.datastax.mgmtapi.resources.KeyspaceOpsResources;
 import com.datastax.mgmtapi.resources.MetadataResources;
@@ -40,9 +41,7 @@ public class NodeOpsResourcesTest {
     CqlService cqlService;
 
     MockHttpResponse invoke(HttpRequest request) {
-      MockHttpResponse response = new MockHttpResponse();
-      dispatcher.invoke(request, response);
-      return response;
+      return AsyncMocks.invoke(dispatcher, request);
     }
   }
 
@@ -53,7 +52,7 @@ public class NodeOpsResourcesTest {
   static NodeOpsResourcesTest.Context setup() {
     NodeOpsResourcesTest.Context context = new NodeOpsResourcesTest.Context();
     context.dispatcher = createDispatcher();
-    context.cqlService = mock(CqlService.class);
+    context.cqlService = AsyncMocks.mockCqlService();
 
     ManagementApplication app =
         new ManagementApplication(null, null, null, context.cqlService, null);
@@ -0,0 +1,41 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import org.junit.Test;
+
+public class UnixSocketCQLAccessTest {
+  private static final String PROTOCOL_VERSION_PROPERTY =
+      "datastax-java-driver.advanced.protocol.version";
+
+  @Test
+  public void defaultsToProtocolV4() {
+    assertThat(protocolVersion()).isEqualTo("V4");
+  }
+
+  @Test
+  public void opensV5Connections() {
+    System.setProperty(PROTOCOL_VERSION_PROPERTY, "V5");
+    try {
+      assertThat(protocolVersion()).isEqualTo("V5");
+    } finally {
+      System.clearProperty(PROTOCOL_VERSION_PROPERTY);
+    }
+  }
+
+  private static String protocolVersion() {
+    try (DriverConfigLoader loader = UnixSocketCQLAccess.configLoader()) {
+      return loader
+          .getInitialConfig()
+          .getDefaultProfile()
+          .getString(DefaultDriverOption.PROTOCOL_VERSION);
+    }
+  }
+}
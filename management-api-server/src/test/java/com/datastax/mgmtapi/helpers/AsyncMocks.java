@@ -0,0 +1,65 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.helpers;
+
+import static org.mockito.Mockito.mock;
+
+import com.datastax.mgmtapi.CqlService;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import org.jboss.resteasy.core.SynchronousDispatcher;
+import org.jboss.resteasy.core.SynchronousExecutionContext;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.spi.Dispatcher;
+import org.jboss.resteasy.spi.HttpRequest;
+import org.mockito.Answers;
+import org.mockito.invocation.InvocationOnMock;
+
+/** Test support for the resources handling their requests asynchronously. */
+public class AsyncMocks {
+
+  /**
+   * Mock a {@link CqlService} whose asynchronous methods delegate to their synchronous variant, so
+   * the tests stub and verify the synchronous methods whichever one the resources call.
+   */
+  public static CqlService mockCqlService() {
+    return mock(CqlService.class, AsyncMocks::answer);
+  }
+
+  /** Dispatch a request to resources that may suspend it. */
+  public static MockHttpResponse invoke(Dispatcher dispatcher, HttpRequest request) {
+    MockHttpResponse response = new MockHttpResponse();
+    if (request instanceof MockHttpRequest) {
+      ((MockHttpRequest) request)
+          .setAsynchronousContext(
+              new SynchronousExecutionContext(
+                  (SynchronousDispatcher) dispatcher, request, response));
+    }
+    dispatcher.invoke(request, response);
+    return response;
+  }
+
+  private static Object answer(InvocationOnMock invocation) throws Throwable {
+    Method method = invocation.getMethod();
+    String name = method.getName();
+    if (!name.endsWith("Async") || method.getReturnType() == void.class) {
+      return Answers.RETURNS_DEFAULTS.answer(invocation);
+    }
+
+    Method sync =
+        CqlService.class.getMethod(
+            name.substring(0, name.length() - "Async".length()), method.getParameterTypes());
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    try {
+      result.complete(sync.invoke(invocation.getMock(), invocation.getRawArguments()));
+    } catch (InvocationTargetException e) {
+      result.completeExceptionally(e.getCause());
+    }
+    return result;
+  }
+}
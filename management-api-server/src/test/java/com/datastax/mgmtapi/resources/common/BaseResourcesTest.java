@@ -0,0 +1,132 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.datastax.mgmtapi.ManagementApplication;
+import com.datastax.oss.driver.api.core.NoNodeAvailableException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.HttpStatus;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class BaseResourcesTest {
+  private static final String CLOSED = "Internal connection to Cassandra closed";
+
+  private final BaseResources resources =
+      new BaseResources(new ManagementApplication(null, null, null, null, null)) {};
+
+  @Test
+  public void resumesWithTheResponse() {
+    Response response = resume(CompletableFuture.completedFuture(Response.ok("done").build()));
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.SC_OK);
+    assertThat(response.getEntity()).isEqualTo("done");
+  }
+
+  @Test
+  public void mapsAWrappedNoNodeAvailableException() {
+    Response response = resume(failed(new CompletionException(new NoNodeAvailableException())));
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+    assertThat(response.getEntity()).isEqualTo(CLOSED);
+  }
+
+  @Test
+  public void mapsAWrappedConnectionClosedException() {
+    Response response =
+        resume(failed(new CompletionException(new ConnectionClosedException("closed"))));
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+    assertThat(response.getEntity()).isEqualTo(CLOSED);
+  }
+
+  @Test
+  public void mapsTheErrorsOfTheAction() {
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+
+    resources.handleAsync(
+        asyncResponse,
+        () -> {
+          throw new ConnectionClosedException("closed");
+        });
+
+    Response response = resumed(asyncResponse);
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+    assertThat(response.getEntity()).isEqualTo(CLOSED);
+  }
+
+  @Test
+  public void mapsOtherErrorsToTheirMessage() {
+    Response response =
+        resume(failed(new CompletionException(new IllegalStateException("no keyspace"))));
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+    assertThat(response.getEntity()).isEqualTo("no keyspace");
+  }
+
+  @Test
+  public void stepAppliesTheFunction() {
+    Function<String, Integer> step = BaseResources.step(String::length);
+
+    assertThat(step.apply("four")).isEqualTo(4);
+  }
+
+  @Test
+  public void stepWrapsCheckedExceptions() {
+    IOException error = new IOException("failed");
+    Function<String, String> step =
+        BaseResources.step(
+            value -> {
+              throw error;
+            });
+
+    assertThat(catchThrowable(() -> step.apply("value")))
+        .isInstanceOf(CompletionException.class)
+        .hasCause(error);
+  }
+
+  @Test
+  public void stepRethrowsUncheckedExceptions() {
+    IllegalArgumentException error = new IllegalArgumentException("failed");
+    Function<String, String> step =
+        BaseResources.step(
+            value -> {
+              throw error;
+            });
+
+    assertThat(catchThrowable(() -> step.apply("value"))).isSameAs(error);
+  }
+
+  private Response resume(CompletableFuture<Response> stage) {
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    resources.handleAsync(asyncResponse, () -> stage);
+    return resumed(asyncResponse);
+  }
+
+  private static Response resumed(AsyncResponse asyncResponse) {
+    ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+    verify(asyncResponse).resume(response.capture());
+    assertThat(response.getValue()).isInstanceOf(Response.class);
+    return (Response) response.getValue();
+  }
+
+  private static CompletableFuture<Response> failed(Throwable error) {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    result.completeExceptionally(error);
+    return result;
+  }
+}
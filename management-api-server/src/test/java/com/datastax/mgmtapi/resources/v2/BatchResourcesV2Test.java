@@ -0,0 +1,106 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Please see the included license file for details.
+ */
+package com.datastax.mgmtapi.resources.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.datastax.mgmtapi.CqlService;
+import com.datastax.mgmtapi.ManagementApplication;
+import com.datastax.mgmtapi.resources.v2.models.BatchCall;
+import com.datastax.mgmtapi.resources.v2.models.BatchCallResult;
+import com.datastax.mgmtapi.resources.v2.models.BatchRequest;
+import com.datastax.mgmtapi.resources.v2.models.BatchResponse;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import jakarta.ws.rs.core.Response;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class BatchResourcesV2Test {
+
+  @Test
+  public void testBatchSuccess() throws Exception {
+    CqlService mockCqlService = mock(CqlService.class);
+    ManagementApplication app =
+        new ManagementApplication(
+            null, null, new File("/tmp/cassandra.sock"), mockCqlService, null);
+    ResultSet mockResultSet = mock(ResultSet.class);
+    Row replication = mock(Row.class);
+    when(replication.getString("status")).thenReturn(BatchCallResult.OK);
+    when(replication.getString("result")).thenReturn("{\"dc1\":\"3\"}");
+    Row job = mock(Row.class);
+    when(job.getString("status")).thenReturn(BatchCallResult.FAILED);
+    when(job.getString("error")).thenReturn("Job not found");
+    when(mockResultSet.iterator()).thenReturn(Arrays.asList(replication, job).iterator());
+    when(mockCqlService.executePreparedStatement(any(), anyString(), any()))
+        .thenReturn(mockResultSet);
+
+    BatchResourcesV2 unit = new BatchResourcesV2(app);
+    Response resp =
+        unit.batch(
+            new BatchRequest(
+                Arrays.asList(
+                    new BatchCall("getReplication", Collections.singletonList("ks")),
+                    new BatchCall("getJobStatus", Collections.singletonList("abc")))));
+
+    assertEquals(200, resp.getStatus());
+    BatchResponse response = (BatchResponse) resp.getEntity();
+    assertEquals(2, response.results.size());
+    assertEquals("getReplication", response.results.get(0).method);
+    assertEquals(BatchCallResult.OK, response.results.get(0).status);
+    assertEquals("3", response.results.get(0).result.get("dc1").asText());
+    assertEquals("getJobStatus", response.results.get(1).method);
+    assertEquals(BatchCallResult.FAILED, response.results.get(1).status);
+    assertEquals("Job not found", response.results.get(1).error);
+    verify(mockCqlService)
+        .executePreparedStatement(
+            any(),
+            eq("CALL NodeOps.batch(?)"),
+            eq(Arrays.asList("getReplication(ks)", "getJobStatus(abc)")));
+  }
+
+  @Test
+  public void testBatchRejectsWriteOperations() throws Exception {
+    CqlService mockCqlService = mock(CqlService.class);
+    ManagementApplication app =
+        new ManagementApplication(
+            null, null, new File("/tmp/cassandra.sock"), mockCqlService, null);
+
+    BatchResourcesV2 unit = new BatchResourcesV2(app);
+    Response resp =
+        unit.batch(new BatchRequest(Collections.singletonList(new BatchCall("decommission", null))));
+
+    assertEquals(400, resp.getStatus());
+    verifyNoInteractions(mockCqlService);
+  }
+
+  @Test
+  public void testBatchRejectsArgumentsThatAreNotLiterals() throws Exception {
+    CqlService mockCqlService = mock(CqlService.class);
+    ManagementApplication app =
+        new ManagementApplication(
+            null, null, new File("/tmp/cassandra.sock"), mockCqlService, null);
+
+    BatchResourcesV2 unit = new BatchResourcesV2(app);
+    Response resp =
+        unit.batch(
+            new BatchRequest(
+                Collections.singletonList(
+                    new BatchCall("getReplication", Collections.singletonList("ks), drop(")))));
+
+    assertEquals(400, resp.getStatus());
+    verifyNoInteractions(mockCqlService);
+  }
+}